@@ -20,19 +20,40 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Executes commands serially per thread id. By default each thread id gets its own platform thread. If virtual
+ * threads are enabled (see {@link #setUseVirtualThreads(boolean)}) new thread ids are served by a virtual thread
+ * instead, which keeps the ordering per thread id but does not need a platform thread for each id.
+ */
 public class ThreadUtils {
     
-    private static final Map<String, ExecutorService> EXECUTORS = new HashMap<>();
+    private static final Map<String, ThreadPoolExecutor> EXECUTORS = new HashMap<>();
     private static final Map<String, Thread> THREADS = new HashMap<>();
     private static final int POOL_SIZE = 10;
     private static final ExecutorService POOL = Executors.newFixedThreadPool(POOL_SIZE);
+    private static volatile boolean useVirtualThreads;
+
+    /**
+     * Sets whether executors created from now on use virtual threads. Existing executors are not changed, so
+     * this should be set at startup.
+     */
+    public static void setUseVirtualThreads(boolean useVirtualThreads) {
+        ThreadUtils.useVirtualThreads = useVirtualThreads;
+    }
+
+    public static boolean isUseVirtualThreads() {
+        return useVirtualThreads;
+    }
 
     /**
      * Execute the given command in a thread with the given id.
@@ -42,7 +63,7 @@ public class ThreadUtils {
      */
     public static Future<?> execute(Runnable command, String threadId) {
         synchronized (EXECUTORS) {
-            if (!EXECUTORS.containsKey(threadId)) EXECUTORS.put(threadId, Executors.newFixedThreadPool(1));
+            if (!EXECUTORS.containsKey(threadId)) EXECUTORS.put(threadId, newSerialExecutor(threadId));
             return EXECUTORS.get(threadId).submit(() -> {
                 synchronized (THREADS) {
                     THREADS.put(threadId, Thread.currentThread());
@@ -73,7 +94,7 @@ public class ThreadUtils {
 
     public static void shutDown(String threadId, Long timeoutMs) {
         if (timeoutMs == null) timeoutMs = Long.MAX_VALUE;
-        ExecutorService pool = null;
+        ThreadPoolExecutor pool = null;
         synchronized (EXECUTORS) {
             pool = EXECUTORS.get(threadId);
         }
@@ -98,6 +119,27 @@ public class ThreadUtils {
         }
     }
 
+    /**
+     * Returns the number of queued and running commands per thread id, sorted by descending depth.
+     */
+    public static Map<String, Integer> getQueueDepths() {
+        List<Map.Entry<String, Integer>> depths = new ArrayList<>();
+        synchronized (EXECUTORS) {
+            EXECUTORS.forEach((threadId, executor) ->
+                    depths.add(Map.entry(threadId, executor.getQueue().size() + executor.getActiveCount())));
+        }
+        depths.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+        Map<String, Integer> result = new LinkedHashMap<>();
+        depths.forEach(entry -> result.put(entry.getKey(), entry.getValue()));
+        return result;
+    }
+
+    public static int getNumExecutors() {
+        synchronized (EXECUTORS) {
+            return EXECUTORS.size();
+        }
+    }
+
     // TODO: consolidate and cleanup apis
 
     public static Future<?> submitToPool(Runnable task) {
@@ -129,7 +171,9 @@ public class ThreadUtils {
     public static List<Future<?>> awaitTasks(Collection<Runnable> tasks, int maxConcurrency, Long timeoutMs) {
         if (timeoutMs == null) timeoutMs = Long.MAX_VALUE;
         if (tasks.isEmpty()) return new ArrayList<>();
-        ExecutorService executorService = Executors.newFixedThreadPool(tasks.size());
+        ExecutorService executorService = useVirtualThreads ?
+                Executors.newVirtualThreadPerTaskExecutor() :
+                Executors.newFixedThreadPool(tasks.size());
         try {
             List<Future<?>> futures = new ArrayList<>();
             for (Runnable task : tasks) futures.add(executorService.submit(task, null));
@@ -142,6 +186,13 @@ public class ThreadUtils {
         }
     }
 
+    private static ThreadPoolExecutor newSerialExecutor(String threadId) {
+        // A single thread keeps the commands of a thread id in order. If it is virtual it only needs a carrier
+        // thread while it runs a command.
+        return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                useVirtualThreads ? Thread.ofVirtual().name(threadId).factory() : Executors.defaultThreadFactory());
+    }
+
     private static boolean isCurrentThread(Thread thread, String threadId) {
         synchronized (THREADS) {
             if (!THREADS.containsKey(threadId)) return false;
@@ -102,6 +102,8 @@ public class Config {
     public static final String XMR_NODE_PASSWORD = "xmrNodePassword";
     public static final String XMR_NODES = "xmrNodes";
     public static final String USE_NATIVE_XMR_WALLET = "useNativeXmrWallet";
+    public static final String MAX_OPEN_TRADE_WALLETS = "maxOpenTradeWallets";
+    public static final String WALLET_RPC_POOL_SIZE = "walletRpcPoolSize";
     public static final String SOCKS5_DISCOVER_MODE = "socks5DiscoverMode";
     public static final String USE_ALL_PROVIDED_NODES = "useAllProvidedNodes";
     public static final String USER_AGENT = "userAgent";
@@ -120,6 +122,8 @@ public class Config {
     public static final String UPDATE_XMR_BINARIES = "updateXmrBinaries";
     public static final String XMR_BLOCKCHAIN_PATH = "xmrBlockchainPath";
     public static final String DISABLE_RATE_LIMITS = "disableRateLimits";
+    public static final String USE_VIRTUAL_THREADS = "useVirtualThreads";
+    public static final String OFFER_BOOK_BATCH_WINDOW_MS = "offerBookBatchWindowMs";
 
     // Default values for certain options
     public static final int UNSPECIFIED_PORT = -1;
@@ -195,6 +199,8 @@ public class Config {
     public final String xmrNodePassword;
     public final String xmrNodes;
     public final boolean useNativeXmrWallet;
+    public final int maxOpenTradeWallets;
+    public final int walletRpcPoolSize;
     public final UseTorForXmr useTorForXmr;
     public final boolean useTorForXmrOptionSetExplicitly;
     public final String socks5DiscoverMode;
@@ -210,6 +216,8 @@ public class Config {
     public final boolean updateXmrBinaries;
     public final String xmrBlockchainPath;
     public final boolean disableRateLimits;
+    public final boolean useVirtualThreads;
+    public final int offerBookBatchWindowMs;
 
     // Properties derived from options but not exposed as options themselves
     public final File torDir;
@@ -554,6 +562,20 @@ public class Config {
                         .ofType(boolean.class)
                         .defaultsTo(false);
 
+        ArgumentAcceptingOptionSpec<Integer> maxOpenTradeWalletsOpt =
+                parser.accepts(MAX_OPEN_TRADE_WALLETS,
+                        "Maximum number of open trade wallets, least recently used idle trade wallets are closed beyond it (0 for no limit)")
+                        .withRequiredArg()
+                        .ofType(int.class)
+                        .defaultsTo(0);
+
+        ArgumentAcceptingOptionSpec<Integer> walletRpcPoolSizeOpt =
+                parser.accepts(WALLET_RPC_POOL_SIZE,
+                        "Number of idle monero-wallet-rpc processes kept running to open trade wallets without starting a new process")
+                        .withRequiredArg()
+                        .ofType(int.class)
+                        .defaultsTo(0);
+
         //noinspection rawtypes
         ArgumentAcceptingOptionSpec<Enum> useTorForXmrOpt =
                 parser.accepts(USE_TOR_FOR_XMR, "Configure TOR for Monero connections, one of: after_sync, off, or on.")
@@ -648,6 +670,21 @@ public class Config {
                         .ofType(boolean.class)
                         .defaultsTo(false);
 
+        ArgumentAcceptingOptionSpec<Boolean> useVirtualThreadsOpt =
+                parser.accepts(USE_VIRTUAL_THREADS,
+                        "Run the keyed executors of ThreadUtils and the network connections on virtual threads")
+                        .withRequiredArg()
+                        .ofType(boolean.class)
+                        .defaultsTo(false);
+
+        ArgumentAcceptingOptionSpec<Integer> offerBookBatchWindowMsOpt =
+                parser.accepts(OFFER_BOOK_BATCH_WINDOW_MS,
+                        "Time window in ms in which offer book changes get coalesced before notifying listeners. " +
+                                "0 notifies each change immediately")
+                        .withRequiredArg()
+                        .ofType(int.class)
+                        .defaultsTo(100);
+
         try {
             CompositeOptionSet options = new CompositeOptionSet();
 
@@ -747,6 +784,8 @@ public class Config {
             this.xmrNodePassword = options.valueOf(xmrNodePasswordOpt);
             this.xmrNodes = options.valueOf(xmrNodesOpt);
             this.useNativeXmrWallet = options.valueOf(useNativeXmrWalletOpt);
+            this.maxOpenTradeWallets = options.valueOf(maxOpenTradeWalletsOpt);
+            this.walletRpcPoolSize = options.valueOf(walletRpcPoolSizeOpt);
             this.useTorForXmr = (UseTorForXmr) options.valueOf(useTorForXmrOpt);
             this.useTorForXmrOptionSetExplicitly = options.has(useTorForXmrOpt);
             this.socks5DiscoverMode = options.valueOf(socks5DiscoverModeOpt);
@@ -763,6 +802,8 @@ public class Config {
             this.updateXmrBinaries = options.valueOf(updateXmrBinariesOpt);
             this.xmrBlockchainPath = options.valueOf(xmrBlockchainPathOpt);
             this.disableRateLimits = options.valueOf(disableRateLimits);
+            this.useVirtualThreads = options.valueOf(useVirtualThreadsOpt);
+            this.offerBookBatchWindowMs = options.valueOf(offerBookBatchWindowMsOpt);
         } catch (OptionException ex) {
             throw new ConfigException("problem parsing option '%s': %s",
                     ex.options().get(0),
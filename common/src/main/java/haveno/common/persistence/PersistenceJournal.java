@@ -0,0 +1,388 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.common.persistence;
+
+import com.google.common.primitives.Bytes;
+import com.google.common.primitives.Ints;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.Message;
+import haveno.common.crypto.CryptoException;
+import haveno.common.crypto.Encryption;
+import haveno.common.crypto.Hash;
+import haveno.common.crypto.KeyRing;
+import haveno.common.proto.persistable.JournaledPersistableEnvelope;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Journal of changes of a {@link JournaledPersistableEnvelope} since the last snapshot, which is the regular storage
+ * file written by the {@link PersistenceManager}.
+ *
+ * The envelope reports its added and removed entries at mutation time. The entries are keyed by the hash of their
+ * serialized form. At each write we only append the entries which changed since the last write to the journal, so
+ * the cost of a write depends on the size of the change and not on the size of the store. Once the journal got too
+ * large compared to the snapshot we write a new snapshot and delete the journal.
+ *
+ * Changed entries are appended at the end when reading, so the journal must only be used for envelopes where the
+ * order of the entries is not relevant. If a KeyRing is present the records are encrypted like the snapshot.
+ */
+@Slf4j
+class PersistenceJournal implements JournaledPersistableEnvelope.EntryListener {
+    static final String FILE_SUFFIX = ".journal";
+    // We write a new snapshot once the journal is larger than half of the snapshot
+    private static final double MAX_JOURNAL_TO_SNAPSHOT_RATIO = 0.5;
+    private static final long MIN_COMPACTION_SIZE = 64 * 1024;
+
+    private final File journalFile;
+    @Nullable
+    private final KeyRing keyRing;
+
+    // If false the state on disk is unknown and the next write needs to be a snapshot
+    private boolean isSynced;
+    // We only need to track changes if the state on disk is known or a snapshot is being written
+    private boolean isTracking;
+    // Incremented whenever the pending changes get dropped, so a snapshot only counts if no changes were dropped
+    // since it was serialized.
+    private long numResets;
+    // The changes since the last write. A key is either added or removed.
+    private final Map<ByteString, protobuf.PersistenceJournalEntry> addedEntries = new LinkedHashMap<>();
+    private final Set<ByteString> removedKeys = new LinkedHashSet<>();
+    private byte[] snapshotHash = new byte[0];
+    private long snapshotSize;
+    private long journalSize;
+
+    @Getter
+    private final AtomicLong numAppendedRecords = new AtomicLong();
+    @Getter
+    private final AtomicLong numSnapshots = new AtomicLong();
+
+    PersistenceJournal(File dir, String fileName, @Nullable KeyRing keyRing) {
+        this.journalFile = new File(dir, fileName + FILE_SUFFIX);
+        this.keyRing = keyRing;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // JournaledPersistableEnvelope.EntryListener implementation
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public synchronized void onEntryAdded(int fieldNumber, Message entry) {
+        if (!isTracking) {
+            return;
+        }
+        ByteString data = entry.toByteString();
+        ByteString key = getKey(fieldNumber, data);
+        removedKeys.remove(key);
+        addedEntries.put(key, protobuf.PersistenceJournalEntry.newBuilder()
+                .setFieldNumber(fieldNumber)
+                .setKey(key)
+                .setData(data)
+                .build());
+    }
+
+    @Override
+    public synchronized void onEntryRemoved(int fieldNumber, Message entry) {
+        if (!isTracking) {
+            return;
+        }
+        ByteString key = getKey(fieldNumber, entry.toByteString());
+        addedEntries.remove(key);
+        removedKeys.add(key);
+    }
+
+    @Override
+    public synchronized void onEntriesReplaced() {
+        reset();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    boolean exists() {
+        return journalFile.exists();
+    }
+
+    /**
+     * Applies the journal to the given snapshot. Does not change the state of the journal, as we don't know yet if
+     * the envelope read from it gets used.
+     *
+     * @param snapshot          The envelope read from the snapshot
+     * @param snapshotFileBytes The content of the snapshot file. The journal is only applied if it was written for
+     *                          that snapshot.
+     * @return The envelope with all changes of the journal applied
+     */
+    synchronized protobuf.PersistableEnvelope replay(protobuf.PersistableEnvelope snapshot, byte[] snapshotFileBytes)
+            throws IOException {
+        if (!journalFile.exists()) {
+            return snapshot;
+        }
+        Descriptors.FieldDescriptor envelopeField = getEnvelopeField(snapshot);
+        if (envelopeField == null) {
+            return snapshot;
+        }
+
+        byte[] snapshotFileHash = Hash.getSha256Hash(snapshotFileBytes);
+        Message message = (Message) snapshot.getField(envelopeField);
+        Map<ByteString, protobuf.PersistenceJournalEntry> entries = getEntries(message);
+        int numRecords = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(journalFile)))) {
+            protobuf.PersistenceJournalRecord record;
+            while ((record = readRecord(in)) != null) {
+                if (numRecords == 0 && !Arrays.equals(record.getSnapshotHash().toByteArray(), snapshotFileHash)) {
+                    log.warn("Journal {} was not written for the current snapshot. We ignore it.", journalFile.getName());
+                    break;
+                }
+                record.getRemovedKeysList().forEach(entries::remove);
+                record.getAddedEntriesList().forEach(entry -> entries.put(entry.getKey(), entry));
+                numRecords++;
+            }
+        } catch (IOException | CryptoException e) {
+            // The last record might be incomplete if we got terminated while writing it. All records before are
+            // valid as we sync after each record.
+            log.warn("Reading journal {} failed after {} records. {}", journalFile.getName(), numRecords, e.toString());
+        }
+
+        if (numRecords == 0) {
+            return snapshot;
+        }
+        log.info("Applied {} journal records to {}", numRecords, journalFile.getName());
+        return join(envelopeField, message, entries);
+    }
+
+    /**
+     * Takes the changes since the last write.
+     *
+     * @return The record to append or null if a new snapshot needs to be written instead. In that case the caller
+     * has to call {@link #onSnapshotStarted()} before serializing the envelope.
+     */
+    @Nullable
+    synchronized protobuf.PersistenceJournalRecord pollRecord() {
+        if (!isSynced || journalSize > Math.max(MIN_COMPACTION_SIZE, snapshotSize * MAX_JOURNAL_TO_SNAPSHOT_RATIO)) {
+            return null;
+        }
+        protobuf.PersistenceJournalRecord record = protobuf.PersistenceJournalRecord.newBuilder()
+                .addAllRemovedKeys(removedKeys)
+                .addAllAddedEntries(addedEntries.values())
+                .build();
+        removedKeys.clear();
+        addedEntries.clear();
+        return record;
+    }
+
+    /**
+     * Appends a record taken by {@link #pollRecord()} to the journal. Called on the write thread.
+     *
+     * @return False if appending failed. The changes of the record are lost then and a new snapshot needs to be
+     * written.
+     */
+    synchronized boolean append(protobuf.PersistenceJournalRecord record) {
+        if (record.getRemovedKeysCount() == 0 && record.getAddedEntriesCount() == 0) {
+            return true;
+        }
+        if (!isSynced) {
+            // The changes got reset while the record was pending, the next snapshot will contain them
+            return false;
+        }
+        if (journalSize == 0) {
+            record = record.toBuilder().setSnapshotHash(ByteString.copyFrom(snapshotHash)).build();
+        }
+
+        try {
+            byte[] bytes = record.toByteArray();
+            if (keyRing != null) {
+                bytes = Encryption.encryptPayloadWithHmac(bytes, keyRing.getSymmetricKey());
+            }
+            try (FileOutputStream fileOutputStream = new FileOutputStream(journalFile, true);
+                 DataOutputStream out = new DataOutputStream(fileOutputStream)) {
+                out.writeInt(bytes.length);
+                out.write(bytes);
+                out.flush();
+                fileOutputStream.getFD().sync();
+            }
+            journalSize += Integer.BYTES + bytes.length;
+        } catch (IOException | CryptoException e) {
+            // The journal might be corrupted now, so we force a new snapshot
+            log.warn("Appending to journal {} failed. {}", journalFile.getName(), e.toString());
+            reset();
+            return false;
+        }
+
+        numAppendedRecords.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Called before the envelope gets serialized for a new snapshot. The snapshot contains all changes reported so
+     * far.
+     *
+     * @return The id to pass to {@link #onSnapshotWritten(long, byte[])}
+     */
+    synchronized long onSnapshotStarted() {
+        reset();
+        isTracking = true;
+        return numResets;
+    }
+
+    /**
+     * Called on the write thread after the snapshot was written.
+     */
+    synchronized void onSnapshotWritten(long snapshotId, byte[] snapshotFileBytes) {
+        if (!deleteJournal() || snapshotId != numResets) {
+            return;
+        }
+        isSynced = true;
+        snapshotHash = Hash.getSha256Hash(snapshotFileBytes);
+        snapshotSize = snapshotFileBytes.length;
+        journalSize = 0;
+        numSnapshots.incrementAndGet();
+    }
+
+    /**
+     * Called if writing to disk was skipped or failed.
+     */
+    synchronized void onWriteFailed() {
+        reset();
+    }
+
+    synchronized void onSnapshotMissing() {
+        reset();
+        deleteJournal();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void reset() {
+        isSynced = false;
+        isTracking = false;
+        numResets++;
+        removedKeys.clear();
+        addedEntries.clear();
+    }
+
+    @Nullable
+    private protobuf.PersistenceJournalRecord readRecord(DataInputStream in) throws IOException, CryptoException {
+        int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (length <= 0 || length > journalFile.length()) {
+            throw new IOException("Invalid record length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        if (keyRing != null) {
+            bytes = Encryption.decryptPayloadWithHmac(bytes, keyRing.getSymmetricKey());
+        }
+        return protobuf.PersistenceJournalRecord.parseFrom(bytes);
+    }
+
+    private boolean deleteJournal() {
+        try {
+            Files.deleteIfExists(journalFile.toPath());
+            return true;
+        } catch (IOException e) {
+            log.error("Deleting journal {} failed", journalFile.getName(), e);
+            return false;
+        }
+    }
+
+    private static ByteString getKey(int fieldNumber, ByteString data) {
+        return ByteString.copyFrom(Hash.getSha256Hash(Bytes.concat(Ints.toByteArray(fieldNumber), data.toByteArray())));
+    }
+
+    // Returns null if the envelope does not contain a message with entries.
+    @Nullable
+    private static Descriptors.FieldDescriptor getEnvelopeField(protobuf.PersistableEnvelope envelope) {
+        Map<Descriptors.FieldDescriptor, Object> fields = envelope.getAllFields();
+        if (fields.size() != 1) {
+            return null;
+        }
+        Descriptors.FieldDescriptor envelopeField = fields.keySet().iterator().next();
+        return envelopeField.getJavaType() == Descriptors.FieldDescriptor.JavaType.MESSAGE ? envelopeField : null;
+    }
+
+    private static Map<ByteString, protobuf.PersistenceJournalEntry> getEntries(Message message) {
+        Map<ByteString, protobuf.PersistenceJournalEntry> entries = new LinkedHashMap<>();
+        for (Descriptors.FieldDescriptor field : message.getDescriptorForType().getFields()) {
+            if (!isEntryField(field)) {
+                continue;
+            }
+            int count = message.getRepeatedFieldCount(field);
+            for (int i = 0; i < count; i++) {
+                ByteString data = ((Message) message.getRepeatedField(field, i)).toByteString();
+                ByteString key = getKey(field.getNumber(), data);
+                entries.put(key, protobuf.PersistenceJournalEntry.newBuilder()
+                        .setFieldNumber(field.getNumber())
+                        .setKey(key)
+                        .setData(data)
+                        .build());
+            }
+        }
+        return entries;
+    }
+
+    private static protobuf.PersistableEnvelope join(Descriptors.FieldDescriptor envelopeField,
+                                                     Message snapshotMessage,
+                                                     Map<ByteString, protobuf.PersistenceJournalEntry> entries)
+            throws IOException {
+        Message.Builder messageBuilder = snapshotMessage.toBuilder();
+        for (Descriptors.FieldDescriptor field : messageBuilder.getDescriptorForType().getFields()) {
+            if (isEntryField(field)) {
+                messageBuilder.clearField(field);
+            }
+        }
+        for (protobuf.PersistenceJournalEntry entry : entries.values()) {
+            Descriptors.FieldDescriptor field = messageBuilder.getDescriptorForType().findFieldByNumber(entry.getFieldNumber());
+            if (field == null || !isEntryField(field)) {
+                throw new IOException("Invalid field number " + entry.getFieldNumber() + " in journal entry");
+            }
+            messageBuilder.addRepeatedField(field, messageBuilder.newBuilderForField(field).mergeFrom(entry.getData()).build());
+        }
+        return protobuf.PersistableEnvelope.newBuilder().setField(envelopeField, messageBuilder.build()).build();
+    }
+
+    private static boolean isEntryField(Descriptors.FieldDescriptor field) {
+        return field.isRepeated() && field.getJavaType() == Descriptors.FieldDescriptor.JavaType.MESSAGE;
+    }
+}
@@ -17,7 +17,9 @@
 
 package haveno.common.persistence;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import com.google.protobuf.Message;
 import com.google.inject.Inject;
 import com.google.inject.name.Named;
 import haveno.common.Timer;
@@ -30,12 +32,14 @@ import haveno.common.crypto.KeyRing;
 import haveno.common.file.CorruptedStorageFileHandler;
 import haveno.common.file.FileUtil;
 import haveno.common.handlers.ResultHandler;
+import haveno.common.proto.persistable.JournaledPersistableEnvelope;
 import haveno.common.proto.persistable.PersistableEnvelope;
 import haveno.common.proto.persistable.PersistenceProtoResolver;
 import haveno.common.util.GcUtil;
 import static haveno.common.util.Preconditions.checkDir;
 import haveno.common.util.SingleThreadExecutorUtils;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -48,7 +52,9 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import javax.annotation.Nullable;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -79,6 +85,8 @@ public class PersistenceManager<T extends PersistableEnvelope> {
     public static final Map<String, PersistenceManager<?>> ALL_PERSISTENCE_MANAGERS = new HashMap<>();
     private static boolean flushAtShutdownCalled;
     private static final AtomicBoolean allServicesInitialized = new AtomicBoolean(false);
+    // Time spent for serialization on the write threads instead of the user thread
+    private static final AtomicLong USER_THREAD_TIME_SAVED_MS = new AtomicLong();
 
     public static void onAllServicesInitialized() {
         allServicesInitialized.set(true);
@@ -92,6 +100,10 @@ public class PersistenceManager<T extends PersistableEnvelope> {
         });
     }
 
+    public static long getUserThreadTimeSavedMs() {
+        return USER_THREAD_TIME_SAVED_MS.get();
+    }
+
     public static void flushAllDataToDiskAtBackup(ResultHandler completeHandler) {
         flushAllDataToDisk(completeHandler, false);
     }
@@ -132,6 +144,7 @@ public class PersistenceManager<T extends PersistableEnvelope> {
             }
 
             log.info("Start flushAllDataToDisk");
+            long userThreadTimeSavedAtStart = USER_THREAD_TIME_SAVED_MS.get();
             AtomicInteger openInstances = new AtomicInteger(ALL_PERSISTENCE_MANAGERS.size());
 
             if (openInstances.get() == 0) {
@@ -154,14 +167,14 @@ public class PersistenceManager<T extends PersistableEnvelope> {
                     // We get our result handler called from the write thread so we map back to user thread.
                     try {
                         persistenceManager.persistNow(() ->
-                            UserThread.execute(() -> onWriteCompleted(completeHandler, openInstances, persistenceManager, doShutdown)));
+                            UserThread.execute(() -> onWriteCompleted(completeHandler, openInstances, persistenceManager, doShutdown, userThreadTimeSavedAtStart)));
                     } catch (Exception e) {
                         if (!doShutdown) throw e; // only complete if shutting down
                         log.warn("Error flushing data to disk on shut down. Calling completeHandler.");
-                        UserThread.execute(() -> onWriteCompleted(completeHandler, openInstances, persistenceManager, doShutdown));
+                        UserThread.execute(() -> onWriteCompleted(completeHandler, openInstances, persistenceManager, doShutdown, userThreadTimeSavedAtStart));
                     }
                 } else {
-                    onWriteCompleted(completeHandler, openInstances, persistenceManager, doShutdown);
+                    onWriteCompleted(completeHandler, openInstances, persistenceManager, doShutdown, userThreadTimeSavedAtStart);
                 }
             });
         });
@@ -171,13 +184,15 @@ public class PersistenceManager<T extends PersistableEnvelope> {
     private static void onWriteCompleted(ResultHandler completeHandler,
                                          AtomicInteger openInstances,
                                          PersistenceManager<?> persistenceManager,
-                                         boolean doShutdown) {
+                                         boolean doShutdown,
+                                         long userThreadTimeSavedAtStart) {
         if (doShutdown) {
             persistenceManager.shutdown();
         }
 
         if (openInstances.decrementAndGet() == 0) {
-            log.info("flushAllDataToDisk completed");
+            log.info("flushAllDataToDisk completed. Serialization on the write threads saved {} ms on the user thread.",
+                    USER_THREAD_TIME_SAVED_MS.get() - userThreadTimeSavedAtStart);
             completeHandler.handleResult();
         }
     }
@@ -216,6 +231,7 @@ public class PersistenceManager<T extends PersistableEnvelope> {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private final File dir;
+    @Getter
     private final PersistenceProtoResolver persistenceProtoResolver;
     private final CorruptedStorageFileHandler corruptedStorageFileHandler;
     @Nullable
@@ -229,6 +245,8 @@ public class PersistenceManager<T extends PersistableEnvelope> {
     @Nullable
     private Timer timer;
     private ExecutorService writeToDiskExecutor;
+    @Nullable
+    private PersistenceJournal journal;
     public final AtomicBoolean initCalled = new AtomicBoolean(false);
     public final AtomicBoolean readCalled = new AtomicBoolean(false);
 
@@ -286,6 +304,18 @@ public class PersistenceManager<T extends PersistableEnvelope> {
         ALL_PERSISTENCE_MANAGERS.put(fileName, this);
     }
 
+    /**
+     * Persist changes as a journal of added and removed entries next to the storage file instead of rewriting the
+     * whole file at each write. Only suitable for data where the order of the entries in the lists is not relevant.
+     * Needs to be called after initialize. The first write after enabling the journal is a full snapshot.
+     */
+    public void enableJournal() {
+        checkArgument(persistable instanceof JournaledPersistableEnvelope,
+                "A journal requires a JournaledPersistableEnvelope");
+        journal = new PersistenceJournal(dir, checkNotNull(fileName, "initialize must be called before enableJournal"), keyRing);
+        ((JournaledPersistableEnvelope) persistable).setEntryListener(journal);
+    }
+
     public void shutdown() {
         ALL_PERSISTENCE_MANAGERS.remove(fileName);
 
@@ -360,16 +390,25 @@ public class PersistenceManager<T extends PersistableEnvelope> {
 
         readCalled.set(true);
 
+        // We apply the journal of the storage file even if we have not enabled the journal yet, as stores enable
+        // it only once they got read.
+        PersistenceJournal storageFileJournal = journal != null && fileName.equals(this.fileName)
+                ? journal
+                : new PersistenceJournal(dir, fileName, keyRing);
         File storageFile = new File(dir, fileName);
         if (!storageFile.exists()) {
+            if (storageFileJournal.exists()) {
+                storageFileJournal.onSnapshotMissing();
+            }
             return null;
         }
 
         long ts = System.currentTimeMillis();
         try (FileInputStream fileInputStream = new FileInputStream(storageFile)) {
             protobuf.PersistableEnvelope proto;
+            byte[] fileBytes = fileInputStream.readAllBytes();
             if (keyRing != null) {
-                byte[] encryptedBytes = fileInputStream.readAllBytes();
+                byte[] encryptedBytes = fileBytes;
                 try {
                     byte[] decryptedBytes = Encryption.decryptPayloadWithHmac(encryptedBytes, keyRing.getSymmetricKey());
                     proto = protobuf.PersistableEnvelope.parseFrom(decryptedBytes);
@@ -379,9 +418,11 @@ public class PersistenceManager<T extends PersistableEnvelope> {
                     proto = protobuf.PersistableEnvelope.parseDelimitedFrom(bs);
                 }
             } else {
-                proto = protobuf.PersistableEnvelope.parseDelimitedFrom(fileInputStream);
+                proto = protobuf.PersistableEnvelope.parseDelimitedFrom(new ByteArrayInputStream(fileBytes));
             }
 
+            proto = storageFileJournal.replay(proto, fileBytes);
+
             //noinspection unchecked
             T persistableEnvelope = (T) persistenceProtoResolver.fromProto(proto);
             log.info("Reading {} completed in {} ms", fileName, System.currentTimeMillis() - ts);
@@ -455,14 +496,52 @@ public class PersistenceManager<T extends PersistableEnvelope> {
     private synchronized void persistNow(@Nullable Runnable completeHandler, boolean force) {
         long ts = System.currentTimeMillis();
         try {
+            // If we have a journal we only write the changes reported since the last write
+            long snapshotId = 0;
+            if (journal != null) {
+                protobuf.PersistenceJournalRecord record = journal.pollRecord();
+                if (record != null) {
+                    getWriteToDiskExecutor().execute(() -> appendToJournal(record, completeHandler, force));
+                    return;
+                }
+                snapshotId = journal.onSnapshotStarted();
+            }
+            long journalSnapshotId = snapshotId;
+
             // The serialisation is done on the user thread to avoid threading issue with potential mutations of the
             // persistable object. Keeping it on the user thread we are in a synchronize model.
-            protobuf.PersistableEnvelope serialized = (protobuf.PersistableEnvelope) persistable.toPersistableMessage();
+            // Persistables which are safe to serialize on another thread only copy their list here and defer the
+            // serialization to the write thread.
+            Supplier<Message> messageSupplier = persistable.getPersistableMessageSupplier();
 
             // For the write to disk task we use a thread. We do not have any issues anymore if the persistable objects
-            // gets mutated while the thread is running as we have serialized it already and do not operate on the
-            // reference to the persistable object.
-            getWriteToDiskExecutor().execute(() -> writeToDisk(serialized, completeHandler, force));
+            // gets mutated while the thread is running as we have serialized it already or the persistable is safe to
+            // serialize on the write thread.
+            getWriteToDiskExecutor().execute(() -> {
+                protobuf.PersistableEnvelope serialized;
+                long serializationTs = System.currentTimeMillis();
+                try {
+                    serialized = (protobuf.PersistableEnvelope) messageSupplier.get();
+                } catch (Throwable e) {
+                    log.error("Error in saveToFile toProtoMessage: {}, {}", persistable.getClass().getSimpleName(), fileName, e);
+                    if (journal != null) {
+                        journal.onWriteFailed();
+                    }
+                    if (completeHandler != null) {
+                        UserThread.execute(completeHandler);
+                    }
+                    return;
+                }
+                // Other suppliers return the message serialized on the user thread
+                if (messageSupplier instanceof PersistableEnvelope.DeferredMessageSupplier) {
+                    long duration = System.currentTimeMillis() - serializationTs;
+                    USER_THREAD_TIME_SAVED_MS.addAndGet(duration);
+                    if (duration > 100) {
+                        log.info("Serializing {} on the write thread took {} msec", fileName, duration);
+                    }
+                }
+                writeToDisk(serialized, completeHandler, force, journalSnapshotId);
+            });
 
             long duration = System.currentTimeMillis() - ts;
             if (duration > 100) {
@@ -475,19 +554,32 @@ public class PersistenceManager<T extends PersistableEnvelope> {
         }
     }
 
-    private void writeToDisk(protobuf.PersistableEnvelope serialized, @Nullable Runnable completeHandler, boolean force) {
-        if (!allServicesInitialized.get() && !force) {
-            log.warn("Application has not completed start up yet so we do not permit writing data to disk.");
-            if (completeHandler != null) {
-                UserThread.execute(completeHandler);
-            }
+    private void appendToJournal(protobuf.PersistenceJournalRecord record, @Nullable Runnable completeHandler, boolean force) {
+        if (!isWriteToDiskPermitted(completeHandler, force)) {
             return;
         }
-        if (keyRing != null && !keyRing.isUnlocked()) {
-            log.warn("Account is not open, ignoring writeToDisk.");
-            if (completeHandler != null) {
-                UserThread.execute(completeHandler);
-            }
+
+        long ts = System.currentTimeMillis();
+        if (!checkNotNull(journal).append(record)) {
+            // The changes of the record are lost, so we write a snapshot instead
+            UserThread.execute(() -> persistNow(completeHandler, force));
+            return;
+        }
+        long duration = System.currentTimeMillis() - ts;
+        if (duration > 100) {
+            log.info("Writing the journal of {} completed in {} msec", fileName, duration);
+        }
+        persistenceRequested = false;
+        if (completeHandler != null) {
+            UserThread.execute(completeHandler);
+        }
+    }
+
+    private void writeToDisk(protobuf.PersistableEnvelope serialized,
+                             @Nullable Runnable completeHandler,
+                             boolean force,
+                             long journalSnapshotId) {
+        if (!isWriteToDiskPermitted(completeHandler, force)) {
             return;
         }
 
@@ -510,12 +602,15 @@ public class PersistenceManager<T extends PersistableEnvelope> {
 
             fileOutputStream = new FileOutputStream(tempFile);
 
+            byte[] fileBytes;
             if (keyRing != null) {
-                byte[] encryptedBytes = Encryption.encryptPayloadWithHmac(serialized.toByteArray(), keyRing.getSymmetricKey());
-                fileOutputStream.write(encryptedBytes);
+                fileBytes = Encryption.encryptPayloadWithHmac(serialized.toByteArray(), keyRing.getSymmetricKey());
             } else {
-                serialized.writeDelimitedTo(fileOutputStream);
+                ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+                serialized.writeDelimitedTo(byteArrayOutputStream);
+                fileBytes = byteArrayOutputStream.toByteArray();
             }
+            fileOutputStream.write(fileBytes);
 
             // Attempt to force the bits to hit the disk. In reality the OS or hard disk itself may still decide
             // to not write through to physical media for at least a few seconds, but this is the best we can do.
@@ -528,9 +623,17 @@ public class PersistenceManager<T extends PersistableEnvelope> {
 
             FileUtil.renameFile(tempFile, storageFile);
             usedTempFilePath = tempFile.toPath();
+
+            // The new snapshot contains all changes of the journal
+            if (journal != null) {
+                journal.onSnapshotWritten(journalSnapshotId, fileBytes);
+            }
         } catch (Throwable t) {
             // If an error occurred, don't attempt to reuse this path again, in case temp file cleanup fails.
             usedTempFilePath = null;
+            if (journal != null) {
+                journal.onWriteFailed();
+            }
             log.error("Error at saveToFile, storageFile={}", fileName, t);
         } finally {
             if (tempFile != null && tempFile.exists()) {
@@ -560,6 +663,25 @@ public class PersistenceManager<T extends PersistableEnvelope> {
         }
     }
 
+    // Returns false and completes if we must not write to disk yet. Changes taken from the journal get lost then, so
+    // the next write will be a snapshot.
+    private boolean isWriteToDiskPermitted(@Nullable Runnable completeHandler, boolean force) {
+        if (!allServicesInitialized.get() && !force) {
+            log.warn("Application has not completed start up yet so we do not permit writing data to disk.");
+        } else if (keyRing != null && !keyRing.isUnlocked()) {
+            log.warn("Account is not open, ignoring writeToDisk.");
+        } else {
+            return true;
+        }
+        if (journal != null) {
+            journal.onWriteFailed();
+        }
+        if (completeHandler != null) {
+            UserThread.execute(completeHandler);
+        }
+        return false;
+    }
+
     private ExecutorService getWriteToDiskExecutor() {
         if (writeToDiskExecutor == null) {
             String name = "Write-" + fileName + "_to-disk";
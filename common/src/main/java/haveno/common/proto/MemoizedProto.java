@@ -0,0 +1,114 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.common.proto;
+
+import com.google.protobuf.Message;
+import haveno.common.app.DevEnv;
+import haveno.common.crypto.Hash;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.function.Supplier;
+
+/**
+ * Memoizes the proto message and its SHA-256 hash of a payload. Only for payloads which do not change after the
+ * proto got built, otherwise the payload has to call reset at each change. Proto messages are immutable, so the
+ * memoized message can be shared by all callers.
+ *
+ * We verify that the payload was not changed since the proto got memoized. In dev mode we check at each access
+ * and fail on a change. Otherwise we check only each CHECK_INTERVAL-th access, as a check costs a full proto
+ * build, and on a change we log an error and replace the outdated memo.
+ */
+@Slf4j
+public final class MemoizedProto<M extends Message> {
+    static final int CHECK_INTERVAL = 1000;
+
+    // We keep the proto and its hash together, so a reset cannot leave a hash of an outdated proto
+    private static final class Memo<M> {
+        private final M proto;
+        private volatile byte[] sha256Hash;
+
+        private Memo(M proto) {
+            this.proto = proto;
+        }
+    }
+
+    private final Supplier<M> protoBuilder;
+    private volatile Memo<M> memo;
+    // Not synchronized, as a lost increment only delays the next check
+    private int numAccessesSinceCheck;
+
+    public MemoizedProto(Supplier<M> protoBuilder) {
+        this.protoBuilder = protoBuilder;
+    }
+
+    public M get() {
+        return getMemo().proto;
+    }
+
+    /**
+     * @return SHA-256 hash of the serialized proto. The returned array must not be modified.
+     */
+    public byte[] getSha256Hash() {
+        Memo<M> current = getMemo();
+        byte[] result = current.sha256Hash;
+        if (result == null) {
+            result = Hash.getSha256Hash(current.proto.toByteArray());
+            current.sha256Hash = result;
+        }
+        return result;
+    }
+
+    /**
+     * Needs to be called if the payload got changed.
+     */
+    public void reset() {
+        memo = null;
+    }
+
+    private Memo<M> getMemo() {
+        Memo<M> current = memo;
+        if (current == null) {
+            current = new Memo<>(protoBuilder.get());
+            memo = current;
+        } else if (isCheckDue()) {
+            M proto = protoBuilder.get();
+            if (!current.proto.equals(proto)) {
+                String errorMessage = "Payload was changed after its proto got memoized. " +
+                        "Proto type: " + current.proto.getClass().getSimpleName();
+                if (DevEnv.isDevMode()) {
+                    throw new IllegalStateException(errorMessage);
+                }
+                log.error(errorMessage);
+                current = new Memo<>(proto);
+                memo = current;
+            }
+        }
+        return current;
+    }
+
+    private boolean isCheckDue() {
+        if (DevEnv.isDevMode()) {
+            return true;
+        }
+        if (++numAccessesSinceCheck < CHECK_INTERVAL) {
+            return false;
+        }
+        numAccessesSinceCheck = 0;
+        return true;
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.common.proto.network;
+
+/**
+ * Payload which memoizes its proto message and the SHA-256 hash of it, see MemoizedProto.
+ */
+public interface HashMemoizingPayload extends NetworkPayload {
+
+    /**
+     * @return SHA-256 hash of the serialized proto message. The returned array must not be modified.
+     */
+    byte[] getSha256Hash();
+}
@@ -0,0 +1,49 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.common.proto.persistable;
+
+import com.google.protobuf.Message;
+
+import javax.annotation.Nullable;
+
+/**
+ * PersistableEnvelope which reports the changes of its entries when they happen, so the PersistenceManager can
+ * persist them as a journal without serializing the whole envelope.
+ *
+ * The entries are the elements of the repeated message fields of the envelope. The envelope must not contain any
+ * other data, as only the entries are journaled.
+ */
+public interface JournaledPersistableEnvelope extends PersistableEnvelope {
+
+    interface EntryListener {
+        /**
+         * @param fieldNumber The number of the repeated field of the envelope message holding the entry
+         * @param entry       The serialized entry
+         */
+        void onEntryAdded(int fieldNumber, Message entry);
+
+        void onEntryRemoved(int fieldNumber, Message entry);
+
+        /**
+         * Called if the entries got replaced without reporting the single changes.
+         */
+        void onEntriesReplaced();
+    }
+
+    void setEntryListener(@Nullable EntryListener entryListener);
+}
@@ -20,6 +20,8 @@ package haveno.common.proto.persistable;
 import com.google.protobuf.Message;
 import haveno.common.Envelope;
 
+import java.util.function.Supplier;
+
 /**
  * Interface for the outside envelope object persisted to disk.
  */
@@ -29,6 +31,23 @@ public interface PersistableEnvelope extends Envelope {
         return toProtoMessage();
     }
 
+    /**
+     * Gets called on the user thread when the envelope gets persisted. The returned supplier is called on the thread
+     * which writes to disk. By default we serialize on the calling thread. Envelopes which are safe to serialize on
+     * another thread can defer the serialization to the supplier so it does not block the user thread.
+     */
+    default Supplier<Message> getPersistableMessageSupplier() {
+        Message message = toPersistableMessage();
+        return () -> message;
+    }
+
+    /**
+     * Marks a supplier returned by getPersistableMessageSupplier which serializes the envelope when it is called.
+     */
+    @FunctionalInterface
+    interface DeferredMessageSupplier extends Supplier<Message> {
+    }
+
     default String getDefaultStorageFileName() {
         return this.getClass().getSimpleName();
     }
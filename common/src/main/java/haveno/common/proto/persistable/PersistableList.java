@@ -17,12 +17,15 @@
 
 package haveno.common.proto.persistable;
 
+import com.google.protobuf.Message;
 import lombok.Getter;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 public abstract class PersistableList<T extends PersistablePayload> implements PersistableEnvelope {
@@ -99,4 +102,18 @@ public abstract class PersistableList<T extends PersistablePayload> implements P
             list.clear();
         }
     }
+
+    /**
+     * Copies the list on the calling thread and serializes the copied items with the given serializer when the
+     * supplier is called on the thread which writes to disk. Only the list is copied, so the items are serialized
+     * with their state at that time. Subclasses can use it for getPersistableMessageSupplier if their items are
+     * immutable or safe to serialize on another thread.
+     */
+    protected Supplier<Message> getDeferredMessageSupplier(Function<List<T>, Message> serializer) {
+        List<T> items;
+        synchronized (list) {
+            items = new ArrayList<>(list);
+        }
+        return (DeferredMessageSupplier) () -> serializer.apply(items);
+    }
 }
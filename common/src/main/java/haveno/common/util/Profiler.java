@@ -17,10 +17,12 @@
 
 package haveno.common.util;
 
+import haveno.common.ThreadUtils;
 import haveno.common.UserThread;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Slf4j
 public class Profiler {
@@ -40,6 +42,10 @@ public class Profiler {
                 Utilities.readableFileSize(free),
                 Utilities.readableFileSize(runtime.maxMemory()),
                 Thread.activeCount());
+        log.info("No. of ThreadUtils executors: {}; Virtual threads: {}; Largest queue depths: {}",
+                ThreadUtils.getNumExecutors(),
+                ThreadUtils.isUseVirtualThreads(),
+                ThreadUtils.getQueueDepths().entrySet().stream().limit(5).collect(Collectors.toList()));
     }
 
     public static long getUsedMemoryInMB() {
@@ -54,6 +54,11 @@ public class SingleThreadExecutorUtils {
         return MoreExecutors.listeningDecorator(getSingleThreadExecutor(name));
     }
 
+    public static ExecutorService getSingleVirtualThreadExecutor(String name) {
+        validateName(name);
+        return Executors.newSingleThreadExecutor(Thread.ofVirtual().name(name).factory());
+    }
+
     public static ExecutorService getSingleThreadExecutor(ThreadFactory threadFactory) {
         validateThreadFactory(threadFactory);
         return Executors.newSingleThreadExecutor(threadFactory);
@@ -0,0 +1,86 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.common;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ThreadUtilsTest {
+    private static final String THREAD_ID = ThreadUtilsTest.class.getSimpleName();
+
+    @AfterEach
+    public void tearDown() {
+        ThreadUtils.shutDown(THREAD_ID, 1000L);
+        ThreadUtils.setUseVirtualThreads(false);
+    }
+
+    @Test
+    public void execute_withVirtualThreads_keepsOrderPerThreadId() {
+        ThreadUtils.setUseVirtualThreads(true);
+        List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+        List<Boolean> virtual = Collections.synchronizedList(new ArrayList<>());
+        IntStream.range(0, 100).forEach(i -> ThreadUtils.execute(() -> {
+            executed.add(i);
+            virtual.add(Thread.currentThread().isVirtual());
+        }, THREAD_ID));
+        ThreadUtils.await(() -> {}, THREAD_ID);
+
+        assertEquals(IntStream.range(0, 100).boxed().collect(Collectors.toList()), executed);
+        assertFalse(virtual.contains(false));
+    }
+
+    @Test
+    public void execute_withoutVirtualThreads_usesPlatformThread() {
+        List<Boolean> virtual = new ArrayList<>();
+        ThreadUtils.await(() -> virtual.add(Thread.currentThread().isVirtual()), THREAD_ID);
+
+        assertEquals(List.of(false), virtual);
+    }
+
+    @Test
+    public void getQueueDepths_countsQueuedAndRunningCommands() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch blocker = new CountDownLatch(1);
+        ThreadUtils.execute(() -> {
+            started.countDown();
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, THREAD_ID);
+        ThreadUtils.execute(() -> {}, THREAD_ID);
+        started.await();
+
+        assertEquals(2, ThreadUtils.getQueueDepths().get(THREAD_ID));
+        assertTrue(ThreadUtils.getNumExecutors() >= 1);
+
+        blocker.countDown();
+    }
+}
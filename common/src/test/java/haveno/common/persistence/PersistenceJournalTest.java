@@ -0,0 +1,160 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.common.persistence;
+
+import com.google.protobuf.ByteString;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PersistenceJournalTest {
+    private static final byte[] SNAPSHOT_FILE_BYTES = new byte[]{1, 2, 3};
+    private static final int FIELD_NUMBER = protobuf.SequenceNumberMap.SEQUENCE_NUMBER_ENTRIES_FIELD_NUMBER;
+
+    private File dir;
+    private PersistenceJournal journal;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("PersistenceJournalTest").toFile();
+        dir.deleteOnExit();
+        journal = new PersistenceJournal(dir, "SequenceNumberMap", null);
+    }
+
+    private static protobuf.SequenceNumberEntry buildEntry(int index, int sequenceNumber) {
+        return protobuf.SequenceNumberEntry.newBuilder()
+                .setBytes(protobuf.ByteArray.newBuilder().setBytes(ByteString.copyFrom(new byte[]{(byte) index})))
+                .setMapValue(protobuf.MapValue.newBuilder().setSequenceNr(sequenceNumber))
+                .build();
+    }
+
+    private static protobuf.PersistableEnvelope buildEnvelope(int... sequenceNumbers) {
+        protobuf.SequenceNumberMap.Builder builder = protobuf.SequenceNumberMap.newBuilder();
+        for (int i = 0; i < sequenceNumbers.length; i++) {
+            builder.addSequenceNumberEntries(buildEntry(i, sequenceNumbers[i]));
+        }
+        return protobuf.PersistableEnvelope.newBuilder().setSequenceNumberMap(builder).build();
+    }
+
+    private static Set<protobuf.SequenceNumberEntry> getEntries(protobuf.PersistableEnvelope envelope) {
+        return new HashSet<>(envelope.getSequenceNumberMap().getSequenceNumberEntriesList());
+    }
+
+    private void writeSnapshot(PersistenceJournal journal) {
+        journal.onSnapshotWritten(journal.onSnapshotStarted(), SNAPSHOT_FILE_BYTES);
+    }
+
+    private void appendRecord() {
+        protobuf.PersistenceJournalRecord record = journal.pollRecord();
+        assertNotNull(record);
+        assertTrue(journal.append(record));
+    }
+
+    @Test
+    public void pollRecord_withoutSnapshot_returnsNull() {
+        journal.onEntryAdded(FIELD_NUMBER, buildEntry(0, 1));
+
+        assertNull(journal.pollRecord());
+    }
+
+    @Test
+    public void replay_appliesReportedChanges() throws IOException {
+        writeSnapshot(journal);
+        journal.onEntryRemoved(FIELD_NUMBER, buildEntry(1, 1));
+        journal.onEntryAdded(FIELD_NUMBER, buildEntry(1, 2));
+        appendRecord();
+        journal.onEntryRemoved(FIELD_NUMBER, buildEntry(2, 1));
+        appendRecord();
+        assertEquals(2, journal.getNumAppendedRecords().get());
+
+        PersistenceJournal reopened = new PersistenceJournal(dir, "SequenceNumberMap", null);
+        protobuf.PersistableEnvelope replayed = reopened.replay(buildEnvelope(1, 1, 1), SNAPSHOT_FILE_BYTES);
+
+        assertEquals(getEntries(buildEnvelope(1, 2)), getEntries(replayed));
+    }
+
+    @Test
+    public void pollRecord_addedAndRemovedEntry_isOnlyRemoved() {
+        writeSnapshot(journal);
+        journal.onEntryAdded(FIELD_NUMBER, buildEntry(0, 1));
+        journal.onEntryRemoved(FIELD_NUMBER, buildEntry(0, 1));
+
+        protobuf.PersistenceJournalRecord record = journal.pollRecord();
+
+        assertNotNull(record);
+        assertEquals(0, record.getAddedEntriesCount());
+        assertEquals(1, record.getRemovedKeysCount());
+    }
+
+    @Test
+    public void changesWhileWritingSnapshot_areInNextRecord() {
+        long snapshotId = journal.onSnapshotStarted();
+        journal.onEntryAdded(FIELD_NUMBER, buildEntry(0, 1));
+        journal.onSnapshotWritten(snapshotId, SNAPSHOT_FILE_BYTES);
+
+        protobuf.PersistenceJournalRecord record = journal.pollRecord();
+
+        assertNotNull(record);
+        assertEquals(1, record.getAddedEntriesCount());
+    }
+
+    @Test
+    public void onEntriesReplaced_requiresSnapshot() {
+        long snapshotId = journal.onSnapshotStarted();
+        journal.onEntriesReplaced();
+        journal.onSnapshotWritten(snapshotId, SNAPSHOT_FILE_BYTES);
+
+        assertNull(journal.pollRecord());
+    }
+
+    @Test
+    public void replay_otherSnapshot_ignoresJournal() throws IOException {
+        writeSnapshot(journal);
+        journal.onEntryAdded(FIELD_NUMBER, buildEntry(0, 2));
+        appendRecord();
+
+        protobuf.PersistableEnvelope snapshot = buildEnvelope(5);
+        PersistenceJournal reopened = new PersistenceJournal(dir, "SequenceNumberMap", null);
+
+        assertEquals(snapshot, reopened.replay(snapshot, new byte[]{4}));
+    }
+
+    @Test
+    public void onSnapshotWritten_deletesJournal() {
+        writeSnapshot(journal);
+        journal.onEntryAdded(FIELD_NUMBER, buildEntry(0, 2));
+        appendRecord();
+        File journalFile = new File(dir, "SequenceNumberMap" + PersistenceJournal.FILE_SUFFIX);
+        assertTrue(journalFile.exists());
+
+        writeSnapshot(journal);
+
+        assertFalse(journalFile.exists());
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.common.proto;
+
+import haveno.common.app.DevEnv;
+import haveno.common.crypto.Hash;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MemoizedProtoTest {
+    private final List<String> path = new ArrayList<>(List.of("a"));
+    private int numBuilds;
+    private final MemoizedProto<protobuf.NavigationPath> memoizedProto = new MemoizedProto<>(() -> {
+        numBuilds++;
+        return protobuf.NavigationPath.newBuilder().addAllPath(path).build();
+    });
+
+    @AfterEach
+    public void tearDown() {
+        DevEnv.setDevMode(false);
+    }
+
+    @Test
+    public void get_buildsOnce() {
+        protobuf.NavigationPath proto = memoizedProto.get();
+
+        assertSame(proto, memoizedProto.get());
+        assertArrayEquals(Hash.getSha256Hash(proto.toByteArray()), memoizedProto.getSha256Hash());
+        assertSame(memoizedProto.getSha256Hash(), memoizedProto.getSha256Hash());
+        assertEquals(1, numBuilds);
+    }
+
+    @Test
+    public void reset_rebuildsProtoAndHash() {
+        protobuf.NavigationPath proto = memoizedProto.get();
+        byte[] hash = memoizedProto.getSha256Hash();
+        path.add("b");
+        memoizedProto.reset();
+
+        assertNotSame(proto, memoizedProto.get());
+        assertEquals(List.of("a", "b"), memoizedProto.get().getPathList());
+        assertArrayEquals(Hash.getSha256Hash(memoizedProto.get().toByteArray()), memoizedProto.getSha256Hash());
+        assertEquals(2, numBuilds);
+        assertNotSame(hash, memoizedProto.getSha256Hash());
+    }
+
+    @Test
+    public void get_changedWithoutReset_throwsInDevMode() {
+        DevEnv.setDevMode(true);
+        memoizedProto.get();
+        path.add("b");
+
+        assertThrows(IllegalStateException.class, memoizedProto::get);
+    }
+
+    @Test
+    public void get_changedWithoutReset_replacedAtNextCheck() {
+        memoizedProto.get();
+        path.add("b");
+
+        for (int i = 1; i < MemoizedProto.CHECK_INTERVAL; i++) {
+            assertEquals(List.of("a"), memoizedProto.get().getPathList());
+        }
+        assertEquals(List.of("a", "b"), memoizedProto.get().getPathList());
+        assertEquals(List.of("a", "b"), memoizedProto.get().getPathList());
+        assertEquals(2, numBuilds);
+    }
+}
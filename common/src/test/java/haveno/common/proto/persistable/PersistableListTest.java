@@ -0,0 +1,115 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.common.proto.persistable;
+
+import com.google.protobuf.Message;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PersistableListTest {
+
+    private static class NavigationPathItem implements PersistablePayload {
+        private String path;
+
+        private NavigationPathItem(String path) {
+            this.path = path;
+        }
+
+        @Override
+        public Message toProtoMessage() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static class NavigationPathList extends PersistableList<NavigationPathItem> {
+        private final boolean deferSerialization;
+
+        private NavigationPathList(boolean deferSerialization) {
+            this.deferSerialization = deferSerialization;
+        }
+
+        @Override
+        public Message toProtoMessage() {
+            synchronized (getList()) {
+                return toPersistableMessage(getList());
+            }
+        }
+
+        @Override
+        public Supplier<Message> getPersistableMessageSupplier() {
+            return deferSerialization
+                    ? getDeferredMessageSupplier(NavigationPathList::toPersistableMessage)
+                    : super.getPersistableMessageSupplier();
+        }
+
+        private static Message toPersistableMessage(List<NavigationPathItem> items) {
+            protobuf.NavigationPath.Builder builder = protobuf.NavigationPath.newBuilder();
+            items.forEach(item -> builder.addPath(item.path));
+            return protobuf.PersistableEnvelope.newBuilder().setNavigationPath(builder).build();
+        }
+    }
+
+    private static List<String> getPath(Supplier<Message> supplier) {
+        return ((protobuf.PersistableEnvelope) supplier.get()).getNavigationPath().getPathList();
+    }
+
+    @Test
+    public void getDeferredMessageSupplier_ignoresLaterListChanges() {
+        NavigationPathList list = new NavigationPathList(true);
+        list.add(new NavigationPathItem("a"));
+        Supplier<Message> supplier = list.getPersistableMessageSupplier();
+        list.add(new NavigationPathItem("b"));
+
+        assertEquals(List.of("a"), getPath(supplier));
+    }
+
+    @Test
+    public void getDeferredMessageSupplier_serializesItemsWithStateAtCall() {
+        NavigationPathList list = new NavigationPathList(true);
+        NavigationPathItem item = new NavigationPathItem("a");
+        list.add(item);
+        Supplier<Message> supplier = list.getPersistableMessageSupplier();
+        item.path = "b";
+
+        assertEquals(List.of("b"), getPath(supplier));
+    }
+
+    @Test
+    public void getPersistableMessageSupplier_notDeferred_serializesImmediately() {
+        NavigationPathList list = new NavigationPathList(false);
+        NavigationPathItem item = new NavigationPathItem("a");
+        list.add(item);
+        Supplier<Message> supplier = list.getPersistableMessageSupplier();
+        item.path = "b";
+        list.add(new NavigationPathItem("c"));
+
+        assertEquals(List.of("a"), getPath(supplier));
+    }
+
+    @Test
+    public void getPersistableMessageSupplier_onlyDeferredSupplierMarked() {
+        assertTrue(new NavigationPathList(true).getPersistableMessageSupplier() instanceof PersistableEnvelope.DeferredMessageSupplier);
+        assertFalse(new NavigationPathList(false).getPersistableMessageSupplier() instanceof PersistableEnvelope.DeferredMessageSupplier);
+    }
+}
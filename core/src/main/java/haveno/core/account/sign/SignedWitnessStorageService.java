@@ -50,6 +50,7 @@ public class SignedWitnessStorageService extends MapStoreService<SignedWitnessSt
     @Override
     protected void initializePersistenceManager() {
         persistenceManager.initialize(store, PersistenceManager.Source.NETWORK);
+        persistenceManager.enableJournal();
     }
 
     @Override
@@ -67,6 +68,26 @@ public class SignedWitnessStorageService extends MapStoreService<SignedWitnessSt
         return payload instanceof SignedWitness;
     }
 
+    @Override
+    protected void put(P2PDataStorage.ByteArray hash, PersistableNetworkPayload payload) {
+        store.put(hash, payload);
+        requestPersistence();
+    }
+
+    @Override
+    protected PersistableNetworkPayload putIfAbsent(P2PDataStorage.ByteArray hash, PersistableNetworkPayload payload) {
+        PersistableNetworkPayload previous = store.putIfAbsent(hash, payload);
+        requestPersistence();
+        return previous;
+    }
+
+    @Override
+    protected PersistableNetworkPayload remove(P2PDataStorage.ByteArray hash) {
+        PersistableNetworkPayload result = store.remove(hash);
+        requestPersistence();
+        return result;
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Protected
@@ -19,6 +19,7 @@ package haveno.core.account.sign;
 
 
 import com.google.protobuf.Message;
+import haveno.network.p2p.storage.payload.PersistableNetworkPayload;
 import haveno.network.p2p.storage.persistence.PersistableNetworkPayloadStore;
 import lombok.extern.slf4j.Slf4j;
 
@@ -65,4 +66,14 @@ public class SignedWitnessStore extends PersistableNetworkPayloadStore<SignedWit
                 .map(SignedWitness::fromProto).collect(Collectors.toList());
         return new SignedWitnessStore(list);
     }
+
+    @Override
+    protected protobuf.SignedWitness toProtoItem(PersistableNetworkPayload payload) {
+        return ((SignedWitness) payload).toProtoSignedWitness();
+    }
+
+    @Override
+    protected int getItemsFieldNumber() {
+        return protobuf.SignedWitnessStore.ITEMS_FIELD_NUMBER;
+    }
 }
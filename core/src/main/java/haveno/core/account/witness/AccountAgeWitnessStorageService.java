@@ -54,6 +54,7 @@ public class AccountAgeWitnessStorageService extends HistoricalDataStoreService<
     @Override
     protected void initializePersistenceManager() {
         persistenceManager.initialize(store, PersistenceManager.Source.NETWORK);
+        persistenceManager.enableJournal();
     }
 
     @Override
@@ -18,6 +18,7 @@
 package haveno.core.account.witness;
 
 import com.google.protobuf.Message;
+import haveno.network.p2p.storage.payload.PersistableNetworkPayload;
 import haveno.network.p2p.storage.persistence.PersistableNetworkPayloadStore;
 import lombok.extern.slf4j.Slf4j;
 
@@ -64,4 +65,14 @@ public class AccountAgeWitnessStore extends PersistableNetworkPayloadStore<Accou
                 .map(AccountAgeWitness::fromProto).collect(Collectors.toList());
         return new AccountAgeWitnessStore(list);
     }
+
+    @Override
+    protected protobuf.AccountAgeWitness toProtoItem(PersistableNetworkPayload payload) {
+        return ((AccountAgeWitness) payload).toProtoAccountAgeWitness();
+    }
+
+    @Override
+    protected int getItemsFieldNumber() {
+        return protobuf.AccountAgeWitnessStore.ITEMS_FIELD_NUMBER;
+    }
 }
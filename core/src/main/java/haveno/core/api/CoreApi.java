@@ -50,6 +50,7 @@ import haveno.core.api.model.PaymentAccountForm;
 import haveno.core.api.model.PaymentAccountFormField;
 import haveno.core.app.AppStartupState;
 import haveno.core.offer.Offer;
+import haveno.core.offer.OfferBookService.OfferBookChangedListener;
 import haveno.core.offer.OpenOffer;
 import haveno.core.payment.PaymentAccount;
 import haveno.core.payment.payload.PaymentMethod;
@@ -341,6 +342,10 @@ public class CoreApi {
         return new ArrayList<>(tradeStatisticsManager.getObservableTradeStatisticsList());
     }
 
+    public List<TradeStatistics3> getTradeStatistics(String currencyCode, long fromDate, long toDate) {
+        return tradeStatisticsManager.getTradeStatistics(currencyCode, fromDate, toDate);
+    }
+
     public int getNumConfirmationsForMostRecentTransaction(String addressString) {
         return walletsService.getNumConfirmationsForMostRecentTransaction(addressString);
     }
@@ -414,6 +419,14 @@ public class CoreApi {
         return coreOffersService.getOffers(direction, currencyCode);
     }
 
+    public void addOffersListener(String direction, String currencyCode, OfferBookChangedListener listener) {
+        coreOffersService.addOffersListener(direction, currencyCode, listener);
+    }
+
+    public void removeOffersListener(OfferBookChangedListener listener) {
+        coreOffersService.removeOffersListener(listener);
+    }
+
     public List<OpenOffer> getMyOffers(String direction, String currencyCode) {
         return coreOffersService.getMyOffers(direction, currencyCode);
     }
@@ -50,6 +50,7 @@ import haveno.core.monetary.TraditionalMoney;
 import haveno.core.offer.CreateOfferService;
 import haveno.core.offer.Offer;
 import haveno.core.offer.OfferBookService;
+import haveno.core.offer.OfferBookService.OfferBookChangedListener;
 import haveno.core.offer.OfferDirection;
 import static haveno.core.offer.OfferDirection.BUY;
 import haveno.core.offer.OfferFilterService;
@@ -71,7 +72,9 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
@@ -114,6 +117,7 @@ public class CoreOffersService {
     private final User user;
     private final PriceFeedService priceFeedService;
     private final CorePersistenceProtoResolver corePersistenceProtoResolver;
+    private final Map<OfferBookChangedListener, OfferBookChangedListener> offersListeners = new HashMap<>();
 
     @Inject
     public CoreOffersService(CoreContext coreContext,
@@ -142,11 +146,7 @@ public class CoreOffersService {
     // excludes my offers
     List<Offer> getOffers() {
         List<Offer> offers = new ArrayList<>(offerBookService.getOffers()).stream()
-                .filter(o -> !o.isMyOffer(keyRing))
-                .filter(o -> {
-                    Result result = offerFilter.canTakeOffer(o, coreContext.isApiUser());
-                    return result.isValid() || result == Result.HAS_NO_PAYMENT_ACCOUNT_VALID_FOR_OFFER;
-                })
+                .filter(this::isListedOffer)
                 .collect(Collectors.toList());
         return offers;
     }
@@ -159,12 +159,56 @@ public class CoreOffersService {
     }
 
     Offer getOffer(String id) {
-        return getOffers().stream()
-                .filter(o -> o.getId().equals(id))
-                .findAny().orElseThrow(() ->
+        return offerBookService.getOffer(id)
+                .filter(this::isListedOffer)
+                .orElseThrow(() ->
                         new IllegalStateException(format("offer with id '%s' not found", id)));
     }
 
+    /**
+     * Add a listener for changes of the offers returned by getOffers(direction, currencyCode). The listener is
+     * called with the removed and the added offers of the market. Offers which got updated are both removed and added.
+     */
+    void addOffersListener(String direction, String currencyCode, OfferBookChangedListener listener) {
+        OfferBookChangedListener marketListener = new OfferBookChangedListener() {
+            @Override
+            public void onAdded(Offer offer) {
+                onChanged(List.of(), List.of(offer));
+            }
+
+            @Override
+            public void onRemoved(Offer offer) {
+                onChanged(List.of(offer), List.of());
+            }
+
+            @Override
+            public void onChanged(List<Offer> removedOffers, List<Offer> addedOffers) {
+                List<Offer> removedMarketOffers = removedOffers.stream()
+                        .filter(o -> offerMatchesDirectionAndCurrency(o, direction, currencyCode))
+                        .collect(Collectors.toList());
+                List<Offer> addedMarketOffers = addedOffers.stream()
+                        .filter(o -> offerMatchesDirectionAndCurrency(o, direction, currencyCode))
+                        .filter(CoreOffersService.this::isListedOffer)
+                        .collect(Collectors.toList());
+                if (!removedMarketOffers.isEmpty() || !addedMarketOffers.isEmpty()) {
+                    listener.onChanged(removedMarketOffers, addedMarketOffers);
+                }
+            }
+        };
+        synchronized (offersListeners) {
+            offersListeners.put(listener, marketListener);
+        }
+        offerBookService.addOfferBookChangedListener(marketListener);
+    }
+
+    void removeOffersListener(OfferBookChangedListener listener) {
+        OfferBookChangedListener marketListener;
+        synchronized (offersListeners) {
+            marketListener = offersListeners.remove(listener);
+        }
+        if (marketListener != null) offerBookService.removeOfferBookChangedListener(marketListener);
+    }
+
     List<OpenOffer> getMyOffers() {
         return openOfferManager.getOpenOffers().stream()
                 .filter(o -> o.getOffer().isMyOffer(keyRing))
@@ -496,6 +540,13 @@ public class CoreOffersService {
                 errorMessageHandler);
     }
 
+    // excludes my offers and offers which cannot be taken except for missing payment accounts
+    private boolean isListedOffer(Offer offer) {
+        if (offer.isMyOffer(keyRing)) return false;
+        Result result = offerFilter.canTakeOffer(offer, coreContext.isApiUser());
+        return result.isValid() || result == Result.HAS_NO_PAYMENT_ACCOUNT_VALID_FOR_OFFER;
+    }
+
     private boolean offerMatchesDirectionAndCurrency(Offer offer,
                                                      String direction,
                                                      String currencyCode) {
@@ -42,6 +42,7 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.apache.commons.lang3.exception.ExceptionUtils;
 
@@ -122,8 +123,17 @@ public final class XmrConnectionService {
     @Getter
     private boolean isShutDownStarted;
     private List<MoneroConnectionManagerListener> listeners = new ArrayList<>();
+    private final List<ChainUpdateListener> chainUpdateListeners = new CopyOnWriteArrayList<>();
     private XmrKeyImagePoller keyImagePoller;
 
+    public interface ChainUpdateListener {
+
+        /**
+         * Called after each poll of the daemon with the chain height and the number of txs in the pool.
+         */
+        void onChainUpdated(long height, Long numTxsPool);
+    }
+
     // connection switching
     private static final int EXCLUDE_CONNECTION_SECONDS = 180;
     private static final int MAX_SWITCH_REQUESTS_PER_MINUTE = 2;
@@ -213,6 +223,14 @@ public final class XmrConnectionService {
         }
     }
 
+    public void addChainUpdateListener(ChainUpdateListener listener) {
+        chainUpdateListeners.add(listener);
+    }
+
+    public void removeChainUpdateListener(ChainUpdateListener listener) {
+        chainUpdateListeners.remove(listener);
+    }
+
     public Boolean isConnected() {
         return isConnected;
     }
@@ -865,6 +883,16 @@ public final class XmrConnectionService {
                 // set chain height
                 chainHeight.set(lastInfo.getHeight());
 
+                // poll key images on new blocks and tx pool changes
+                getKeyImagePoller().onChainUpdated(lastInfo.getHeight(), lastInfo.getNumTxsPool());
+                for (ChainUpdateListener listener : chainUpdateListeners) {
+                    try {
+                        listener.onChainUpdated(lastInfo.getHeight(), lastInfo.getNumTxsPool());
+                    } catch (Exception e) {
+                        log.warn("Error notifying chain update listener: {}\n", e.getMessage(), e);
+                    }
+                }
+
                 // determine if blockchain is syncing locally
                 boolean blockchainSyncing = lastInfo.getHeight().equals(lastInfo.getHeightWithoutBootstrap()) || (lastInfo.getTargetHeight().equals(0l) && lastInfo.getHeightWithoutBootstrap().equals(0l)); // blockchain is syncing if height equals height without bootstrap, or target height and height without bootstrap both equal 0
 
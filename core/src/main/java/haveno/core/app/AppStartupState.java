@@ -19,14 +19,21 @@ package haveno.core.app;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import haveno.common.UserThread;
 import haveno.core.api.XmrConnectionService;
 import haveno.core.api.CoreNotificationService;
 import haveno.core.xmr.wallet.XmrWalletService;
 import haveno.network.p2p.BootstrapListener;
 import haveno.network.p2p.P2PService;
 import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleObjectProperty;
 import lombok.extern.slf4j.Slf4j;
 import org.fxmisc.easybind.EasyBind;
 import org.fxmisc.easybind.monadic.MonadicBinding;
@@ -39,6 +46,17 @@ import org.fxmisc.easybind.monadic.MonadicBinding;
 @Slf4j
 @Singleton
 public class AppStartupState {
+
+    /**
+     * Stages of starting up the persisted trades.
+     */
+    public enum TradesStage {
+        NOT_STARTED,
+        LOADED, // trades are readable
+        PROTOCOLS_INITIALIZED, // trades are initialized without opening their wallets
+        WALLETS_OPENED // wallets of active trades are open and syncing
+    }
+
     // Do not convert to local field as there have been issues observed that the object got GC'ed.
     private final MonadicBinding<Boolean> p2pNetworkAndWalletInitialized;
 
@@ -49,6 +67,14 @@ public class AppStartupState {
     private final BooleanProperty isBlockDownloadComplete = new SimpleBooleanProperty();
     private final BooleanProperty wasWalletSynced = new SimpleBooleanProperty();
     private final BooleanProperty hasSufficientPeersForBroadcast = new SimpleBooleanProperty();
+    // Only set on the user thread
+    private final ObjectProperty<TradesStage> tradesStage = new SimpleObjectProperty<>(TradesStage.NOT_STARTED);
+    private final DoubleProperty tradesStageProgress = new SimpleDoubleProperty();
+    // Latest reported trades stage, guarded by tradesStageLock
+    private final Object tradesStageLock = new Object();
+    private TradesStage reportedTradesStage = TradesStage.NOT_STARTED;
+    private int reportedNumDone;
+    private double reportedProgress;
 
     @Inject
     public AppStartupState(CoreNotificationService notificationService,
@@ -108,6 +134,38 @@ public class AppStartupState {
         allDomainServicesInitialized.set(true);
     }
 
+    /**
+     * Report the progress of starting up the trades. Can be called from any thread. Reports of parallel tasks can
+     * arrive out of order, so reports of an earlier stage or of less progress are ignored.
+     *
+     * @param stage the stage which is in progress, or completed if numDone equals numTotal
+     * @param numDone the number of trades which completed the stage
+     * @param numTotal the number of trades in the stage
+     */
+    public void onTradesStageProgress(TradesStage stage, int numDone, int numTotal) {
+        synchronized (tradesStageLock) {
+            boolean isNewStage = stage != reportedTradesStage;
+            if (stage.compareTo(reportedTradesStage) < 0 || (!isNewStage && numDone <= reportedNumDone)) return;
+            if (isNewStage) log.info("Trades startup stage {} started with {} trades", stage, numTotal);
+            reportedTradesStage = stage;
+            reportedNumDone = numDone;
+            reportedProgress = numTotal == 0 ? 1 : (double) numDone / numTotal;
+            if (numDone == numTotal) log.info("Trades startup stage {} completed", stage);
+        }
+
+        // the user thread applies the latest report, so the properties never move back
+        UserThread.execute(() -> {
+            TradesStage latestStage;
+            double latestProgress;
+            synchronized (tradesStageLock) {
+                latestStage = reportedTradesStage;
+                latestProgress = reportedProgress;
+            }
+            tradesStage.set(latestStage);
+            tradesStageProgress.set(latestProgress);
+        });
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Getters
@@ -165,4 +223,20 @@ public class AppStartupState {
         return hasSufficientPeersForBroadcast;
     }
 
+    public TradesStage getTradesStage() {
+        return tradesStage.get();
+    }
+
+    public ReadOnlyObjectProperty<TradesStage> tradesStageProperty() {
+        return tradesStage;
+    }
+
+    public double getTradesStageProgress() {
+        return tradesStageProgress.get();
+    }
+
+    public ReadOnlyDoubleProperty tradesStageProgressProperty() {
+        return tradesStageProgress;
+    }
+
 }
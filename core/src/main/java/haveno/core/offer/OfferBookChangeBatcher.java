@@ -0,0 +1,162 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.offer;
+
+import haveno.common.ThreadUtils;
+import haveno.common.Timer;
+import haveno.common.UserThread;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Collects the offer book changes of a short time window and delivers them as one delta of removed and added offers.
+ * During bootstrap and after reconnects we receive many offers at once, so the listeners (e.g. the offer book UI) can
+ * apply them at once instead of handling each offer separately.
+ *
+ * Changes of the same offer get coalesced: only the latest added version is delivered and an added offer which got
+ * removed within the window is only delivered as removed. The removed offers are delivered before the added offers.
+ */
+@Slf4j
+class OfferBookChangeBatcher {
+
+    private static class PendingChange {
+        private final List<Offer> removedOffers = new ArrayList<>();
+        private Offer addedOffer;
+    }
+
+    private final long windowMs;
+    private final String threadId;
+    private final BiConsumer<List<Offer>, List<Offer>> changeHandler;
+    private final Map<String, PendingChange> pendingChanges = new LinkedHashMap<>();
+    private Timer flushTimer;
+
+    @Getter
+    private final AtomicLong numRawChanges = new AtomicLong();
+    @Getter
+    private final AtomicLong numCoalescedChanges = new AtomicLong();
+    @Getter
+    private final AtomicLong numBatches = new AtomicLong();
+
+    /**
+     * @param windowMs time window in which changes get coalesced, changes get delivered immediately if not positive
+     * @param threadId thread on which the batched changes get delivered
+     * @param changeHandler gets called with the removed and the added offers
+     */
+    OfferBookChangeBatcher(long windowMs, String threadId, BiConsumer<List<Offer>, List<Offer>> changeHandler) {
+        this.windowMs = windowMs;
+        this.threadId = threadId;
+        this.changeHandler = changeHandler;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void onAdded(Offer offer) {
+        synchronized (pendingChanges) {
+            numRawChanges.incrementAndGet();
+            pendingChanges.computeIfAbsent(offer.getId(), id -> new PendingChange()).addedOffer = offer;
+        }
+        scheduleFlush();
+    }
+
+    void onRemoved(Offer offer) {
+        synchronized (pendingChanges) {
+            numRawChanges.incrementAndGet();
+            PendingChange pendingChange = pendingChanges.computeIfAbsent(offer.getId(), id -> new PendingChange());
+            if (pendingChange.addedOffer != null && hasSamePayload(pendingChange.addedOffer, offer)) {
+                pendingChange.addedOffer = null;
+            }
+            if (pendingChange.removedOffers.stream().noneMatch(removedOffer -> hasSamePayload(removedOffer, offer))) {
+                pendingChange.removedOffers.add(offer);
+            }
+        }
+        scheduleFlush();
+    }
+
+    /**
+     * Delivers the pending changes immediately.
+     */
+    void flush() {
+        List<Offer> removedOffers = new ArrayList<>();
+        List<Offer> addedOffers = new ArrayList<>();
+        synchronized (pendingChanges) {
+            if (flushTimer != null) {
+                flushTimer.stop();
+                flushTimer = null;
+            }
+            pendingChanges.values().forEach(pendingChange -> {
+                removedOffers.addAll(pendingChange.removedOffers);
+                if (pendingChange.addedOffer != null) {
+                    addedOffers.add(pendingChange.addedOffer);
+                }
+            });
+            pendingChanges.clear();
+        }
+        if (removedOffers.isEmpty() && addedOffers.isEmpty()) {
+            return;
+        }
+
+        numBatches.incrementAndGet();
+        numCoalescedChanges.addAndGet(removedOffers.size() + addedOffers.size());
+        log.debug("Delivering {} removed and {} added offers. Raw changes={}, coalesced changes={}, batches={}",
+                removedOffers.size(), addedOffers.size(), numRawChanges.get(), numCoalescedChanges.get(), numBatches.get());
+        changeHandler.accept(removedOffers, addedOffers);
+    }
+
+    void shutDown() {
+        synchronized (pendingChanges) {
+            if (flushTimer != null) {
+                flushTimer.stop();
+                flushTimer = null;
+            }
+            pendingChanges.clear();
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void scheduleFlush() {
+        if (windowMs <= 0) {
+            flush();
+            return;
+        }
+        synchronized (pendingChanges) {
+            if (flushTimer == null) {
+                flushTimer = UserThread.runAfter(() -> ThreadUtils.execute(this::flush, threadId), windowMs, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private static boolean hasSamePayload(Offer offer1, Offer offer2) {
+        return Arrays.equals(offer1.getOfferPayload().getHash(), offer2.getOfferPayload().getHash());
+    }
+}
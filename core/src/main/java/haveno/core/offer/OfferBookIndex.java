@@ -0,0 +1,169 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.offer;
+
+import haveno.core.monetary.Price;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+
+/**
+ * Index of the offer book by market (counter currency and direction). The offers of a market are kept sorted by their
+ * effective price with the best price first, i.e. the highest price for buy offers and the lowest price for sell
+ * offers. Offers without a price (market based offers without market price) are sorted last. Offers with the same
+ * price are sorted by amount from high to low.
+ *
+ * The price of market based offers depends on the market price, so they need to be re-ranked by calling
+ * updateMarketBasedPrices if the market prices changed.
+ */
+@Slf4j
+class OfferBookIndex {
+
+    @Value
+    private static class MarketKey {
+        String currencyCode;
+        OfferDirection direction;
+
+        static MarketKey of(String currencyCode, OfferDirection direction) {
+            return new MarketKey(currencyCode.toUpperCase(), direction);
+        }
+    }
+
+    // The price is cached as the sort order of the TreeSet must not change while the entry is in the set
+    private static class Entry {
+        private final Offer offer;
+        private final MarketKey marketKey;
+        @Nullable
+        private Price price;
+
+        private Entry(Offer offer) {
+            this.offer = offer;
+            this.marketKey = MarketKey.of(offer.getOfferPayload().getCounterCurrencyCode(), offer.getDirection());
+            this.price = offer.getPrice();
+        }
+    }
+
+    private static final Comparator<Entry> AMOUNT_AND_ID_COMPARATOR = Comparator
+            .comparing((Entry entry) -> entry.offer.getAmount(), Comparator.reverseOrder())
+            .thenComparing(entry -> entry.offer.getId());
+    private static final Comparator<Entry> BUY_OFFER_COMPARATOR = Comparator
+            .comparing((Entry entry) -> entry.price, Comparator.nullsLast(Comparator.<Price>reverseOrder()))
+            .thenComparing(AMOUNT_AND_ID_COMPARATOR);
+    private static final Comparator<Entry> SELL_OFFER_COMPARATOR = Comparator
+            .comparing((Entry entry) -> entry.price, Comparator.nullsLast(Comparator.<Price>naturalOrder()))
+            .thenComparing(AMOUNT_AND_ID_COMPARATOR);
+
+    private final Map<String, Entry> entriesByOfferId = new HashMap<>();
+    private final Map<MarketKey, NavigableSet<Entry>> entriesByMarket = new HashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    synchronized void put(Offer offer) {
+        remove(offer.getId());
+        Entry entry = new Entry(offer);
+        entriesByOfferId.put(offer.getId(), entry);
+        entriesByMarket.computeIfAbsent(entry.marketKey, marketKey -> new TreeSet<>(
+                marketKey.getDirection() == OfferDirection.BUY ? BUY_OFFER_COMPARATOR : SELL_OFFER_COMPARATOR))
+                .add(entry);
+    }
+
+    synchronized void remove(String offerId) {
+        Entry entry = entriesByOfferId.remove(offerId);
+        if (entry == null) {
+            return;
+        }
+        NavigableSet<Entry> entries = entriesByMarket.get(entry.marketKey);
+        entries.remove(entry);
+        if (entries.isEmpty()) {
+            entriesByMarket.remove(entry.marketKey);
+        }
+    }
+
+    synchronized Optional<Offer> getOffer(String offerId) {
+        Entry entry = entriesByOfferId.get(offerId);
+        return entry == null ? Optional.empty() : Optional.of(entry.offer);
+    }
+
+    /**
+     * @return the offers of the market sorted by price, best price first
+     */
+    synchronized List<Offer> getOffers(OfferDirection direction, String currencyCode) {
+        NavigableSet<Entry> entries = entriesByMarket.get(MarketKey.of(currencyCode, direction));
+        if (entries == null) {
+            return Collections.emptyList();
+        }
+        return entries.stream().map(entry -> entry.offer).collect(Collectors.toList());
+    }
+
+    /**
+     * @return the offer with the best price of the market, i.e. the best bid for buy offers and the best ask for
+     * sell offers
+     */
+    synchronized Optional<Offer> getBestOffer(OfferDirection direction, String currencyCode) {
+        NavigableSet<Entry> entries = entriesByMarket.get(MarketKey.of(currencyCode, direction));
+        if (entries == null || entries.isEmpty() || entries.first().price == null) {
+            return Optional.empty();
+        }
+        return Optional.of(entries.first().offer);
+    }
+
+    /**
+     * Re-ranks the market based offers whose price changed.
+     *
+     * @return the number of re-ranked offers
+     */
+    synchronized int updateMarketBasedPrices() {
+        int numUpdatedOffers = 0;
+        for (Entry entry : entriesByOfferId.values()) {
+            if (!entry.offer.isUseMarketBasedPrice()) {
+                continue;
+            }
+            Price price = entry.offer.getPrice();
+            if (Objects.equals(price, entry.price)) {
+                continue;
+            }
+            NavigableSet<Entry> entries = entriesByMarket.get(entry.marketKey);
+            entries.remove(entry);
+            entry.price = price;
+            entries.add(entry);
+            numUpdatedOffers++;
+        }
+        if (numUpdatedOffers > 0) {
+            log.debug("Re-ranked {} market based offers after market price update", numUpdatedOffers);
+        }
+        return numUpdatedOffers;
+    }
+
+    synchronized int size() {
+        return entriesByOfferId.size();
+    }
+}
@@ -68,6 +68,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
@@ -90,10 +91,21 @@ public class OfferBookService {
     private final List<Offer> validOffers = new ArrayList<Offer>();
     private final List<Offer> invalidOffers = new ArrayList<Offer>();
     private final Map<String, Timer> invalidOfferTimers = new HashMap<>();
+    private final OfferBookIndex offerBookIndex = new OfferBookIndex();
+    private final OfferBookChangeBatcher offerBookChangeBatcher;
 
     public interface OfferBookChangedListener {
         void onAdded(Offer offer);
         void onRemoved(Offer offer);
+
+        /**
+         * Called with the coalesced changes of a batch window. Listeners which can apply many changes at once more
+         * efficiently (e.g. UI lists) should override it.
+         */
+        default void onChanged(List<Offer> removedOffers, List<Offer> addedOffers) {
+            removedOffers.forEach(this::onRemoved);
+            addedOffers.forEach(this::onAdded);
+        }
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -106,12 +118,16 @@ public class OfferBookService {
                             FilterManager filterManager,
                             XmrConnectionService xmrConnectionService,
                             @Named(Config.STORAGE_DIR) File storageDir,
-                            @Named(Config.DUMP_STATISTICS) boolean dumpStatistics) {
+                            @Named(Config.DUMP_STATISTICS) boolean dumpStatistics,
+                            @Named(Config.OFFER_BOOK_BATCH_WINDOW_MS) int offerBookBatchWindowMs) {
         this.p2PService = p2PService;
         this.priceFeedService = priceFeedService;
         this.filterManager = filterManager;
         this.xmrConnectionService = xmrConnectionService;
         jsonFileManager = new JsonFileManager(storageDir);
+        offerBookChangeBatcher = new OfferBookChangeBatcher(offerBookBatchWindowMs,
+                OfferBookService.class.getSimpleName(),
+                this::notifyOfferBookChangedListeners);
 
         // listen for offers
         p2PService.addHashSetChangedListener(new HashMapChangedListener() {
@@ -183,14 +199,24 @@ public class OfferBookService {
                         public void onRemoved(Offer offer) {
                             doDumpStatistics();
                         }
+
+                        @Override
+                        public void onChanged(List<Offer> removedOffers, List<Offer> addedOffers) {
+                            doDumpStatistics();
+                        }
                     });
                     UserThread.runAfter(OfferBookService.this::doDumpStatistics, 1);
                 }
             });
         }
 
-        // listen for changes to key images
-        xmrConnectionService.getKeyImagePoller().addListener(new XmrKeyImageListener() {
+        // re-rank market based offers in the offer book index on price updates
+        priceFeedService.updateCounterProperty().addListener((observable, oldValue, newValue) -> {
+            ThreadUtils.execute(offerBookIndex::updateMarketBasedPrices, OfferBookService.class.getSimpleName());
+        });
+
+        // listen for changes to key images of offers in the offer book
+        xmrConnectionService.getKeyImagePoller().addListener(OfferBookService.class.getSimpleName(), new XmrKeyImageListener() {
             @Override
             public void onSpentStatusChanged(Map<String, MoneroKeyImageSpentStatus> spentStatuses) {
                 for (String keyImage : spentStatuses.keySet()) {
@@ -269,10 +295,26 @@ public class OfferBookService {
         }
     }
 
+    public Optional<Offer> getOffer(String offerId) {
+        return offerBookIndex.getOffer(offerId);
+    }
+
     public List<Offer> getOffersByCurrency(String direction, String currencyCode) {
-        return getOffers().stream()
-                .filter(o -> o.getOfferPayload().getCounterCurrencyCode().equalsIgnoreCase(currencyCode) && o.getDirection().name() == direction)
-                .collect(Collectors.toList());
+        return getOffersByCurrency(OfferDirection.valueOf(direction), currencyCode);
+    }
+
+    /**
+     * @return the offers of the market sorted by price, best price first
+     */
+    public List<Offer> getOffersByCurrency(OfferDirection direction, String currencyCode) {
+        return offerBookIndex.getOffers(direction, currencyCode);
+    }
+
+    /**
+     * @return the buy offer with the highest price (best bid) or the sell offer with the lowest price (best ask)
+     */
+    public Optional<Offer> getBestOffer(OfferDirection direction, String currencyCode) {
+        return offerBookIndex.getBestOffer(direction, currencyCode);
     }
 
     public void removeOfferAtShutDown(OfferPayload offerPayload) {
@@ -289,8 +331,23 @@ public class OfferBookService {
         }
     }
 
+    public void removeOfferBookChangedListener(OfferBookChangedListener offerBookChangedListener) {
+        synchronized (offerBookChangedListeners) {
+            offerBookChangedListeners.remove(offerBookChangedListener);
+        }
+    }
+
+    public long getNumRawOfferBookChanges() {
+        return offerBookChangeBatcher.getNumRawChanges().get();
+    }
+
+    public long getNumCoalescedOfferBookChanges() {
+        return offerBookChangeBatcher.getNumCoalescedChanges().get();
+    }
+
     public void shutDown() {
-        xmrConnectionService.getKeyImagePoller().removeKeyImages(OfferBookService.class.getName());
+        offerBookChangeBatcher.shutDown();
+        xmrConnectionService.getKeyImagePoller().removeKeyImages(OfferBookService.class.getSimpleName());
     }
 
 
@@ -301,32 +358,32 @@ public class OfferBookService {
     private void announceOfferAdded(Offer offer) {
         xmrConnectionService.getKeyImagePoller().addKeyImages(offer.getOfferPayload().getReserveTxKeyImages(), OfferBookService.class.getSimpleName());
         updateReservedFundsSpentStatus(offer);
-        synchronized (offerBookChangedListeners) {
-            offerBookChangedListeners.forEach(listener -> listener.onAdded(offer));
-        }
+        offerBookChangeBatcher.onAdded(offer);
     }
 
     private void announceOfferRemoved(Offer offer) {
         updateReservedFundsSpentStatus(offer);
         removeKeyImages(offer);
+        offerBookChangeBatcher.onRemoved(offer);
+    }
+
+    private void notifyOfferBookChangedListeners(List<Offer> removedOffers, List<Offer> addedOffers) {
+        List<OfferBookChangedListener> listeners;
         synchronized (offerBookChangedListeners) {
-            offerBookChangedListeners.forEach(listener -> listener.onRemoved(offer));
+            listeners = new ArrayList<>(offerBookChangedListeners);
         }
+        listeners.forEach(listener -> listener.onChanged(removedOffers, addedOffers));
     }
 
     private boolean hasValidOffer(String offerId) {
-        for (Offer offer : getOffers()) {
-            if (offer.getId().equals(offerId)) {
-                return true;
-            }
-        }
-        return false;
+        return offerBookIndex.getOffer(offerId).isPresent();
     }
     
     private void replaceValidOffer(Offer offer) {
         synchronized (validOffers) {
             removeValidOffer(offer.getId());
             validOffers.add(offer);
+            offerBookIndex.put(offer);
         }
     }
 
@@ -350,6 +407,7 @@ public class OfferBookService {
     private void removeValidOffer(String offerId) {
         synchronized (validOffers) {
             validOffers.removeIf(offer -> offer.getId().equals(offerId));
+            offerBookIndex.remove(offerId);
         }
     }
 
@@ -429,12 +487,8 @@ public class OfferBookService {
         for (Offer offer : getOffers()) {
             if (offer.getOfferPayload().getReserveTxKeyImages().contains(keyImage)) {
                 updateReservedFundsSpentStatus(offer);
-                synchronized (offerBookChangedListeners) {
-                    offerBookChangedListeners.forEach(listener -> {
-                        listener.onRemoved(offer);
-                        listener.onAdded(offer);
-                    });
-                }
+                offerBookChangeBatcher.onRemoved(offer);
+                offerBookChangeBatcher.onAdded(offer);
             }
         }
     }
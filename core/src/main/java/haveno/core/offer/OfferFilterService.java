@@ -20,6 +20,8 @@ package haveno.core.offer;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import haveno.common.app.Version;
+import haveno.core.account.sign.SignedWitness;
+import haveno.core.account.witness.AccountAgeWitness;
 import haveno.core.account.witness.AccountAgeWitnessService;
 import haveno.core.filter.FilterManager;
 import haveno.core.payment.PaymentAccount;
@@ -29,9 +31,12 @@ import haveno.core.trade.HavenoUtils;
 import haveno.core.user.Preferences;
 import haveno.core.user.User;
 import haveno.network.p2p.P2PService;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import javafx.collections.ListChangeListener;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -45,25 +50,88 @@ public class OfferFilterService {
     private final Preferences preferences;
     private final FilterManager filterManager;
     private final AccountAgeWitnessService accountAgeWitnessService;
-    private final Map<String, Boolean> insufficientCounterpartyTradeLimitCache = new HashMap<>();
-    private final Map<String, Boolean> myInsufficientTradeLimitCache = new HashMap<>();
+    private final OfferBookService offerBookService;
+    private final Map<String, Boolean> insufficientCounterpartyTradeLimitCache = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> myInsufficientTradeLimitCache = new ConcurrentHashMap<>();
+
+    // Results of the checks which depend on the filter, our payment accounts and the account age witnesses,
+    // invalidated by incrementing the generation if they change. Only offers of the offer book are cached, so the
+    // results get removed with the offer. Checks which depend on other state (ignored traders, arbitrators, spent
+    // reserve funds) are cheap and evaluated on every call.
+    private final Map<String, CachedResult> cachedResults = new ConcurrentHashMap<>();
+    private final AtomicLong cacheGeneration = new AtomicLong();
+
+    private static class CachedResult {
+        private final byte[] offerPayloadHash;
+        private final long generation;
+        private final Result filterResult;
+        private final boolean isAnyPaymentAccountValid;
+        private volatile Arbitrator signatureArbitrator;
+        private volatile boolean isSignatureValid;
+
+        private CachedResult(byte[] offerPayloadHash, long generation, Result filterResult, boolean isAnyPaymentAccountValid) {
+            this.offerPayloadHash = offerPayloadHash;
+            this.generation = generation;
+            this.filterResult = filterResult;
+            this.isAnyPaymentAccountValid = isAnyPaymentAccountValid;
+        }
+    }
 
     @Inject
     public OfferFilterService(User user,
                        P2PService p2PService,
                        Preferences preferences,
                        FilterManager filterManager,
-                       AccountAgeWitnessService accountAgeWitnessService) {
+                       AccountAgeWitnessService accountAgeWitnessService,
+                       OfferBookService offerBookService) {
         this.user = user;
         this.p2PService = p2PService;
         this.preferences = preferences;
         this.filterManager = filterManager;
         this.accountAgeWitnessService = accountAgeWitnessService;
+        this.offerBookService = offerBookService;
 
         if (user != null && user.getPaymentAccountsAsObservable() != null) {
             // If our accounts have changed we reset our myInsufficientTradeLimitCache as it depends on account data
-            user.getPaymentAccountsAsObservable().addListener((ListChangeListener<PaymentAccount>) c ->
-                    myInsufficientTradeLimitCache.clear());
+            user.getPaymentAccountsAsObservable().addListener((ListChangeListener<PaymentAccount>) c -> {
+                myInsufficientTradeLimitCache.clear();
+                invalidateCachedResults();
+            });
+        }
+
+        // banned offers, currencies, payment methods and nodes depend on the filter
+        if (filterManager != null) {
+            filterManager.filterProperty().addListener((observable, oldValue, newValue) -> invalidateCachedResults());
+        }
+
+        // trade limits depend on the account age witnesses and their signatures
+        if (p2PService != null) {
+            p2PService.getP2PDataStorage().addAppendOnlyDataStoreListener(payload -> {
+                if (payload instanceof AccountAgeWitness || payload instanceof SignedWitness) {
+                    insufficientCounterpartyTradeLimitCache.clear();
+                    myInsufficientTradeLimitCache.clear();
+                    invalidateCachedResults();
+                }
+            });
+        }
+
+        // remove cached results of removed offers
+        if (offerBookService != null) {
+            offerBookService.addOfferBookChangedListener(new OfferBookService.OfferBookChangedListener() {
+                @Override
+                public void onAdded(Offer offer) {
+                }
+
+                @Override
+                public void onRemoved(Offer offer) {
+                    removeCachedResults(offer.getId());
+                }
+
+                @Override
+                public void onChanged(List<Offer> removedOffers, List<Offer> addedOffers) {
+                    removedOffers.forEach(this::onRemoved);
+                }
+            });
         }
     }
 
@@ -106,43 +174,34 @@ public class OfferFilterService {
         if (isIgnored(offer)) {
             return Result.IS_IGNORED;
         }
-        if (isOfferBanned(offer)) {
-            return Result.IS_OFFER_BANNED;
-        }
-        if (isCurrencyBanned(offer)) {
-            return Result.IS_CURRENCY_BANNED;
-        }
-        if (isPaymentMethodBanned(offer)) {
-            return Result.IS_PAYMENT_METHOD_BANNED;
-        }
-        if (isNodeAddressBanned(offer)) {
-            return Result.IS_NODE_ADDRESS_BANNED;
-        }
-        if (requireUpdateToNewVersion()) {
-            return Result.REQUIRE_UPDATE_TO_NEW_VERSION;
-        }
-        if (isInsufficientCounterpartyTradeLimit(offer)) {
-            return Result.IS_INSUFFICIENT_COUNTERPARTY_TRADE_LIMIT;
+        CachedResult cachedResult = getCachedResult(offer);
+        if (!cachedResult.filterResult.isValid()) {
+            return cachedResult.filterResult;
         }
-        if (isMyInsufficientTradeLimit(offer)) {
-            return Result.IS_MY_INSUFFICIENT_TRADE_LIMIT;
-        }
-        if (!hasValidArbitrator(offer)) {
+        Arbitrator arbitrator = getArbitrator(offer);
+        if (arbitrator == null) {
             return Result.ARBITRATOR_NOT_VALIDATED;
         }
-        if (!hasValidSignature(offer)) {
+        if (!hasValidSignature(offer, arbitrator, cachedResult)) {
             return Result.SIGNATURE_NOT_VALIDATED;
         }
         if (isReservedFundsSpent(offer)) {
             return Result.RESERVE_FUNDS_SPENT;
         }
-        if (!isAnyPaymentAccountValidForOffer(offer)) {
+        if (!cachedResult.isAnyPaymentAccountValid) {
             return Result.HAS_NO_PAYMENT_ACCOUNT_VALID_FOR_OFFER;
         }
 
         return Result.VALID;
     }
 
+    /**
+     * Invalidates the cached results, e.g. if state changed which the results depend on.
+     */
+    public void invalidateCachedResults() {
+        cacheGeneration.incrementAndGet();
+    }
+
     public boolean isAnyPaymentAccountValidForOffer(Offer offer) {
         return user.getPaymentAccounts() != null &&
                 PaymentAccountUtil.isAnyPaymentAccountValidForOffer(offer, user.getPaymentAccounts());
@@ -218,11 +277,6 @@ public class OfferFilterService {
         return result;
     }
 
-    private boolean hasValidArbitrator(Offer offer) {
-        Arbitrator arbitrator = getArbitrator(offer);
-        return arbitrator != null;
-    }
-
     private Arbitrator getArbitrator(Offer offer) {
         
         // get arbitrator by address
@@ -237,10 +291,63 @@ public class OfferFilterService {
         return null;
     }
 
-    private boolean hasValidSignature(Offer offer) {
-        Arbitrator arbitrator = getArbitrator(offer);
-        if (arbitrator == null) return false;
-        return HavenoUtils.isArbitratorSignatureValid(offer.getOfferPayload(), arbitrator);
+    // the signature of an offer payload does not change, so it's verified again only if the arbitrator changed
+    private boolean hasValidSignature(Offer offer, Arbitrator arbitrator, CachedResult cachedResult) {
+        synchronized (cachedResult) {
+            if (cachedResult.signatureArbitrator == null || !cachedResult.signatureArbitrator.equals(arbitrator)) {
+                cachedResult.isSignatureValid = HavenoUtils.isArbitratorSignatureValid(offer.getOfferPayload(), arbitrator);
+                cachedResult.signatureArbitrator = arbitrator;
+            }
+            return cachedResult.isSignatureValid;
+        }
+    }
+
+    private CachedResult getCachedResult(Offer offer) {
+        byte[] offerPayloadHash = offer.getOfferPayload().getHash();
+        long generation = cacheGeneration.get();
+        CachedResult cachedResult = cachedResults.get(offer.getId());
+        if (cachedResult != null && cachedResult.generation == generation && Arrays.equals(cachedResult.offerPayloadHash, offerPayloadHash)) {
+            return cachedResult;
+        }
+        cachedResult = new CachedResult(offerPayloadHash, generation, getFilterResult(offer), isAnyPaymentAccountValidForOffer(offer));
+        cachedResults.put(offer.getId(), cachedResult);
+
+        // checked after adding, so the results of an offer removed meanwhile don't stay in the cache
+        if (offerBookService != null && !offerBookService.hasOffer(offer.getId())) {
+            removeCachedResults(offer.getId());
+        }
+        return cachedResult;
+    }
+
+    private Result getFilterResult(Offer offer) {
+        if (isOfferBanned(offer)) {
+            return Result.IS_OFFER_BANNED;
+        }
+        if (isCurrencyBanned(offer)) {
+            return Result.IS_CURRENCY_BANNED;
+        }
+        if (isPaymentMethodBanned(offer)) {
+            return Result.IS_PAYMENT_METHOD_BANNED;
+        }
+        if (isNodeAddressBanned(offer)) {
+            return Result.IS_NODE_ADDRESS_BANNED;
+        }
+        if (requireUpdateToNewVersion()) {
+            return Result.REQUIRE_UPDATE_TO_NEW_VERSION;
+        }
+        if (isInsufficientCounterpartyTradeLimit(offer)) {
+            return Result.IS_INSUFFICIENT_COUNTERPARTY_TRADE_LIMIT;
+        }
+        if (isMyInsufficientTradeLimit(offer)) {
+            return Result.IS_MY_INSUFFICIENT_TRADE_LIMIT;
+        }
+        return Result.VALID;
+    }
+
+    private void removeCachedResults(String offerId) {
+        cachedResults.remove(offerId);
+        insufficientCounterpartyTradeLimitCache.remove(offerId);
+        myInsufficientTradeLimitCache.remove(offerId);
     }
 
     public boolean isReservedFundsSpent(Offer offer) {
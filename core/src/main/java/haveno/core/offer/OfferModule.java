@@ -22,6 +22,9 @@ import haveno.common.app.AppModule;
 import haveno.common.config.Config;
 import lombok.extern.slf4j.Slf4j;
 
+import static com.google.inject.name.Names.named;
+import static haveno.common.config.Config.OFFER_BOOK_BATCH_WINDOW_MS;
+
 @Slf4j
 public class OfferModule extends AppModule {
 
@@ -33,5 +36,7 @@ public class OfferModule extends AppModule {
     protected final void configure() {
         bind(OpenOfferManager.class).in(Singleton.class);
         bind(OfferBookService.class).in(Singleton.class);
+
+        bindConstant().annotatedWith(named(OFFER_BOOK_BATCH_WINDOW_MS)).to(config.offerBookBatchWindowMs);
     }
 }
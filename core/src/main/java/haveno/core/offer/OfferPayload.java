@@ -21,9 +21,10 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonSerializationContext;
 import com.google.protobuf.ByteString;
-import haveno.common.crypto.Hash;
 import haveno.common.crypto.PubKeyRing;
+import haveno.common.proto.MemoizedProto;
 import haveno.common.proto.ProtoUtil;
+import haveno.common.proto.network.HashMemoizingPayload;
 import haveno.common.util.CollectionUtils;
 import haveno.common.util.Hex;
 import haveno.common.util.JsonExclude;
@@ -34,9 +35,9 @@ import haveno.network.p2p.NodeAddress;
 import haveno.network.p2p.storage.payload.ExpirablePayload;
 import haveno.network.p2p.storage.payload.ProtectedStoragePayload;
 import haveno.network.p2p.storage.payload.RequiresOwnerIsOnlinePayload;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
-import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.Nullable;
@@ -51,10 +52,11 @@ import java.util.concurrent.TimeUnit;
 
 // OfferPayload has about 1.4 kb. We should look into options to make it smaller but will be hard to do it in a
 // backward compatible way. Maybe a candidate when segwit activation is done as hardfork?
-@EqualsAndHashCode(exclude = {"hash"})
+@EqualsAndHashCode
 @Getter
 @Slf4j
-public final class OfferPayload implements ProtectedStoragePayload, ExpirablePayload, RequiresOwnerIsOnlinePayload {
+public final class OfferPayload implements ProtectedStoragePayload, ExpirablePayload, RequiresOwnerIsOnlinePayload,
+        HashMemoizingPayload {
     public static final long TTL = TimeUnit.MINUTES.toMillis(11);
 
     protected final String id;
@@ -75,19 +77,17 @@ public final class OfferPayload implements ProtectedStoragePayload, ExpirablePay
     protected final int protocolVersion;
     @JsonExclude
     protected final PubKeyRing pubKeyRing;
-    // cache
-    protected transient byte[] hash;
+    // cache, reset by the setters of the mutable properties
+    @Getter(AccessLevel.NONE)
+    protected transient final MemoizedProto<protobuf.StoragePayload> memoizedProto = new MemoizedProto<>(this::buildProtoMessage);
     @Nullable
     protected final Map<String, String> extraDataMap;
 
     // address and signature of signing arbitrator
-    @Setter
     @Nullable
     protected NodeAddress arbitratorSigner;
-    @Setter
     @Nullable
     protected byte[] arbitratorSignature;
-    @Setter
     @Nullable
     protected List<String> reserveTxKeyImages;
 
@@ -247,10 +247,27 @@ public final class OfferPayload implements ProtectedStoragePayload, ExpirablePay
     }
 
     public byte[] getHash() {
-        if (this.hash == null) {
-            this.hash = Hash.getSha256Hash(this.toProtoMessage().toByteArray());
-        }
-        return this.hash;
+        return memoizedProto.getSha256Hash();
+    }
+
+    @Override
+    public byte[] getSha256Hash() {
+        return memoizedProto.getSha256Hash();
+    }
+
+    public void setArbitratorSigner(@Nullable NodeAddress arbitratorSigner) {
+        this.arbitratorSigner = arbitratorSigner;
+        memoizedProto.reset();
+    }
+
+    public void setArbitratorSignature(@Nullable byte[] arbitratorSignature) {
+        this.arbitratorSignature = arbitratorSignature;
+        memoizedProto.reset();
+    }
+
+    public void setReserveTxKeyImages(@Nullable List<String> reserveTxKeyImages) {
+        this.reserveTxKeyImages = reserveTxKeyImages;
+        memoizedProto.reset();
     }
 
     public byte[] getSignatureHash() {
@@ -357,6 +374,10 @@ public final class OfferPayload implements ProtectedStoragePayload, ExpirablePay
 
     @Override
     public protobuf.StoragePayload toProtoMessage() {
+        return memoizedProto.get();
+    }
+
+    private protobuf.StoragePayload buildProtoMessage() {
         protobuf.OfferPayload.Builder builder = protobuf.OfferPayload.newBuilder()
                 .setId(id)
                 .setDate(date)
@@ -474,7 +495,7 @@ public final class OfferPayload implements ProtectedStoragePayload, ExpirablePay
                 ",\r\n     versionNr='" + versionNr + '\'' +
                 ",\r\n     protocolVersion=" + protocolVersion +
                 ",\r\n     pubKeyRing=" + pubKeyRing +
-                ",\r\n     hash=" + (hash != null ? Hex.encode(hash) : "null") +
+                ",\r\n     hash=" + Hex.encode(getHash()) +
                 ",\r\n     extraDataMap=" + extraDataMap +
                 ",\r\n     reserveTxKeyImages=" + reserveTxKeyImages +
                 ",\r\n     marketPriceMargin=" + marketPriceMarginPct +
@@ -394,15 +394,22 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
 
         maybeUpdatePersistedOffers();
 
-        // listen for spent key images to close open and signed offers
-        xmrConnectionService.getKeyImagePoller().addListener(new XmrKeyImageListener() {
+        // listen for spent key images to close open offers
+        xmrConnectionService.getKeyImagePoller().addListener(OPEN_OFFER_GROUP_KEY_IMAGE_ID, new XmrKeyImageListener() {
             @Override
             public void onSpentStatusChanged(Map<String, MoneroKeyImageSpentStatus> spentStatuses) {
                 for (Entry<String, MoneroKeyImageSpentStatus> entry : spentStatuses.entrySet()) {
-                    if (XmrKeyImagePoller.isSpent(entry.getValue())) {
-                        cancelOpenOffersOnSpent(entry.getKey());
-                        removeSignedOffers(entry.getKey());
-                    }
+                    if (XmrKeyImagePoller.isSpent(entry.getValue())) cancelOpenOffersOnSpent(entry.getKey());
+                }
+            }
+        });
+
+        // listen for spent key images to remove signed offers
+        xmrConnectionService.getKeyImagePoller().addListener(SIGNED_OFFER_KEY_IMAGE_GROUP_ID, new XmrKeyImageListener() {
+            @Override
+            public void onSpentStatusChanged(Map<String, MoneroKeyImageSpentStatus> spentStatuses) {
+                for (Entry<String, MoneroKeyImageSpentStatus> entry : spentStatuses.entrySet()) {
+                    if (XmrKeyImagePoller.isSpent(entry.getValue())) removeSignedOffers(entry.getKey());
                 }
             }
         });
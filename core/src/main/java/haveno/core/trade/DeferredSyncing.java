@@ -0,0 +1,58 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.trade;
+
+/**
+ * Tracks whether a trade defers opening its wallet and syncing on initialization.
+ *
+ * The trade manager requests the deferral before initializing a trade on startup. It only takes effect if the
+ * initialization would start syncing, so trades without a deposit, with a finalized payout or without a wallet are
+ * never deferred. Deferred syncing is started once, either by the trade manager after startup or when the wallet is
+ * opened on demand before.
+ */
+class DeferredSyncing {
+    private boolean isRequested;
+    private boolean isDeferred;
+
+    synchronized void request() {
+        isRequested = true;
+    }
+
+    /**
+     * Called by the initialization instead of starting to sync.
+     *
+     * @return true if syncing is deferred, false if the caller starts syncing now
+     */
+    synchronized boolean deferIfRequested() {
+        if (isRequested) isDeferred = true;
+        return isDeferred;
+    }
+
+    synchronized boolean isDeferred() {
+        return isDeferred;
+    }
+
+    /**
+     * @return true if syncing was deferred and the caller starts it now, false if it is not deferred or got started
+     */
+    synchronized boolean takeDeferred() {
+        if (!isDeferred) return false;
+        isDeferred = false;
+        return true;
+    }
+}
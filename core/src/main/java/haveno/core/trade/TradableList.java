@@ -28,6 +28,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -52,13 +53,28 @@ public final class TradableList<T extends Tradable> extends PersistableListAsObs
     @Override
     public Message toProtoMessage() {
         synchronized (getList()) {
-            return protobuf.PersistableEnvelope.newBuilder()
-                    .setTradableList(protobuf.TradableList.newBuilder()
-                            .addAllTradable(ProtoUtil.collectionToProto(getList(), protobuf.Tradable.class)))
-                    .build();
+            return toPersistableMessage(ProtoUtil.collectionToProto(getList(), protobuf.Tradable.class));
         }
     }
 
+    // Trades get mutated by the trade threads, so we snapshot the tradables by building their protos on the calling
+    // thread under the list lock. Only the envelope gets built on the write thread.
+    @Override
+    public Supplier<Message> getPersistableMessageSupplier() {
+        Iterable<protobuf.Tradable> tradables;
+        synchronized (getList()) {
+            tradables = ProtoUtil.collectionToProto(getList(), protobuf.Tradable.class);
+        }
+        return () -> toPersistableMessage(tradables);
+    }
+
+    private static Message toPersistableMessage(Iterable<protobuf.Tradable> tradables) {
+        return protobuf.PersistableEnvelope.newBuilder()
+                .setTradableList(protobuf.TradableList.newBuilder()
+                        .addAllTradable(tradables))
+                .build();
+    }
+
     public static TradableList<Tradable> fromProto(protobuf.TradableList proto,
                                                    CoreProtoResolver coreProtoResolver,
                                                    XmrWalletService xmrWalletService) {
@@ -461,6 +461,7 @@ public abstract class Trade extends XmrWalletBase implements Tradable, Model {
     @Getter
     transient private boolean isInitialized;
     transient private boolean isFullyInitialized;
+    transient private final DeferredSyncing deferredSyncing = new DeferredSyncing();
 
     // Added in v1.2.0
     transient private ObjectProperty<BigInteger> tradeAmountProperty;
@@ -816,8 +817,8 @@ public abstract class Trade extends XmrWalletBase implements Tradable, Model {
         // trade is initialized
         isInitialized = true;
 
-        // init syncing if deposit requested
-        maybeInitSyncing();
+        // init syncing if deposit requested, unless the wallet is opened later
+        if (!deferredSyncing.deferIfRequested()) maybeInitSyncing();
         isFullyInitialized = true;
     }
 
@@ -915,6 +916,7 @@ public abstract class Trade extends XmrWalletBase implements Tradable, Model {
             if (walletExists()) throw new RuntimeException("Cannot create trade wallet because it already exists");
             long time = System.currentTimeMillis();
             wallet = xmrWalletService.createWallet(getWalletName());
+            xmrWalletService.getTradeWalletHost().onWalletOpened(this);
             log.info("{} {} created multisig wallet in {} ms", getClass().getSimpleName(), getId(), System.currentTimeMillis() - time);
             return wallet;
         }
@@ -927,13 +929,18 @@ public abstract class Trade extends XmrWalletBase implements Tradable, Model {
      */
     public MoneroWallet getWallet() {
         synchronized (walletLock) {
-            if (wallet != null) return wallet;
+            if (wallet != null) {
+                xmrWalletService.getTradeWalletHost().onWalletAccessed(this);
+                return wallet;
+            }
             if (!walletExists()) return null;
             if (isShutDownStarted) throw new RuntimeException("Cannot open wallet for " + getClass().getSimpleName() + " " + getId() + " because shut down is started");
             log.debug("Opening wallet for {} {}", getClass().getSimpleName(), getId());
             wallet = xmrWalletService.openWallet(getWalletName(), xmrWalletService.isProxyApplied(wasWalletSynced));
+            xmrWalletService.getTradeWalletHost().onWalletOpened(this);
             walletHeight.set(wallet.getHeight());
             doPollWallet(true); // poll wallet without network calls
+            if (deferredSyncing.isDeferred()) ThreadUtils.execute(() -> initDeferredSyncing(), getId()); // wallet opened on demand
             return wallet;
         }
     }
@@ -1079,6 +1086,7 @@ public abstract class Trade extends XmrWalletBase implements Tradable, Model {
             maybeBackupWallet();
             xmrWalletService.closeWallet(wallet, true);
             wallet = null;
+            xmrWalletService.getTradeWalletHost().onWalletClosed(this);
         }
     }
 
@@ -1086,6 +1094,7 @@ public abstract class Trade extends XmrWalletBase implements Tradable, Model {
         if (wallet != null) {
             MoneroWallet walletRef = wallet;
             wallet = null; // nullify wallet before force closing so state is updated for error handling
+            xmrWalletService.getTradeWalletHost().onWalletClosed(this);
             try {
                 xmrWalletService.forceCloseWallet(walletRef, walletRef.getPath());
             } catch (Exception e) {
@@ -3077,6 +3086,28 @@ public abstract class Trade extends XmrWalletBase implements Tradable, Model {
         }
     }
     
+    /**
+     * Defer opening the wallet and syncing on initialization, so the trade manager can open the wallets of all trades
+     * in priority order after startup. The wallet is still opened on demand. Has no effect if the initialization
+     * would not open the wallet.
+     */
+    void deferSyncing() {
+        deferredSyncing.request();
+    }
+
+    boolean isSyncingDeferred() {
+        return deferredSyncing.isDeferred();
+    }
+
+    /**
+     * Open the wallet and start syncing if it was deferred on initialization.
+     */
+    void initDeferredSyncing() {
+        if (!deferredSyncing.takeDeferred()) return;
+        if (isPayoutFinalized()) return;
+        maybeInitSyncing();
+    }
+
     private void doTryInitSyncing() {
         getWallet(); // ensure wallet is initialized
         updatePollPeriod();
@@ -3160,13 +3191,16 @@ public abstract class Trade extends XmrWalletBase implements Tradable, Model {
             updatePollPeriod();
             skipNextPollLoop = skipFirstPoll;
             if (!skipFirstPoll) log.info("Starting to poll wallet for {} {}", getClass().getSimpleName(), getId());
-            pollLooper = new TaskLooper(() -> new Thread(() -> {
+            TradePollScheduler pollScheduler = getPollScheduler();
+            if (pollScheduler != null) pollScheduler.register(this);
+            pollLooper = new TaskLooper(() -> {
                 if (skipNextPollLoop) {
                     skipNextPollLoop = false;
                     return;
                 }
-                pollWallet();
-            }).start());
+                if (pollScheduler == null) new Thread(() -> pollWallet()).start();
+                else pollScheduler.requestPoll(this);
+            });
             pollLooper.start(pollPeriodMs);
         }
     }
@@ -3176,10 +3210,18 @@ public abstract class Trade extends XmrWalletBase implements Tradable, Model {
             if (isPolling()) {
                 pollLooper.stop();
                 pollLooper = null;
+                TradePollScheduler pollScheduler = getPollScheduler();
+                if (pollScheduler != null) pollScheduler.unregister(this);
             }
         }
     }
 
+    @Nullable
+    private TradePollScheduler getPollScheduler() {
+        TradeManager tradeManager = processModel.getTradeManager();
+        return tradeManager == null ? null : tradeManager.getPollScheduler();
+    }
+
     private void resetPolling(boolean skipFirstPoll) {
         synchronized (pollLock) {
             if (isShutDownStarted) return;
@@ -3205,16 +3247,30 @@ public abstract class Trade extends XmrWalletBase implements Tradable, Model {
         maybeCloseIdlingWallet();
     }
 
+    /**
+     * Poll the wallet when scheduled by the {@link TradePollScheduler}.
+     */
+    void pollWalletScheduled() {
+        if (!isPolling()) return;
+        pollWallet();
+    }
+
     private void maybeCloseIdlingWallet() {
         
         // close arbitrator trade wallet while idling
-        if (isArbitrator()) {
-            ThreadUtils.execute(() -> {
-                if (isIdling() && !isPayoutFinalized()) {
-                    closeWallet(false);
-                }
-            }, getId());
-        }
+        if (isArbitrator()) closeWalletIfIdling();
+    }
+
+    /**
+     * Close the trade wallet without stopping to poll if the trade is idling. The wallet is opened again on the next
+     * poll or when it's needed.
+     */
+    void closeWalletIfIdling() {
+        ThreadUtils.execute(() -> {
+            if (isIdling() && !isPayoutFinalized()) {
+                closeWallet(false);
+            }
+        }, getId());
     }
 
     private void doPollWallet() {
@@ -3967,6 +4023,11 @@ public abstract class Trade extends XmrWalletBase implements Tradable, Model {
 
     @Override
     public Message toProtoMessage() {
+        // We might get serialized on the thread writing to disk, so we copy the chat messages under their lock
+        List<ChatMessage> chatMessagesCopy;
+        synchronized (chatMessages) {
+            chatMessagesCopy = new ArrayList<>(chatMessages);
+        }
         protobuf.Trade.Builder builder = protobuf.Trade.newBuilder()
                 .setOffer(offer.toProtoMessage())
                 .setTakeOfferDate(takeOfferDate)
@@ -3977,7 +4038,7 @@ public abstract class Trade extends XmrWalletBase implements Tradable, Model {
                 .setPayoutState(Trade.PayoutState.toProtoMessage(payoutState))
                 .setDisputeState(Trade.DisputeState.toProtoMessage(disputeState))
                 .setPeriodState(Trade.TradePeriodState.toProtoMessage(periodState))
-                .addAllChatMessage(getChatMessages().stream()
+                .addAllChatMessage(chatMessagesCopy.stream()
                         .map(msg -> msg.toProtoNetworkEnvelope().getChatMessage())
                         .collect(Collectors.toList()))
                 .setLockTime(lockTime)
@@ -50,6 +50,8 @@ import haveno.common.persistence.PersistenceManager;
 import haveno.common.proto.network.NetworkEnvelope;
 import haveno.common.proto.persistable.PersistedDataHost;
 import haveno.core.api.AccountServiceListener;
+import haveno.core.app.AppStartupState;
+import haveno.core.app.AppStartupState.TradesStage;
 import haveno.core.api.CoreAccountService;
 import haveno.core.api.CoreNotificationService;
 import haveno.core.locale.Res;
@@ -119,6 +121,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -143,6 +146,8 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
 
     private static final Logger log = LoggerFactory.getLogger(TradeManager.class);
     private static final int INIT_TRADE_RANDOM_DELAY_MS = 10000; // random delay to initialize trades
+    private static final int MAX_CONCURRENT_WALLET_POLLS = 10; // maximum number of trade wallets polled at the same time
+    private static final int MAX_CONCURRENT_WALLET_OPENS = 4; // maximum number of trade wallets opened at the same time on startup
 
     private boolean isShutDownStarted;
     private boolean isShutDown;
@@ -168,6 +173,7 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
     private final MediatorManager mediatorManager;
     private final ProcessModelServiceProvider processModelServiceProvider;
     private final ClockWatcher clockWatcher;
+    private final AppStartupState appStartupState;
 
     private final Map<String, TradeProtocol> tradeProtocolByTradeId = new HashMap<>();
     private final PersistenceManager<TradableList<Trade>> persistenceManager;
@@ -177,6 +183,9 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
     @Getter
     private final LongProperty numPendingTrades = new SimpleLongProperty();
     private final ReferralIdService referralIdService;
+    @Getter
+    private final TradePollScheduler pollScheduler = new TradePollScheduler(MAX_CONCURRENT_WALLET_POLLS);
+    private final TradeWalletOpener walletOpener;
 
     @Setter
     @Nullable
@@ -232,6 +241,7 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
                         MediatorManager mediatorManager,
                         ProcessModelServiceProvider processModelServiceProvider,
                         ClockWatcher clockWatcher,
+                        AppStartupState appStartupState,
                         PersistenceManager<TradableList<Trade>> persistenceManager,
                         ReferralIdService referralIdService) {
         this.user = user;
@@ -252,6 +262,8 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
         this.mediatorManager = mediatorManager;
         this.processModelServiceProvider = processModelServiceProvider;
         this.clockWatcher = clockWatcher;
+        this.appStartupState = appStartupState;
+        this.walletOpener = new TradeWalletOpener(appStartupState, MAX_CONCURRENT_WALLET_OPENS);
         this.referralIdService = referralIdService;
         this.persistenceManager = persistenceManager;
 
@@ -261,6 +273,9 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
 
         failedTradesManager.setUnFailTradeCallback(this::unFailTrade);
 
+        // poll trade wallets on new blocks and tx pool changes
+        xmrWalletService.getXmrConnectionService().addChainUpdateListener(pollScheduler);
+
         // TODO: better way to set references
         xmrWalletService.setTradeManager(this); // TODO: set reference in HavenoUtils for consistency
         HavenoUtils.notificationService = notificationService;
@@ -388,6 +403,7 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
         log.info("Shutting down {}", getClass().getSimpleName());
         isShutDown = true;
         closeAllTrades();
+        pollScheduler.shutDown();
     }
 
     private void closeAllTrades() {
@@ -440,18 +456,28 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
     private void initTrades() {
         log.info("Initializing trades");
 
-        // get all trades
+        // get all trades, which are readable while initializing
         List<Trade> trades = getAllTrades();
+        appStartupState.onTradesStageProgress(TradesStage.LOADED, trades.size(), trades.size());
 
-        // initialize trades in parallel
+        // initialize trades in parallel without opening their wallets
         int threadPoolSize = 10;
         Set<Runnable> initTradeTasks = new HashSet<Runnable>();
         Set<String> uids = new HashSet<String>();
         Set<Trade> tradesToSkip = new HashSet<Trade>();
         Set<Trade> uninitializedTrades = new HashSet<Trade>();
+        AtomicInteger numInitialized = new AtomicInteger();
         for (Trade trade : trades) {
-            initTradeTasks.add(getInitTradeTask(trade, trades, tradesToSkip, uninitializedTrades, uids));
+            Runnable initTradeTask = getInitTradeTask(trade, trades, tradesToSkip, uninitializedTrades, uids);
+            initTradeTasks.add(() -> {
+                try {
+                    initTradeTask.run();
+                } finally {
+                    appStartupState.onTradesStageProgress(TradesStage.PROTOCOLS_INITIALIZED, numInitialized.incrementAndGet(), trades.size());
+                }
+            });
         };
+        if (trades.isEmpty()) appStartupState.onTradesStageProgress(TradesStage.PROTOCOLS_INITIALIZED, 0, 0);
         ThreadUtils.awaitTasks(initTradeTasks, threadPoolSize);
         log.info("Done initializing trades");
         if (isShutDownStarted) return;
@@ -496,6 +522,9 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
         String referralId = referralIdService.getOptionalReferralId().orElse(null);
         boolean isTorNetworkNode = p2PService.getNetworkNode() instanceof TorNetworkNode;
         tradeStatisticsManager.maybePublishTradeStatistics(nonFailedTrades, referralId, isTorNetworkNode);
+
+        // open trade wallets in priority order
+        ThreadUtils.execute(() -> walletOpener.openWallets(trades, () -> isShutDownStarted), TradeManager.class.getSimpleName() + ".openTradeWallets");
     }
 
     private Runnable getInitTradeTask(Trade trade, Collection<Trade> trades, Set<Trade> tradesToSkip, Set<Trade> uninitializedTrades, Set<String> uids) {
@@ -520,7 +549,8 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
                     }
                 }
 
-                // initialize trade
+                // initialize trade without opening its wallet
+                if (getTradeProtocol(trade) == null) trade.deferSyncing();
                 initTrade(trade);
 
                 // record if protocol didn't initialize
@@ -0,0 +1,195 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.trade;
+
+import haveno.core.api.XmrConnectionService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+
+/**
+ * Schedules the wallet polls of trades on a bounded thread pool.
+ *
+ * Polls are requested by the poll period of each trade and when the daemon reports a new block or a change of the
+ * tx pool. Trades in time critical states (deposits or payout pending) are polled first and on every change of the
+ * tx pool, other active trades are polled on new blocks and idling trades only by their poll period. A trade is
+ * queued at most once, so requests for a trade whose poll is still queued are dropped.
+ */
+@Slf4j
+public class TradePollScheduler implements XmrConnectionService.ChainUpdateListener {
+
+    static final int PRIORITY_TIME_CRITICAL = 0;
+    static final int PRIORITY_ACTIVE = 1;
+    static final int PRIORITY_IDLE = 2;
+
+    private final ThreadPoolExecutor pollExecutor;
+    private final Map<String, Trade> trades = new ConcurrentHashMap<>();
+    private final Set<String> queuedTradeUids = ConcurrentHashMap.newKeySet();
+    private final Map<Trade.Phase, AtomicLong> numPollsByPhase = new ConcurrentHashMap<>();
+    private final AtomicLong numSequence = new AtomicLong();
+    private final AtomicLong numDroppedRequests = new AtomicLong();
+    private Long lastHeight;
+    private Long lastNumTxsPool;
+
+    private class PollTask implements Runnable, Comparable<PollTask> {
+        private final Trade trade;
+        private final int priority;
+        private final long sequence;
+
+        private PollTask(Trade trade, int priority) {
+            this.trade = trade;
+            this.priority = priority;
+            this.sequence = numSequence.incrementAndGet();
+        }
+
+        @Override
+        public void run() {
+            queuedTradeUids.remove(trade.getUid());
+            if (!trades.containsKey(trade.getUid())) return; // polling stopped while queued
+            numPollsByPhase.computeIfAbsent(trade.getPhase(), phase -> new AtomicLong()).incrementAndGet();
+            try {
+                trade.pollWalletScheduled();
+            } catch (Exception e) {
+                log.warn("Error polling wallet of {} {}: {}", trade.getClass().getSimpleName(), trade.getShortId(), e.getMessage());
+            }
+        }
+
+        @Override
+        public int compareTo(PollTask other) {
+            if (priority != other.priority) return Integer.compare(priority, other.priority);
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * @param maxConcurrentPolls maximum number of trade wallets polled at the same time
+     */
+    public TradePollScheduler(int maxConcurrentPolls) {
+        pollExecutor = new ThreadPoolExecutor(maxConcurrentPolls, maxConcurrentPolls, 60, TimeUnit.SECONDS, new PriorityBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, TradePollScheduler.class.getSimpleName());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pollExecutor.allowCoreThreadTimeOut(true);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Register a trade whose wallet is polled.
+     */
+    public void register(Trade trade) {
+        trades.put(trade.getUid(), trade);
+    }
+
+    public void unregister(Trade trade) {
+        trades.remove(trade.getUid());
+    }
+
+    /**
+     * Request to poll the wallet of a registered trade.
+     */
+    public void requestPoll(Trade trade) {
+        if (!trades.containsKey(trade.getUid())) return;
+        if (!queuedTradeUids.add(trade.getUid())) {
+            numDroppedRequests.incrementAndGet();
+            return;
+        }
+        try {
+            pollExecutor.execute(new PollTask(trade, getPriority(trade)));
+        } catch (Exception e) {
+            queuedTradeUids.remove(trade.getUid());
+            log.warn("Could not schedule wallet poll of {} {}: {}", trade.getClass().getSimpleName(), trade.getShortId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onChainUpdated(long height, @Nullable Long numTxsPool) {
+        boolean isNewBlock;
+        boolean isPoolChanged;
+        synchronized (this) {
+            isNewBlock = lastHeight != null && height != lastHeight;
+            isPoolChanged = lastNumTxsPool != null && numTxsPool != null && !numTxsPool.equals(lastNumTxsPool);
+            lastHeight = height;
+            lastNumTxsPool = numTxsPool;
+        }
+        if (!isNewBlock && !isPoolChanged) return;
+
+        // poll active trades on new blocks and time critical trades on tx pool changes
+        int numRequested = 0;
+        for (Trade trade : new ArrayList<>(trades.values())) {
+            int priority = getPriority(trade);
+            if (priority == PRIORITY_TIME_CRITICAL || (isNewBlock && priority == PRIORITY_ACTIVE)) {
+                requestPoll(trade);
+                numRequested++;
+            }
+        }
+        if (numRequested > 0) {
+            log.debug("Requested {} trade wallet polls on chain update, height={}, numTxsPool={}, newBlock={}, pollsByPhase={}",
+                    numRequested, height, numTxsPool, isNewBlock, getNumPollsByPhase());
+        }
+    }
+
+    /**
+     * Get the number of executed polls per trade phase.
+     */
+    public Map<Trade.Phase, Long> getNumPollsByPhase() {
+        Map<Trade.Phase, Long> numPolls = new TreeMap<>();
+        numPollsByPhase.forEach((phase, count) -> numPolls.put(phase, count.get()));
+        return numPolls;
+    }
+
+    public long getNumDroppedRequests() {
+        return numDroppedRequests.get();
+    }
+
+    public int getNumQueuedPolls() {
+        return queuedTradeUids.size();
+    }
+
+    public void shutDown() {
+        trades.clear();
+        pollExecutor.shutdownNow();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    static int getPriority(Trade trade) {
+        if (trade.isDepositRequested() && !trade.isDepositsConfirmed()) return PRIORITY_TIME_CRITICAL; // deposits pending
+        if (trade.isPaymentReceived() && !trade.isPayoutPublished()) return PRIORITY_TIME_CRITICAL; // payout pending
+        if (trade.isPayoutPublished() && !trade.isPayoutConfirmed()) return PRIORITY_TIME_CRITICAL; // payout unconfirmed
+        if (trade.isIdling()) return PRIORITY_IDLE;
+        return PRIORITY_ACTIVE;
+    }
+}
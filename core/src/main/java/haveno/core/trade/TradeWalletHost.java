@@ -0,0 +1,122 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.trade;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps track of the open trade wallets in least recently used order.
+ *
+ * Every open trade wallet needs its own monero-wallet-rpc process or native wallet, so nodes with many trades
+ * (e.g. arbitrators) can limit the number of open trade wallets. If more wallets than allowed are open, the least
+ * recently used trade wallets are closed if their trade is idling. Closed trade wallets are opened again on demand.
+ */
+@Slf4j
+public class TradeWalletHost {
+
+    private final int maxOpenWallets;
+    private final LinkedHashMap<String, Trade> openWallets = new LinkedHashMap<>(16, 0.75f, true); // iterates least recently used first
+    @Getter
+    private final AtomicLong numClosedIdleWallets = new AtomicLong();
+
+    /**
+     * @param maxOpenWallets maximum number of open trade wallets, 0 for no limit
+     */
+    public TradeWalletHost(int maxOpenWallets) {
+        this.maxOpenWallets = maxOpenWallets;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public void onWalletOpened(Trade trade) {
+        List<Trade> idleTrades;
+        synchronized (openWallets) {
+            openWallets.put(trade.getUid(), trade);
+            idleTrades = getIdleTradesToClose(trade);
+        }
+        for (Trade idleTrade : idleTrades) {
+            log.info("Closing least recently used wallet of {} {} because {} trade wallets are open, max={}",
+                    idleTrade.getClass().getSimpleName(), idleTrade.getShortId(), getNumOpenWallets(), maxOpenWallets);
+            numClosedIdleWallets.incrementAndGet();
+            idleTrade.closeWalletIfIdling();
+        }
+    }
+
+    public void onWalletAccessed(Trade trade) {
+        synchronized (openWallets) {
+            openWallets.get(trade.getUid()); // updates access order
+        }
+    }
+
+    public void onWalletClosed(Trade trade) {
+        synchronized (openWallets) {
+            openWallets.remove(trade.getUid());
+        }
+    }
+
+    public int getNumOpenWallets() {
+        synchronized (openWallets) {
+            return openWallets.size();
+        }
+    }
+
+    /**
+     * Get the maximum number of blocks an open trade wallet is behind the target height.
+     *
+     * @param targetHeight the height of the network
+     * @return the maximum sync lag in blocks, 0 if no trade wallet is open
+     */
+    public long getMaxSyncLag(long targetHeight) {
+        List<Trade> trades;
+        synchronized (openWallets) {
+            trades = new ArrayList<>(openWallets.values());
+        }
+        return trades.stream()
+                .mapToLong(trade -> Math.max(0, targetHeight - trade.getHeight()))
+                .max()
+                .orElse(0);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private List<Trade> getIdleTradesToClose(Trade openedTrade) {
+        if (maxOpenWallets <= 0 || openWallets.size() <= maxOpenWallets) return Collections.emptyList();
+        int numToClose = openWallets.size() - maxOpenWallets;
+        List<Trade> idleTrades = new ArrayList<>();
+        Iterator<Trade> iterator = openWallets.values().iterator();
+        while (iterator.hasNext() && idleTrades.size() < numToClose) {
+            Trade trade = iterator.next();
+            if (trade != openedTrade && trade.isIdling()) idleTrades.add(trade);
+        }
+        return idleTrades;
+    }
+}
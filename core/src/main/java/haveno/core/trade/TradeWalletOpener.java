@@ -0,0 +1,100 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.trade;
+
+import haveno.core.app.AppStartupState;
+import haveno.core.app.AppStartupState.TradesStage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Opens the trade wallets whose syncing was deferred on startup, most urgent trades first.
+ *
+ * Open disputes come first, then the time critical trades like unconfirmed deposits or pending payouts, idling trades
+ * last. Wallets which are needed before are opened on demand by the trade.
+ */
+@Slf4j
+class TradeWalletOpener {
+
+    private final AppStartupState appStartupState;
+    private final int maxConcurrentOpens;
+
+    /**
+     * @param appStartupState    receives the progress of the WALLETS_OPENED stage
+     * @param maxConcurrentOpens maximum number of trade wallets opened at the same time
+     */
+    TradeWalletOpener(AppStartupState appStartupState, int maxConcurrentOpens) {
+        this.appStartupState = appStartupState;
+        this.maxConcurrentOpens = maxConcurrentOpens;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Open the deferred wallets of the given trades and wait until all are opened.
+     */
+    void openWallets(List<Trade> trades, BooleanSupplier isShutDownStarted) {
+        List<Trade> tradesToOpen = trades.stream()
+                .filter(Trade::isSyncingDeferred)
+                .sorted(Comparator.comparingInt(TradeWalletOpener::getWalletOpenPriority))
+                .collect(Collectors.toList());
+        log.info("Opening {} trade wallets", tradesToOpen.size());
+        AtomicInteger numOpened = new AtomicInteger();
+        appStartupState.onTradesStageProgress(TradesStage.WALLETS_OPENED, 0, tradesToOpen.size());
+        ExecutorService executor = Executors.newFixedThreadPool(maxConcurrentOpens); // queued in priority order
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Trade trade : tradesToOpen) futures.add(executor.submit(() -> {
+                try {
+                    if (isShutDownStarted.getAsBoolean()) return;
+                    trade.initDeferredSyncing();
+                } catch (Exception e) {
+                    if (!isShutDownStarted.getAsBoolean()) log.warn("Error opening wallet for {} {}: {}\n", trade.getClass().getSimpleName(), trade.getId(), e.getMessage(), e);
+                } finally {
+                    appStartupState.onTradesStageProgress(TradesStage.WALLETS_OPENED, numOpened.incrementAndGet(), tradesToOpen.size());
+                }
+            }));
+            for (Future<?> future : futures) future.get();
+            log.info("Done opening trade wallets");
+        } catch (Exception e) {
+            if (!isShutDownStarted.getAsBoolean()) log.warn("Error opening trade wallets: {}\n", e.getMessage(), e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Get the priority to open the wallet of a trade on startup, lower values first.
+     */
+    static int getWalletOpenPriority(Trade trade) {
+        if (trade.getDisputeState().isOpen()) return 0;
+        return TradePollScheduler.getPriority(trade) + 1;
+    }
+}
@@ -56,6 +56,7 @@ public class TradeStatistics3StorageService extends HistoricalDataStoreService<T
     @Override
     protected void initializePersistenceManager() {
         persistenceManager.initialize(store, PersistenceManager.Source.NETWORK);
+        persistenceManager.enableJournal();
     }
 
     @Override
@@ -19,6 +19,7 @@ package haveno.core.trade.statistics;
 
 import com.google.protobuf.Message;
 import haveno.network.p2p.storage.P2PDataStorage;
+import haveno.network.p2p.storage.payload.PersistableNetworkPayload;
 import haveno.network.p2p.storage.persistence.PersistableNetworkPayloadStore;
 import lombok.extern.slf4j.Slf4j;
 
@@ -65,6 +66,16 @@ public class TradeStatistics3Store extends PersistableNetworkPayloadStore<TradeS
         return new TradeStatistics3Store(list);
     }
 
+    @Override
+    protected protobuf.TradeStatistics3 toProtoItem(PersistableNetworkPayload payload) {
+        return ((TradeStatistics3) payload).toProtoTradeStatistics3();
+    }
+
+    @Override
+    protected int getItemsFieldNumber() {
+        return protobuf.TradeStatistics3Store.ITEMS_FIELD_NUMBER;
+    }
+
     public boolean containsKey(P2PDataStorage.ByteArray hash) {
         return map.containsKey(hash);
     }
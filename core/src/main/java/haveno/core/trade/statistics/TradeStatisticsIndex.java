@@ -0,0 +1,72 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.trade.statistics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Index of trade statistics by currency and date.
+ * Range queries return the trade statistics sorted by date.
+ */
+class TradeStatisticsIndex {
+
+    private final Map<String, NavigableMap<Long, List<TradeStatistics3>>> tradeStatisticsByCurrency = new HashMap<>();
+
+    synchronized void add(TradeStatistics3 tradeStatistics) {
+        tradeStatisticsByCurrency.computeIfAbsent(tradeStatistics.getCurrency(), currency -> new TreeMap<>())
+                .computeIfAbsent(tradeStatistics.getDateAsLong(), date -> new ArrayList<>(1))
+                .add(tradeStatistics);
+    }
+
+    synchronized void addAll(Collection<TradeStatistics3> tradeStatistics) {
+        tradeStatistics.forEach(this::add);
+    }
+
+    /**
+     * Returns the trade statistics with the same currency as the given trade statistics with a date in the given
+     * distance (inclusive) to its date.
+     */
+    synchronized List<TradeStatistics3> getNeighbors(TradeStatistics3 tradeStatistics, long maxDistanceMs) {
+        NavigableMap<Long, List<TradeStatistics3>> byDate = tradeStatisticsByCurrency.get(tradeStatistics.getCurrency());
+        if (byDate == null) return List.of();
+        long date = tradeStatistics.getDateAsLong();
+        return flatten(byDate.subMap(date - maxDistanceMs, true, date + maxDistanceMs, true));
+    }
+
+    /**
+     * Returns the trade statistics of the given currency with fromDate <= date < toDate sorted by date.
+     */
+    synchronized List<TradeStatistics3> getTradeStatistics(String currency, long fromDate, long toDate) {
+        if (fromDate >= toDate) return List.of();
+        NavigableMap<Long, List<TradeStatistics3>> byDate = tradeStatisticsByCurrency.get(currency);
+        if (byDate == null) return List.of();
+        return flatten(byDate.subMap(fromDate, true, toDate, false));
+    }
+
+    private static List<TradeStatistics3> flatten(NavigableMap<Long, List<TradeStatistics3>> byDate) {
+        List<TradeStatistics3> result = new ArrayList<>();
+        byDate.values().forEach(result::addAll);
+        return result;
+    }
+}
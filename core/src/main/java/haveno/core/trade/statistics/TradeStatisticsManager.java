@@ -56,6 +56,8 @@ public class TradeStatisticsManager {
     private final File storageDir;
     private final boolean dumpStatistics;
     private final ObservableList<TradeStatistics3> observableTradeStatisticsList = FXCollections.observableArrayList();
+    // Index of observableTradeStatisticsList by currency and date
+    private final TradeStatisticsIndex tradeStatisticsIndex = new TradeStatisticsIndex();
     private JsonFileManager jsonFileManager;
     public static final int PUBLISH_STATS_RANDOM_DELAY_HOURS = 24;
 
@@ -91,6 +93,7 @@ public class TradeStatisticsManager {
                 }
                 synchronized (observableTradeStatisticsList) {
                     observableTradeStatisticsList.add(tradeStatistics);
+                    tradeStatisticsIndex.add(tradeStatistics);
                     priceFeedService.applyLatestHavenoMarketPrice(observableTradeStatisticsList);
                 }
                 maybeDumpStatistics();
@@ -109,6 +112,7 @@ public class TradeStatisticsManager {
 
         synchronized (observableTradeStatisticsList) {
             observableTradeStatisticsList.addAll(set);
+            tradeStatisticsIndex.addAll(set);
             priceFeedService.applyLatestHavenoMarketPrice(observableTradeStatisticsList);
         }
         maybeDumpStatistics();
@@ -128,7 +132,7 @@ public class TradeStatisticsManager {
 
         // collect stats with duplicated timestamp, currency, and payment method
         Set<TradeStatistics3> duplicates = new HashSet<>();
-        Set<TradeStatistics3> deduplicates = new HashSet<>();
+        TradeStatisticsIndex deduplicates = new TradeStatisticsIndex();
         for (TradeStatistics3 tradeStatistic : earlyTrades) {
             TradeStatistics3 duplicate = findDuplicate(tradeStatistic, deduplicates);
             if (duplicate == null) deduplicates.add(tradeStatistic);
@@ -139,8 +143,8 @@ public class TradeStatisticsManager {
         tradeStats.removeAll(duplicates);
     }
 
-    private TradeStatistics3 findDuplicate(TradeStatistics3 tradeStatistics, Set<TradeStatistics3> set) {
-        return set.stream().filter(e -> isDuplicate(tradeStatistics, e)).findFirst().orElse(null);
+    private TradeStatistics3 findDuplicate(TradeStatistics3 tradeStatistics, TradeStatisticsIndex index) {
+        return index.getNeighbors(tradeStatistics, 0).stream().filter(e -> isDuplicate(tradeStatistics, e)).findFirst().orElse(null);
     }
 
     private boolean isDuplicate(TradeStatistics3 tradeStatistics1, TradeStatistics3 tradeStatistics2) {
@@ -158,7 +162,7 @@ public class TradeStatisticsManager {
 
         // collect duplicated trades
         Set<TradeStatistics3> duplicates = new HashSet<TradeStatistics3>();
-        Set<TradeStatistics3> deduplicates = new HashSet<TradeStatistics3>();
+        TradeStatisticsIndex deduplicates = new TradeStatisticsIndex();
         for (TradeStatistics3 tradeStatistic : earlyTrades) {
             TradeStatistics3 fuzzyDuplicate = findFuzzyDuplicate(tradeStatistic, deduplicates);
             if (fuzzyDuplicate == null) deduplicates.add(tradeStatistic);
@@ -169,8 +173,12 @@ public class TradeStatisticsManager {
         tradeStats.removeAll(duplicates);
     }
 
-    private TradeStatistics3 findFuzzyDuplicate(TradeStatistics3 tradeStatistics, Set<TradeStatistics3> set) {
-        return set.stream().filter(e -> isFuzzyDuplicate(tradeStatistics, e)).findFirst().orElse(null);
+    private TradeStatistics3 findFuzzyDuplicate(TradeStatistics3 tradeStatistics, TradeStatisticsIndex index) {
+        // fuzzy duplicates are at most FUZZ_DATE_HOURS apart
+        return index.getNeighbors(tradeStatistics, TimeUnit.HOURS.toMillis(FUZZ_DATE_HOURS)).stream()
+                .filter(e -> isFuzzyDuplicate(tradeStatistics, e))
+                .findFirst()
+                .orElse(null);
     }
 
     private boolean isFuzzyDuplicate(TradeStatistics3 tradeStatistics1, TradeStatistics3 tradeStatistics2) {
@@ -199,6 +207,17 @@ public class TradeStatisticsManager {
         return observableTradeStatisticsList;
     }
 
+    /**
+     * Returns the trade statistics of the given currency with fromDate <= date < toDate sorted by date.
+     */
+    public List<TradeStatistics3> getTradeStatistics(String currency, long fromDate, long toDate) {
+        return tradeStatisticsIndex.getTradeStatistics(currency, fromDate, toDate);
+    }
+
+    public List<TradeStatistics3> getTradeStatistics(String currency) {
+        return getTradeStatistics(currency, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
     private void maybeDumpStatistics() {
         if (!dumpStatistics) {
             return;
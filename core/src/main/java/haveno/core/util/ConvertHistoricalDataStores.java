@@ -0,0 +1,100 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.util;
+
+import haveno.core.account.sign.SignedWitnessStore;
+import haveno.core.account.witness.AccountAgeWitnessStore;
+import haveno.core.trade.statistics.TradeStatistics3Store;
+import haveno.network.p2p.storage.persistence.HistoricalDataStoreService;
+import haveno.network.p2p.storage.persistence.MappedPayloadStore;
+import haveno.network.p2p.storage.persistence.PersistableNetworkPayloadStore;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * This utility converts the historical data store resource files (e.g. TradeStatistics3Store_0.0.1_XMR_MAINNET) of
+ * a directory to the memory mapped format. The output file name is the input file name with the
+ * {@link HistoricalDataStoreService#MAPPED_FILE_POSTFIX} inserted before the postfix of the network
+ * (e.g. TradeStatistics3Store_0.0.1_mapped_XMR_MAINNET). Live data stores and already mapped files are skipped.
+ *
+ * It runs as part of processResources of the core module, so the mapped files are packaged next to the protobuf files.
+ *
+ * Usage: ConvertHistoricalDataStores inputDir outputDir
+ */
+@Slf4j
+public class ConvertHistoricalDataStores {
+
+    // Store name, release version and network postfix of a historical data store file
+    private static final Pattern HISTORICAL_STORE_FILE_NAME =
+            Pattern.compile("^(TradeStatistics3Store|AccountAgeWitnessStore|SignedWitnessStore)_(\\d+\\.\\d+\\.\\d+)(_.+)?$");
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            log.error("Usage: ConvertHistoricalDataStores inputDir outputDir");
+            System.exit(1);
+        }
+        File inputDir = new File(args[0]);
+        File outputDir = new File(args[1]);
+        if (!outputDir.exists() && !outputDir.mkdirs()) {
+            throw new IOException("Could not create output directory " + outputDir);
+        }
+        File[] inputs = inputDir.listFiles();
+        if (inputs == null) {
+            log.info("No historical data stores to convert as {} does not exist", inputDir);
+            return;
+        }
+        for (File input : inputs) {
+            Matcher matcher = HISTORICAL_STORE_FILE_NAME.matcher(input.getName());
+            if (!input.isFile() || !matcher.matches() ||
+                    input.getName().contains(HistoricalDataStoreService.MAPPED_FILE_POSTFIX)) {
+                continue;
+            }
+            String networkPostfix = matcher.group(3) == null ? "" : matcher.group(3);
+            File output = new File(outputDir, matcher.group(1) + "_" + matcher.group(2) +
+                    HistoricalDataStoreService.MAPPED_FILE_POSTFIX + networkPostfix);
+            PersistableNetworkPayloadStore<?> store = readStore(input);
+            MappedPayloadStore.write(store.getMap().values(), output);
+            log.info("Converted {} entries of {} to {}", store.getMap().size(), input.getName(), output.getName());
+        }
+    }
+    private static PersistableNetworkPayloadStore<?> readStore(File file) throws IOException {
+        protobuf.PersistableEnvelope proto;
+        try (FileInputStream fileInputStream = new FileInputStream(file)) {
+            proto = protobuf.PersistableEnvelope.parseDelimitedFrom(fileInputStream);
+        }
+        if (proto == null) {
+            throw new IOException("File " + file.getName() + " is empty");
+        }
+        switch (proto.getMessageCase()) {
+            case TRADE_STATISTICS3_STORE:
+                return TradeStatistics3Store.fromProto(proto.getTradeStatistics3Store());
+            case ACCOUNT_AGE_WITNESS_STORE:
+                return AccountAgeWitnessStore.fromProto(proto.getAccountAgeWitnessStore());
+            case SIGNED_WITNESS_STORE:
+                return SignedWitnessStore.fromProto(proto.getSignedWitnessStore());
+            default:
+                throw new IOException("File " + file.getName() + " is not a historical data store but " +
+                        proto.getMessageCase());
+        }
+    }
+}
@@ -19,17 +19,28 @@ package haveno.core.xmr.setup;
 
 import lombok.extern.slf4j.Slf4j;
 import monero.common.MoneroError;
+import monero.common.MoneroRpcConnection;
 import monero.wallet.MoneroWalletRpc;
 
 import java.io.IOException;
 import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * Manages monero-wallet-rpc processes bound to ports.
+ *
+ * Processes whose wallet got closed can be released to a pool of idle processes, so the next wallet can be opened
+ * without starting a new process. Only the process is reused: every taken process is served by a new client, and
+ * the released client is no longer accepted by the process.
  */
 @Slf4j
 public class MoneroWalletRpcManager {
@@ -37,7 +48,27 @@ public class MoneroWalletRpcManager {
     private static final String RPC_BIND_PORT_ARGUMENT = "--rpc-bind-port";
     private static int NUM_ALLOWED_ATTEMPTS = 2; // allow this many attempts to bind to an assigned port
     private Integer startPort;
-    private final Map<Integer, MoneroWalletRpc> registeredPorts = new HashMap<>();
+    private final Map<Integer, MoneroWalletRpc> registeredPorts = new HashMap<>(); // client using the port, null while starting or idle
+    private final Map<Integer, WalletRpcProcess> processes = new HashMap<>();
+    private final Deque<Integer> idlePorts = new ArrayDeque<>();
+    private int maxIdleInstances;
+
+    /**
+     * A started monero-wallet-rpc process and the connection to reach it.
+     */
+    private static class WalletRpcProcess {
+        private final Process process;
+        private final MoneroRpcConnection connection;
+
+        private WalletRpcProcess(MoneroWalletRpc walletRpc) {
+            this.process = walletRpc.getProcess();
+            this.connection = new MoneroRpcConnection(walletRpc.getRpcConnection());
+        }
+
+        private boolean isAlive() {
+            return process == null || process.isAlive();
+        }
+    }
 
     /**
      * Manage monero-wallet-rpc instances by auto-assigning ports.
@@ -73,9 +104,7 @@ public class MoneroWalletRpcManager {
                     registeredPorts.put(port, null);
                 }
                 MoneroWalletRpc walletRpc = new MoneroWalletRpc(cmd); // starts monero-wallet-rpc process
-                synchronized (registeredPorts) {
-                    registeredPorts.put(port, walletRpc);
-                }
+                registerProcess(port, walletRpc);
                 return walletRpc;
             }
 
@@ -103,9 +132,7 @@ public class MoneroWalletRpcManager {
                         cmdCopy.add(RPC_BIND_PORT_ARGUMENT);
                         cmdCopy.add("" + port);
                         MoneroWalletRpc walletRpc = new MoneroWalletRpc(cmdCopy); // start monero-wallet-rpc process
-                        synchronized (registeredPorts) {
-                            registeredPorts.put(port, walletRpc);
-                        }
+                        registerProcess(port, walletRpc);
                         return walletRpc;
                     } catch (Exception e) {
                         if (numAttempts >= NUM_ALLOWED_ATTEMPTS) {
@@ -121,6 +148,126 @@ public class MoneroWalletRpcManager {
         }
     }
 
+    /**
+     * Set the maximum number of idle monero-wallet-rpc instances to keep for reuse.
+     *
+     * @param maxIdleInstances maximum number of idle instances, 0 to stop instances when released
+     */
+    public void setMaxIdleInstances(int maxIdleInstances) {
+        synchronized (registeredPorts) {
+            this.maxIdleInstances = Math.max(0, maxIdleInstances);
+        }
+    }
+
+    /**
+     * Indicates if a released instance would be kept for reuse.
+     */
+    public boolean canReleaseInstance() {
+        synchronized (registeredPorts) {
+            return idlePorts.size() < maxIdleInstances;
+        }
+    }
+
+    /**
+     * Release an instance of monero-wallet-rpc whose wallet is closed. The process is kept for reuse if the
+     * pool of idle instances is not full, otherwise it is stopped.
+     *
+     * The released client must not be used anymore. Its credentials are replaced, so the process rejects any
+     * further request from it, e.g. from a stale reference to the closed wallet.
+     *
+     * @param walletRpc the client connected to the monero-wallet-rpc instance without open wallet
+     * @param path the path of the closed wallet
+     */
+    public void releaseInstance(MoneroWalletRpc walletRpc, String path) {
+        synchronized (registeredPorts) {
+            Integer port = getPort(walletRpc);
+            if (port != null && idlePorts.size() < maxIdleInstances && processes.get(port).isAlive()) {
+                log.debug("Releasing monero-wallet-rpc process to idle pool, path={}, port={}, numIdleInstances={}", path, port, idlePorts.size() + 1);
+                walletRpc.getRpcConnection().setCredentials(MoneroWalletRpcManager.class.getSimpleName(), UUID.randomUUID().toString());
+                registeredPorts.put(port, null);
+                idlePorts.add(port);
+                return;
+            }
+        }
+        stopInstance(walletRpc, path, false);
+    }
+
+    /**
+     * Take an idle instance of monero-wallet-rpc to open a wallet.
+     *
+     * @return a new client connected to an idle monero-wallet-rpc instance, or null if no instance is idle
+     */
+    public MoneroWalletRpc takeIdleInstance() {
+        while (true) {
+            Integer port;
+            WalletRpcProcess process;
+            synchronized (registeredPorts) {
+                port = idlePorts.poll();
+                if (port == null) return null;
+                process = processes.get(port);
+                if (process.isAlive()) {
+                    MoneroWalletRpc walletRpc = new MoneroWalletRpc(new MoneroRpcConnection(process.connection));
+                    registeredPorts.put(port, walletRpc);
+                    return walletRpc;
+                }
+                removePort(port);
+            }
+            stopProcess(port, process, null, true);
+        }
+    }
+
+    /**
+     * Stop all idle instances of monero-wallet-rpc.
+     */
+    public void stopIdleInstances() {
+        while (true) {
+            Integer port;
+            WalletRpcProcess process;
+            synchronized (registeredPorts) {
+                port = idlePorts.poll();
+                if (port == null) return;
+                process = processes.get(port);
+                removePort(port);
+            }
+            stopProcess(port, process, null, false);
+        }
+    }
+
+    /**
+     * Get the number of running monero-wallet-rpc instances including idle instances.
+     */
+    public int getNumInstances() {
+        synchronized (registeredPorts) {
+            return processes.size();
+        }
+    }
+
+    public int getNumIdleInstances() {
+        synchronized (registeredPorts) {
+            return idlePorts.size();
+        }
+    }
+
+    /**
+     * Get the total resident set size of the monero-wallet-rpc processes.
+     *
+     * @return the resident set size in bytes, or null if not supported by the operating system
+     */
+    public Long getResidentSetSize() {
+        List<WalletRpcProcess> instances;
+        synchronized (registeredPorts) {
+            instances = new ArrayList<>(processes.values());
+        }
+        long residentSetSize = 0;
+        for (WalletRpcProcess instance : instances) {
+            if (instance.process == null) continue;
+            Long processResidentSetSize = getResidentSetSize(instance.process.pid());
+            if (processResidentSetSize == null) return null;
+            residentSetSize += processResidentSetSize;
+        }
+        return residentSetSize;
+    }
+
     /**
      * Stop an instance of monero-wallet-rpc.
      *
@@ -131,13 +278,68 @@ public class MoneroWalletRpcManager {
     public void stopInstance(MoneroWalletRpc walletRpc, String path, boolean force) {
 
         // unregister port
-        int port = unregisterPort(walletRpc);
+        int port;
+        WalletRpcProcess process;
+        synchronized (registeredPorts) {
+            port = unregisterPort(walletRpc);
+            process = processes.get(port);
+        }
 
-        // stop process
-        String pid = walletRpc.getProcess() == null ? null : String.valueOf(walletRpc.getProcess().pid());
-        if (force) log.info("Stopping MoneroWalletRpc path={}, port={}, pid={}, force={}", path, port, pid, force);
-        else log.debug("Stopping MoneroWalletRpc path={}, port={}, pid={}, force={}", path, port, pid, force);
-        walletRpc.stopProcess(force);
+        // stop process, which the client owns unless it was taken from the idle pool
+        if (walletRpc.getProcess() != null) {
+            logStopProcess(port, walletRpc.getProcess(), path, force);
+            walletRpc.stopProcess(force);
+        } else {
+            stopProcess(port, process, path, force);
+        }
+    }
+
+
+    private void registerProcess(int port, MoneroWalletRpc walletRpc) {
+        synchronized (registeredPorts) {
+            registeredPorts.put(port, walletRpc);
+            processes.put(port, new WalletRpcProcess(walletRpc));
+        }
+    }
+
+    private static void stopProcess(int port, WalletRpcProcess process, String path, boolean force) {
+        if (process == null || process.process == null) return;
+        logStopProcess(port, process.process, path, force);
+        if (force) process.process.destroyForcibly();
+        else process.process.destroy();
+        try {
+            process.process.waitFor();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void logStopProcess(int port, Process process, String path, boolean force) {
+        if (force) log.info("Stopping MoneroWalletRpc path={}, port={}, pid={}, force={}", path, port, process.pid(), force);
+        else log.debug("Stopping MoneroWalletRpc path={}, port={}, pid={}, force={}", path, port, process.pid(), force);
+    }
+
+    private Integer getPort(MoneroWalletRpc walletRpc) {
+        for (Map.Entry<Integer, MoneroWalletRpc> entry : registeredPorts.entrySet()) {
+            if (walletRpc == entry.getValue()) return entry.getKey();
+        }
+        return null;
+    }
+
+    // reads VmRSS from /proc/<pid>/status, so only supported on linux
+    private static Long getResidentSetSize(long pid) {
+        Path statusPath = Paths.get("/proc", Long.toString(pid), "status");
+        if (!Files.isReadable(statusPath)) return null;
+        try {
+            for (String line : Files.readAllLines(statusPath)) {
+                if (!line.startsWith("VmRSS:")) continue;
+                String[] tokens = line.substring("VmRSS:".length()).trim().split("\\s+");
+                return Long.parseLong(tokens[0]) * 1024; // value is in kB
+            }
+        } catch (Exception e) {
+            log.debug("Could not read resident set size of process {}: {}", pid, e.getMessage());
+        }
+        return null;
     }
 
     private int registerNextPort() throws IOException {
@@ -151,21 +353,9 @@ public class MoneroWalletRpcManager {
 
     private int unregisterPort(MoneroWalletRpc walletRpc) {
         synchronized (registeredPorts) {
-            int port = -1;
-            boolean found = false;
-            for (Map.Entry<Integer, MoneroWalletRpc> entry : registeredPorts.entrySet()) {
-                if (walletRpc == entry.getValue()) {
-                    found = true;
-                    try {
-                        port = entry.getKey();
-                        removePort(port);
-                    } catch (Exception e) {
-                        throw new MoneroError(e);
-                    }
-                    break;
-                }
-            }
-            if (!found) throw new RuntimeException("MoneroWalletRpc instance not registered with a port");
+            Integer port = getPort(walletRpc);
+            if (port == null) throw new RuntimeException("MoneroWalletRpc instance not registered with a port");
+            removePort(port);
             return port;
         }
     }
@@ -173,6 +363,8 @@ public class MoneroWalletRpcManager {
     private void removePort(int port) {
         synchronized (registeredPorts) {
             registeredPorts.remove(port);
+            processes.remove(port);
+            idlePorts.remove(port);
         }
     }
 }
@@ -0,0 +1,190 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.xmr.wallet;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import monero.daemon.model.MoneroTx;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache of transactions fetched from the daemon.
+ *
+ * Only the transactions which are not cached are fetched. Concurrent requests for the same transaction are coalesced
+ * into one request to the daemon, and requests for different transactions do not block each other. Transactions in
+ * the pool are cached for the pool cache duration, confirmed transactions are cached longer since they rarely change.
+ */
+@Slf4j
+public class XmrDaemonTxCache {
+
+    private static class Entry {
+        private final MoneroTx tx;
+        private final long expirationTimeMs;
+
+        private Entry(MoneroTx tx, long expirationTimeMs) {
+            this.tx = tx;
+            this.expirationTimeMs = expirationTimeMs;
+        }
+    }
+
+    private final Function<List<String>, List<MoneroTx>> txFetcher;
+    private final LongSupplier poolTxCacheDurationMs;
+    private final long confirmedTxCacheDurationMs;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Optional<MoneroTx>>> inFlightRequests = new ConcurrentHashMap<>();
+
+    @Getter
+    private final AtomicLong numHits = new AtomicLong();
+    @Getter
+    private final AtomicLong numMisses = new AtomicLong();
+    @Getter
+    private final AtomicLong numCoalescedRequests = new AtomicLong();
+
+    /**
+     * @param txFetcher fetches the transactions with the given hashes from the daemon, omitting unknown transactions
+     * @param poolTxCacheDurationMs supplies how long transactions in the pool are cached
+     * @param confirmedTxCacheDurationMs how long confirmed transactions are cached
+     */
+    public XmrDaemonTxCache(Function<List<String>, List<MoneroTx>> txFetcher,
+                            LongSupplier poolTxCacheDurationMs,
+                            long confirmedTxCacheDurationMs) {
+        this.txFetcher = txFetcher;
+        this.poolTxCacheDurationMs = poolTxCacheDurationMs;
+        this.confirmedTxCacheDurationMs = confirmedTxCacheDurationMs;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Get transactions from the cache, fetching the transactions which are not cached.
+     *
+     * @param txHashes the hashes of the transactions to get
+     * @return the known transactions in the order of the given hashes
+     */
+    public List<MoneroTx> getTxs(List<String> txHashes) {
+        long now = System.currentTimeMillis();
+        Map<String, MoneroTx> txs = new HashMap<>();
+        List<String> txHashesToFetch = new ArrayList<>();
+        Map<String, CompletableFuture<Optional<MoneroTx>>> requests = new HashMap<>();
+        for (String txHash : txHashes) {
+            if (txs.containsKey(txHash) || requests.containsKey(txHash)) continue;
+
+            // get cached tx
+            Entry entry = entries.get(txHash);
+            if (entry != null && entry.expirationTimeMs > now) {
+                numHits.incrementAndGet();
+                txs.put(txHash, entry.tx);
+                continue;
+            }
+
+            // request tx or join in-flight request
+            numMisses.incrementAndGet();
+            CompletableFuture<Optional<MoneroTx>> request = new CompletableFuture<>();
+            CompletableFuture<Optional<MoneroTx>> inFlightRequest = inFlightRequests.putIfAbsent(txHash, request);
+            if (inFlightRequest == null) {
+                txHashesToFetch.add(txHash);
+                requests.put(txHash, request);
+            } else {
+                numCoalescedRequests.incrementAndGet();
+                requests.put(txHash, inFlightRequest);
+            }
+        }
+
+        // fetch missing txs with one request
+        if (!txHashesToFetch.isEmpty()) fetchTxs(txHashesToFetch);
+
+        // wait for requested txs
+        for (Map.Entry<String, CompletableFuture<Optional<MoneroTx>>> request : requests.entrySet()) {
+            try {
+                request.getValue().join().ifPresent(tx -> txs.put(request.getKey(), tx));
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+                throw e;
+            }
+        }
+
+        // collect txs in requested order
+        List<MoneroTx> orderedTxs = new ArrayList<>();
+        for (String txHash : txHashes) {
+            MoneroTx tx = txs.get(txHash);
+            if (tx != null) orderedTxs.add(tx);
+        }
+        return orderedTxs;
+    }
+
+    /**
+     * Store transactions which were fetched from the daemon.
+     */
+    public void put(List<MoneroTx> txs) {
+        long now = System.currentTimeMillis();
+        for (MoneroTx tx : txs) {
+            long cacheDurationMs = Boolean.TRUE.equals(tx.isConfirmed()) ? confirmedTxCacheDurationMs : poolTxCacheDurationMs.getAsLong();
+            entries.put(tx.getHash(), new Entry(tx, now + cacheDurationMs));
+        }
+        entries.values().removeIf(entry -> entry.expirationTimeMs <= now);
+    }
+
+    public int getNumInFlightRequests() {
+        return inFlightRequests.size();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void fetchTxs(List<String> txHashes) {
+        try {
+            List<MoneroTx> txs = txFetcher.apply(txHashes);
+            put(txs);
+            Map<String, MoneroTx> fetchedTxs = new HashMap<>();
+            for (MoneroTx tx : txs) fetchedTxs.put(tx.getHash(), tx);
+            for (String txHash : txHashes) {
+                completeRequest(txHash, Optional.ofNullable(fetchedTxs.get(txHash)), null);
+            }
+        } catch (RuntimeException e) {
+            for (String txHash : txHashes) completeRequest(txHash, null, e);
+            throw e;
+        }
+    }
+
+    private void completeRequest(String txHash, Optional<MoneroTx> tx, RuntimeException e) {
+        CompletableFuture<Optional<MoneroTx>> request = inFlightRequests.remove(txHash);
+        if (request == null) return;
+        if (e == null) request.complete(tx);
+        else request.completeExceptionally(e);
+    }
+}
@@ -17,6 +17,7 @@
 
 package haveno.core.xmr.wallet;
 
+import haveno.common.ThreadUtils;
 import lombok.extern.slf4j.Slf4j;
 import monero.common.MoneroError;
 import monero.common.TaskLooper;
@@ -31,12 +32,20 @@ import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import javax.annotation.Nullable;
 
 import haveno.core.trade.HavenoUtils;
 
 /**
  * Poll for changes to the spent status of key images.
+ *
+ * A single instance is shared by all components of the node, so key images which are used by several groups (e.g. an
+ * offer in the offer book which is also our open offer) are only polled once. Polling is block driven: all key images
+ * are polled after a new block and the key images not known to be spent after a change of the tx pool, see
+ * onChainUpdated. Key images which were added since get polled at the next refresh period. If we don't get notified
+ * about chain updates, all key images are polled every refresh period.
  */
 @Slf4j
 public class XmrKeyImagePoller {
@@ -47,10 +56,14 @@ public class XmrKeyImagePoller {
     private Map<String, Set<String>> keyImageGroups = new HashMap<String, Set<String>>();
     private LinkedHashSet<String> keyImagePollQueue = new LinkedHashSet<>();
     private Set<XmrKeyImageListener> listeners = new HashSet<XmrKeyImageListener>();
+    private Map<String, Set<XmrKeyImageListener>> groupListeners = new HashMap<String, Set<XmrKeyImageListener>>();
     private TaskLooper looper;
     private Map<String, MoneroKeyImageSpentStatus> lastStatuses = new HashMap<String, MoneroKeyImageSpentStatus>();
     private boolean isPolling = false;
     private Long lastLogPollErrorTimestamp;
+    private final Object pollLock = new Object();
+    private Long lastHeight;
+    private Long lastNumTxsPool;
     private static final int MAX_POLL_SIZE = 200;
 
     /**
@@ -97,6 +110,55 @@ public class XmrKeyImagePoller {
         }
     }
 
+    /**
+     * Add a listener to receive notifications about the key images of the given group only.
+     *
+     * @param groupId - the group of key images to listen to
+     * @param listener - the listener to add
+     */
+    public void addListener(String groupId, XmrKeyImageListener listener) {
+        synchronized (lock) {
+            groupListeners.computeIfAbsent(groupId, id -> new HashSet<XmrKeyImageListener>()).add(listener);
+            refreshPolling();
+        }
+    }
+
+    /**
+     * Remove a listener of the given group.
+     *
+     * @param groupId - the group of key images the listener was added to
+     * @param listener - the listener to remove
+     */
+    public void removeListener(String groupId, XmrKeyImageListener listener) {
+        synchronized (lock) {
+            Set<XmrKeyImageListener> listenersOfGroup = groupListeners.get(groupId);
+            if (listenersOfGroup == null || !listenersOfGroup.remove(listener)) throw new MoneroError("Listener is not registered");
+            if (listenersOfGroup.isEmpty()) groupListeners.remove(groupId);
+            refreshPolling();
+        }
+    }
+
+    /**
+     * Notify about the current state of the chain. All key images are polled if a new block arrived since the last
+     * update. If only the tx pool changed, we poll the key images which are not known to be spent, as a new tx in the
+     * pool can only spend those. Key images of txs which left the pool without being confirmed are updated at the
+     * next block.
+     *
+     * @param height - the current height of the chain
+     * @param numTxsPool - the number of transactions in the tx pool, null if unknown
+     */
+    public void onChainUpdated(long height, @Nullable Long numTxsPool) {
+        synchronized (lock) {
+            boolean isNewHeight = lastHeight == null || lastHeight != height;
+            if (!isNewHeight && Objects.equals(lastNumTxsPool, numTxsPool)) return;
+            lastHeight = height;
+            lastNumTxsPool = numTxsPool;
+            keyImagePollQueue.addAll(isNewHeight ? getKeyImages() : getKeyImagesNotSpent());
+            if (!isPolling || keyImagePollQueue.isEmpty()) return;
+        }
+        ThreadUtils.submitToPool(() -> poll());
+    }
+
     /**
      * Set the Monero daemon to fetch key images from.
      *
@@ -152,7 +214,9 @@ public class XmrKeyImagePoller {
             if (!keyImageGroups.containsKey(groupId)) keyImageGroups.put(groupId, new HashSet<String>());
             Set<String> keyImagesGroup = keyImageGroups.get(groupId);
             keyImagesGroup.addAll(keyImages);
-            keyImagePollQueue.addAll(keyImages);
+            for (String keyImage : keyImages) {
+                if (!lastStatuses.containsKey(keyImage)) keyImagePollQueue.add(keyImage);
+            }
             refreshPolling();
         }
     }
@@ -242,17 +306,35 @@ public class XmrKeyImagePoller {
         }
     }
 
+    /**
+     * Poll the spent status of the key images which are due, in batches of MAX_POLL_SIZE.
+     */
     public void poll() {
         if (monerod == null) {
             log.warn("Cannot poll key images because monerod is null");
             return;
         }
 
+        synchronized (pollLock) {
+
+            // poll all key images every refresh period if we are not notified about chain updates
+            synchronized (lock) {
+                if (lastHeight == null) keyImagePollQueue.addAll(getKeyImages());
+            }
+
+            List<String> keyImages;
+            while (!(keyImages = getNextKeyImageBatch()).isEmpty()) {
+                if (!pollBatch(keyImages)) return;
+            }
+        }
+    }
+
+    private boolean pollBatch(List<String> keyImages) {
+
         // fetch spent statuses
         List<MoneroKeyImageSpentStatus> spentStatuses = null;
-        List<String> keyImages = new ArrayList<String>(getNextKeyImageBatch());
         try {
-            spentStatuses = keyImages.isEmpty() ? new ArrayList<MoneroKeyImageSpentStatus>() : monerod.getKeyImageSpentStatuses(keyImages); // TODO monero-java: if order of getKeyImageSpentStatuses is guaranteed, then it should take list parameter
+            spentStatuses = monerod.getKeyImageSpentStatuses(keyImages); // TODO monero-java: if order of getKeyImageSpentStatuses is guaranteed, then it should take list parameter
         } catch (Exception e) {
 
             // limit error logging
@@ -260,7 +342,7 @@ public class XmrKeyImagePoller {
                 log.warn("Error polling spent status of key images: " + e.getMessage());
                 lastLogPollErrorTimestamp = System.currentTimeMillis();
             }
-            return;
+            return false;
         }
 
         // process spent statuses
@@ -269,13 +351,12 @@ public class XmrKeyImagePoller {
             Set<String> allKeyImages = getKeyImages();
             for (int i = 0; i < keyImages.size(); i++) {
 
+                // key image is polled
+                keyImagePollQueue.remove(keyImages.get(i));
+
                 // skip if key image is removed
                 if (!allKeyImages.contains(keyImages.get(i))) continue;
 
-                // move key image to the end of the queue
-                keyImagePollQueue.remove(keyImages.get(i));
-                keyImagePollQueue.add(keyImages.get(i));
-
                 // update spent status
                 if (spentStatuses.get(i) != lastStatuses.get(keyImages.get(i))) {
                     lastStatuses.put(keyImages.get(i), spentStatuses.get(i));
@@ -285,20 +366,42 @@ public class XmrKeyImagePoller {
         }
 
         // announce changes
-        if (!changedStatuses.isEmpty()) {
-            List<XmrKeyImageListener> listeners;
-            synchronized (lock) {
-                listeners = new ArrayList<XmrKeyImageListener>(this.listeners);
-            }
-            for (XmrKeyImageListener listener : listeners) {
-                listener.onSpentStatusChanged(changedStatuses);
+        if (!changedStatuses.isEmpty()) announceChanges(changedStatuses);
+        return true;
+    }
+
+    private void announceChanges(Map<String, MoneroKeyImageSpentStatus> changedStatuses) {
+
+        // collect the changes of the groups per listener
+        List<XmrKeyImageListener> listeners;
+        Map<XmrKeyImageListener, Map<String, MoneroKeyImageSpentStatus>> changedStatusesByListener = new HashMap<>();
+        synchronized (lock) {
+            listeners = new ArrayList<XmrKeyImageListener>(this.listeners);
+            for (Map.Entry<String, Set<XmrKeyImageListener>> groupListenersEntry : groupListeners.entrySet()) {
+                Set<String> keyImagesGroup = keyImageGroups.get(groupListenersEntry.getKey());
+                if (keyImagesGroup == null) continue;
+                Map<String, MoneroKeyImageSpentStatus> changedStatusesOfGroup = new HashMap<String, MoneroKeyImageSpentStatus>();
+                for (Map.Entry<String, MoneroKeyImageSpentStatus> changedStatus : changedStatuses.entrySet()) {
+                    if (keyImagesGroup.contains(changedStatus.getKey())) changedStatusesOfGroup.put(changedStatus.getKey(), changedStatus.getValue());
+                }
+                if (changedStatusesOfGroup.isEmpty()) continue;
+                for (XmrKeyImageListener listener : groupListenersEntry.getValue()) {
+                    changedStatusesByListener.computeIfAbsent(listener, l -> new HashMap<String, MoneroKeyImageSpentStatus>()).putAll(changedStatusesOfGroup);
+                }
             }
         }
+
+        for (XmrKeyImageListener listener : listeners) {
+            listener.onSpentStatusChanged(changedStatuses);
+        }
+        for (Map.Entry<XmrKeyImageListener, Map<String, MoneroKeyImageSpentStatus>> entry : changedStatusesByListener.entrySet()) {
+            entry.getKey().onSpentStatusChanged(entry.getValue());
+        }
     }
 
     private void refreshPolling() {
         synchronized (lock) {
-            setIsPolling(!getKeyImages().isEmpty() && listeners.size() > 0);
+            setIsPolling(!getKeyImages().isEmpty() && (listeners.size() > 0 || groupListeners.size() > 0));
         }
     }
 
@@ -324,6 +427,18 @@ public class XmrKeyImagePoller {
         return allKeyImages;
     }
 
+    // Includes the key images whose status is not known yet
+    private Set<String> getKeyImagesNotSpent() {
+        Set<String> keyImagesNotSpent = new HashSet<String>();
+        synchronized (lock) {
+            for (String keyImage : getKeyImages()) {
+                MoneroKeyImageSpentStatus status = lastStatuses.get(keyImage);
+                if (status == null || !isSpent(status)) keyImagesNotSpent.add(keyImage);
+            }
+        }
+        return keyImagesNotSpent;
+    }
+
     private List<String> getNextKeyImageBatch() {
         synchronized (lock) {
             List<String> keyImageBatch = new ArrayList<>();
@@ -37,6 +37,7 @@ import haveno.core.trade.HavenoUtils;
 import haveno.core.trade.MakerTrade;
 import haveno.core.trade.Trade;
 import haveno.core.trade.TradeManager;
+import haveno.core.trade.TradeWalletHost;
 import haveno.core.trade.protocol.TradeProtocol;
 import haveno.core.user.Preferences;
 import haveno.core.user.User;
@@ -120,6 +121,8 @@ public class XmrWalletService extends XmrWalletBase {
     private static final long SHUTDOWN_TIMEOUT_MS = 60000;
     private static final long NUM_BLOCKS_BEHIND_TOLERANCE = 5;
     private static final long POLL_TXS_TOLERANCE_MS = 1000 * 60 * 3; // request connection switch if txs not updated within 3 minutes
+    private static final long CONFIRMED_TX_CACHE_DURATION_MS = 1000 * 60 * 10; // confirmed txs rarely change, so cache them longer than pool txs
+    private static final long LOG_TRADE_WALLET_STATS_PERIOD_MS = 1000 * 60 * 10;
 
     private final User user;
     private final Preferences preferences;
@@ -130,6 +133,8 @@ public class XmrWalletService extends XmrWalletBase {
     private final File walletDir;
     private final int rpcBindPort;
     private final boolean useNativeXmrWallet;
+    private final TradeWalletHost tradeWalletHost;
+    private final XmrDaemonTxCache daemonTxCache;
     protected final CopyOnWriteArraySet<XmrBalanceListener> balanceListeners = new CopyOnWriteArraySet<>();
     protected final CopyOnWriteArraySet<MoneroWalletListenerI> walletListeners = new CopyOnWriteArraySet<>();
 
@@ -143,6 +148,7 @@ public class XmrWalletService extends XmrWalletBase {
     private long lastLogDaemonNotSyncedTimestamp;
     private long lastLogPollErrorTimestamp;
     private long lastPollTxsTimestamp; 
+    private long lastLogTradeWalletStatsTimestamp;
     private final Object pollLock = new Object();
     private Long cachedHeight;
     private BigInteger cachedBalance;
@@ -161,7 +167,9 @@ public class XmrWalletService extends XmrWalletBase {
                      XmrAddressEntryList xmrAddressEntryList,
                      @Named(Config.WALLET_DIR) File walletDir,
                      @Named(Config.WALLET_RPC_BIND_PORT) int rpcBindPort,
-                     @Named(Config.USE_NATIVE_XMR_WALLET) boolean useNativeXmrWallet) {
+                     @Named(Config.USE_NATIVE_XMR_WALLET) boolean useNativeXmrWallet,
+                     @Named(Config.MAX_OPEN_TRADE_WALLETS) int maxOpenTradeWallets,
+                     @Named(Config.WALLET_RPC_POOL_SIZE) int walletRpcPoolSize) {
         this.user = user;
         this.preferences = preferences;
         this.accountService = accountService;
@@ -170,6 +178,9 @@ public class XmrWalletService extends XmrWalletBase {
         this.walletDir = walletDir;
         this.rpcBindPort = rpcBindPort;
         this.useNativeXmrWallet = useNativeXmrWallet;
+        this.tradeWalletHost = new TradeWalletHost(maxOpenTradeWallets);
+        this.daemonTxCache = new XmrDaemonTxCache(this::fetchDaemonTxs, () -> xmrConnectionService.getRefreshPeriodMs(), CONFIRMED_TX_CACHE_DURATION_MS);
+        MONERO_WALLET_RPC_MANAGER.setMaxIdleInstances(walletRpcPoolSize);
         HavenoUtils.xmrWalletService = this;
         HavenoUtils.xmrConnectionService = xmrConnectionService;
         this.xmrConnectionService = xmrConnectionService; // TODO: super's is null unless set here from injection
@@ -223,6 +234,34 @@ public class XmrWalletService extends XmrWalletBase {
         this.tradeManager = tradeManager;
     }
 
+    public TradeWalletHost getTradeWalletHost() {
+        return tradeWalletHost;
+    }
+
+    /**
+     * Get the number of running monero-wallet-rpc processes including idle pooled processes.
+     */
+    public int getNumWalletRpcProcesses() {
+        return MONERO_WALLET_RPC_MANAGER.getNumInstances();
+    }
+
+    /**
+     * Get the total resident set size of the monero-wallet-rpc processes.
+     *
+     * @return the resident set size in bytes, or null if not supported by the operating system
+     */
+    public Long getWalletRpcResidentSetSize() {
+        return MONERO_WALLET_RPC_MANAGER.getResidentSetSize();
+    }
+
+    /**
+     * Get the maximum number of blocks an open trade wallet is behind the target height.
+     */
+    public long getMaxTradeWalletSyncLag() {
+        Long targetHeight = xmrConnectionService.getTargetHeight();
+        return targetHeight == null ? 0 : tradeWalletHost.getMaxSyncLag(targetHeight);
+    }
+
     public MoneroWallet getWallet() {
         State state = walletsSetup.getWalletConfig().state();
         checkState(state == State.STARTING || state == State.RUNNING, "Cannot call until startup is complete and running, but state is: " + state);
@@ -356,8 +395,11 @@ public class XmrWalletService extends XmrWalletBase {
         log.info("Closing wallet with path={}, save={}", wallet.getPath(), save);
         MoneroError err = null;
         String path = wallet.getPath();
+
+        // keep wallet rpc process for reuse unless main wallet, which is bound to the configured rpc port
+        boolean reuseWalletRpc = wallet instanceof MoneroWalletRpc && wallet != this.wallet && !isShutDownStarted && MONERO_WALLET_RPC_MANAGER.canReleaseInstance();
         try {
-            if (save && wallet instanceof MoneroWalletRpc) {
+            if (save && wallet instanceof MoneroWalletRpc && !reuseWalletRpc) {
                 ((MoneroWalletRpc) wallet).stop(); // saves wallet and stops rpc server
             } else {
                 if (save) saveWallet(wallet);
@@ -367,8 +409,11 @@ public class XmrWalletService extends XmrWalletBase {
             err = e;
         }
 
-        // stop wallet rpc instance if applicable
-        if (wallet instanceof MoneroWalletRpc) MONERO_WALLET_RPC_MANAGER.stopInstance((MoneroWalletRpc) wallet, path, false);
+        // release or stop wallet rpc instance if applicable
+        if (wallet instanceof MoneroWalletRpc) {
+            if (reuseWalletRpc && err == null) MONERO_WALLET_RPC_MANAGER.releaseInstance((MoneroWalletRpc) wallet, path);
+            else MONERO_WALLET_RPC_MANAGER.stopInstance((MoneroWalletRpc) wallet, path, false);
+        }
         if (err != null) throw err;
     }
 
@@ -868,23 +913,9 @@ public class XmrWalletService extends XmrWalletBase {
     }
 
     public List<MoneroTx> getDaemonTxs(List<String> txHashes) {
-        synchronized (txCache) {
-
-            // fetch txs
-            if (getMonerod() == null) xmrConnectionService.verifyConnection(); // will throw
-            List<MoneroTx> txs = getMonerod().getTxs(txHashes, true);
-
-            // store to cache
-            for (MoneroTx tx : txs) txCache.put(tx.getHash(), Optional.of(tx));
-
-            // schedule txs to be removed from cache
-            UserThread.runAfter(() -> {
-                synchronized (txCache) {
-                    for (MoneroTx tx : txs) txCache.remove(tx.getHash());
-                }
-            }, xmrConnectionService.getRefreshPeriodMs() / 1000);
-            return txs;
-        }
+        List<MoneroTx> txs = fetchDaemonTxs(txHashes);
+        daemonTxCache.put(txs);
+        return txs;
     }
 
     public MoneroTx getDaemonTxWithCache(String txHash) {
@@ -893,23 +924,25 @@ public class XmrWalletService extends XmrWalletBase {
     }
 
     public List<MoneroTx> getDaemonTxsWithCache(List<String> txHashes) {
-        synchronized (txCache) {
-            try {
-                // get cached txs
-                List<MoneroTx> cachedTxs = new ArrayList<MoneroTx>();
-                List<String> uncachedTxHashes = new ArrayList<String>();
-                for (int i = 0; i < txHashes.size(); i++) {
-                    if (txCache.containsKey(txHashes.get(i))) cachedTxs.add(txCache.get(txHashes.get(i)).orElse(null));
-                    else uncachedTxHashes.add(txHashes.get(i));
-                }
+        try {
+            return daemonTxCache.getTxs(txHashes);
+        } catch (Exception e) {
+            if (!isShutDownStarted) throw e;
+            return null;
+        }
+    }
 
-                // return txs from cache if available, otherwise fetch
-                return uncachedTxHashes.isEmpty() ? cachedTxs : getDaemonTxs(txHashes);
-            } catch (Exception e) {
-                if (!isShutDownStarted) throw e;
-                return null;
-            }
+    public XmrDaemonTxCache getDaemonTxCache() {
+        return daemonTxCache;
+    }
+
+    private List<MoneroTx> fetchDaemonTxs(List<String> txHashes) {
+        MoneroDaemonRpc monerod = getMonerod();
+        if (monerod == null) {
+            xmrConnectionService.verifyConnection(); // will throw
+            monerod = getMonerod();
         }
+        return monerod.getTxs(txHashes, true);
     }
 
     public void onShutDownStarted() {
@@ -948,6 +981,9 @@ public class XmrWalletService extends XmrWalletBase {
                     log.warn("Error closing main wallet: {}. Was Haveno stopped manually with ctrl+c?", e.getMessage());
                 }
             }
+
+            // stop idle wallet rpc instances
+            MONERO_WALLET_RPC_MANAGER.stopIdleInstances();
         };
 
         // shut down with timeout
@@ -1670,8 +1706,9 @@ public class XmrWalletService extends XmrWalletBase {
         MoneroWalletRpc walletRpc = null;
         try {
 
-            // start monero-wallet-rpc instance
-            walletRpc = startWalletRpcInstance(port);
+            // take idle monero-wallet-rpc instance or start new instance
+            if (port == null) walletRpc = MONERO_WALLET_RPC_MANAGER.takeIdleInstance();
+            if (walletRpc == null) walletRpc = startWalletRpcInstance(port);
             walletRpc.getRpcConnection().setPrintStackTrace(PRINT_RPC_STACK_TRACE);
 
             // prevent wallet rpc from syncing
@@ -1701,8 +1738,9 @@ public class XmrWalletService extends XmrWalletBase {
         MoneroWalletRpc walletRpc = null;
         try {
 
-            // start monero-wallet-rpc instance
-            walletRpc = startWalletRpcInstance(port);
+            // take idle monero-wallet-rpc instance or start new instance
+            if (port == null) walletRpc = MONERO_WALLET_RPC_MANAGER.takeIdleInstance();
+            if (walletRpc == null) walletRpc = startWalletRpcInstance(port);
             walletRpc.getRpcConnection().setPrintStackTrace(PRINT_RPC_STACK_TRACE);
 
             // prevent wallet rpc from syncing
@@ -2070,6 +2108,7 @@ public class XmrWalletService extends XmrWalletBase {
                 }
             }
             requestSaveWalletIfElapsedTime();
+            maybeLogTradeWalletStats();
 
             // cache wallet info last
             synchronized (walletLock) {
@@ -2084,6 +2123,23 @@ public class XmrWalletService extends XmrWalletBase {
         }
     }
 
+    private void maybeLogTradeWalletStats() {
+        if (isShutDownStarted || System.currentTimeMillis() - lastLogTradeWalletStatsTimestamp < LOG_TRADE_WALLET_STATS_PERIOD_MS) return;
+        lastLogTradeWalletStatsTimestamp = System.currentTimeMillis();
+        try {
+            Long residentSetSize = getWalletRpcResidentSetSize();
+            log.info("Trade wallets: numOpen={}, numClosedIdle={}, maxSyncLag={} blocks, numWalletRpcProcesses={}, numIdleWalletRpcProcesses={}, walletRpcResidentSetSize={}",
+                    tradeWalletHost.getNumOpenWallets(),
+                    tradeWalletHost.getNumClosedIdleWallets().get(),
+                    getMaxTradeWalletSyncLag(),
+                    getNumWalletRpcProcesses(),
+                    MONERO_WALLET_RPC_MANAGER.getNumIdleInstances(),
+                    residentSetSize == null ? "n/a" : residentSetSize / (1024 * 1024) + " MB");
+        } catch (Exception e) {
+            log.warn("Error logging trade wallet stats: {}", e.getMessage());
+        }
+    }
+
     public boolean isWalletConnectedToDaemon() {
         synchronized (walletLock) {
             try {
@@ -0,0 +1,105 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.app;
+
+import haveno.core.api.CoreNotificationService;
+import haveno.core.api.XmrConnectionService;
+import haveno.core.app.AppStartupState.TradesStage;
+import haveno.core.xmr.wallet.XmrWalletService;
+import haveno.network.p2p.P2PService;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AppStartupStateTest {
+    private AppStartupState appStartupState;
+
+    @BeforeEach
+    public void setUp() {
+        XmrConnectionService xmrConnectionService = mock(XmrConnectionService.class);
+        when(xmrConnectionService.downloadPercentageProperty()).thenReturn(new SimpleDoubleProperty());
+        when(xmrConnectionService.numConnectionsProperty()).thenReturn(new SimpleIntegerProperty());
+        XmrWalletService xmrWalletService = mock(XmrWalletService.class);
+        when(xmrWalletService.downloadPercentageProperty()).thenReturn(new SimpleDoubleProperty());
+        appStartupState = new AppStartupState(mock(CoreNotificationService.class), xmrConnectionService,
+                xmrWalletService, mock(P2PService.class));
+    }
+
+    @Test
+    public void onTradesStageProgress_lateReports_neverMoveBack() {
+        appStartupState.onTradesStageProgress(TradesStage.LOADED, 4, 4);
+        appStartupState.onTradesStageProgress(TradesStage.PROTOCOLS_INITIALIZED, 2, 4);
+        appStartupState.onTradesStageProgress(TradesStage.PROTOCOLS_INITIALIZED, 1, 4);
+        assertEquals(TradesStage.PROTOCOLS_INITIALIZED, appStartupState.getTradesStage());
+        assertEquals(0.5, appStartupState.getTradesStageProgress());
+
+        appStartupState.onTradesStageProgress(TradesStage.WALLETS_OPENED, 0, 2);
+        appStartupState.onTradesStageProgress(TradesStage.PROTOCOLS_INITIALIZED, 4, 4);
+        assertEquals(TradesStage.WALLETS_OPENED, appStartupState.getTradesStage());
+        assertEquals(0, appStartupState.getTradesStageProgress());
+
+        appStartupState.onTradesStageProgress(TradesStage.WALLETS_OPENED, 2, 2);
+        assertEquals(1, appStartupState.getTradesStageProgress());
+    }
+
+    @Test
+    public void onTradesStageProgress_emptyStage_completed() {
+        appStartupState.onTradesStageProgress(TradesStage.PROTOCOLS_INITIALIZED, 0, 0);
+
+        assertEquals(TradesStage.PROTOCOLS_INITIALIZED, appStartupState.getTradesStage());
+        assertEquals(1, appStartupState.getTradesStageProgress());
+    }
+
+    @Test
+    public void onTradesStageProgress_concurrentReports_endWithLatestStage() throws InterruptedException {
+        int numThreads = 10;
+        int numTrades = 1000;
+        List<Double> progressValues = new ArrayList<>();
+        appStartupState.tradesStageProgressProperty().addListener((observable, oldValue, newValue) -> progressValues.add(newValue.doubleValue()));
+        appStartupState.onTradesStageProgress(TradesStage.PROTOCOLS_INITIALIZED, 0, numTrades);
+
+        CountDownLatch done = new CountDownLatch(numThreads);
+        for (int i = 0; i < numThreads; i++) {
+            int offset = i;
+            new Thread(() -> {
+                for (int numDone = offset + 1; numDone <= numTrades; numDone += numThreads) {
+                    appStartupState.onTradesStageProgress(TradesStage.PROTOCOLS_INITIALIZED, numDone, numTrades);
+                }
+                done.countDown();
+            }).start();
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+
+        assertEquals(TradesStage.PROTOCOLS_INITIALIZED, appStartupState.getTradesStage());
+        assertEquals(1, appStartupState.getTradesStageProgress());
+        for (int i = 1; i < progressValues.size(); i++) {
+            assertTrue(progressValues.get(i) >= progressValues.get(i - 1));
+        }
+    }
+}
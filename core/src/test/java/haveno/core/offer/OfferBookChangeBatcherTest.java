@@ -0,0 +1,116 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.offer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class OfferBookChangeBatcherTest {
+    private final List<List<Offer>> removedBatches = new ArrayList<>();
+    private final List<List<Offer>> addedBatches = new ArrayList<>();
+
+    // Long window so only the explicit flush calls deliver the changes
+    private final OfferBookChangeBatcher batcher = new OfferBookChangeBatcher(60_000, "test", (removedOffers, addedOffers) -> {
+        removedBatches.add(removedOffers);
+        addedBatches.add(addedOffers);
+    });
+
+    private static Offer buildOffer(String id, int version) {
+        OfferPayload offerPayload = mock(OfferPayload.class);
+        when(offerPayload.getHash()).thenReturn((id + version).getBytes());
+        Offer offer = mock(Offer.class);
+        when(offer.getId()).thenReturn(id);
+        when(offer.getOfferPayload()).thenReturn(offerPayload);
+        return offer;
+    }
+
+    @Test
+    public void flush_deliversChangesAsOneBatch() {
+        Offer offer1 = buildOffer("1", 0);
+        Offer offer2 = buildOffer("2", 0);
+        Offer offer3 = buildOffer("3", 0);
+
+        batcher.onAdded(offer1);
+        batcher.onAdded(offer2);
+        batcher.onRemoved(offer3);
+        batcher.flush();
+
+        assertEquals(List.of(List.of(offer3)), removedBatches);
+        assertEquals(List.of(List.of(offer1, offer2)), addedBatches);
+        assertEquals(3, batcher.getNumRawChanges().get());
+        assertEquals(3, batcher.getNumCoalescedChanges().get());
+        assertEquals(1, batcher.getNumBatches().get());
+    }
+
+    @Test
+    public void flush_keepsLatestAddedVersion() {
+        Offer oldVersion = buildOffer("1", 0);
+        Offer newVersion = buildOffer("1", 1);
+
+        batcher.onAdded(oldVersion);
+        batcher.onAdded(newVersion);
+        batcher.flush();
+
+        assertTrue(removedBatches.get(0).isEmpty());
+        assertEquals(List.of(newVersion), addedBatches.get(0));
+        assertEquals(1, batcher.getNumCoalescedChanges().get());
+    }
+
+    @Test
+    public void flush_addedAndRemovedOffer_onlyRemoved() {
+        Offer offer = buildOffer("1", 0);
+
+        batcher.onAdded(offer);
+        batcher.onRemoved(offer);
+        batcher.flush();
+
+        assertEquals(List.of(offer), removedBatches.get(0));
+        assertTrue(addedBatches.get(0).isEmpty());
+    }
+
+    @Test
+    public void flush_removedAndAddedOffer_deliversBoth() {
+        Offer offer = buildOffer("1", 0);
+
+        batcher.onRemoved(offer);
+        batcher.onAdded(offer);
+        batcher.onRemoved(offer);
+        batcher.onAdded(offer);
+        batcher.flush();
+
+        assertEquals(List.of(offer), removedBatches.get(0));
+        assertEquals(List.of(offer), addedBatches.get(0));
+        assertEquals(4, batcher.getNumRawChanges().get());
+        assertEquals(2, batcher.getNumCoalescedChanges().get());
+    }
+
+    @Test
+    public void flush_noChanges_nothingDelivered() {
+        batcher.flush();
+
+        assertTrue(removedBatches.isEmpty());
+        assertEquals(0, batcher.getNumBatches().get());
+    }
+}
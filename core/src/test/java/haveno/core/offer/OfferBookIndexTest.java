@@ -0,0 +1,96 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.offer;
+
+import haveno.core.monetary.Price;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class OfferBookIndexTest {
+    private final OfferBookIndex offerBookIndex = new OfferBookIndex();
+
+    private static Offer buildOffer(String id, OfferDirection direction, String currencyCode, Long price, long amount,
+                                    boolean useMarketBasedPrice) {
+        OfferPayload offerPayload = mock(OfferPayload.class);
+        when(offerPayload.getCounterCurrencyCode()).thenReturn(currencyCode);
+        Offer offer = mock(Offer.class);
+        when(offer.getId()).thenReturn(id);
+        when(offer.getOfferPayload()).thenReturn(offerPayload);
+        when(offer.getDirection()).thenReturn(direction);
+        when(offer.getPrice()).thenReturn(price == null ? null : Price.valueOf(currencyCode, price));
+        when(offer.getAmount()).thenReturn(BigInteger.valueOf(amount));
+        when(offer.isUseMarketBasedPrice()).thenReturn(useMarketBasedPrice);
+        return offer;
+    }
+
+    @Test
+    public void getOffers_sortedByBestPriceThenAmount() {
+        Offer buyLow = buildOffer("1", OfferDirection.BUY, "USD", 100L, 1, false);
+        Offer buyHigh = buildOffer("2", OfferDirection.BUY, "USD", 200L, 1, false);
+        Offer buyHighLarge = buildOffer("3", OfferDirection.BUY, "USD", 200L, 5, false);
+        Offer buyNoPrice = buildOffer("4", OfferDirection.BUY, "USD", null, 1, true);
+        Offer sellLow = buildOffer("5", OfferDirection.SELL, "USD", 100L, 1, false);
+        Offer sellHigh = buildOffer("6", OfferDirection.SELL, "USD", 200L, 1, false);
+        Offer sellEur = buildOffer("7", OfferDirection.SELL, "EUR", 100L, 1, false);
+        List.of(buyLow, buyHigh, buyHighLarge, buyNoPrice, sellLow, sellHigh, sellEur).forEach(offerBookIndex::put);
+
+        assertEquals(List.of(buyHighLarge, buyHigh, buyLow, buyNoPrice), offerBookIndex.getOffers(OfferDirection.BUY, "usd"));
+        assertEquals(List.of(sellLow, sellHigh), offerBookIndex.getOffers(OfferDirection.SELL, "USD"));
+        assertEquals(Optional.of(buyHighLarge), offerBookIndex.getBestOffer(OfferDirection.BUY, "USD"));
+        assertEquals(Optional.of(sellEur), offerBookIndex.getBestOffer(OfferDirection.SELL, "EUR"));
+        assertTrue(offerBookIndex.getOffers(OfferDirection.BUY, "EUR").isEmpty());
+    }
+
+    @Test
+    public void remove_removesOfferFromMarket() {
+        Offer offer1 = buildOffer("1", OfferDirection.SELL, "USD", 100L, 1, false);
+        Offer offer2 = buildOffer("2", OfferDirection.SELL, "USD", 200L, 1, false);
+        offerBookIndex.put(offer1);
+        offerBookIndex.put(offer2);
+
+        offerBookIndex.remove("1");
+
+        assertEquals(List.of(offer2), offerBookIndex.getOffers(OfferDirection.SELL, "USD"));
+        assertEquals(1, offerBookIndex.size());
+        assertEquals(Optional.empty(), offerBookIndex.getOffer("1"));
+        assertEquals(Optional.of(offer2), offerBookIndex.getOffer("2"));
+    }
+
+    @Test
+    public void updateMarketBasedPrices_reRanksChangedOffers() {
+        Offer fixedPriceOffer = buildOffer("1", OfferDirection.SELL, "USD", 150L, 1, false);
+        Offer marketBasedOffer = buildOffer("2", OfferDirection.SELL, "USD", 100L, 1, true);
+        offerBookIndex.put(fixedPriceOffer);
+        offerBookIndex.put(marketBasedOffer);
+        assertEquals(List.of(marketBasedOffer, fixedPriceOffer), offerBookIndex.getOffers(OfferDirection.SELL, "USD"));
+
+        when(marketBasedOffer.getPrice()).thenReturn(Price.valueOf("USD", 200L));
+
+        assertEquals(1, offerBookIndex.updateMarketBasedPrices());
+        assertEquals(List.of(fixedPriceOffer, marketBasedOffer), offerBookIndex.getOffers(OfferDirection.SELL, "USD"));
+        assertEquals(0, offerBookIndex.updateMarketBasedPrices());
+    }
+}
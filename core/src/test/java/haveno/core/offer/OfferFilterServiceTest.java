@@ -0,0 +1,128 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.offer;
+
+import haveno.common.app.Version;
+import haveno.core.account.sign.SignedWitness;
+import haveno.core.account.witness.AccountAgeWitnessService;
+import haveno.core.filter.Filter;
+import haveno.core.filter.FilterManager;
+import haveno.core.offer.OfferFilterService.Result;
+import haveno.core.user.Preferences;
+import haveno.core.user.User;
+import haveno.network.p2p.P2PService;
+import haveno.network.p2p.storage.P2PDataStorage;
+import haveno.network.p2p.storage.persistence.AppendOnlyDataStoreListener;
+import javafx.beans.property.SimpleObjectProperty;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class OfferFilterServiceTest {
+    private final SimpleObjectProperty<Filter> filterProperty = new SimpleObjectProperty<>();
+    private FilterManager filterManager;
+    private OfferBookService offerBookService;
+    private OfferFilterService offerFilterService;
+    private AppendOnlyDataStoreListener appendOnlyDataStoreListener;
+
+    @BeforeEach
+    public void setUp() {
+        User user = mock(User.class);
+        when(user.getPaymentAccounts()).thenReturn(new HashSet<>());
+        Preferences preferences = mock(Preferences.class);
+        when(preferences.getIgnoreTradersList()).thenReturn(new ArrayList<>());
+        filterManager = mock(FilterManager.class);
+        when(filterManager.filterProperty()).thenReturn(filterProperty);
+        P2PService p2PService = mock(P2PService.class);
+        P2PDataStorage p2PDataStorage = mock(P2PDataStorage.class);
+        when(p2PService.getP2PDataStorage()).thenReturn(p2PDataStorage);
+        offerBookService = mock(OfferBookService.class);
+        when(offerBookService.hasOffer(any())).thenReturn(true);
+        offerFilterService = new OfferFilterService(user, p2PService, preferences, filterManager,
+                mock(AccountAgeWitnessService.class), offerBookService);
+        ArgumentCaptor<AppendOnlyDataStoreListener> listenerCaptor = ArgumentCaptor.forClass(AppendOnlyDataStoreListener.class);
+        verify(p2PDataStorage).addAppendOnlyDataStoreListener(listenerCaptor.capture());
+        appendOnlyDataStoreListener = listenerCaptor.getValue();
+    }
+
+    private static Offer buildOffer(String id) {
+        OfferPayload offerPayload = mock(OfferPayload.class);
+        when(offerPayload.getHash()).thenReturn(id.getBytes());
+        Offer offer = mock(Offer.class);
+        when(offer.getId()).thenReturn(id);
+        when(offer.getOfferPayload()).thenReturn(offerPayload);
+        when(offer.getProtocolVersion()).thenReturn(Version.TRADE_PROTOCOL_VERSION);
+        when(offer.getMinAmount()).thenReturn(BigInteger.ONE);
+        return offer;
+    }
+
+    @Test
+    public void canTakeOffer_reusesCachedFilterResult() {
+        Offer offer = buildOffer("1");
+
+        assertEquals(Result.ARBITRATOR_NOT_VALIDATED, offerFilterService.canTakeOffer(offer, false));
+        assertEquals(Result.ARBITRATOR_NOT_VALIDATED, offerFilterService.canTakeOffer(offer, false));
+
+        verify(filterManager, times(1)).isOfferIdBanned("1");
+    }
+
+    @Test
+    public void canTakeOffer_filterChanged_invalidatesCachedResult() {
+        Offer offer = buildOffer("1");
+        assertEquals(Result.ARBITRATOR_NOT_VALIDATED, offerFilterService.canTakeOffer(offer, false));
+
+        when(filterManager.isOfferIdBanned("1")).thenReturn(true);
+        assertEquals(Result.ARBITRATOR_NOT_VALIDATED, offerFilterService.canTakeOffer(offer, false));
+
+        filterProperty.set(mock(Filter.class));
+        assertEquals(Result.IS_OFFER_BANNED, offerFilterService.canTakeOffer(offer, false));
+    }
+
+    @Test
+    public void canTakeOffer_witnessAdded_invalidatesCachedResult() {
+        Offer offer = buildOffer("1");
+        offerFilterService.canTakeOffer(offer, false);
+
+        appendOnlyDataStoreListener.onAdded(mock(SignedWitness.class));
+        offerFilterService.canTakeOffer(offer, false);
+
+        verify(filterManager, times(2)).isOfferIdBanned("1");
+    }
+
+    @Test
+    public void canTakeOffer_offerNotInOfferBook_notCached() {
+        Offer offer = buildOffer("1");
+        when(offerBookService.hasOffer("1")).thenReturn(false);
+
+        offerFilterService.canTakeOffer(offer, false);
+        offerFilterService.canTakeOffer(offer, false);
+
+        verify(filterManager, times(2)).isOfferIdBanned("1");
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.trade;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DeferredSyncingTest {
+    private final DeferredSyncing deferredSyncing = new DeferredSyncing();
+
+    @Test
+    public void request_initializationReturnsEarly_notDeferred() {
+        deferredSyncing.request();
+
+        // initialization returned before it would start syncing, e.g. if no deposit is requested
+        assertFalse(deferredSyncing.isDeferred());
+        assertFalse(deferredSyncing.takeDeferred());
+    }
+
+    @Test
+    public void deferIfRequested_notRequested_syncsNow() {
+        assertFalse(deferredSyncing.deferIfRequested());
+        assertFalse(deferredSyncing.isDeferred());
+    }
+
+    @Test
+    public void takeDeferred_walletOpenedOnDemand_startsSyncingOnce() {
+        deferredSyncing.request();
+        assertTrue(deferredSyncing.deferIfRequested());
+        assertTrue(deferredSyncing.isDeferred());
+
+        // getWallet opens the wallet on demand before the trade manager opens the deferred wallets
+        assertTrue(deferredSyncing.takeDeferred());
+        assertFalse(deferredSyncing.isDeferred());
+        assertFalse(deferredSyncing.takeDeferred());
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.trade;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TradePollSchedulerTest {
+    private final TradePollScheduler pollScheduler = new TradePollScheduler(1);
+    private final List<String> polledTradeUids = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        pollScheduler.shutDown();
+    }
+
+    private Trade buildTrade(String uid, boolean isDepositPending, boolean isIdling) {
+        Trade trade = mock(Trade.class);
+        when(trade.getUid()).thenReturn(uid);
+        when(trade.getPhase()).thenReturn(isDepositPending ? Trade.Phase.DEPOSIT_REQUESTED : Trade.Phase.DEPOSITS_UNLOCKED);
+        when(trade.isDepositRequested()).thenReturn(true);
+        when(trade.isDepositsConfirmed()).thenReturn(!isDepositPending);
+        when(trade.isIdling()).thenReturn(isIdling);
+        doAnswer(invocation -> polledTradeUids.add(uid)).when(trade).pollWalletScheduled();
+        pollScheduler.register(trade);
+        return trade;
+    }
+
+    private void awaitPolls(int numPolls) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (polledTradeUids.size() < numPolls && System.currentTimeMillis() < deadline) Thread.sleep(10);
+        Thread.sleep(50); // allow unexpected polls to run
+    }
+
+    @Test
+    public void requestPoll_pollsTimeCriticalTradesFirstAndDropsDuplicates() throws Exception {
+        CountDownLatch pollStarted = new CountDownLatch(1);
+        CountDownLatch pollReleased = new CountDownLatch(1);
+        Trade blockingTrade = buildTrade("blocking", false, false);
+        doAnswer(invocation -> {
+            pollStarted.countDown();
+            pollReleased.await(10, TimeUnit.SECONDS);
+            return null;
+        }).when(blockingTrade).pollWalletScheduled();
+        Trade idleTrade = buildTrade("idle", false, true);
+        Trade activeTrade = buildTrade("active", false, false);
+        Trade pendingTrade = buildTrade("pending", true, false);
+
+        pollScheduler.requestPoll(blockingTrade);
+        assertTrue(pollStarted.await(10, TimeUnit.SECONDS));
+        pollScheduler.requestPoll(idleTrade);
+        pollScheduler.requestPoll(activeTrade);
+        pollScheduler.requestPoll(pendingTrade);
+        pollScheduler.requestPoll(pendingTrade);
+        pollReleased.countDown();
+        awaitPolls(3);
+
+        assertEquals(List.of("pending", "active", "idle"), polledTradeUids);
+        assertEquals(1, pollScheduler.getNumDroppedRequests());
+        assertEquals(0, pollScheduler.getNumQueuedPolls());
+    }
+
+    @Test
+    public void onChainUpdated_pollsActiveTradesOnNewBlocksAndTimeCriticalTradesOnPoolChanges() throws Exception {
+        buildTrade("idle", false, true);
+        buildTrade("active", false, false);
+        buildTrade("pending", true, false);
+
+        // first update initializes the chain state
+        pollScheduler.onChainUpdated(100, 0L);
+        pollScheduler.onChainUpdated(100, 0L);
+        awaitPolls(0);
+        assertEquals(List.of(), polledTradeUids);
+
+        // tx pool change
+        pollScheduler.onChainUpdated(100, 1L);
+        awaitPolls(1);
+        assertEquals(List.of("pending"), polledTradeUids);
+
+        // new block
+        polledTradeUids.clear();
+        pollScheduler.onChainUpdated(101, 0L);
+        awaitPolls(2);
+        assertEquals(2, polledTradeUids.size());
+        assertTrue(polledTradeUids.containsAll(List.of("pending", "active")));
+        assertEquals(2, pollScheduler.getNumPollsByPhase().get(Trade.Phase.DEPOSIT_REQUESTED));
+        assertEquals(1, pollScheduler.getNumPollsByPhase().get(Trade.Phase.DEPOSITS_UNLOCKED));
+    }
+
+    @Test
+    public void requestPoll_ignoresUnregisteredTrades() throws Exception {
+        Trade trade = buildTrade("trade", false, false);
+        pollScheduler.unregister(trade);
+
+        pollScheduler.requestPoll(trade);
+        awaitPolls(0);
+
+        assertEquals(List.of(), polledTradeUids);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.trade;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TradeWalletHostTest {
+
+    private static Trade buildTrade(String uid, boolean idling, long height) {
+        Trade trade = mock(Trade.class);
+        when(trade.getUid()).thenReturn(uid);
+        when(trade.getShortId()).thenReturn(uid);
+        when(trade.isIdling()).thenReturn(idling);
+        when(trade.getHeight()).thenReturn(height);
+        return trade;
+    }
+
+    @Test
+    public void onWalletOpened_closesLeastRecentlyUsedIdleWallet() {
+        TradeWalletHost tradeWalletHost = new TradeWalletHost(2);
+        Trade idleTrade1 = buildTrade("1", true, 100);
+        Trade idleTrade2 = buildTrade("2", true, 100);
+        Trade activeTrade = buildTrade("3", false, 100);
+
+        tradeWalletHost.onWalletOpened(idleTrade1);
+        tradeWalletHost.onWalletOpened(idleTrade2);
+        tradeWalletHost.onWalletAccessed(idleTrade1);
+        tradeWalletHost.onWalletOpened(activeTrade);
+
+        verify(idleTrade2, times(1)).closeWalletIfIdling();
+        verify(idleTrade1, never()).closeWalletIfIdling();
+        assertEquals(1, tradeWalletHost.getNumClosedIdleWallets().get());
+
+        tradeWalletHost.onWalletClosed(idleTrade2);
+        assertEquals(2, tradeWalletHost.getNumOpenWallets());
+    }
+
+    @Test
+    public void onWalletOpened_keepsActiveWalletsOpen() {
+        TradeWalletHost tradeWalletHost = new TradeWalletHost(1);
+        Trade activeTrade1 = buildTrade("1", false, 100);
+        Trade activeTrade2 = buildTrade("2", false, 100);
+
+        tradeWalletHost.onWalletOpened(activeTrade1);
+        tradeWalletHost.onWalletOpened(activeTrade2);
+
+        verify(activeTrade1, never()).closeWalletIfIdling();
+        assertEquals(2, tradeWalletHost.getNumOpenWallets());
+    }
+
+    @Test
+    public void onWalletOpened_noLimit_keepsWalletsOpen() {
+        TradeWalletHost tradeWalletHost = new TradeWalletHost(0);
+        Trade idleTrade1 = buildTrade("1", true, 100);
+        Trade idleTrade2 = buildTrade("2", true, 100);
+
+        tradeWalletHost.onWalletOpened(idleTrade1);
+        tradeWalletHost.onWalletOpened(idleTrade2);
+
+        verify(idleTrade1, never()).closeWalletIfIdling();
+        assertEquals(2, tradeWalletHost.getNumOpenWallets());
+    }
+
+    @Test
+    public void getMaxSyncLag_returnsLagOfMostBehindWallet() {
+        TradeWalletHost tradeWalletHost = new TradeWalletHost(0);
+        assertEquals(0, tradeWalletHost.getMaxSyncLag(110));
+
+        tradeWalletHost.onWalletOpened(buildTrade("1", false, 108));
+        tradeWalletHost.onWalletOpened(buildTrade("2", false, 100));
+        tradeWalletHost.onWalletOpened(buildTrade("3", false, 112));
+
+        assertEquals(10, tradeWalletHost.getMaxSyncLag(110));
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.trade;
+
+import haveno.core.app.AppStartupState;
+import haveno.core.app.AppStartupState.TradesStage;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TradeWalletOpenerTest {
+    private final AppStartupState appStartupState = mock(AppStartupState.class);
+    private final List<String> openedTradeIds = new CopyOnWriteArrayList<>();
+
+    private Trade buildTrade(String id, boolean isSyncingDeferred, Trade.DisputeState disputeState, boolean isDepositPending, boolean isIdling) {
+        Trade trade = mock(Trade.class);
+        when(trade.getId()).thenReturn(id);
+        when(trade.isSyncingDeferred()).thenReturn(isSyncingDeferred);
+        when(trade.getDisputeState()).thenReturn(disputeState);
+        when(trade.isDepositRequested()).thenReturn(true);
+        when(trade.isDepositsConfirmed()).thenReturn(!isDepositPending);
+        when(trade.isIdling()).thenReturn(isIdling);
+        doAnswer(invocation -> openedTradeIds.add(id)).when(trade).initDeferredSyncing();
+        return trade;
+    }
+
+    @Test
+    public void getWalletOpenPriority_disputesFirstThenTimeCriticalThenIdle() {
+        Trade disputed = buildTrade("disputed", true, Trade.DisputeState.DISPUTE_OPENED, false, true);
+        Trade depositPending = buildTrade("depositPending", true, Trade.DisputeState.NO_DISPUTE, true, false);
+        Trade active = buildTrade("active", true, Trade.DisputeState.NO_DISPUTE, false, false);
+        Trade idle = buildTrade("idle", true, Trade.DisputeState.NO_DISPUTE, false, true);
+        Trade disputeClosed = buildTrade("disputeClosed", true, Trade.DisputeState.DISPUTE_CLOSED, false, true);
+
+        assertEquals(0, TradeWalletOpener.getWalletOpenPriority(disputed));
+        assertEquals(TradeWalletOpener.getWalletOpenPriority(depositPending) + 1, TradeWalletOpener.getWalletOpenPriority(active));
+        assertEquals(TradeWalletOpener.getWalletOpenPriority(active) + 1, TradeWalletOpener.getWalletOpenPriority(idle));
+        assertEquals(TradeWalletOpener.getWalletOpenPriority(idle), TradeWalletOpener.getWalletOpenPriority(disputeClosed));
+    }
+
+    @Test
+    public void openWallets_opensDeferredWalletsInPriorityOrderAndReportsProgress() {
+        Trade idle = buildTrade("idle", true, Trade.DisputeState.NO_DISPUTE, false, true);
+        Trade active = buildTrade("active", true, Trade.DisputeState.NO_DISPUTE, false, false);
+        Trade notDeferred = buildTrade("notDeferred", false, Trade.DisputeState.NO_DISPUTE, true, false);
+        Trade depositPending = buildTrade("depositPending", true, Trade.DisputeState.NO_DISPUTE, true, false);
+        Trade disputed = buildTrade("disputed", true, Trade.DisputeState.DISPUTE_OPENED, false, true);
+
+        new TradeWalletOpener(appStartupState, 1).openWallets(List.of(idle, active, notDeferred, depositPending, disputed), () -> false);
+
+        assertEquals(List.of("disputed", "depositPending", "active", "idle"), openedTradeIds);
+        verify(notDeferred, never()).initDeferredSyncing();
+        InOrder inOrder = inOrder(appStartupState);
+        for (int numOpened = 0; numOpened <= 4; numOpened++) {
+            inOrder.verify(appStartupState).onTradesStageProgress(TradesStage.WALLETS_OPENED, numOpened, 4);
+        }
+    }
+
+    @Test
+    public void openWallets_shutDownStarted_opensNoWallets() {
+        Trade active = buildTrade("active", true, Trade.DisputeState.NO_DISPUTE, false, false);
+
+        new TradeWalletOpener(appStartupState, 1).openWallets(List.of(active), () -> true);
+
+        verify(active, never()).initDeferredSyncing();
+        verify(appStartupState).onTradesStageProgress(TradesStage.WALLETS_OPENED, 1, 1);
+    }
+}
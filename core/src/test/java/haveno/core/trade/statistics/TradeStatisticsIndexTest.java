@@ -0,0 +1,59 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.trade.statistics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TradeStatisticsIndexTest {
+
+    private static TradeStatistics3 buildTradeStatistics(String currency, long price, String paymentMethod, long date) {
+        return new TradeStatistics3(currency, price, 100, paymentMethod, date, null, (Map<String, String>) null);
+    }
+
+    @Test
+    public void getTradeStatistics_returnsRangeOfCurrencySortedByDate() {
+        TradeStatisticsIndex index = new TradeStatisticsIndex();
+        TradeStatistics3 usd3 = buildTradeStatistics("USD", 1, "SEPA", 3000);
+        TradeStatistics3 usd1 = buildTradeStatistics("USD", 1, "SEPA", 1000);
+        TradeStatistics3 usd2 = buildTradeStatistics("USD", 1, "ZELLE", 2000);
+        TradeStatistics3 eur = buildTradeStatistics("EUR", 1, "SEPA", 2000);
+        index.addAll(List.of(usd3, usd1, usd2, eur));
+
+        assertEquals(List.of(usd1, usd2, usd3), index.getTradeStatistics("USD", Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(List.of(usd1, usd2), index.getTradeStatistics("USD", 1000, 3000));
+        assertTrue(index.getTradeStatistics("CAD", Long.MIN_VALUE, Long.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    public void getNeighbors_returnsSameCurrencyWithinDistance() {
+        TradeStatisticsIndex index = new TradeStatisticsIndex();
+        TradeStatistics3 near = buildTradeStatistics("USD", 1, "SEPA", 1500);
+        TradeStatistics3 nearOtherPaymentMethod = buildTradeStatistics("USD", 2, "ZELLE", 500);
+        TradeStatistics3 far = buildTradeStatistics("USD", 1, "SEPA", 5000);
+        TradeStatistics3 otherCurrency = buildTradeStatistics("EUR", 1, "SEPA", 1000);
+        index.addAll(List.of(near, nearOtherPaymentMethod, far, otherCurrency));
+
+        assertEquals(List.of(nearOtherPaymentMethod, near), index.getNeighbors(buildTradeStatistics("USD", 1, "SEPA", 1000), 500));
+    }
+}
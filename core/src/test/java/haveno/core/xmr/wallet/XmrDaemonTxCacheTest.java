@@ -0,0 +1,99 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.xmr.wallet;
+
+import monero.daemon.model.MoneroTx;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class XmrDaemonTxCacheTest {
+    private final List<List<String>> fetchedTxHashes = new CopyOnWriteArrayList<>();
+
+    private static MoneroTx buildTx(String txHash, boolean isConfirmed) {
+        return new MoneroTx().setHash(txHash).setIsConfirmed(isConfirmed);
+    }
+
+    private List<MoneroTx> fetchTxs(List<String> txHashes) {
+        fetchedTxHashes.add(txHashes);
+        return txHashes.stream()
+                .filter(txHash -> !txHash.startsWith("unknown"))
+                .map(txHash -> buildTx(txHash, txHash.startsWith("confirmed")))
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> getHashes(List<MoneroTx> txs) {
+        return txs.stream().map(MoneroTx::getHash).collect(Collectors.toList());
+    }
+
+    @Test
+    public void getTxs_fetchesOnlyMissingTxs() {
+        XmrDaemonTxCache cache = new XmrDaemonTxCache(this::fetchTxs, () -> 60000, 60000);
+
+        assertEquals(List.of("a"), getHashes(cache.getTxs(List.of("a"))));
+        assertEquals(List.of("b", "a"), getHashes(cache.getTxs(List.of("b", "unknown", "a"))));
+
+        assertEquals(List.of(List.of("a"), List.of("b", "unknown")), fetchedTxHashes);
+        assertEquals(1, cache.getNumHits().get());
+        assertEquals(3, cache.getNumMisses().get());
+        assertEquals(0, cache.getNumInFlightRequests());
+    }
+
+    @Test
+    public void getTxs_keepsConfirmedTxsLongerThanPoolTxs() {
+        XmrDaemonTxCache cache = new XmrDaemonTxCache(this::fetchTxs, () -> 0, 60000);
+
+        cache.getTxs(List.of("confirmed", "pool"));
+        cache.getTxs(List.of("confirmed", "pool"));
+
+        assertEquals(List.of(List.of("confirmed", "pool"), List.of("pool")), fetchedTxHashes);
+    }
+
+    @Test
+    public void getTxs_coalescesConcurrentRequests() throws Exception {
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        CountDownLatch fetchReleased = new CountDownLatch(1);
+        XmrDaemonTxCache cache = new XmrDaemonTxCache(txHashes -> {
+            fetchStarted.countDown();
+            try {
+                fetchReleased.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            return fetchTxs(txHashes);
+        }, () -> 60000, 60000);
+
+        CompletableFuture<List<MoneroTx>> request1 = CompletableFuture.supplyAsync(() -> cache.getTxs(List.of("a")));
+        assertTrue(fetchStarted.await(10, TimeUnit.SECONDS));
+        CompletableFuture<List<MoneroTx>> request2 = CompletableFuture.supplyAsync(() -> cache.getTxs(List.of("a")));
+        while (cache.getNumCoalescedRequests().get() == 0) Thread.sleep(10);
+        fetchReleased.countDown();
+
+        assertEquals(List.of("a"), getHashes(request1.get(10, TimeUnit.SECONDS)));
+        assertEquals(List.of("a"), getHashes(request2.get(10, TimeUnit.SECONDS)));
+        assertEquals(1, fetchedTxHashes.size());
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.xmr.wallet;
+
+import monero.daemon.MoneroDaemon;
+import monero.daemon.model.MoneroKeyImageSpentStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class XmrKeyImagePollerTest {
+    private final Set<String> spentKeyImages = ConcurrentHashMap.newKeySet();
+    private final Set<String> poolKeyImages = ConcurrentHashMap.newKeySet();
+    private MoneroDaemon monerod;
+    private XmrKeyImagePoller poller;
+
+    @BeforeEach
+    public void setUp() {
+        monerod = mock(MoneroDaemon.class);
+        when(monerod.getKeyImageSpentStatuses(anyList())).thenAnswer(invocation -> {
+            List<String> keyImages = invocation.getArgument(0);
+            return keyImages.stream()
+                    .map(keyImage -> spentKeyImages.contains(keyImage) ? MoneroKeyImageSpentStatus.CONFIRMED :
+                            poolKeyImages.contains(keyImage) ? MoneroKeyImageSpentStatus.TX_POOL : MoneroKeyImageSpentStatus.NOT_SPENT)
+                    .collect(Collectors.toList());
+        });
+
+        // long refresh period, so we only poll on chain updates and explicit polls
+        poller = new XmrKeyImagePoller(monerod, 3600000);
+        poller.onChainUpdated(100, 0L);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        poller.clearKeyImages();
+    }
+
+    private static List<String> buildKeyImages(String prefix, int numKeyImages) {
+        List<String> keyImages = new ArrayList<>();
+        for (int i = 0; i < numKeyImages; i++) keyImages.add(prefix + i);
+        return keyImages;
+    }
+
+    @Test
+    public void poll_pollsKeyImagesInBatchesOnlyAfterChainUpdate() {
+        poller.addListener(spentStatuses -> {});
+        poller.addKeyImages(buildKeyImages("a", 450), "group");
+        poller.poll();
+        verify(monerod, times(3)).getKeyImageSpentStatuses(anyList());
+
+        clearInvocations(monerod);
+        poller.onChainUpdated(100, 0L);
+        poller.poll();
+        verify(monerod, never()).getKeyImageSpentStatuses(anyList());
+
+        poller.onChainUpdated(101, 0L);
+        poller.poll();
+        verify(monerod, times(3)).getKeyImageSpentStatuses(anyList());
+    }
+
+    @Test
+    public void poll_txPoolChangePollsOnlyKeyImagesNotSpent() {
+        List<String> keyImages = buildKeyImages("a", 400);
+        poolKeyImages.addAll(keyImages.subList(0, 200));
+        spentKeyImages.addAll(keyImages.subList(200, 300));
+        poller.addListener(spentStatuses -> {});
+        poller.addKeyImages(keyImages, "group");
+        poller.poll();
+        verify(monerod, times(2)).getKeyImageSpentStatuses(anyList());
+
+        clearInvocations(monerod);
+        poller.onChainUpdated(100, 1L);
+        poller.poll();
+        verify(monerod, times(1)).getKeyImageSpentStatuses(argThat(polled -> polled.size() == 100 &&
+                polled.stream().noneMatch(keyImage -> poolKeyImages.contains(keyImage) || spentKeyImages.contains(keyImage))));
+        verify(monerod, times(1)).getKeyImageSpentStatuses(anyList());
+
+        clearInvocations(monerod);
+        poller.onChainUpdated(101, 1L);
+        poller.poll();
+        verify(monerod, times(2)).getKeyImageSpentStatuses(anyList());
+    }
+
+    @Test
+    public void poll_sharedKeyImagesPolledOnce() {
+        poller.addListener(spentStatuses -> {});
+        poller.addKeyImages(buildKeyImages("a", 150), "group1");
+        poller.addKeyImages(buildKeyImages("a", 150), "group2");
+        poller.poll();
+
+        verify(monerod, times(1)).getKeyImageSpentStatuses(anyList());
+    }
+
+    @Test
+    public void poll_groupListenersReceiveChangesOfTheirGroup() {
+        Map<String, MoneroKeyImageSpentStatus> group1Changes = new ConcurrentHashMap<>();
+        Map<String, MoneroKeyImageSpentStatus> group2Changes = new ConcurrentHashMap<>();
+        poller.addListener("group1", group1Changes::putAll);
+        poller.addListener("group2", group2Changes::putAll);
+        poller.addKeyImages(List.of("a", "b"), "group1");
+        poller.addKeyImages(List.of("b", "c"), "group2");
+        poller.poll();
+        assertEquals(Set.of("a", "b"), group1Changes.keySet());
+        assertEquals(Set.of("b", "c"), group2Changes.keySet());
+
+        group1Changes.clear();
+        group2Changes.clear();
+        spentKeyImages.add("c");
+        poller.onChainUpdated(101, 0L);
+        poller.poll();
+        assertTrue(group1Changes.isEmpty());
+        assertEquals(Map.of("c", MoneroKeyImageSpentStatus.CONFIRMED), group2Changes);
+        assertTrue(poller.isSpent("c"));
+        verify(monerod, atLeastOnce()).getKeyImageSpentStatuses(anyList());
+    }
+}
@@ -13,6 +13,7 @@ import haveno.proto.grpc.GetTradeStatisticsRequest;
 import io.grpc.ServerInterceptor;
 import io.grpc.stub.StreamObserver;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Optional;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import java.util.stream.Collectors;
@@ -34,7 +35,17 @@ class GrpcGetTradeStatisticsService extends GetTradeStatisticsImplBase {
     public void getTradeStatistics(GetTradeStatisticsRequest req,
                                    StreamObserver<GetTradeStatisticsReply> responseObserver) {
         try {
-            var tradeStatistics = coreApi.getTradeStatistics().stream()
+            long fromDate = req.getFromDate() == 0 ? Long.MIN_VALUE : req.getFromDate();
+            long toDate = req.getToDate() == 0 ? Long.MAX_VALUE : req.getToDate();
+            List<TradeStatistics3> tradeStatisticsList;
+            if (!req.getCurrencyCode().isEmpty()) {
+                tradeStatisticsList = coreApi.getTradeStatistics(req.getCurrencyCode(), fromDate, toDate);
+            } else {
+                tradeStatisticsList = coreApi.getTradeStatistics().stream()
+                        .filter(e -> e.getDateAsLong() >= fromDate && e.getDateAsLong() < toDate)
+                        .collect(Collectors.toList());
+            }
+            var tradeStatistics = tradeStatisticsList.stream()
                     .map(TradeStatistics3::toProtoTradeStatistics3)
                     .collect(Collectors.toList());
 
@@ -0,0 +1,213 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.daemon.grpc;
+
+import haveno.core.offer.Offer;
+import haveno.core.offer.OfferBookService.OfferBookChangedListener;
+import haveno.proto.grpc.OfferBookEvent;
+import haveno.proto.grpc.OfferBookEvent.EventType;
+import haveno.proto.grpc.OfferInfo;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streams the offer book changes of a market to a gRPC client.
+ *
+ * The client first receives a snapshot of the offers, then the added, removed and updated offers. Events are buffered
+ * per subscriber while the client is not ready to receive. If a slow client lets too many events pile up, the buffered
+ * events are dropped and the client receives a new snapshot once it is ready again, so the memory of the buffer is
+ * bounded and the client always converges to the current offer book.
+ *
+ * The snapshot is built without holding the lock of the subscriber, so changes during that time are buffered and sent
+ * after the snapshot even if the snapshot already contains them. Clients therefore treat an ADDED event of a known
+ * offer as an update and ignore REMOVED events of unknown offers.
+ */
+@Slf4j
+class GrpcOfferBookSubscriber implements OfferBookChangedListener {
+
+    static final int MAX_BUFFERED_EVENTS = 100;
+
+    private final ServerCallStreamObserver<OfferBookEvent> responseObserver;
+    private final Supplier<List<Offer>> snapshotSupplier;
+    private final Function<Offer, OfferInfo> offerInfoMapper;
+    private final Consumer<OfferBookChangedListener> listenerRemover;
+    private final Deque<OfferBookEvent> bufferedEvents = new ArrayDeque<>();
+    private boolean snapshotRequired = true;
+    // Only one thread sends to the response observer at a time
+    private boolean isDraining;
+    private boolean isClosed;
+
+    /**
+     * @param responseObserver the stream to the client
+     * @param snapshotSupplier supplies the current offers of the market
+     * @param offerInfoMapper  maps an offer to the message sent to the client
+     * @param listenerRemover  removes the subscriber from the offer book listeners when the stream is closed
+     */
+    GrpcOfferBookSubscriber(ServerCallStreamObserver<OfferBookEvent> responseObserver,
+                            Supplier<List<Offer>> snapshotSupplier,
+                            Function<Offer, OfferInfo> offerInfoMapper,
+                            Consumer<OfferBookChangedListener> listenerRemover) {
+        this.responseObserver = responseObserver;
+        this.snapshotSupplier = snapshotSupplier;
+        this.offerInfoMapper = offerInfoMapper;
+        this.listenerRemover = listenerRemover;
+        responseObserver.setOnReadyHandler(this::drain);
+        responseObserver.setOnCancelHandler(this::close);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Needs to be called after the subscriber got added as listener, so a call cancelled in between does not leave
+     * the listener registered.
+     */
+    void start() {
+        drain();
+    }
+
+    void close() {
+        synchronized (this) {
+            if (isClosed) return;
+            isClosed = true;
+            bufferedEvents.clear();
+        }
+        listenerRemover.accept(this);
+    }
+
+    @Override
+    public void onAdded(Offer offer) {
+        onChanged(List.of(), List.of(offer));
+    }
+
+    @Override
+    public void onRemoved(Offer offer) {
+        onChanged(List.of(offer), List.of());
+    }
+
+    @Override
+    public void onChanged(List<Offer> removedOffers, List<Offer> addedOffers) {
+        synchronized (this) {
+            if (isClosed || snapshotRequired) return; // pending snapshot includes the changes
+
+            // offers which are removed and added are updated
+            Set<String> addedOfferIds = getOfferIds(addedOffers);
+            Set<String> removedOfferIds = getOfferIds(removedOffers);
+            List<String> removedOnlyOfferIds = removedOfferIds.stream()
+                    .filter(id -> !addedOfferIds.contains(id))
+                    .collect(Collectors.toList());
+            List<Offer> updatedOffers = addedOffers.stream()
+                    .filter(offer -> removedOfferIds.contains(offer.getId()))
+                    .collect(Collectors.toList());
+            List<Offer> addedOnlyOffers = addedOffers.stream()
+                    .filter(offer -> !removedOfferIds.contains(offer.getId()))
+                    .collect(Collectors.toList());
+            if (!removedOnlyOfferIds.isEmpty()) bufferedEvents.add(OfferBookEvent.newBuilder()
+                    .setType(EventType.REMOVED)
+                    .addAllRemovedOfferIds(removedOnlyOfferIds)
+                    .build());
+            if (!updatedOffers.isEmpty()) bufferedEvents.add(toEvent(EventType.UPDATED, updatedOffers));
+            if (!addedOnlyOffers.isEmpty()) bufferedEvents.add(toEvent(EventType.ADDED, addedOnlyOffers));
+
+            // resync slow client with snapshot instead of buffering more events
+            if (bufferedEvents.size() > MAX_BUFFERED_EVENTS) {
+                log.info("Offer book subscriber is not keeping up with {} buffered events, sending snapshot when ready", bufferedEvents.size());
+                bufferedEvents.clear();
+                snapshotRequired = true;
+            }
+        }
+        drain();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void drain() {
+        synchronized (this) {
+            if (isDraining) return; // the draining thread sends the new events too
+            isDraining = true;
+        }
+        try {
+            while (true) {
+                boolean isSnapshot;
+                OfferBookEvent event = null;
+                synchronized (this) {
+                    if (isClosed || responseObserver.isCancelled() || !responseObserver.isReady() ||
+                            (!snapshotRequired && bufferedEvents.isEmpty())) {
+                        isDraining = false;
+                        break;
+                    }
+                    isSnapshot = snapshotRequired;
+                    if (isSnapshot) {
+                        // changes from now on are buffered and sent after the snapshot
+                        snapshotRequired = false;
+                        bufferedEvents.clear();
+                    } else {
+                        event = bufferedEvents.poll();
+                    }
+                }
+                if (isSnapshot) event = toEvent(EventType.SNAPSHOT, snapshotSupplier.get());
+                responseObserver.onNext(event);
+            }
+        } catch (Exception e) {
+            log.warn("Error streaming offer book events, closing subscriber: {}", e.getMessage());
+            synchronized (this) {
+                isDraining = false;
+            }
+            close();
+            try {
+                responseObserver.onError(Status.INTERNAL
+                        .withDescription("Error streaming offer book events: " + e.getMessage())
+                        .asRuntimeException());
+            } catch (Exception ignore) {
+                // the call is already closed
+            }
+            return;
+        }
+
+        // a cancelled call might not have invoked the cancel handler yet if it got cancelled before the handler was set
+        if (responseObserver.isCancelled()) close();
+    }
+
+    private OfferBookEvent toEvent(EventType type, List<Offer> offers) {
+        return OfferBookEvent.newBuilder()
+                .setType(type)
+                .addAllOffers(offers.stream()
+                        .map(offerInfoMapper)
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    private static Set<String> getOfferIds(Collection<Offer> offers) {
+        return offers.stream().map(Offer::getId).collect(Collectors.toSet());
+    }
+}
@@ -42,6 +42,7 @@ import haveno.proto.grpc.GetOfferReply;
 import haveno.proto.grpc.GetOfferRequest;
 import haveno.proto.grpc.GetOffersReply;
 import haveno.proto.grpc.GetOffersRequest;
+import haveno.proto.grpc.OfferBookEvent;
 import static haveno.proto.grpc.OffersGrpc.OffersImplBase;
 import static haveno.proto.grpc.OffersGrpc.getCancelOfferMethod;
 import static haveno.proto.grpc.OffersGrpc.getEditOfferMethod;
@@ -52,9 +53,12 @@ import static haveno.proto.grpc.OffersGrpc.getGetMyOffersMethod;
 import static haveno.proto.grpc.OffersGrpc.getGetOfferMethod;
 import static haveno.proto.grpc.OffersGrpc.getGetOffersMethod;
 import static haveno.proto.grpc.OffersGrpc.getPostOfferMethod;
+import static haveno.proto.grpc.OffersGrpc.getStreamOffersMethod;
 import haveno.proto.grpc.PostOfferReply;
 import haveno.proto.grpc.PostOfferRequest;
+import haveno.proto.grpc.StreamOffersRequest;
 import io.grpc.ServerInterceptor;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -126,6 +130,24 @@ class GrpcOffersService extends OffersImplBase {
         }
     }
 
+    @Override
+    public void streamOffers(StreamOffersRequest req,
+                             StreamObserver<OfferBookEvent> responseObserver) {
+        GrpcOfferBookSubscriber subscriber = null;
+        try {
+            subscriber = new GrpcOfferBookSubscriber((ServerCallStreamObserver<OfferBookEvent>) responseObserver,
+                    () -> coreApi.getOffers(req.getDirection(), req.getCurrencyCode()),
+                    offer -> OfferInfo.toOfferInfo(offer).toProtoMessage(),
+                    coreApi::removeOffersListener);
+            coreApi.addOffersListener(req.getDirection(), req.getCurrencyCode(), subscriber);
+            subscriber.start();
+            // No onCompleted, as the response observer should be kept open
+        } catch (Throwable cause) {
+            if (subscriber != null) subscriber.close();
+            exceptionHandler.handleException(log, cause, responseObserver);
+        }
+    }
+
     @Override
     public void getMyOffers(GetMyOffersRequest req,
                             StreamObserver<GetMyOffersReply> responseObserver) {
@@ -281,6 +303,7 @@ class GrpcOffersService extends OffersImplBase {
                             put(getGetOfferMethod().getFullMethodName(), new GrpcCallRateMeter(Config.baseCurrencyNetwork().isTestnet() ? 75 : 3, SECONDS));
                             put(getGetMyOfferMethod().getFullMethodName(), new GrpcCallRateMeter(Config.baseCurrencyNetwork().isTestnet() ? 75 : 3, SECONDS));
                             put(getGetOffersMethod().getFullMethodName(), new GrpcCallRateMeter(Config.baseCurrencyNetwork().isTestnet() ? 75 : 3, SECONDS));
+                            put(getStreamOffersMethod().getFullMethodName(), new GrpcCallRateMeter(Config.baseCurrencyNetwork().isTestnet() ? 75 : 3, SECONDS));
                             put(getGetMyOffersMethod().getFullMethodName(), new GrpcCallRateMeter(Config.baseCurrencyNetwork().isTestnet() ? 75 : 3, Config.baseCurrencyNetwork().isTestnet() ? SECONDS : MINUTES));
                             put(getPostOfferMethod().getFullMethodName(), new GrpcCallRateMeter(Config.baseCurrencyNetwork().isTestnet() ? 75 : 3, Config.baseCurrencyNetwork().isTestnet() ? SECONDS : MINUTES));
                             put(getCancelOfferMethod().getFullMethodName(), new GrpcCallRateMeter(Config.baseCurrencyNetwork().isTestnet() ? 75 : 3, Config.baseCurrencyNetwork().isTestnet() ? SECONDS : MINUTES));
@@ -0,0 +1,256 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.daemon.grpc;
+
+import haveno.core.offer.Offer;
+import haveno.proto.grpc.OfferBookEvent;
+import haveno.proto.grpc.OfferBookEvent.EventType;
+import haveno.proto.grpc.OfferInfo;
+import io.grpc.stub.ServerCallStreamObserver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class GrpcOfferBookSubscriberTest {
+    private static class FakeServerCallStreamObserver extends ServerCallStreamObserver<OfferBookEvent> {
+        private final List<OfferBookEvent> events = new CopyOnWriteArrayList<>();
+        private volatile boolean isReady = true;
+        private volatile boolean isCancelled;
+        private volatile boolean failOnNext;
+        private volatile Throwable error;
+        private Runnable onReadyHandler;
+        private Runnable onCancelHandler;
+
+        void setReady(boolean isReady) {
+            this.isReady = isReady;
+            if (isReady) onReadyHandler.run();
+        }
+
+        void cancel() {
+            isCancelled = true;
+            onCancelHandler.run();
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return isCancelled;
+        }
+
+        @Override
+        public void setOnCancelHandler(Runnable onCancelHandler) {
+            this.onCancelHandler = onCancelHandler;
+        }
+
+        @Override
+        public void setCompression(String compression) {
+        }
+
+        @Override
+        public boolean isReady() {
+            return isReady;
+        }
+
+        @Override
+        public void setOnReadyHandler(Runnable onReadyHandler) {
+            this.onReadyHandler = onReadyHandler;
+        }
+
+        @Override
+        public void disableAutoInboundFlowControl() {
+        }
+
+        @Override
+        public void request(int count) {
+        }
+
+        @Override
+        public void setMessageCompression(boolean enable) {
+        }
+
+        @Override
+        public void onNext(OfferBookEvent event) {
+            if (failOnNext) throw new IllegalStateException("Stream failed");
+            events.add(event);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            this.error = error;
+        }
+
+        @Override
+        public void onCompleted() {
+        }
+    }
+
+    private final List<Offer> offerBook = new CopyOnWriteArrayList<>();
+    private final AtomicInteger numSnapshots = new AtomicInteger();
+    private final AtomicInteger numListenerRemovals = new AtomicInteger();
+    private FakeServerCallStreamObserver responseObserver;
+    private GrpcOfferBookSubscriber subscriber;
+
+    @BeforeEach
+    public void setUp() {
+        responseObserver = new FakeServerCallStreamObserver();
+        subscriber = new GrpcOfferBookSubscriber(responseObserver,
+                () -> {
+                    numSnapshots.incrementAndGet();
+                    return new ArrayList<>(offerBook);
+                },
+                offer -> OfferInfo.newBuilder().setId(offer.getId()).build(),
+                listener -> numListenerRemovals.incrementAndGet());
+    }
+
+    private static Offer mockOffer(String id) {
+        Offer offer = mock(Offer.class);
+        when(offer.getId()).thenReturn(id);
+        return offer;
+    }
+
+    private static List<String> getOfferIds(OfferBookEvent event) {
+        return event.getOffersList().stream().map(OfferInfo::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    public void start_sendsSnapshotThenChanges() {
+        Offer offerA = mockOffer("a");
+        Offer offerB = mockOffer("b");
+        offerBook.add(offerA);
+        subscriber.start();
+
+        subscriber.onAdded(offerB);
+        subscriber.onRemoved(offerA);
+        subscriber.onChanged(List.of(offerB), List.of(mockOffer("b")));
+
+        List<OfferBookEvent> events = responseObserver.events;
+        assertEquals(4, events.size());
+        assertEquals(EventType.SNAPSHOT, events.get(0).getType());
+        assertEquals(List.of("a"), getOfferIds(events.get(0)));
+        assertEquals(EventType.ADDED, events.get(1).getType());
+        assertEquals(List.of("b"), getOfferIds(events.get(1)));
+        assertEquals(EventType.REMOVED, events.get(2).getType());
+        assertEquals(List.of("a"), events.get(2).getRemovedOfferIdsList());
+        assertEquals(EventType.UPDATED, events.get(3).getType());
+        assertEquals(List.of("b"), getOfferIds(events.get(3)));
+    }
+
+    @Test
+    public void onChanged_notReady_buffersEventsUntilReady() {
+        subscriber.start();
+        responseObserver.setReady(false);
+
+        subscriber.onAdded(mockOffer("a"));
+        subscriber.onAdded(mockOffer("b"));
+        assertEquals(1, responseObserver.events.size());
+
+        responseObserver.setReady(true);
+        List<OfferBookEvent> events = responseObserver.events;
+        assertEquals(3, events.size());
+        assertEquals(List.of("a"), getOfferIds(events.get(1)));
+        assertEquals(List.of("b"), getOfferIds(events.get(2)));
+        assertEquals(1, numSnapshots.get());
+    }
+
+    @Test
+    public void onChanged_slowConsumer_resyncsWithSnapshot() {
+        subscriber.start();
+        responseObserver.setReady(false);
+
+        for (int i = 0; i <= GrpcOfferBookSubscriber.MAX_BUFFERED_EVENTS; i++) {
+            Offer offer = mockOffer("offer" + i);
+            offerBook.add(offer);
+            subscriber.onAdded(offer);
+        }
+        // changes while the snapshot is pending are not buffered
+        subscriber.onAdded(mockOffer("ignored"));
+        assertEquals(1, responseObserver.events.size());
+
+        responseObserver.setReady(true);
+        List<OfferBookEvent> events = responseObserver.events;
+        assertEquals(2, events.size());
+        assertEquals(EventType.SNAPSHOT, events.get(1).getType());
+        assertEquals(GrpcOfferBookSubscriber.MAX_BUFFERED_EVENTS + 1, events.get(1).getOffersCount());
+        assertEquals(2, numSnapshots.get());
+    }
+
+    @Test
+    public void start_changeWhileBuildingSnapshot_sentAfterSnapshot() throws InterruptedException {
+        List<Thread> changeThreads = new ArrayList<>();
+        subscriber = new GrpcOfferBookSubscriber(responseObserver,
+                () -> {
+                    // the snapshot is built without holding the lock, so other threads can report changes meanwhile
+                    Thread changeThread = new Thread(() -> subscriber.onAdded(mockOffer("a")));
+                    changeThreads.add(changeThread);
+                    changeThread.start();
+                    try {
+                        changeThread.join(5000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return List.of();
+                },
+                offer -> OfferInfo.newBuilder().setId(offer.getId()).build(),
+                listener -> numListenerRemovals.incrementAndGet());
+
+        subscriber.start();
+        changeThreads.get(0).join(5000);
+
+        assertFalse(changeThreads.get(0).isAlive());
+        List<OfferBookEvent> events = responseObserver.events;
+        assertEquals(2, events.size());
+        assertEquals(EventType.SNAPSHOT, events.get(0).getType());
+        assertEquals(EventType.ADDED, events.get(1).getType());
+        assertEquals(List.of("a"), getOfferIds(events.get(1)));
+    }
+
+    @Test
+    public void start_streamFails_closesWithErrorAndRemovesListener() {
+        responseObserver.failOnNext = true;
+
+        subscriber.start();
+
+        assertNotNull(responseObserver.error);
+        assertEquals(1, numListenerRemovals.get());
+        responseObserver.failOnNext = false;
+        subscriber.onAdded(mockOffer("a"));
+        assertTrue(responseObserver.events.isEmpty());
+    }
+
+    @Test
+    public void cancel_removesListener() {
+        subscriber.start();
+
+        responseObserver.cancel();
+        subscriber.onAdded(mockOffer("a"));
+
+        assertEquals(1, numListenerRemovals.get());
+        assertEquals(1, responseObserver.events.size());
+    }
+}
@@ -227,7 +227,10 @@ class TradesChartsViewModel extends ActivatableViewModel {
                                                                             @Nullable CompletableFuture<Boolean> completeFuture) {
         CompletableFuture<Boolean> future = new CompletableFuture<>();
         long ts = System.currentTimeMillis();
-        ChartCalculations.getTradeStatisticsForCurrency(tradeStatisticsManager.getObservableTradeStatisticsList(),
+        List<TradeStatistics3> tradeStatisticsList = showAllTradeCurrenciesProperty.get() ?
+                tradeStatisticsManager.getObservableTradeStatisticsList() :
+                tradeStatisticsManager.getTradeStatistics(currencyCode);
+        ChartCalculations.getTradeStatisticsForCurrency(tradeStatisticsList,
                 currencyCode,
                 showAllTradeCurrenciesProperty.get())
                 .whenComplete((list, throwable) -> {
@@ -26,9 +26,12 @@ import haveno.core.offer.OfferBookService;
 import static haveno.core.offer.OfferDirection.BUY;
 import haveno.network.p2p.storage.P2PDataStorage;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -62,26 +65,9 @@ public class OfferBook {
             @Override
             public void onAdded(Offer offer) {
                 UserThread.execute(() -> {
-                    printOfferBookListItems("Before onAdded");
-
-                    // Use offer.equals(offer) to see if the OfferBook list contains an exact
-                    // match -- offer.equals(offer) includes comparisons of payload, state
-                    // and errorMessage.
                     synchronized (offerBookListItems) {
-                        boolean hasSameOffer = offerBookListItems.stream().anyMatch(item -> item.getOffer().equals(offer));
-                        if (!hasSameOffer) {
-                            OfferBookListItem newOfferBookListItem = new OfferBookListItem(offer);
-                            removeDuplicateItem(newOfferBookListItem);
-                            offerBookListItems.add(newOfferBookListItem);  // Add replacement.
-                            if (log.isDebugEnabled()) {  // TODO delete debug stmt in future PR.
-                                log.debug("onAdded: Added new offer {}\n"
-                                                + "\twith newItem.payloadHash: {}",
-                                        offer.getId(),
-                                        newOfferBookListItem.hashOfPayload.getHex());
-                            }
-                        } else {
-                            log.debug("We have the exact same offer already in our list and ignore the onAdded call. ID={}", offer.getId());
-                        }
+                        printOfferBookListItems("Before onAdded");
+                        getNewItem(offer).ifPresent(offerBookListItems::add);  // Add replacement.
                         printOfferBookListItems("After onAdded");
                     }
                 });
@@ -97,9 +83,79 @@ public class OfferBook {
                     }
                 });
             }
+
+            // We apply a batch of changes in one UI update with a single removal and a single addition to the list
+            @Override
+            public void onChanged(List<Offer> removedOffers, List<Offer> addedOffers) {
+                UserThread.execute(() -> {
+                    synchronized (offerBookListItems) {
+                        printOfferBookListItems("Before onChanged");
+                        applyChanges(removedOffers, addedOffers);
+                        printOfferBookListItems("After onChanged");
+                    }
+                });
+            }
         });
     }
 
+    private void applyChanges(List<Offer> removedOffers, List<Offer> addedOffers) {
+        Map<String, List<OfferBookListItem>> itemsByOfferId = offerBookListItems.stream()
+                .collect(Collectors.groupingBy(item -> item.getOffer().getId()));
+        Set<OfferBookListItem> removedItems = new HashSet<>();
+        removedOffers.forEach(offer -> {
+            setRemovedState(offer);
+            // Same rules as in removeOffer: we only remove the item with a matching payload hash
+            P2PDataStorage.ByteArray hashOfPayload = new P2PDataStorage.ByteArray(offer.getOfferPayload().getHash());
+            itemsByOfferId.getOrDefault(offer.getId(), List.of()).stream()
+                    .filter(item -> item.hashOfPayload.equals(hashOfPayload) && !removedItems.contains(item))
+                    .findAny()
+                    .ifPresent(removedItems::add);
+        });
+
+        // Same rules as in getNewItem: we ignore exact duplicates and a new item replaces the items of that offer
+        Map<String, OfferBookListItem> addedItemsByOfferId = new LinkedHashMap<>();
+        addedOffers.forEach(offer -> {
+            List<OfferBookListItem> items = itemsByOfferId.getOrDefault(offer.getId(), List.of());
+            boolean hasSameOffer = items.stream()
+                    .anyMatch(item -> !removedItems.contains(item) && item.getOffer().equals(offer));
+            if (hasSameOffer) {
+                log.debug("We have the exact same offer already in our list and ignore it. ID={}", offer.getId());
+                return;
+            }
+            removedItems.addAll(items);
+            addedItemsByOfferId.put(offer.getId(), new OfferBookListItem(offer));
+        });
+
+        if (!removedItems.isEmpty()) {
+            offerBookListItems.removeAll(removedItems);
+        }
+        offerBookListItems.addAll(addedItemsByOfferId.values());
+    }
+
+    // Returns the item to add for the offer and removes the outdated items of that offer
+    private Optional<OfferBookListItem> getNewItem(Offer offer) {
+        synchronized (offerBookListItems) {
+            // Use offer.equals(offer) to see if the OfferBook list contains an exact
+            // match -- offer.equals(offer) includes comparisons of payload, state
+            // and errorMessage.
+            boolean hasSameOffer = offerBookListItems.stream().anyMatch(item -> item.getOffer().equals(offer));
+            if (hasSameOffer) {
+                log.debug("We have the exact same offer already in our list and ignore the onAdded call. ID={}", offer.getId());
+                return Optional.empty();
+            }
+
+            OfferBookListItem newOfferBookListItem = new OfferBookListItem(offer);
+            removeDuplicateItem(newOfferBookListItem);
+            if (log.isDebugEnabled()) {  // TODO delete debug stmt in future PR.
+                log.debug("onAdded: Added new offer {}\n"
+                                + "\twith newItem.payloadHash: {}",
+                        offer.getId(),
+                        newOfferBookListItem.hashOfPayload.getHex());
+            }
+            return Optional.of(newOfferBookListItem);
+        }
+    }
+
     private void removeDuplicateItem(OfferBookListItem newOfferBookListItem) {
         synchronized (offerBookListItems) {
             String offerId = newOfferBookListItem.getOffer().getId();
@@ -126,9 +182,7 @@ public class OfferBook {
     public void removeOffer(Offer offer) {
         synchronized (offerBookListItems) {
 
-            // Update state in case that that offer is used in the take offer screen, so it gets updated correctly
-            offer.setState(Offer.State.REMOVED);
-            offer.cancelAvailabilityRequest();
+            setRemovedState(offer);
 
             P2PDataStorage.ByteArray hashOfPayload = new P2PDataStorage.ByteArray(offer.getOfferPayload().getHash());
 
@@ -182,6 +236,12 @@ public class OfferBook {
         }
     }
 
+    // Update state in case that that offer is used in the take offer screen, so it gets updated correctly
+    private static void setRemovedState(Offer offer) {
+        offer.setState(Offer.State.REMOVED);
+        offer.cancelAvailabilityRequest();
+    }
+
     public ObservableList<OfferBookListItem> getOfferBookListItems() {
         return offerBookListItems;
     }
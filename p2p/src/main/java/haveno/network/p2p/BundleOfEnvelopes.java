@@ -31,6 +31,7 @@ import lombok.Value;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @EqualsAndHashCode(callSuper = true)
@@ -63,9 +64,14 @@ public final class BundleOfEnvelopes extends BroadcastMessage implements Extende
 
     @Override
     public protobuf.NetworkEnvelope toProtoNetworkEnvelope() {
+        return toProtoNetworkEnvelope(NetworkEnvelope::toProtoNetworkEnvelope);
+    }
+
+    // Allows to reuse already serialized envelopes
+    public protobuf.NetworkEnvelope toProtoNetworkEnvelope(Function<NetworkEnvelope, protobuf.NetworkEnvelope> toProto) {
         return getNetworkEnvelopeBuilder()
                 .setBundleOfEnvelopes(protobuf.BundleOfEnvelopes.newBuilder().addAllEnvelopes(envelopes.stream()
-                        .map(NetworkEnvelope::toProtoNetworkEnvelope)
+                        .map(toProto)
                         .collect(Collectors.toList())))
                 .build();
     }
@@ -24,17 +24,18 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @EqualsAndHashCode
 public class IgnoredMailboxMap implements PersistableEnvelope {
+    // Concurrent as mailbox entries are decrypted on several threads while the map gets persisted
     @Getter
     private final Map<String, Long> dataMap;
 
     public IgnoredMailboxMap() {
-        this.dataMap = new HashMap<>();
+        this.dataMap = new ConcurrentHashMap<>();
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -42,7 +43,7 @@ public class IgnoredMailboxMap implements PersistableEnvelope {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public IgnoredMailboxMap(Map<String, Long> ignored) {
-        this.dataMap = ignored;
+        this.dataMap = new ConcurrentHashMap<>(ignored);
     }
 
     @Override
@@ -53,7 +54,7 @@ public class IgnoredMailboxMap implements PersistableEnvelope {
     }
 
     public static IgnoredMailboxMap fromProto(protobuf.IgnoredMailboxMap proto) {
-        return new IgnoredMailboxMap(CollectionUtils.isEmpty(proto.getDataMap()) ? new HashMap<>() : proto.getDataMap());
+        return new IgnoredMailboxMap(CollectionUtils.isEmpty(proto.getDataMap()) ? Map.of() : proto.getDataMap());
     }
 
     public void putAll(Map<String, Long> map) {
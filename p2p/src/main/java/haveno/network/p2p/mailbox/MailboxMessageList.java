@@ -27,6 +27,7 @@ import lombok.extern.slf4j.Slf4j;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -49,15 +50,25 @@ public class MailboxMessageList extends PersistableList<MailboxItem> {
     @Override
     public Message toProtoMessage() {
         synchronized (getList()) {
-            return protobuf.PersistableEnvelope.newBuilder()
-                    .setMailboxMessageList(protobuf.MailboxMessageList.newBuilder()
-                            .addAllMailboxItem(getList().stream()
-                                    .map(MailboxItem::toProtoMessage)
-                                    .collect(Collectors.toList())))
-                    .build();
+            return toPersistableMessage(getList());
         }
     }
 
+    // MailboxItems are immutable, so serializing the copied list on the write thread gives the state at this call
+    @Override
+    public Supplier<Message> getPersistableMessageSupplier() {
+        return getDeferredMessageSupplier(MailboxMessageList::toPersistableMessage);
+    }
+
+    private static Message toPersistableMessage(List<MailboxItem> items) {
+        return protobuf.PersistableEnvelope.newBuilder()
+                .setMailboxMessageList(protobuf.MailboxMessageList.newBuilder()
+                        .addAllMailboxItem(items.stream()
+                                .map(MailboxItem::toProtoMessage)
+                                .collect(Collectors.toList())))
+                .build();
+    }
+
     public static MailboxMessageList fromProto(protobuf.MailboxMessageList proto,
                                                NetworkProtoResolver networkProtoResolver) {
         return new MailboxMessageList(new ArrayList<>(proto.getMailboxItemList().stream()
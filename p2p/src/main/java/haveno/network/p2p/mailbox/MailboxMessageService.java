@@ -52,6 +52,7 @@ import haveno.common.crypto.CryptoException;
 import haveno.common.crypto.KeyRing;
 import haveno.common.crypto.PubKeyRing;
 import haveno.common.crypto.SealedAndSigned;
+import haveno.common.crypto.Sig;
 import haveno.common.persistence.PersistenceManager;
 import haveno.common.proto.ProtobufferException;
 import haveno.common.proto.network.NetworkEnvelope;
@@ -84,6 +85,7 @@ import java.security.PublicKey;
 import java.time.Clock;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Date;
@@ -95,10 +97,14 @@ import java.util.Queue;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 
@@ -126,6 +132,12 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
     private static final long REPUBLISH_DELAY_SEC = TimeUnit.MINUTES.toSeconds(2);
     private static final long MAX_SERIALIZED_SIZE = 50000;
     private static final String THREAD_ID = MailboxMessageService.class.getSimpleName();
+    // Decryption is CPU bound, so we use one thread per core but leave one core for the other threads.
+    private static final int DECRYPTION_POOL_SIZE = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    // If the queue is full the batch thread decrypts the entry itself, which throttles the submission of new entries.
+    private static final int DECRYPTION_QUEUE_CAPACITY = 256;
+    // Number of own mailbox items we apply before we wait until the user thread has processed the resulting tasks.
+    private static final int HANDLE_MAILBOX_ITEMS_CHUNK_SIZE = 20;
 
     private final NetworkNode networkNode;
     private final PeerManager peerManager;
@@ -140,6 +152,16 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
     private final Set<DecryptedMailboxListener> decryptedMailboxListeners = new CopyOnWriteArraySet<>();
     private final MailboxMessageList mailboxMessageList = new MailboxMessageList();
     private final Map<String, MailboxItem> mailboxItemsByUid = new HashMap<>();
+    private final byte[] mySignaturePubKeyBytes;
+    private final ThreadPoolExecutor decryptionExecutor;
+
+    // Metrics of the processing of mailbox entries
+    @Getter
+    private final AtomicLong numSkippedDecryptions = new AtomicLong();
+    @Getter
+    private final AtomicLong numDecryptedEntries = new AtomicLong();
+    @Getter
+    private final AtomicLong numFailedDecryptions = new AtomicLong();
 
     private boolean isBootstrapped;
     private boolean allServicesInitialized;
@@ -166,6 +188,13 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
         this.keyRing = keyRing;
         this.clock = clock;
         this.republishMailboxEntries = republishMailboxEntries;
+        mySignaturePubKeyBytes = Sig.getPublicKeyBytes(keyRing.getSignatureKeyPair().getPublic());
+        decryptionExecutor = Utilities.getThreadPoolExecutor("MailboxMessageService.decryption",
+                DECRYPTION_POOL_SIZE,
+                DECRYPTION_POOL_SIZE,
+                DECRYPTION_QUEUE_CAPACITY,
+                60);
+        decryptionExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
 
         this.persistenceManager.initialize(mailboxMessageList, PersistenceManager.Source.PRIVATE_LOW_PRIO);
     }
@@ -451,19 +480,28 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
     }
 
     // We run the batch processing of all mailbox messages we have received at startup in a thread to not block the UI.
-    // For about 1000 messages decryption takes about 1 sec.
+    // The decryption of the entries is spread over the decryptionExecutor. For about 1000 messages decryption takes
+    // about 1 sec on a single thread.
     private void threadedBatchProcessMailboxEntries(Collection<ProtectedMailboxStorageEntry> protectedMailboxStorageEntries) {
         long ts = System.currentTimeMillis();
         SettableFuture<Set<MailboxItem>> future = SettableFuture.create();
 
         new Thread(() -> {
             try {
+                long numSkippedBefore = numSkippedDecryptions.get();
+                long numDecryptedBefore = numDecryptedEntries.get();
+                long numFailedBefore = numFailedDecryptions.get();
                 var mailboxItems = getMailboxItems(protectedMailboxStorageEntries);
 
                 if (!protectedMailboxStorageEntries.isEmpty())
-                    log.info("Batch processing of {} mailbox entries took {} ms",
+                    log.info("Batch processing of {} mailbox entries took {} ms. " +
+                                    "Skipped decryption of {} entries not addressed to us, decrypted {} entries, " +
+                                    "failed to decrypt {} entries",
                             protectedMailboxStorageEntries.size(),
-                            System.currentTimeMillis() - ts);
+                            System.currentTimeMillis() - ts,
+                            numSkippedDecryptions.get() - numSkippedBefore,
+                            numDecryptedEntries.get() - numDecryptedBefore,
+                            numFailedDecryptions.get() - numFailedBefore);
                 future.set(mailboxItems);
 
             } catch (Throwable throwable) {
@@ -485,11 +523,18 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
         }, MoreExecutors.directExecutor());
     }
 
-    private Set<MailboxItem> getMailboxItems(Collection<ProtectedMailboxStorageEntry> protectedMailboxStorageEntries) {
+    private Set<MailboxItem> getMailboxItems(Collection<ProtectedMailboxStorageEntry> protectedMailboxStorageEntries)
+            throws InterruptedException, ExecutionException {
+        List<Future<MailboxItem>> futures = new ArrayList<>(protectedMailboxStorageEntries.size());
+        for (ProtectedMailboxStorageEntry protectedMailboxStorageEntry : protectedMailboxStorageEntries) {
+            // If the queue of the executor is full the task runs on the caller thread (CallerRunsPolicy), which
+            // throttles the submission of further entries
+            futures.add(decryptionExecutor.submit(() -> tryDecryptProtectedMailboxStorageEntry(protectedMailboxStorageEntry)));
+        }
         Set<MailboxItem> mailboxItems = new HashSet<>();
-        protectedMailboxStorageEntries.stream()
-                .map(this::tryDecryptProtectedMailboxStorageEntry)
-                .forEach(mailboxItems::add);
+        for (Future<MailboxItem> future : futures) {
+            mailboxItems.add(future.get());
+        }
         return mailboxItems;
     }
 
@@ -503,21 +548,39 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
             // We had persisted a past failed decryption attempt on that message so we don't try again and return early
             return new MailboxItem(protectedMailboxStorageEntry, null);
         }
+        if (!isAddressedToMe(protectedMailboxStorageEntry)) {
+            // The receiver's public key is a cheap hint for the recipient, so we don't need to try an expensive
+            // decryption of messages which are not intended for us.
+            numSkippedDecryptions.incrementAndGet();
+            return new MailboxItem(protectedMailboxStorageEntry, null);
+        }
         try {
             DecryptedMessageWithPubKey decryptedMessageWithPubKey = encryptionService.decryptAndVerify(sealedAndSigned);
             checkArgument(decryptedMessageWithPubKey.getNetworkEnvelope() instanceof MailboxMessage);
+            numDecryptedEntries.incrementAndGet();
             return new MailboxItem(protectedMailboxStorageEntry, decryptedMessageWithPubKey);
         } catch (CryptoException ignore) {
             // Expected if message was not intended for us
             // We persist those entries so at the next startup we do not need to try to decrypt it anymore
+            numFailedDecryptions.incrementAndGet();
             ignoredMailboxService.ignore(uid, protectedMailboxStorageEntry.getCreationTimeStamp());
         } catch (ProtobufferException e) {
+            numFailedDecryptions.incrementAndGet();
             log.error(e.toString());
             e.getStackTrace();
         }
         return new MailboxItem(protectedMailboxStorageEntry, null);
     }
 
+    // The receiversPubKey of the entry is verified to match the owner of the MailboxStoragePayload and the sender
+    // sets it to the signature key of the receiver. If it is missing we fall back to the trial decryption.
+    private boolean isAddressedToMe(ProtectedMailboxStorageEntry protectedMailboxStorageEntry) {
+        byte[] receiversPubKeyBytes = protectedMailboxStorageEntry.getReceiversPubKeyBytes();
+        return receiversPubKeyBytes == null ||
+                receiversPubKeyBytes.length == 0 ||
+                Arrays.equals(receiversPubKeyBytes, mySignaturePubKeyBytes);
+    }
+
     private void handleMailboxItems(Set<MailboxItem> mailboxItems) {
 
         // sort mailbox items
@@ -529,8 +592,16 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
                 .sorted(new MailboxItemComparator())
                 .collect(Collectors.toList()));
 
-        // handle mailbox items
-        mailboxItemsSorted.forEach(e -> handleMailboxItem(e));
+        // handle mailbox items. Own items trigger the domain listeners which usually queue tasks at the user thread.
+        // To not flood the user thread at a startup with many pending messages we wait after each chunk until the
+        // user thread has caught up. The order of the items is not changed.
+        int numHandledMine = 0;
+        for (MailboxItem mailboxItem : mailboxItemsSorted) {
+            handleMailboxItem(mailboxItem);
+            if (mailboxItem.isMine() && ++numHandledMine % HANDLE_MAILBOX_ITEMS_CHUNK_SIZE == 0) {
+                UserThread.await(() -> {});
+            }
+        }
     }
 
     private static class MailboxItemComparator implements Comparator<MailboxItem> {
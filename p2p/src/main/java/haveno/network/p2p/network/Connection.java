@@ -42,6 +42,7 @@ import com.google.protobuf.InvalidProtocolBufferException;
 import haveno.common.Proto;
 import haveno.common.ThreadUtils;
 import haveno.common.app.Capabilities;
+import haveno.common.app.Capability;
 import haveno.common.app.HasCapabilities;
 import haveno.common.app.Version;
 import haveno.common.config.Config;
@@ -81,14 +82,17 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -148,6 +152,8 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
     private final ConnectionState connectionState;
     @Getter
     private final ConnectionStatistics connectionStatistics;
+    @Getter(AccessLevel.PACKAGE)
+    private final OutboundQueue outboundQueue;
 
     // set in init
     private ProtoOutputStream protoOutputStream;
@@ -162,7 +168,6 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
     private final ObjectProperty<NodeAddress> peersNodeAddressProperty = new SimpleObjectProperty<>();
     private final List<Long> messageTimeStamps = new ArrayList<>();
     private final CopyOnWriteArraySet<MessageListener> messageListeners = new CopyOnWriteArraySet<>();
-    private volatile long lastSendTimeStamp = 0;
     // We use a weak reference here to ensure that no connection causes a memory leak in case it get closed without
     // the shutDown being called.
     private final CopyOnWriteArraySet<WeakReference<SupportedCapabilitiesListener>> capabilitiesListeners = new CopyOnWriteArraySet<>();
@@ -197,9 +202,18 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
         this.banFilter = banFilter;
 
         this.uid = UUID.randomUUID().toString();
-        this.executorService = SingleThreadExecutorUtils.getSingleThreadExecutor("Executor service for connection with uid " + uid);
+        String executorName = "Executor service for connection with uid " + uid;
+        this.executorService = ThreadUtils.isUseVirtualThreads() ?
+                SingleThreadExecutorUtils.getSingleVirtualThreadExecutor(executorName) :
+                SingleThreadExecutorUtils.getSingleThreadExecutor(executorName);
 
         statistic = new Statistic();
+        // We refill a token per throttle trigger interval and allow bursts of about the throttle sleep time
+        int sendMsgThrottleTrigger = Math.max(1, getSendMsgThrottleTrigger());
+        outboundQueue = new OutboundQueue(uid,
+                this::writeFrame,
+                getSendMsgThrottleSleep() / sendMsgThrottleTrigger + 1,
+                sendMsgThrottleTrigger);
 
         addMessageListener(messageListener);
 
@@ -244,12 +258,69 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
     }
 
     void sendMessage(NetworkEnvelope networkEnvelope) {
-        long ts = System.currentTimeMillis();
+        awaitSent(sendMessageAsync(networkEnvelope));
+    }
+
+    /**
+     * Adds the envelope to the outbound queue. The returned future completes when the envelope was written or if it
+     * does not get sent to the peer.
+     */
+    CompletableFuture<Void> sendMessageAsync(NetworkEnvelope networkEnvelope) {
+        if (!canSend(networkEnvelope)) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        if (!testCapability(networkEnvelope)) {
+            log.debug("Capability for networkEnvelope is required but not supported");
+            return CompletableFuture.completedFuture(null);
+        }
+        return outboundQueue.enqueue(maybeCompress(NetworkEnvelopeFrame.of(networkEnvelope)));
+    }
+
+    /**
+     * Sends an already serialized envelope. If the peer does not support all envelopes of a bundle we fall back to
+     * sending a copy of the bundle, which removes the unsupported envelopes and serializes it again.
+     */
+    CompletableFuture<Void> sendMessageAsync(NetworkEnvelopeFrame frame) {
+        NetworkEnvelope networkEnvelope = frame.getEnvelope();
+        if (networkEnvelope instanceof BundleOfEnvelopes) {
+            List<NetworkEnvelope> envelopes = ((BundleOfEnvelopes) networkEnvelope).getEnvelopes();
+            if (!envelopes.stream().allMatch(this::testCapability)) {
+                // The bundle of the frame might be shared with other connections, so we must not change it
+                return sendMessageAsync(new BundleOfEnvelopes(new ArrayList<>(envelopes)));
+            }
+        } else if (!testCapability(networkEnvelope)) {
+            log.debug("Capability for networkEnvelope is required but not supported");
+            return CompletableFuture.completedFuture(null);
+        }
+
+        if (!canSend(networkEnvelope)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return outboundQueue.enqueue(maybeCompress(frame));
+    }
+
+    private NetworkEnvelopeFrame maybeCompress(NetworkEnvelopeFrame frame) {
+        return capabilities.contains(Capability.COMPRESSION) ? frame.getCompressedFrame() : frame;
+    }
+
+    private void awaitSent(CompletableFuture<Void> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private boolean canSend(NetworkEnvelope networkEnvelope) {
         log.debug(">> Send networkEnvelope of type: {}", networkEnvelope.getClass().getSimpleName());
 
         if (stopped) {
             log.debug("called sendMessage but was already stopped");
-            return;
+            return false;
         }
 
         if (banFilter != null &&
@@ -257,31 +328,19 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                 banFilter.isPeerBanned(peersNodeAddressOptional.get())) {
             String errorMessage = "We tried to send a message to a banned peer. message=" + networkEnvelope.getClass().getSimpleName();
             reportInvalidRequest(RuleViolation.PEER_BANNED, errorMessage);
-            return;
+            return false;
         }
+        return true;
+    }
 
-        if (!testCapability(networkEnvelope)) {
-            log.debug("Capability for networkEnvelope is required but not supported");
-            return;
-        }
-        int networkEnvelopeSize = networkEnvelope.toProtoNetworkEnvelope().getSerializedSize();
+    // Called by the outbound queue
+    private void writeFrame(NetworkEnvelopeFrame frame) {
+        long ts = System.currentTimeMillis();
+        NetworkEnvelope networkEnvelope = frame.getEnvelope();
+        int networkEnvelopeSize = frame.getSerializedSize();
         try {
-            // Throttle outbound network_messages
-            long now = System.currentTimeMillis();
-            long elapsed = now - lastSendTimeStamp;
-            if (elapsed < getSendMsgThrottleTrigger()) {
-                log.debug("We got 2 sendMessage requests in less than {} ms. We set the thread to sleep " +
-                                "for {} ms to avoid flooding our peer. lastSendTimeStamp={}, now={}, elapsed={}, networkEnvelope={}",
-                        getSendMsgThrottleTrigger(), getSendMsgThrottleSleep(), lastSendTimeStamp, now, elapsed,
-                        networkEnvelope.getClass().getSimpleName());
-
-                Thread.sleep(getSendMsgThrottleSleep());
-            }
-
-            lastSendTimeStamp = now;
-
             if (!stopped) {
-                protoOutputStream.writeEnvelope(networkEnvelope);
+                protoOutputStream.writeFrame(frame);
                 ThreadUtils.execute(() -> messageListeners.forEach(e -> e.onMessageSent(networkEnvelope, this)), THREAD_ID);
                 ThreadUtils.execute(() -> connectionStatistics.addSendMsgMetrics(System.currentTimeMillis() - ts, networkEnvelopeSize), THREAD_ID);
             }
@@ -535,6 +594,7 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
 
     private void doShutDown(CloseConnectionReason closeConnectionReason, @Nullable Runnable shutDownCompleteHandler) {
         ThreadUtils.execute(() -> connectionListener.onDisconnect(closeConnectionReason, this), THREAD_ID);
+        outboundQueue.close();
         try {
             protoOutputStream.onConnectionShutdown();
             socket.close();
@@ -783,6 +843,13 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                         return;
                     }
 
+                    // Size on the wire, which is smaller than the envelope size if the envelope was compressed
+                    int receivedSize = proto.getSerializedSize();
+                    if (proto.getMessageCase() == protobuf.NetworkEnvelope.MessageCase.COMPRESSED_ENVELOPE) {
+                        proto = EnvelopeCompression.decompress(proto.getCompressedEnvelope(), MAX_PERMITTED_MESSAGE_SIZE);
+                        statistic.addCompressedReceivedBytes(receivedSize, proto.getSerializedSize());
+                    }
+
                     // Throttle inbound network messages
                     long now = System.currentTimeMillis();
                     long elapsed = now - lastReadTimeStamp;
@@ -799,7 +866,7 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                     int size = proto.getSerializedSize();
 
                     // We want to track the size of each object even if it is invalid data
-                    statistic.addReceivedBytes(size);
+                    statistic.addReceivedBytes(receivedSize);
 
                     // We want to track the network_messages also before the checks, so do it early...
                     statistic.addReceivedMessage(networkEnvelope);
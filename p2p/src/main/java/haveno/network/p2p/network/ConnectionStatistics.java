@@ -94,6 +94,7 @@ public class ConnectionStatistics implements MessageListener {
             rrt = "Time for response: " + rrt + ls;
         }
         boolean seedNode = connectionState.isSeedNode();
+        OutboundQueue outboundQueue = connection.getOutboundQueue();
         return String.format(
                 "Age: %s" + ls +
                         "Peer: %s%s " + ls +
@@ -105,7 +106,8 @@ public class ConnectionStatistics implements MessageListener {
                         "Sent data: %s; %s" + ls +
                         "Received data: %s; %s" + ls +
                         "CPU time spent on sending messages: %s" + ls +
-                        "CPU time spent on receiving messages: %s",
+                        "CPU time spent on receiving messages: %s" + ls +
+                        "Outbound queue depth (max): %d (%d); Queue latency avg/max: %s / %s; Coalesced messages: %d",
                 age,
                 seedNode ? "[Seed node] " : "", peer,
                 connectionState.getPeerType().name(),
@@ -116,7 +118,11 @@ public class ConnectionStatistics implements MessageListener {
                 Utilities.readableFileSize(sentBytes), sentDataMap.toString(),
                 Utilities.readableFileSize(receivedBytes), receivedDataMap.toString(),
                 Utilities.formatDurationAsWords(timeOnSendMsg),
-                Utilities.formatDurationAsWords(timeOnReceivedMsg));
+                Utilities.formatDurationAsWords(timeOnReceivedMsg),
+                outboundQueue.getQueueDepth(), outboundQueue.getMaxQueueDepth(),
+                Utilities.formatDurationAsWords(outboundQueue.getAverageQueueLatency()),
+                Utilities.formatDurationAsWords(outboundQueue.getMaxQueueLatency()),
+                outboundQueue.getNumCoalescedMessages().get());
     }
 
     @Override
@@ -164,6 +170,14 @@ public class ConnectionStatistics implements MessageListener {
         this.sentBytes += bytes;
     }
 
+    public int getOutboundQueueDepth() {
+        return connection.getOutboundQueue().getQueueDepth();
+    }
+
+    public long getAverageOutboundQueueLatency() {
+        return connection.getOutboundQueue().getAverageQueueLatency();
+    }
+
     public void addReceivedMsgMetrics(long timeSpent, int bytes) {
         this.timeOnReceivedMsg += timeSpent;
         this.receivedBytes += bytes;
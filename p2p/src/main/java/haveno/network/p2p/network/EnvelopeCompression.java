@@ -0,0 +1,102 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.network;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Deflate compression of network envelopes for peers with the COMPRESSION capability. Large envelopes like
+ * GetDataResponses contain many similar payloads (offers, trade statistics), so they compress well.
+ */
+final class EnvelopeCompression {
+    // Compressing smaller envelopes costs more CPU time than it saves bandwidth
+    static final int MIN_SIZE_TO_COMPRESS = 16 * 1024;
+
+    private EnvelopeCompression() {
+    }
+
+    /**
+     * @return the CompressedEnvelope of the serialized envelope at offset
+     */
+    static protobuf.CompressedEnvelope compress(byte[] serializedEnvelope, int offset, int length) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setInput(serializedEnvelope, offset, length);
+            deflater.finish();
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(length / 4);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int numBytes = deflater.deflate(buffer);
+                outputStream.write(buffer, 0, numBytes);
+            }
+            return protobuf.CompressedEnvelope.newBuilder()
+                    .setData(ByteString.copyFrom(outputStream.toByteArray()))
+                    .setUncompressedSize(length)
+                    .build();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Decompresses the envelope. We only inflate up to the announced size, so a peer cannot make us allocate more
+     * than maxSize bytes.
+     */
+    static protobuf.NetworkEnvelope decompress(protobuf.CompressedEnvelope compressedEnvelope, int maxSize)
+            throws InvalidProtocolBufferException {
+        int uncompressedSize = compressedEnvelope.getUncompressedSize();
+        if (uncompressedSize <= 0 || uncompressedSize > maxSize) {
+            throw new InvalidProtocolBufferException("Invalid uncompressed size " + uncompressedSize +
+                    " of compressed envelope. maxSize=" + maxSize);
+        }
+
+        byte[] bytes = new byte[uncompressedSize];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressedEnvelope.getData().asReadOnlyByteBuffer());
+            int numBytes = 0;
+            while (numBytes < uncompressedSize) {
+                int inflated = inflater.inflate(bytes, numBytes, uncompressedSize - numBytes);
+                if (inflated == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                numBytes += inflated;
+            }
+            if (numBytes != uncompressedSize || inflater.inflate(new byte[1]) != 0 || !inflater.finished()) {
+                throw new InvalidProtocolBufferException("Uncompressed size of compressed envelope does not match " +
+                        "announced size " + uncompressedSize);
+            }
+        } catch (DataFormatException e) {
+            throw new InvalidProtocolBufferException("Invalid data of compressed envelope: " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+
+        protobuf.NetworkEnvelope proto = protobuf.NetworkEnvelope.parseFrom(bytes);
+        if (proto.getMessageCase() == protobuf.NetworkEnvelope.MessageCase.COMPRESSED_ENVELOPE) {
+            throw new InvalidProtocolBufferException("Nested compressed envelopes are not permitted");
+        }
+        return proto;
+    }
+}
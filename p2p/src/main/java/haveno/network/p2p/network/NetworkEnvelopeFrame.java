@@ -0,0 +1,134 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.network;
+
+import com.google.protobuf.CodedOutputStream;
+import haveno.common.proto.network.NetworkEnvelope;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A network envelope which is already serialized in the length delimited format we use on the wire. Used if the
+ * same envelope is sent to multiple peers, e.g. at broadcasts, so it gets serialized only once.
+ */
+public final class NetworkEnvelopeFrame {
+    // Counters over all frames to see how much serialization we save
+    private static final AtomicLong NUM_ENCODED_FRAMES = new AtomicLong();
+    private static final AtomicLong NUM_ENCODED_BYTES = new AtomicLong();
+    private static final AtomicLong NUM_WRITTEN_FRAMES = new AtomicLong();
+    private static final AtomicLong NUM_WRITTEN_BYTES = new AtomicLong();
+
+    @Getter
+    private final NetworkEnvelope envelope;
+    // Size of the serialized envelope without the length prefix
+    @Getter
+    private final int serializedSize;
+    // Size of the envelope before compression. Same as serializedSize if the frame is not compressed.
+    @Getter
+    private final int uncompressedSize;
+    @Getter
+    private final boolean compressed;
+    private final byte[] delimitedBytes;
+    // The frame might be sent to many peers, so we compress it only once
+    private volatile NetworkEnvelopeFrame compressedFrame;
+
+    public static NetworkEnvelopeFrame of(NetworkEnvelope envelope) {
+        return of(envelope, envelope.toProtoNetworkEnvelope());
+    }
+
+    public static NetworkEnvelopeFrame of(NetworkEnvelope envelope, protobuf.NetworkEnvelope proto) {
+        return encode(envelope, proto, false, proto.getSerializedSize());
+    }
+
+    private static NetworkEnvelopeFrame encode(NetworkEnvelope envelope,
+                                               protobuf.NetworkEnvelope proto,
+                                               boolean compressed,
+                                               int uncompressedSize) {
+        int serializedSize = proto.getSerializedSize();
+        byte[] delimitedBytes = new byte[CodedOutputStream.computeUInt32SizeNoTag(serializedSize) + serializedSize];
+        CodedOutputStream codedOutputStream = CodedOutputStream.newInstance(delimitedBytes);
+        try {
+            codedOutputStream.writeUInt32NoTag(serializedSize);
+            proto.writeTo(codedOutputStream);
+            codedOutputStream.checkNoSpaceLeft();
+        } catch (IOException e) {
+            // Writing to a byte array of the exact size does not fail
+            throw new IllegalStateException("Serializing " + envelope.getClass().getSimpleName() + " failed", e);
+        }
+        NUM_ENCODED_FRAMES.incrementAndGet();
+        NUM_ENCODED_BYTES.addAndGet(delimitedBytes.length);
+        return new NetworkEnvelopeFrame(envelope, serializedSize, compressed, uncompressedSize, delimitedBytes);
+    }
+
+    private NetworkEnvelopeFrame(NetworkEnvelope envelope,
+                                 int serializedSize,
+                                 boolean compressed,
+                                 int uncompressedSize,
+                                 byte[] delimitedBytes) {
+        this.envelope = envelope;
+        this.serializedSize = serializedSize;
+        this.compressed = compressed;
+        this.uncompressedSize = uncompressedSize;
+        this.delimitedBytes = delimitedBytes;
+    }
+
+    /**
+     * @return the frame wrapped in a CompressedEnvelope, or this frame if it is too small or compression does not
+     * reduce its size
+     */
+    NetworkEnvelopeFrame getCompressedFrame() {
+        if (compressed || serializedSize < EnvelopeCompression.MIN_SIZE_TO_COMPRESS) {
+            return this;
+        }
+        NetworkEnvelopeFrame result = compressedFrame;
+        if (result == null) {
+            int prefixSize = delimitedBytes.length - serializedSize;
+            protobuf.NetworkEnvelope proto = envelope.getNetworkEnvelopeBuilder()
+                    .setCompressedEnvelope(EnvelopeCompression.compress(delimitedBytes, prefixSize, serializedSize))
+                    .build();
+            result = proto.getSerializedSize() < serializedSize ? encode(envelope, proto, true, serializedSize) : this;
+            compressedFrame = result;
+        }
+        return result;
+    }
+
+    void writeTo(OutputStream outputStream) throws IOException {
+        outputStream.write(delimitedBytes);
+        NUM_WRITTEN_FRAMES.incrementAndGet();
+        NUM_WRITTEN_BYTES.addAndGet(delimitedBytes.length);
+    }
+
+    public static long getNumEncodedFrames() {
+        return NUM_ENCODED_FRAMES.get();
+    }
+
+    public static long getNumEncodedBytes() {
+        return NUM_ENCODED_BYTES.get();
+    }
+
+    public static long getNumWrittenFrames() {
+        return NUM_WRITTEN_FRAMES.get();
+    }
+
+    public static long getNumWrittenBytes() {
+        return NUM_WRITTEN_BYTES.get();
+    }
+}
@@ -55,6 +55,7 @@ import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -300,19 +301,40 @@ public abstract class NetworkNode implements MessageListener {
     public SettableFuture<Connection> sendMessage(Connection connection,
             NetworkEnvelope networkEnvelope,
             ListeningExecutorService executor) {
+        return sendMessage(connection, () -> connection.sendMessageAsync(networkEnvelope), executor);
+    }
+
+    // Sends a serialized envelope which can be shared with other connections, e.g. the same broadcast message to
+    // multiple peers. The supplier is called at the executor.
+    public SettableFuture<Connection> sendFrame(Connection connection,
+            Supplier<NetworkEnvelopeFrame> frameSupplier,
+            ListeningExecutorService executor) {
+        return sendMessage(connection, () -> connection.sendMessageAsync(frameSupplier.get()), executor);
+    }
+
+    // The executor only serializes and enqueues the message. The result future completes once the connection has
+    // written it, without blocking a thread while the message waits in the outbound queue.
+    private SettableFuture<Connection> sendMessage(Connection connection,
+            Supplier<CompletableFuture<Void>> sendCommand,
+            ListeningExecutorService executor) {
         SettableFuture<Connection> resultFuture = SettableFuture.create();
         try {
-            ListenableFuture<Connection> future = executor.submit(() -> {
+            ListenableFuture<CompletableFuture<Void>> future = executor.submit(() -> {
                 String id = connection.getPeersNodeAddressOptional().isPresent() ? connection.getPeersNodeAddressOptional().get().getFullAddress() : connection.getUid();
                 Thread.currentThread().setName("NetworkNode:SendMessage-to-" + Utilities.toTruncatedString(id, 15));
 
-                connection.sendMessage(networkEnvelope);
-                return connection;
+                return sendCommand.get();
             });
 
             Futures.addCallback(future, new FutureCallback<>() {
-                public void onSuccess(Connection connection) {
-                    UserThread.execute(() -> resultFuture.set(connection));
+                public void onSuccess(CompletableFuture<Void> sentFuture) {
+                    sentFuture.whenComplete((result, throwable) -> {
+                        if (throwable == null) {
+                            UserThread.execute(() -> resultFuture.set(connection));
+                        } else {
+                            UserThread.execute(() -> resolveWithException(resultFuture, throwable));
+                        }
+                    });
                 }
 
                 public void onFailure(@NotNull Throwable throwable) {
@@ -0,0 +1,272 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.network;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import haveno.common.ThreadUtils;
+import haveno.common.proto.network.NetworkEnvelope;
+import haveno.network.p2p.AckMessage;
+import haveno.network.p2p.CloseConnectionMessage;
+import haveno.network.p2p.PrefixedSealedAndSignedMessage;
+import haveno.network.p2p.peers.getdata.messages.GetDataResponse;
+import haveno.network.p2p.peers.keepalive.messages.KeepAliveMessage;
+import haveno.network.p2p.storage.P2PDataStorage;
+import haveno.network.p2p.storage.messages.BroadcastMessage;
+import haveno.network.p2p.storage.messages.RefreshOfferMessage;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outbound message queue of a connection. Messages are written in the order of their priority class and a token
+ * bucket limits the rate of writes. If no token is available the queue schedules the next write instead of blocking
+ * a thread. Queued RefreshOfferMessages for the same payload are coalesced, so only the latest one is sent.
+ */
+@Slf4j
+class OutboundQueue {
+
+    enum Priority {
+        // Trade protocol and other direct messages, acks and connection maintenance
+        HIGH,
+        NORMAL,
+        // Gossip and bulk data
+        LOW
+    }
+
+    interface FrameWriter {
+        void write(NetworkEnvelopeFrame frame) throws Exception;
+    }
+
+    // The write executor is created at its first use and not at class initialization, so it follows the virtual
+    // threads option even if the class got loaded before the option was applied.
+    private static class WriteExecutorHolder {
+        // Writes block on the socket, so we don't use a bounded pool shared by all connections
+        private static final Executor WRITE_EXECUTOR = ThreadUtils.isUseVirtualThreads() ?
+                Executors.newVirtualThreadPerTaskExecutor() :
+                Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                        .setNameFormat("OutboundQueue-%d")
+                        .setDaemon(true)
+                        .build());
+    }
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                    .setNameFormat("OutboundQueue-scheduler")
+                    .setDaemon(true)
+                    .build());
+
+    private static class Item {
+        private NetworkEnvelopeFrame frame;
+        private final Priority priority;
+        private final long enqueueTs;
+        private final List<CompletableFuture<Void>> futures = new ArrayList<>(1);
+
+        private Item(NetworkEnvelopeFrame frame, Priority priority, long enqueueTs) {
+            this.frame = frame;
+            this.priority = priority;
+            this.enqueueTs = enqueueTs;
+        }
+    }
+
+    private final String name;
+    private final FrameWriter frameWriter;
+    private final TokenBucket tokenBucket;
+    private final Map<Priority, Deque<Item>> queues = new EnumMap<>(Priority.class);
+    private final Map<P2PDataStorage.ByteArray, Item> queuedRefreshOfferMessages = new HashMap<>();
+    private int size;
+    private boolean draining;
+    private boolean closed;
+
+    // Metrics
+    private int maxQueueDepth;
+    @Getter
+    private final AtomicLong numWrittenMessages = new AtomicLong();
+    @Getter
+    private final AtomicLong numCoalescedMessages = new AtomicLong();
+    private final AtomicLong totalQueueLatency = new AtomicLong();
+    @Getter
+    private volatile long maxQueueLatency;
+
+    OutboundQueue(String name, FrameWriter frameWriter, int burstCapacity, long refillIntervalMs) {
+        this.name = name;
+        this.frameWriter = frameWriter;
+        this.tokenBucket = new TokenBucket(burstCapacity, refillIntervalMs, System.currentTimeMillis());
+        for (Priority priority : Priority.values()) {
+            queues.put(priority, new ArrayDeque<>());
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Adds the frame to the queue. The returned future completes when the frame was written.
+     */
+    CompletableFuture<Void> enqueue(NetworkEnvelopeFrame frame) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        NetworkEnvelope envelope = frame.getEnvelope();
+        synchronized (this) {
+            if (closed) {
+                future.completeExceptionally(new IllegalStateException("Outbound queue " + name + " is closed"));
+                return future;
+            }
+
+            if (envelope instanceof RefreshOfferMessage) {
+                RefreshOfferMessage refreshOfferMessage = (RefreshOfferMessage) envelope;
+                P2PDataStorage.ByteArray hashOfPayload = new P2PDataStorage.ByteArray(refreshOfferMessage.getHashOfPayload());
+                Item queuedItem = queuedRefreshOfferMessages.get(hashOfPayload);
+                if (queuedItem != null) {
+                    // A newer refresh makes the queued one obsolete
+                    if (refreshOfferMessage.getSequenceNumber() > ((RefreshOfferMessage) queuedItem.frame.getEnvelope()).getSequenceNumber()) {
+                        queuedItem.frame = frame;
+                    }
+                    queuedItem.futures.add(future);
+                    numCoalescedMessages.incrementAndGet();
+                    return future;
+                }
+            }
+
+            Item item = new Item(frame, getPriority(envelope), System.currentTimeMillis());
+            item.futures.add(future);
+            queues.get(item.priority).add(item);
+            if (envelope instanceof RefreshOfferMessage) {
+                queuedRefreshOfferMessages.put(new P2PDataStorage.ByteArray(((RefreshOfferMessage) envelope).getHashOfPayload()), item);
+            }
+            size++;
+            maxQueueDepth = Math.max(maxQueueDepth, size);
+
+            if (!draining) {
+                draining = true;
+                WriteExecutorHolder.WRITE_EXECUTOR.execute(this::drain);
+            }
+        }
+        return future;
+    }
+
+    /**
+     * Closes the queue. Queued messages are not written anymore.
+     */
+    void close() {
+        List<Item> pending = new ArrayList<>();
+        synchronized (this) {
+            closed = true;
+            queues.values().forEach(queue -> {
+                pending.addAll(queue);
+                queue.clear();
+            });
+            queuedRefreshOfferMessages.clear();
+            size = 0;
+        }
+        IllegalStateException exception = new IllegalStateException("Outbound queue " + name + " was closed");
+        pending.forEach(item -> item.futures.forEach(future -> future.completeExceptionally(exception)));
+    }
+
+    synchronized int getQueueDepth() {
+        return size;
+    }
+
+    synchronized int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    long getAverageQueueLatency() {
+        long numWritten = numWrittenMessages.get();
+        return numWritten == 0 ? 0 : totalQueueLatency.get() / numWritten;
+    }
+
+    static Priority getPriority(NetworkEnvelope envelope) {
+        if (envelope instanceof PrefixedSealedAndSignedMessage ||
+                envelope instanceof AckMessage ||
+                envelope instanceof CloseConnectionMessage ||
+                envelope instanceof KeepAliveMessage) {
+            return Priority.HIGH;
+        }
+        if (envelope instanceof BroadcastMessage || envelope instanceof GetDataResponse) {
+            return Priority.LOW;
+        }
+        return Priority.NORMAL;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void drain() {
+        while (true) {
+            Item item;
+            synchronized (this) {
+                if (closed || size == 0) {
+                    draining = false;
+                    return;
+                }
+                long waitMs = tokenBucket.tryAcquire(System.currentTimeMillis());
+                if (waitMs > 0) {
+                    // We keep the draining flag so no other drain gets started until the scheduled one runs
+                    SCHEDULER.schedule(() -> WriteExecutorHolder.WRITE_EXECUTOR.execute(this::drain), waitMs, TimeUnit.MILLISECONDS);
+                    return;
+                }
+                item = poll();
+            }
+            write(item);
+        }
+    }
+
+    private Item poll() {
+        for (Priority priority : Priority.values()) {
+            Item item = queues.get(priority).poll();
+            if (item != null) {
+                size--;
+                if (item.frame.getEnvelope() instanceof RefreshOfferMessage) {
+                    RefreshOfferMessage refreshOfferMessage = (RefreshOfferMessage) item.frame.getEnvelope();
+                    queuedRefreshOfferMessages.remove(new P2PDataStorage.ByteArray(refreshOfferMessage.getHashOfPayload()));
+                }
+                return item;
+            }
+        }
+        throw new IllegalStateException("Queue is empty");
+    }
+
+    private void write(Item item) {
+        long queueLatency = System.currentTimeMillis() - item.enqueueTs;
+        totalQueueLatency.addAndGet(queueLatency);
+        maxQueueLatency = Math.max(maxQueueLatency, queueLatency);
+        numWrittenMessages.incrementAndGet();
+        try {
+            frameWriter.write(item.frame);
+            item.futures.forEach(future -> future.complete(null));
+        } catch (Throwable t) {
+            item.futures.forEach(future -> future.completeExceptionally(t));
+        }
+    }
+}
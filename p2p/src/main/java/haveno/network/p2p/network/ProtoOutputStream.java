@@ -49,11 +49,11 @@ class ProtoOutputStream {
         this.statistic = statistic;
     }
 
-    void writeEnvelope(NetworkEnvelope envelope) {
+    void writeFrame(NetworkEnvelopeFrame frame) {
         lock.lock();
 
         try {
-            writeEnvelopeOrThrow(envelope);
+            writeFrameOrThrow(frame);
         } catch (IOException e) {
             if (!isConnectionActive.get()) {
                 // Connection was closed by us.
@@ -86,16 +86,19 @@ class ProtoOutputStream {
         }
     }
 
-    private void writeEnvelopeOrThrow(NetworkEnvelope envelope) throws IOException {
+    private void writeFrameOrThrow(NetworkEnvelopeFrame frame) throws IOException {
         long ts = System.currentTimeMillis();
-        protobuf.NetworkEnvelope proto = envelope.toProtoNetworkEnvelope();
-        proto.writeDelimitedTo(outputStream);
+        NetworkEnvelope envelope = frame.getEnvelope();
+        frame.writeTo(outputStream);
         outputStream.flush();
         long duration = System.currentTimeMillis() - ts;
         if (duration > 10000) {
             log.info("Sending {} to peer took {} sec.", envelope.getClass().getSimpleName(), duration / 1000d);
         }
-        statistic.addSentBytes(proto.getSerializedSize());
+        statistic.addSentBytes(frame.getSerializedSize());
+        if (frame.isCompressed()) {
+            statistic.addCompressedSentBytes(frame.getSerializedSize(), frame.getUncompressedSize());
+        }
         statistic.addSentMessage(envelope);
 
         if (!(envelope instanceof KeepAliveMessage)) {
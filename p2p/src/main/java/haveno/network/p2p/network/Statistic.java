@@ -32,6 +32,7 @@ import java.util.Date;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Network statistics per connection. As we are also interested in total network statistics
@@ -56,6 +57,11 @@ public class Statistic {
     private final static DoubleProperty numTotalSentMessagesPerSec = new SimpleDoubleProperty(0);
     private final static LongProperty numTotalReceivedMessages = new SimpleLongProperty(0);
     private final static DoubleProperty numTotalReceivedMessagesPerSec = new SimpleDoubleProperty(0);
+    // Bytes of compressed envelopes before and after compression
+    private final static AtomicLong totalCompressedSentBytes = new AtomicLong();
+    private final static AtomicLong totalUncompressedSentBytes = new AtomicLong();
+    private final static AtomicLong totalCompressedReceivedBytes = new AtomicLong();
+    private final static AtomicLong totalUncompressedReceivedBytes = new AtomicLong();
 
     static {
         UserThread.runPeriodically(() -> {
@@ -79,13 +85,22 @@ public class Statistic {
                             "Number of sent messages per sec: {};" + ls +
                             "Bytes received: {}" + ls +
                             "Number of received messages/Received messages: {} / {};" + ls +
-                            "Number of received messages per sec: {}" + ls,
+                            "Number of received messages per sec: {}" + ls +
+                            "Encoded/written frames: {} / {}; Encoded/written frame bytes: {} / {}" + ls +
+                            "Compressed sent bytes (uncompressed): {} ({}); Compressed received bytes (uncompressed): {} ({})" + ls,
                     Utilities.readableFileSize(totalSentBytes.get()),
                     numTotalSentMessages.get(), totalSentMessages,
                     numTotalSentMessagesPerSec.get(),
                     Utilities.readableFileSize(totalReceivedBytes.get()),
                     numTotalReceivedMessages.get(), totalReceivedMessages,
-                    numTotalReceivedMessagesPerSec.get());
+                    numTotalReceivedMessagesPerSec.get(),
+                    NetworkEnvelopeFrame.getNumEncodedFrames(), NetworkEnvelopeFrame.getNumWrittenFrames(),
+                    Utilities.readableFileSize(NetworkEnvelopeFrame.getNumEncodedBytes()),
+                    Utilities.readableFileSize(NetworkEnvelopeFrame.getNumWrittenBytes()),
+                    Utilities.readableFileSize(totalCompressedSentBytes.get()),
+                    Utilities.readableFileSize(totalUncompressedSentBytes.get()),
+                    Utilities.readableFileSize(totalCompressedReceivedBytes.get()),
+                    Utilities.readableFileSize(totalUncompressedReceivedBytes.get()));
         }, TimeUnit.MINUTES.toSeconds(60));
     }
 
@@ -165,6 +180,16 @@ public class Statistic {
         });
     }
 
+    void addCompressedSentBytes(int compressedBytes, int uncompressedBytes) {
+        totalCompressedSentBytes.addAndGet(compressedBytes);
+        totalUncompressedSentBytes.addAndGet(uncompressedBytes);
+    }
+
+    void addCompressedReceivedBytes(int compressedBytes, int uncompressedBytes) {
+        totalCompressedReceivedBytes.addAndGet(compressedBytes);
+        totalUncompressedReceivedBytes.addAndGet(uncompressedBytes);
+    }
+
     // TODO would need msg inspection to get useful information...
     void addReceivedMessage(NetworkEnvelope networkEnvelope) {
         String messageClassName = networkEnvelope.getClass().getSimpleName();
@@ -260,6 +285,22 @@ public class Statistic {
         return numTotalSentMessagesPerSec.get();
     }
 
+    public static long getTotalCompressedSentBytes() {
+        return totalCompressedSentBytes.get();
+    }
+
+    public static long getTotalUncompressedSentBytes() {
+        return totalUncompressedSentBytes.get();
+    }
+
+    public static long getTotalCompressedReceivedBytes() {
+        return totalCompressedReceivedBytes.get();
+    }
+
+    public static long getTotalUncompressedReceivedBytes() {
+        return totalUncompressedReceivedBytes.get();
+    }
+
     @Override
     public String toString() {
         return "Statistic{" +
@@ -0,0 +1,55 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.network;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Rate limiter which allows bursts of up to capacity messages and refills one token per refill interval.
+ */
+@NotThreadSafe
+class TokenBucket {
+    private final int capacity;
+    private final long refillIntervalMs;
+    private double tokens;
+    private long lastRefillTs;
+
+    TokenBucket(int capacity, long refillIntervalMs, long now) {
+        this.capacity = Math.max(1, capacity);
+        this.refillIntervalMs = Math.max(1, refillIntervalMs);
+        this.tokens = this.capacity;
+        this.lastRefillTs = now;
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @return 0 if a token was taken, otherwise the time in ms until the next token is available
+     */
+    long tryAcquire(long now) {
+        if (now > lastRefillTs) {
+            tokens = Math.min(capacity, tokens + (double) (now - lastRefillTs) / refillIntervalMs);
+            lastRefillTs = now;
+        }
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil((1 - tokens) * refillIntervalMs));
+    }
+}
@@ -20,6 +20,7 @@ package haveno.network.p2p.peers;
 import haveno.network.p2p.BundleOfEnvelopes;
 import haveno.network.p2p.NodeAddress;
 import haveno.network.p2p.network.Connection;
+import haveno.network.p2p.network.NetworkEnvelopeFrame;
 import haveno.network.p2p.network.NetworkNode;
 import haveno.network.p2p.storage.messages.BroadcastMessage;
 
@@ -31,18 +32,22 @@ import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.base.Suppliers;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -86,6 +91,9 @@ public class BroadcastHandler implements PeerManager.Listener {
     @Nullable
     private Timer timeoutTimer;
     private final Set<SettableFuture<Connection>> sendMessageFutures = new CopyOnWriteArraySet<>();
+    // Most peers get the same requests, so we serialize each distinct message or bundle only once
+    private final Map<IdentityKey, Supplier<NetworkEnvelopeFrame>> frameByRequests = new ConcurrentHashMap<>();
+    private final Map<IdentityKey, protobuf.NetworkEnvelope> protoByMessage = new ConcurrentHashMap<>();
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -258,9 +266,10 @@ public class BroadcastHandler implements PeerManager.Listener {
     private void sendToPeer(Connection connection,
             List<Broadcaster.BroadcastRequest> broadcastRequestsForConnection,
             ListeningExecutorService executor) {
-        // Can be BundleOfEnvelopes or a single BroadcastMessage
-        BroadcastMessage broadcastMessage = getMessage(broadcastRequestsForConnection);
-        SettableFuture<Connection> future = networkNode.sendMessage(connection, broadcastMessage, executor);
+        Supplier<NetworkEnvelopeFrame> frameSupplier = frameByRequests.computeIfAbsent(
+                new IdentityKey(broadcastRequestsForConnection),
+                key -> Suppliers.memoize(() -> toFrame(broadcastRequestsForConnection)));
+        SettableFuture<Connection> future = networkNode.sendFrame(connection, frameSupplier, executor);
         sendMessageFutures.add(future);
         Futures.addCallback(future, new FutureCallback<>() {
             @Override
@@ -290,6 +299,19 @@ public class BroadcastHandler implements PeerManager.Listener {
         }, MoreExecutors.directExecutor());
     }
 
+    private NetworkEnvelopeFrame toFrame(List<Broadcaster.BroadcastRequest> broadcastRequests) {
+        // Can be BundleOfEnvelopes or a single BroadcastMessage
+        BroadcastMessage broadcastMessage = getMessage(broadcastRequests);
+        if (broadcastMessage instanceof BundleOfEnvelopes) {
+            // The messages of the bundle are serialized only once for all bundles they are part of
+            protobuf.NetworkEnvelope proto = ((BundleOfEnvelopes) broadcastMessage).toProtoNetworkEnvelope(envelope ->
+                    protoByMessage.computeIfAbsent(new IdentityKey(List.of(envelope)), key -> envelope.toProtoNetworkEnvelope()));
+            return NetworkEnvelopeFrame.of(broadcastMessage, proto);
+        }
+        return NetworkEnvelopeFrame.of(broadcastMessage,
+                protoByMessage.computeIfAbsent(new IdentityKey(List.of(broadcastMessage)), key -> broadcastMessage.toProtoNetworkEnvelope()));
+    }
+
     private BroadcastMessage getMessage(List<Broadcaster.BroadcastRequest> broadcastRequests) {
         if (broadcastRequests.size() == 1) {
             // If we only have 1 message we avoid the overhead of the BundleOfEnvelopes and send the message directly
@@ -358,6 +380,8 @@ public class BroadcastHandler implements PeerManager.Listener {
                     }
                 });
         sendMessageFutures.clear();
+        frameByRequests.clear();
+        protoByMessage.clear();
 
         peerManager.removeListener(this);
         resultHandler.onCompleted(this);
@@ -377,4 +401,37 @@ public class BroadcastHandler implements PeerManager.Listener {
     public int hashCode() {
         return uid.hashCode();
     }
+
+    // Key of a list of objects which compares the elements by identity. Messages can be large, so we avoid to hash
+    // their content.
+    private static final class IdentityKey {
+        private final List<?> elements;
+        private final int hashCode;
+
+        private IdentityKey(List<?> elements) {
+            this.elements = elements;
+            int hashCode = 1;
+            for (Object element : elements) {
+                hashCode = 31 * hashCode + System.identityHashCode(element);
+            }
+            this.hashCode = hashCode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof IdentityKey)) return false;
+            List<?> otherElements = ((IdentityKey) o).elements;
+            if (elements.size() != otherElements.size()) return false;
+            for (int i = 0; i < elements.size(); i++) {
+                if (elements.get(i) != otherElements.get(i)) return false;
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
 }
@@ -23,6 +23,7 @@ import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
 import haveno.common.Timer;
 import haveno.common.UserThread;
+import haveno.common.app.Capability;
 import haveno.common.proto.network.NetworkEnvelope;
 import haveno.common.proto.network.NetworkPayload;
 import haveno.common.util.Tuple2;
@@ -87,6 +88,7 @@ class RequestDataHandler implements MessageListener {
     private Timer timeoutTimer;
     private final int nonce = new Random().nextInt();
     private boolean stopped;
+    private boolean isPreliminaryDataRequest;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -113,14 +115,21 @@ class RequestDataHandler implements MessageListener {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     void requestData(NodeAddress nodeAddress, boolean isPreliminaryDataRequest) {
+        // If the peer supports set reconciliation we send a sketch of our keys instead of the full key list
+        boolean useKeySetSketch = peerManager.peerHasCapability(nodeAddress, Capability.SET_RECONCILIATION);
+        requestData(nodeAddress, isPreliminaryDataRequest, useKeySetSketch);
+    }
+
+    private void requestData(NodeAddress nodeAddress, boolean isPreliminaryDataRequest, boolean useKeySetSketch) {
         peersNodeAddress = nodeAddress;
+        this.isPreliminaryDataRequest = isPreliminaryDataRequest;
         if (!stopped) {
             GetDataRequest getDataRequest;
 
             if (isPreliminaryDataRequest)
-                getDataRequest = dataStorage.buildPreliminaryGetDataRequest(nonce);
+                getDataRequest = dataStorage.buildPreliminaryGetDataRequest(nonce, useKeySetSketch);
             else
-                getDataRequest = dataStorage.buildGetUpdatedDataRequest(networkNode.getNodeAddress(), nonce);
+                getDataRequest = dataStorage.buildGetUpdatedDataRequest(networkNode.getNodeAddress(), nonce, useKeySetSketch);
 
             if (timeoutTimer == null) {
                 timeoutTimer = UserThread.runAfter(() -> {  // setup before sending to avoid race conditions
@@ -198,6 +207,16 @@ class RequestDataHandler implements MessageListener {
                             return;
                         }
 
+                        // The peer could not decode our KeySetSketch as our data differs too much. We repeat the
+                        // request with the plain list of our keys.
+                        if (getDataResponse.isKeySetSketchDecodeFailed()) {
+                            log.info("Peer {} could not decode our KeySetSketch. We repeat the {} without it.",
+                                    peersNodeAddress, getDataRequestType);
+                            networkNode.removeMessageListener(this);
+                            requestData(peersNodeAddress, isPreliminaryDataRequest, false);
+                            return;
+                        }
+
                         dataStorage.processGetDataResponse(getDataResponse,
                                 connection.getPeersNodeAddressOptional().get());
 
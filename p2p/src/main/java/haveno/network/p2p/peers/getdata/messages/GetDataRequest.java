@@ -20,6 +20,7 @@ package haveno.network.p2p.peers.getdata.messages;
 import haveno.common.proto.network.NetworkEnvelope;
 import haveno.network.p2p.ExtendedDataSizePermission;
 import haveno.network.p2p.InitialDataRequest;
+import haveno.network.p2p.storage.KeySetSketch;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
@@ -41,13 +42,19 @@ public abstract class GetDataRequest extends NetworkEnvelope implements Extended
     @Nullable
     protected final String version;
 
+    // Used instead of excludedKeys if the peer supports Capability.SET_RECONCILIATION
+    @Nullable
+    protected final KeySetSketch keySetSketch;
+
     public GetDataRequest(String messageVersion,
                           int nonce,
                           Set<byte[]> excludedKeys,
-                          @Nullable String version) {
+                          @Nullable String version,
+                          @Nullable KeySetSketch keySetSketch) {
         super(messageVersion);
         this.nonce = nonce;
         this.excludedKeys = excludedKeys;
         this.version = version;
+        this.keySetSketch = keySetSketch;
     }
 }
@@ -30,11 +30,15 @@ import haveno.network.p2p.storage.payload.PersistableNetworkPayload;
 import haveno.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
 import haveno.network.p2p.storage.payload.ProtectedStorageEntry;
 import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 
+import javax.annotation.Nullable;
+import java.util.HashSet;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -56,6 +60,16 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
     // Added at v1.9.6
     private final boolean wasTruncated;
 
+    // Added for Capability.SET_RECONCILIATION. Set if we could not decode the requesters KeySetSketch. The response
+    // contains no data then and the requester repeats the request with the plain list of excluded keys.
+    private final boolean keySetSketchDecodeFailed;
+
+    // Not serialized. Allows the sender to reuse cached protobuf messages of the PersistableNetworkPayloads.
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Nullable
+    private final transient Function<PersistableNetworkPayload, protobuf.PersistableNetworkPayload> persistableNetworkPayloadSerializer;
+
     public GetDataResponse(@NotNull Set<ProtectedStorageEntry> dataSet,
                            @NotNull Set<PersistableNetworkPayload> persistableNetworkPayloadSet,
                            int requestNonce,
@@ -66,6 +80,37 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                 requestNonce,
                 isGetUpdatedDataResponse,
                 wasTruncated,
+                null);
+    }
+
+    public GetDataResponse(@NotNull Set<ProtectedStorageEntry> dataSet,
+                           @NotNull Set<PersistableNetworkPayload> persistableNetworkPayloadSet,
+                           int requestNonce,
+                           boolean isGetUpdatedDataResponse,
+                           boolean wasTruncated,
+                           @Nullable Function<PersistableNetworkPayload, protobuf.PersistableNetworkPayload> persistableNetworkPayloadSerializer) {
+        this(dataSet,
+                persistableNetworkPayloadSet,
+                requestNonce,
+                isGetUpdatedDataResponse,
+                wasTruncated,
+                false,
+                persistableNetworkPayloadSerializer,
+                Capabilities.app,
+                Version.getP2PMessageVersion());
+    }
+
+    /**
+     * Returns an empty response signaling the requester that we could not decode its KeySetSketch.
+     */
+    public static GetDataResponse forKeySetSketchDecodeFailure(int requestNonce, boolean isGetUpdatedDataResponse) {
+        return new GetDataResponse(new HashSet<>(),
+                new HashSet<>(),
+                requestNonce,
+                isGetUpdatedDataResponse,
+                false,
+                true,
+                null,
                 Capabilities.app,
                 Version.getP2PMessageVersion());
     }
@@ -79,6 +124,8 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                             int requestNonce,
                             boolean isGetUpdatedDataResponse,
                             boolean wasTruncated,
+                            boolean keySetSketchDecodeFailed,
+                            @Nullable Function<PersistableNetworkPayload, protobuf.PersistableNetworkPayload> persistableNetworkPayloadSerializer,
                             @NotNull Capabilities supportedCapabilities,
                             String messageVersion) {
         super(messageVersion);
@@ -88,11 +135,17 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
         this.requestNonce = requestNonce;
         this.isGetUpdatedDataResponse = isGetUpdatedDataResponse;
         this.wasTruncated = wasTruncated;
+        this.keySetSketchDecodeFailed = keySetSketchDecodeFailed;
+        this.persistableNetworkPayloadSerializer = persistableNetworkPayloadSerializer;
         this.supportedCapabilities = supportedCapabilities;
     }
 
     @Override
     public protobuf.NetworkEnvelope toProtoNetworkEnvelope() {
+        Function<PersistableNetworkPayload, protobuf.PersistableNetworkPayload> serializer =
+                persistableNetworkPayloadSerializer != null ?
+                        persistableNetworkPayloadSerializer :
+                        PersistableNetworkPayload::toProtoMessage;
         final protobuf.GetDataResponse.Builder builder = protobuf.GetDataResponse.newBuilder()
                 .addAllDataSet(dataSet.stream()
                         .map(protectedStorageEntry -> protectedStorageEntry instanceof ProtectedMailboxStorageEntry ?
@@ -105,11 +158,12 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                                         .build())
                         .collect(Collectors.toList()))
                 .addAllPersistableNetworkPayloadItems(persistableNetworkPayloadSet.stream()
-                        .map(PersistableNetworkPayload::toProtoMessage)
+                        .map(serializer)
                         .collect(Collectors.toList()))
                 .setRequestNonce(requestNonce)
                 .setIsGetUpdatedDataResponse(isGetUpdatedDataResponse)
                 .setWasTruncated(wasTruncated)
+                .setKeySetSketchDecodeFailed(keySetSketchDecodeFailed)
                 .addAllSupportedCapabilities(Capabilities.toIntList(supportedCapabilities));
 
         protobuf.NetworkEnvelope proto = getNetworkEnvelopeBuilder()
@@ -135,6 +189,8 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                 proto.getRequestNonce(),
                 proto.getIsGetUpdatedDataResponse(),
                 wasTruncated,
+                proto.getKeySetSketchDecodeFailed(),
+                null,
                 Capabilities.fromIntList(proto.getSupportedCapabilitiesList()),
                 messageVersion);
     }
@@ -0,0 +1,130 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.storage;
+
+import haveno.network.p2p.NodeAddress;
+import haveno.network.p2p.storage.payload.ExpirablePayload;
+import haveno.network.p2p.storage.payload.ProtectedStorageEntry;
+import haveno.network.p2p.storage.payload.ProtectedStoragePayload;
+import haveno.network.p2p.storage.payload.RequiresOwnerIsOnlinePayload;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Secondary index over the ProtectedStorageEntry map of P2PDataStorage. Entries with an ExpirablePayload are sorted
+ * by their expiry time, so we only need to look at the expired entries at each TTL check instead of scanning the
+ * whole map. Entries with a RequiresOwnerIsOnlinePayload are indexed by the owner's node address so we can back date
+ * them at a disconnect without scanning the whole map.
+ *
+ * The index does not hold the entries but only their hashes, the caller has to look up the entries in its map.
+ */
+public class ExpiryIndex {
+    private final TreeMap<Long, Set<P2PDataStorage.ByteArray>> hashesByExpiryTime = new TreeMap<>();
+    private final Map<P2PDataStorage.ByteArray, Long> expiryTimeByHash = new HashMap<>();
+    private final Map<NodeAddress, Set<P2PDataStorage.ByteArray>> hashesByOwner = new HashMap<>();
+    private final Map<P2PDataStorage.ByteArray, NodeAddress> ownerByHash = new HashMap<>();
+
+    // Metrics
+    @Getter
+    private final AtomicLong numExpiryChecks = new AtomicLong();
+    @Getter
+    private final AtomicLong numExpiredEntries = new AtomicLong();
+    @Getter
+    private volatile int numExpiredEntriesAtLastCheck;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Adds the entry or updates its expiry time if it was added before. Needs to be called again if the
+     * creationTimeStamp of the entry has changed (e.g. by backDate).
+     */
+    public synchronized void put(P2PDataStorage.ByteArray hash, ProtectedStorageEntry entry) {
+        remove(hash);
+
+        ProtectedStoragePayload payload = entry.getProtectedStoragePayload();
+        if (payload instanceof ExpirablePayload) {
+            long expiryTime = entry.getCreationTimeStamp() + ((ExpirablePayload) payload).getTTL();
+            hashesByExpiryTime.computeIfAbsent(expiryTime, k -> new HashSet<>()).add(hash);
+            expiryTimeByHash.put(hash, expiryTime);
+        }
+
+        if (payload instanceof RequiresOwnerIsOnlinePayload) {
+            NodeAddress owner = ((RequiresOwnerIsOnlinePayload) payload).getOwnerNodeAddress();
+            if (owner != null) {
+                hashesByOwner.computeIfAbsent(owner, k -> new HashSet<>()).add(hash);
+                ownerByHash.put(hash, owner);
+            }
+        }
+    }
+
+    public synchronized void putAll(Map<P2PDataStorage.ByteArray, ProtectedStorageEntry> map) {
+        map.forEach(this::put);
+    }
+
+    public synchronized void remove(P2PDataStorage.ByteArray hash) {
+        Long expiryTime = expiryTimeByHash.remove(hash);
+        if (expiryTime != null) {
+            Set<P2PDataStorage.ByteArray> hashes = hashesByExpiryTime.get(expiryTime);
+            hashes.remove(hash);
+            if (hashes.isEmpty()) {
+                hashesByExpiryTime.remove(expiryTime);
+            }
+        }
+
+        NodeAddress owner = ownerByHash.remove(hash);
+        if (owner != null) {
+            Set<P2PDataStorage.ByteArray> hashes = hashesByOwner.get(owner);
+            hashes.remove(hash);
+            if (hashes.isEmpty()) {
+                hashesByOwner.remove(owner);
+            }
+        }
+    }
+
+    /**
+     * Returns the hashes of all entries which are expired at the given time. Updates the metrics.
+     */
+    public synchronized List<P2PDataStorage.ByteArray> getExpired(long now) {
+        List<P2PDataStorage.ByteArray> result = new ArrayList<>();
+        // ProtectedStorageEntry.isExpired checks for (now - creationTimeStamp) > TTL, so expiryTime < now
+        hashesByExpiryTime.headMap(now, false).values().forEach(result::addAll);
+        numExpiryChecks.incrementAndGet();
+        numExpiredEntries.addAndGet(result.size());
+        numExpiredEntriesAtLastCheck = result.size();
+        return result;
+    }
+
+    public synchronized Set<P2PDataStorage.ByteArray> getHashesByOwner(NodeAddress owner) {
+        return new HashSet<>(hashesByOwner.getOrDefault(owner, Set.of()));
+    }
+
+    public synchronized int size() {
+        return expiryTimeByHash.size();
+    }
+}
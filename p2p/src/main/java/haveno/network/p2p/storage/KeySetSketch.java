@@ -0,0 +1,298 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.storage;
+
+import com.google.protobuf.ByteString;
+import haveno.common.proto.network.NetworkPayload;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Invertible bloom lookup table over a set of storage keys (20 byte hashes of PersistableNetworkPayloads and 32 byte
+ * hashes of ProtectedStoragePayloads).
+ *
+ * The requester of a GetDataRequest sends a sketch of its known keys instead of the full key list. The responder
+ * builds a sketch with the same size over its own keys, subtracts the requesters sketch and decodes the difference.
+ * The size of the sketch only depends on the expected size of the difference, not on the size of the data store.
+ * If the difference is larger than the sketch can hold, decoding fails and the caller has to fall back to a
+ * non-reconciled response.
+ */
+@Slf4j
+@EqualsAndHashCode
+public final class KeySetSketch implements NetworkPayload {
+    // Each key is inserted into one cell of each sub-table.
+    private static final int NUM_HASHES = 3;
+    // First byte holds the key length, followed by the zero padded key.
+    static final int MAX_KEY_LENGTH = 32;
+    private static final int KEY_SUM_LENGTH = MAX_KEY_LENGTH + 1;
+    // An IBLT with 3 hash functions decodes with high probability if it has more than about 1.3 cells per element
+    // of the difference. We add some headroom as the probability drops for small tables.
+    private static final double CELLS_PER_DIFFERENCE = 2;
+    public static final int MIN_CELLS = 3 * 64;
+    // About 45 bytes per cell, so max. about 1.4 MB for a sketch.
+    public static final int MAX_CELLS = 3 * 10_000;
+
+    private final int[] counts;
+    private final byte[] keySums;
+    private final long[] checkSums;
+    @Getter
+    private final int cellCount;
+
+    public static KeySetSketch forExpectedDifference(int expectedDifference) {
+        // We only use MIN_CELLS multiplied by a power of two, so responders see only a few different sketch sizes
+        // and can cache a sketch of their own keys per size. MIN_CELLS is a multiple of NUM_HASHES so all
+        // sub-tables have the same size.
+        int neededCells = (int) Math.ceil(expectedDifference * CELLS_PER_DIFFERENCE);
+        int cells = MIN_CELLS;
+        while (cells < neededCells && cells * 2 <= MAX_CELLS) {
+            cells *= 2;
+        }
+        return new KeySetSketch(cells);
+    }
+
+    public static KeySetSketch withSameSize(KeySetSketch other) {
+        return new KeySetSketch(other.cellCount);
+    }
+
+    private KeySetSketch(int cellCount) {
+        this(new int[cellCount], new byte[cellCount * KEY_SUM_LENGTH], new long[cellCount]);
+    }
+
+    private KeySetSketch(int[] counts, byte[] keySums, long[] checkSums) {
+        this.cellCount = counts.length;
+        this.counts = counts;
+        this.keySums = keySums;
+        this.checkSums = checkSums;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public protobuf.KeySetSketch toProtoMessage() {
+        protobuf.KeySetSketch.Builder builder = protobuf.KeySetSketch.newBuilder()
+                .setKeySums(ByteString.copyFrom(keySums));
+        for (int i = 0; i < cellCount; i++) {
+            builder.addCounts(counts[i]);
+            builder.addCheckSums(checkSums[i]);
+        }
+        return builder.build();
+    }
+
+    public static KeySetSketch fromProto(protobuf.KeySetSketch proto) {
+        int cellCount = proto.getCountsCount();
+        if (cellCount == 0 || cellCount > MAX_CELLS || cellCount % NUM_HASHES != 0 ||
+                proto.getCheckSumsCount() != cellCount ||
+                proto.getKeySums().size() != cellCount * KEY_SUM_LENGTH) {
+            throw new IllegalArgumentException("Invalid KeySetSketch with " + cellCount + " cells");
+        }
+        int[] counts = new int[cellCount];
+        long[] checkSums = new long[cellCount];
+        for (int i = 0; i < cellCount; i++) {
+            counts[i] = proto.getCounts(i);
+            checkSums[i] = proto.getCheckSums(i);
+        }
+        return new KeySetSketch(counts, proto.getKeySums().toByteArray(), checkSums);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public void add(byte[] key) {
+        update(key, 1);
+    }
+
+    public void addAll(Collection<P2PDataStorage.ByteArray> keys) {
+        keys.forEach(key -> add(key.bytes));
+    }
+
+    public void remove(byte[] key) {
+        update(key, -1);
+    }
+
+    /**
+     * Returns a new sketch representing the difference of this sketch and the given one. Both need to have the same
+     * number of cells.
+     */
+    public KeySetSketch subtract(KeySetSketch other) {
+        if (other.cellCount != cellCount) {
+            throw new IllegalArgumentException("Cannot subtract KeySetSketch with " + other.cellCount +
+                    " cells from KeySetSketch with " + cellCount + " cells");
+        }
+        KeySetSketch result = new KeySetSketch(cellCount);
+        for (int i = 0; i < cellCount; i++) {
+            result.counts[i] = counts[i] - other.counts[i];
+            result.checkSums[i] = checkSums[i] ^ other.checkSums[i];
+        }
+        for (int i = 0; i < keySums.length; i++) {
+            result.keySums[i] = (byte) (keySums[i] ^ other.keySums[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Decodes a sketch created by {@link #subtract(KeySetSketch)}. Returns empty if the difference was too large to
+     * be decoded. Does not modify this sketch.
+     */
+    public Optional<Difference> decode() {
+        KeySetSketch copy = new KeySetSketch(counts.clone(), keySums.clone(), checkSums.clone());
+        Set<P2PDataStorage.ByteArray> onlyInThis = new HashSet<>();
+        Set<P2PDataStorage.ByteArray> onlyInOther = new HashSet<>();
+
+        Deque<Integer> pureCells = new ArrayDeque<>();
+        for (int i = 0; i < cellCount; i++) {
+            if (copy.isPure(i)) {
+                pureCells.add(i);
+            }
+        }
+        while (!pureCells.isEmpty()) {
+            int cell = pureCells.poll();
+            if (!copy.isPure(cell)) {
+                continue;
+            }
+            int count = copy.counts[cell];
+            byte[] key = copy.getKey(cell);
+            if (count == 1) {
+                onlyInThis.add(new P2PDataStorage.ByteArray(key));
+            } else {
+                onlyInOther.add(new P2PDataStorage.ByteArray(key));
+            }
+            copy.update(key, -count);
+            for (int index : copy.getCellIndices(key)) {
+                if (copy.isPure(index)) {
+                    pureCells.add(index);
+                }
+            }
+        }
+
+        for (int i = 0; i < cellCount; i++) {
+            if (copy.counts[i] != 0 || copy.checkSums[i] != 0) {
+                log.info("Decoding KeySetSketch failed. Decoded {} keys before the sketch got stuck.",
+                        onlyInThis.size() + onlyInOther.size());
+                return Optional.empty();
+            }
+        }
+        return Optional.of(new Difference(onlyInThis, onlyInOther));
+    }
+
+    public int getSerializedSize() {
+        return toProtoMessage().getSerializedSize();
+    }
+
+    @Override
+    public String toString() {
+        return "KeySetSketch{" +
+                "\n     cellCount=" + cellCount +
+                "\n}";
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void update(byte[] key, int delta) {
+        if (key.length == 0 || key.length > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Key length must be between 1 and " + MAX_KEY_LENGTH +
+                    " but was " + key.length);
+        }
+        long checkSum = hash(key, NUM_HASHES);
+        for (int index : getCellIndices(key)) {
+            counts[index] += delta;
+            checkSums[index] ^= checkSum;
+            int offset = index * KEY_SUM_LENGTH;
+            keySums[offset] ^= (byte) key.length;
+            for (int i = 0; i < key.length; i++) {
+                keySums[offset + 1 + i] ^= key[i];
+            }
+        }
+    }
+
+    private int[] getCellIndices(byte[] key) {
+        int subTableSize = cellCount / NUM_HASHES;
+        int[] indices = new int[NUM_HASHES];
+        for (int i = 0; i < NUM_HASHES; i++) {
+            indices[i] = i * subTableSize + (int) Long.remainderUnsigned(hash(key, i), subTableSize);
+        }
+        return indices;
+    }
+
+    private boolean isPure(int cell) {
+        int count = counts[cell];
+        if (count != 1 && count != -1) {
+            return false;
+        }
+        int offset = cell * KEY_SUM_LENGTH;
+        int length = keySums[offset] & 0xFF;
+        if (length == 0 || length > MAX_KEY_LENGTH) {
+            return false;
+        }
+        return hash(getKey(cell), NUM_HASHES) == checkSums[cell];
+    }
+
+    private byte[] getKey(int cell) {
+        int offset = cell * KEY_SUM_LENGTH;
+        int length = keySums[offset] & 0xFF;
+        return Arrays.copyOfRange(keySums, offset + 1, offset + 1 + length);
+    }
+
+    // Keys are already cryptographic hashes, so a simple seeded FNV-1a with a murmur3 finalizer is good enough for
+    // distributing them over the cells.
+    private static long hash(byte[] key, int seed) {
+        long h = 0xcbf29ce484222325L ^ (seed * 0x9E3779B97F4A7C15L);
+        for (byte b : key) {
+            h ^= b & 0xFF;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Static class
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Getter
+    public static final class Difference {
+        private final Set<P2PDataStorage.ByteArray> onlyInThis;
+        private final Set<P2PDataStorage.ByteArray> onlyInOther;
+
+        Difference(Set<P2PDataStorage.ByteArray> onlyInThis, Set<P2PDataStorage.ByteArray> onlyInOther) {
+            this.onlyInThis = onlyInThis;
+            this.onlyInOther = onlyInOther;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Caches the KeySetSketches of our own keys which we reconcile with the sketches of GetDataRequests.
+ *
+ * A sketch is built once per sketch size and requesters version and then updated with every added or removed key,
+ * so a request costs only the subtraction and decoding of the sketches instead of hashing our whole data store.
+ * As the sketch size only takes a few values (see {@link KeySetSketch#forExpectedDifference(int)}) the number of
+ * cached sketches stays small.
+ */
+@Slf4j
+class KeySetSketchCache {
+    private static final int MAX_CACHED_SKETCHES = 8;
+
+    private final Map<String, KeySetSketch> sketches = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, KeySetSketch> eldest) {
+            return size() > MAX_CACHED_SKETCHES;
+        }
+    };
+
+    /**
+     * Reconciles the requesters sketch with the cached sketch of our keys.
+     *
+     * @param requestersKeySetSketch the sketch of the requesters keys
+     * @param requestersVersion the version of the requester, which defines the historical data we respond with
+     * @param keysSupplier supplies our keys for the requesters version if the sketch is not cached
+     * @return the difference of our keys and the requesters keys, or empty if the difference cannot be decoded
+     */
+    synchronized Optional<KeySetSketch.Difference> reconcile(KeySetSketch requestersKeySetSketch,
+                                                             @Nullable String requestersVersion,
+                                                             Function<String, Collection<Collection<P2PDataStorage.ByteArray>>> keysSupplier) {
+        String cacheKey = requestersKeySetSketch.getCellCount() + "/" + Objects.toString(requestersVersion, "");
+        KeySetSketch keySetSketch = sketches.get(cacheKey);
+        if (keySetSketch == null) {
+            keySetSketch = KeySetSketch.withSameSize(requestersKeySetSketch);
+            keysSupplier.apply(requestersVersion).forEach(keySetSketch::addAll);
+            sketches.put(cacheKey, keySetSketch);
+            log.info("Built KeySetSketch with {} cells for requesters version {}", keySetSketch.getCellCount(), requestersVersion);
+        }
+        Optional<KeySetSketch.Difference> difference = keySetSketch.subtract(requestersKeySetSketch).decode();
+
+        // A key added concurrently to building the sketch might have been counted twice, so we rebuild the sketch
+        // at the next request rather than failing again with the same sketch.
+        if (difference.isEmpty()) {
+            sketches.remove(cacheKey);
+        }
+        return difference;
+    }
+
+    synchronized void onAdded(P2PDataStorage.ByteArray key) {
+        sketches.values().forEach(keySetSketch -> keySetSketch.add(key.bytes));
+    }
+
+    synchronized void onRemoved(P2PDataStorage.ByteArray key) {
+        sketches.values().forEach(keySetSketch -> keySetSketch.remove(key.bytes));
+    }
+
+    synchronized void clear() {
+        sketches.clear();
+    }
+
+    synchronized int size() {
+        return sketches.size();
+    }
+}
@@ -30,6 +30,7 @@ import haveno.common.crypto.Hash;
 import haveno.common.crypto.Sig;
 import haveno.common.persistence.PersistenceManager;
 import haveno.common.proto.network.GetDataResponsePriority;
+import haveno.common.proto.network.HashMemoizingPayload;
 import haveno.common.proto.network.NetworkEnvelope;
 import haveno.common.proto.network.NetworkPayload;
 import haveno.common.proto.persistable.PersistablePayload;
@@ -65,10 +66,11 @@ import haveno.network.p2p.storage.payload.ProcessOncePersistableNetworkPayload;
 import haveno.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
 import haveno.network.p2p.storage.payload.ProtectedStorageEntry;
 import haveno.network.p2p.storage.payload.ProtectedStoragePayload;
-import haveno.network.p2p.storage.payload.RequiresOwnerIsOnlinePayload;
+import haveno.network.p2p.storage.payload.SignatureVerificationCache;
 import haveno.network.p2p.storage.persistence.AppendOnlyDataStoreListener;
 import haveno.network.p2p.storage.persistence.AppendOnlyDataStoreService;
 import haveno.network.p2p.storage.persistence.HistoricalDataStoreService;
+import haveno.network.p2p.storage.persistence.PersistableNetworkPayloadIndex;
 import haveno.network.p2p.storage.persistence.PersistableNetworkPayloadStore;
 import haveno.network.p2p.storage.persistence.ProtectedDataStoreService;
 import haveno.network.p2p.storage.persistence.RemovedPayloadsService;
@@ -87,6 +89,8 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
@@ -97,6 +101,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javax.annotation.Nullable;
@@ -119,6 +124,13 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     @VisibleForTesting
     public static final int CHECK_TTL_INTERVAL_SEC = 60;
 
+    // Used for sizing the KeySetSketch of our GetDataRequests. We expect that at most 1/10 of our entries differ
+    // from the peer's entries.
+    private static final int MIN_EXPECTED_KEY_SET_DIFFERENCE = 500;
+    private static final int KEY_SET_DIFFERENCE_DIVISOR = 10;
+    // Below that number of entries in a GetDataResponse validating them in parallel does not pay off
+    private static final int MIN_ENTRIES_FOR_PARALLEL_VALIDATION = 50;
+
     private boolean initialRequestApplied = false;
 
     private final Broadcaster broadcaster;
@@ -130,6 +142,9 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     @Getter
     private final Map<ByteArray, ProtectedStorageEntry> map = new ConcurrentHashMap<>();
     private final Set<HashMapChangedListener> hashMapChangedListeners = new CopyOnWriteArraySet<>();
+    // Secondary index over map by expiry time and owner node address. Needs to be updated at each change of map.
+    @Getter
+    private final ExpiryIndex expiryIndex = new ExpiryIndex();
     private Timer removeExpiredEntriesTimer;
 
     private final PersistenceManager<SequenceNumberMap> persistenceManager;
@@ -138,6 +153,10 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     final SequenceNumberMap sequenceNumberMap = new SequenceNumberMap();
 
     private final Set<AppendOnlyDataStoreListener> appendOnlyDataStoreListeners = new CopyOnWriteArraySet<>();
+    // Index over the appendOnlyDataStoreService data for building GetDataResponses without copying the stores
+    private final PersistableNetworkPayloadIndex persistableNetworkPayloadIndex = new PersistableNetworkPayloadIndex();
+    // Sketches of our keys for reconciling the KeySetSketches of GetDataRequests
+    private final KeySetSketchCache keySetSketchCache = new KeySetSketchCache();
     private final RemovedPayloadsService removedPayloadsService;
     private final Clock clock;
 
@@ -178,6 +197,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         networkNode.addConnectionListener(this);
 
         this.persistenceManager.initialize(sequenceNumberMap, PersistenceManager.Source.PRIVATE_LOW_PRIO);
+        this.persistenceManager.enableJournal();
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -222,10 +242,15 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
             }
         });
 
-        appendOnlyDataStoreService.readFromResources(postFix, () -> appendOnlyDataStoreServiceReady.set(true));
+        appendOnlyDataStoreService.readFromResources(postFix, () -> {
+            persistableNetworkPayloadIndex.build(appendOnlyDataStoreService);
+            appendOnlyDataStoreServiceReady.set(true);
+        });
         protectedDataStoreService.readFromResources(postFix, () -> {
             synchronized (map) {
                 map.putAll(protectedDataStoreService.getMap());
+                expiryIndex.putAll(protectedDataStoreService.getMap());
+                keySetSketchCache.clear();
                 protectedDataStoreServiceReady.set(true);
             }
         });
@@ -237,10 +262,13 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     public void readFromResourcesSync(String postFix) {
         synchronized (map) {
             appendOnlyDataStoreService.readFromResourcesSync(postFix);
+            persistableNetworkPayloadIndex.build(appendOnlyDataStoreService);
             protectedDataStoreService.readFromResourcesSync(postFix);
             resourceDataStoreService.readFromResourcesSync(postFix);
 
             map.putAll(protectedDataStoreService.getMap());
+            expiryIndex.putAll(protectedDataStoreService.getMap());
+            keySetSketchCache.clear();
         }
     }
 
@@ -250,7 +278,10 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         synchronized (map) {
             ProtectedStoragePayload protectedStoragePayload = protectedStorageEntry.getProtectedStoragePayload();
             ByteArray hashOfPayload = get32ByteHashAsByteArray(protectedStoragePayload);
-            map.put(hashOfPayload, protectedStorageEntry);
+            if (map.put(hashOfPayload, protectedStorageEntry) == null) {
+                keySetSketchCache.onAdded(hashOfPayload);
+            }
+            expiryIndex.put(hashOfPayload, protectedStorageEntry);
             //log.trace("## addProtectedMailboxStorageEntryToMap hashOfPayload={}, map={}", hashOfPayload, printMap());
         }
     }
@@ -263,29 +294,78 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
      * Returns a PreliminaryGetDataRequest that can be sent to a peer node to request missing Payload data.
      */
     public PreliminaryGetDataRequest buildPreliminaryGetDataRequest(int nonce) {
-        return new PreliminaryGetDataRequest(nonce, getKnownPayloadHashes());
+        return buildPreliminaryGetDataRequest(nonce, false);
+    }
+
+    /**
+     * Returns a PreliminaryGetDataRequest that can be sent to a peer node to request missing Payload data. If
+     * useKeySetSketch is set (peer supports Capability.SET_RECONCILIATION) the known keys are sent as KeySetSketch
+     * if that is smaller than the list of keys.
+     */
+    public PreliminaryGetDataRequest buildPreliminaryGetDataRequest(int nonce, boolean useKeySetSketch) {
+        Set<ByteArray> knownPayloadHashes = getKnownPayloadHashes();
+        KeySetSketch keySetSketch = useKeySetSketch ? buildKeySetSketch(knownPayloadHashes) : null;
+        return new PreliminaryGetDataRequest(nonce, toExcludedKeys(knownPayloadHashes, keySetSketch), keySetSketch);
     }
 
     /**
      * Returns a GetUpdatedDataRequest that can be sent to a peer node to request missing Payload data.
      */
     public GetUpdatedDataRequest buildGetUpdatedDataRequest(NodeAddress senderNodeAddress, int nonce) {
-        return new GetUpdatedDataRequest(senderNodeAddress, nonce, getKnownPayloadHashes());
+        return buildGetUpdatedDataRequest(senderNodeAddress, nonce, false);
+    }
+
+    /**
+     * Returns a GetUpdatedDataRequest that can be sent to a peer node to request missing Payload data. If
+     * useKeySetSketch is set (peer supports Capability.SET_RECONCILIATION) the known keys are sent as KeySetSketch
+     * if that is smaller than the list of keys.
+     */
+    public GetUpdatedDataRequest buildGetUpdatedDataRequest(NodeAddress senderNodeAddress,
+                                                            int nonce,
+                                                            boolean useKeySetSketch) {
+        Set<ByteArray> knownPayloadHashes = getKnownPayloadHashes();
+        KeySetSketch keySetSketch = useKeySetSketch ? buildKeySetSketch(knownPayloadHashes) : null;
+        return new GetUpdatedDataRequest(senderNodeAddress, nonce, toExcludedKeys(knownPayloadHashes, keySetSketch), keySetSketch);
     }
 
     /**
      * Returns the set of known payload hashes. This is used in the GetData path to request missing data from peer nodes
      */
-    private Set<byte[]> getKnownPayloadHashes() {
+    private Set<ByteArray> getKnownPayloadHashes() {
         // We collect the keys of the PersistableNetworkPayload items so we exclude them in our request.
         // PersistedStoragePayload items don't get removed, so we don't have an issue with the case that
         // an object gets removed in between PreliminaryGetDataRequest and the GetUpdatedDataRequest and we would
         // miss that event if we do not load the full set or use some delta handling.
-        Map<ByteArray, PersistableNetworkPayload> mapForDataRequest = getMapForDataRequest();
-        Set<byte[]> excludedKeys = getKeysAsByteSet(mapForDataRequest);
-        Set<byte[]> excludedKeysFromProtectedStorageEntryMap = getKeysAsByteSet(map);
-        excludedKeys.addAll(excludedKeysFromProtectedStorageEntryMap);
-        return excludedKeys;
+        Set<ByteArray> knownPayloadHashes = new HashSet<>(getMapForDataRequest().keySet());
+        knownPayloadHashes.addAll(map.keySet());
+        return knownPayloadHashes;
+    }
+
+    private Set<byte[]> toExcludedKeys(Set<ByteArray> knownPayloadHashes, @Nullable KeySetSketch keySetSketch) {
+        if (keySetSketch != null) {
+            return new HashSet<>();
+        }
+        return knownPayloadHashes.stream()
+                .map(e -> e.bytes)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Returns a KeySetSketch of our known keys or null if the plain list of keys would be smaller.
+     */
+    @Nullable
+    private KeySetSketch buildKeySetSketch(Set<ByteArray> knownPayloadHashes) {
+        int numKeys = knownPayloadHashes.size();
+        // We expect the difference to the peer's data to be a fraction of our data. If the difference is larger
+        // the peer cannot decode the sketch and sends us the data without reconciliation.
+        int expectedDifference = Math.max(MIN_EXPECTED_KEY_SET_DIFFERENCE, numKeys / KEY_SET_DIFFERENCE_DIVISOR);
+        KeySetSketch keySetSketch = KeySetSketch.forExpectedDifference(expectedDifference);
+        if (keySetSketch.getCellCount() * 2 >= numKeys) {
+            log.info("We do not use a KeySetSketch as we have only {} keys", numKeys);
+            return null;
+        }
+        keySetSketch.addAll(knownPayloadHashes);
+        return keySetSketch;
     }
 
     /**
@@ -298,14 +378,25 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
             AtomicBoolean wasProtectedStorageEntriesTruncated,
             Capabilities peerCapabilities) {
 
-        Set<P2PDataStorage.ByteArray> excludedKeysAsByteArray =
-                P2PDataStorage.ByteArray.convertBytesSetToByteArraySet(getDataRequest.getExcludedKeys());
-
         // Pre v 1.4.0 requests do not have set the requesters version field so it is null.
         // The methods in HistoricalDataStoreService will return all historical data in that case.
         // mapForDataResponse contains the filtered by version data from HistoricalDataStoreService as well as all other
         // maps of the remaining appendOnlyDataStoreServices.
-        Map<ByteArray, PersistableNetworkPayload> mapForDataResponse = getMapForDataResponse(getDataRequest.getVersion());
+        List<Map<ByteArray, PersistableNetworkPayload>> mapsForDataResponse = getMapsForDataResponse(getDataRequest.getVersion());
+
+        Predicate<ByteArray> isKnownHash;
+        if (getDataRequest.getKeySetSketch() != null) {
+            isKnownHash = getKnownHashPredicate(getDataRequest.getKeySetSketch(), getDataRequest.getVersion());
+            if (isKnownHash == null) {
+                // The requester repeats the request with the plain list of its keys
+                return GetDataResponse.forKeySetSketchDecodeFailure(getDataRequest.getNonce(),
+                        getDataRequest instanceof GetUpdatedDataRequest);
+            }
+        } else {
+            Set<P2PDataStorage.ByteArray> excludedKeysAsByteArray =
+                    P2PDataStorage.ByteArray.convertBytesSetToByteArraySet(getDataRequest.getExcludedKeys());
+            isKnownHash = excludedKeysAsByteArray::contains;
+        }
 
         // Give a bit of tolerance for message overhead
         double maxSize = Connection.getMaxPermittedMessageSize() * 0.6;
@@ -313,9 +404,9 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         // 25% of space is allocated for PersistableNetworkPayloads
         long limit = Math.round(maxSize * 0.25);
         Set<PersistableNetworkPayload> filteredPersistableNetworkPayloads = filterKnownHashes(
-                mapForDataResponse,
+                mapsForDataResponse,
                 Function.identity(),
-                excludedKeysAsByteArray,
+                isKnownHash,
                 peerCapabilities,
                 maxEntriesPerType,
                 limit,
@@ -323,7 +414,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                 true);
         log.info("{} PersistableNetworkPayload entries remained after filtered by excluded keys. " +
                 "Original map had {} entries.",
-                filteredPersistableNetworkPayloads.size(), mapForDataResponse.size());
+                filteredPersistableNetworkPayloads.size(), mapsForDataResponse.stream().mapToInt(Map::size).sum());
         log.trace("## buildGetDataResponse filteredPersistableNetworkPayloadHashes={}",
                 filteredPersistableNetworkPayloads.stream()
                         .map(e -> Utilities.encodeToHex(e.getHash()))
@@ -332,9 +423,9 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         // We give 75% space to ProtectedStorageEntries as they contain MailBoxMessages and those can be larger.
         limit = Math.round(maxSize * 0.75);
         Set<ProtectedStorageEntry> filteredProtectedStorageEntries = filterKnownHashes(
-                map,
+                List.of(map),
                 ProtectedStorageEntry::getProtectedStoragePayload,
-                excludedKeysAsByteArray,
+                isKnownHash,
                 peerCapabilities,
                 maxEntriesPerType,
                 limit,
@@ -354,7 +445,41 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                 filteredPersistableNetworkPayloads,
                 getDataRequest.getNonce(),
                 getDataRequest instanceof GetUpdatedDataRequest,
-                wasTruncated);
+                wasTruncated,
+                persistableNetworkPayloadIndex.isBuilt() ? persistableNetworkPayloadIndex::toProtoMessage : null);
+    }
+
+    /**
+     * Reconciles the requesters KeySetSketch with our keys. If decoding succeeds only the keys we have and the
+     * requester is missing are treated as unknown. Otherwise we return null and signal the requester to repeat the
+     * request with the plain list of its keys, as responding with all our data would not let it catch up if it is
+     * far behind.
+     */
+    @Nullable
+    private Predicate<ByteArray> getKnownHashPredicate(KeySetSketch requestersKeySetSketch,
+                                                       @Nullable String requestersVersion) {
+        long ts = System.currentTimeMillis();
+        Optional<KeySetSketch.Difference> difference = keySetSketchCache.reconcile(requestersKeySetSketch,
+                requestersVersion,
+                this::getKeysForDataResponse);
+        if (difference.isEmpty()) {
+            log.warn("Decoding KeySetSketch with {} cells failed. We ask the requester to repeat the request without it. Took {} ms.",
+                    requestersKeySetSketch.getCellCount(), System.currentTimeMillis() - ts);
+            return null;
+        }
+        Set<ByteArray> missingAtRequester = difference.get().getOnlyInThis();
+        log.info("Reconciled KeySetSketch with {} cells. Requester is missing {} of our entries and has {} entries " +
+                        "we do not have. Took {} ms.",
+                requestersKeySetSketch.getCellCount(), missingAtRequester.size(),
+                difference.get().getOnlyInOther().size(), System.currentTimeMillis() - ts);
+        return hash -> !missingAtRequester.contains(hash);
+    }
+
+    private Collection<Collection<ByteArray>> getKeysForDataResponse(@Nullable String requestersVersion) {
+        List<Collection<ByteArray>> keys = new ArrayList<>();
+        getMapsForDataResponse(requestersVersion).forEach(mapForDataResponse -> keys.add(mapForDataResponse.keySet()));
+        keys.add(map.keySet());
+        return keys;
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -381,6 +506,22 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         return map;
     }
 
+    /**
+     * Returns the maps of all data newer than the requesters version. If our index is built we return views on the
+     * index buckets, otherwise the data gets copied from the stores.
+     */
+    private List<Map<ByteArray, PersistableNetworkPayload>> getMapsForDataResponse(String requestersVersion) {
+        if (!persistableNetworkPayloadIndex.isBuilt()) {
+            return List.of(getMapForDataResponse(requestersVersion));
+        }
+        List<PersistableNetworkPayloadIndex.Bucket> buckets = persistableNetworkPayloadIndex.getBucketsSinceVersion(requestersVersion);
+        buckets.forEach(bucket -> log.debug("We added {} entries from {} (version={}) to be filtered by excluded keys",
+                bucket.size(), bucket.getStoreName(), bucket.getVersion() != null ? bucket.getVersion() : "live data"));
+        return buckets.stream()
+                .map(PersistableNetworkPayloadIndex.Bucket::getPayloadsByHash)
+                .collect(Collectors.toList());
+    }
+
     public Map<ByteArray, PersistableNetworkPayload> getMapForDataResponse(String requestersVersion) {
         Map<ByteArray, PersistableNetworkPayload> map = new HashMap<>();
         appendOnlyDataStoreService.getServices()
@@ -403,37 +544,40 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
      * Generic function that can be used to filter a Map<ByteArray, ProtectedStorageEntry || PersistableNetworkPayload>
      * by a given set of keys and peer capabilities.
      */
-    static private <T extends NetworkPayload> Set<T> filterKnownHashes(
-            Map<ByteArray, T> toFilter,
+    @VisibleForTesting
+    static <T extends NetworkPayload> Set<T> filterKnownHashes(
+            Collection<? extends Map<ByteArray, T>> toFilter,
             Function<T, ? extends NetworkPayload> asPayload,
-            Set<ByteArray> knownHashes,
+            Predicate<ByteArray> isKnownHash,
             Capabilities peerCapabilities,
             int maxEntries,
             long limit,
             AtomicBoolean outTruncated,
             boolean isPersistableNetworkPayload) {
-        log.info("Filter {} data based on {} knownHashes",
-                isPersistableNetworkPayload ? "PersistableNetworkPayload" : "ProtectedStorageEntry",
-                knownHashes.size());
+        log.info("Filter {} data based on knownHashes",
+                isPersistableNetworkPayload ? "PersistableNetworkPayload" : "ProtectedStorageEntry");
 
         AtomicLong totalSize = new AtomicLong();
         AtomicBoolean exceededSizeLimit = new AtomicBoolean();
 
-        Set<Map.Entry<ByteArray, T>> entries = toFilter.entrySet();
+        // Map values can be ProtectedStorageEntry or PersistableNetworkPayload. We call it item in the steam iterations.
+        // We filter on the keys first, so we only get the items not known by the peer. Mapped historical stores
+        // deserialize their items at access.
+        List<T> filteredItems = toFilter.stream()
+                .flatMap(map -> map.keySet().stream()
+                        .filter(key -> !isKnownHash.test(key))
+                        .map(map::get))
+                .filter(Objects::nonNull)
+                .filter(item -> shouldTransmitPayloadToPeer(peerCapabilities, asPayload.apply(item)))
+                .collect(Collectors.toList());
+
         Map<String, AtomicInteger> numItemsByClassName = new HashMap<>();
-        entries.forEach(entry -> {
-            String name = asPayload.apply(entry.getValue()).getClass().getSimpleName();
+        filteredItems.forEach(item -> {
+            String name = asPayload.apply(item).getClass().getSimpleName();
             numItemsByClassName.putIfAbsent(name, new AtomicInteger());
             numItemsByClassName.get(name).incrementAndGet();
         });
-        log.info("numItemsByClassName: {}", numItemsByClassName);
-
-        // Map.Entry.value can be ProtectedStorageEntry or PersistableNetworkPayload. We call it item in the steam iterations.
-        List<T> filteredItems = entries.stream()
-                .filter(entry -> !knownHashes.contains(entry.getKey()))
-                .map(Map.Entry::getValue)
-                .filter(item -> shouldTransmitPayloadToPeer(peerCapabilities, asPayload.apply(item)))
-                .collect(Collectors.toList());
+        log.info("numItemsByClassName of items unknown to the peer: {}", numItemsByClassName);
         List<T> resultItems = new ArrayList<>();
 
         // Truncation follows this rules
@@ -534,12 +678,6 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         return getMapForDataRequest().values();
     }
 
-    private Set<byte[]> getKeysAsByteSet(Map<ByteArray, ? extends PersistablePayload> map) {
-        return map.keySet().stream()
-                .map(e -> e.bytes)
-                .collect(Collectors.toSet());
-    }
-
     /**
      * Returns true if a Payload should be transmit to a peer given the peer's supported capabilities.
      */
@@ -572,6 +710,23 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         Set<ProtectedStorageEntry> protectedStorageEntries = getDataResponse.getDataSet();
         Set<PersistableNetworkPayload> persistableNetworkPayloadSet = getDataResponse.getPersistableNetworkPayloadSet();
         long ts = System.currentTimeMillis();
+        // The stateless checks (hash, expiry and signature) don't need the map, so we run them in parallel.
+        // Most entries of a response are already known, so we skip those before the signature verification.
+        Stream<ProtectedStorageEntry> entryStream = protectedStorageEntries.size() >= MIN_ENTRIES_FOR_PARALLEL_VALIDATION ?
+                protectedStorageEntries.parallelStream() :
+                protectedStorageEntries.stream();
+        List<Tuple2<ProtectedStorageEntry, ByteArray>> validatedEntries = entryStream
+                .map(protectedStorageEntry -> {
+                    ByteArray hashOfPayload = get32ByteHashAsByteArray(protectedStorageEntry.getProtectedStoragePayload());
+                    boolean isValid = !hasNoNewerSequenceNumber(protectedStorageEntry, hashOfPayload) &&
+                            !protectedStorageEntry.isExpired(clock) &&
+                            protectedStorageEntry.isValidForAddOperation();
+                    return isValid ? new Tuple2<>(protectedStorageEntry, hashOfPayload) : null;
+                })
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        long validationDuration = System.currentTimeMillis() - ts;
+
         protectedStorageEntries.forEach(protectedStorageEntry -> {
             // We rebroadcast high priority data after a delay for better resilience
             if (protectedStorageEntry.getProtectedStoragePayload().getGetDataResponsePriority() == GetDataResponsePriority.HIGH) {
@@ -580,12 +735,24 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                     broadcaster.broadcast(new AddDataMessage(protectedStorageEntry), sender, null);
                 }, 60);
             }
-
-            // We don't broadcast here (last param) as we are only connected to the seed node and would be pointless
-            addProtectedStorageEntry(protectedStorageEntry, sender, null, false);
-
         });
-        log.info("Processing {} protectedStorageEntries took {} ms.", protectedStorageEntries.size(), this.clock.millis() - ts);
+
+        // We apply the valid entries in one pass and notify the listeners once with all added entries
+        List<ProtectedStorageEntry> addedEntries = new ArrayList<>();
+        synchronized (map) {
+            validatedEntries.forEach(validatedEntry -> {
+                // We don't broadcast here (allowBroadcast=false) as we are only connected to the seed node and would
+                // be pointless
+                addProtectedStorageEntry(validatedEntry.first, validatedEntry.second, true, sender, null, false, addedEntries);
+            });
+        }
+        if (!addedEntries.isEmpty()) {
+            hashMapChangedListeners.forEach(e -> e.onAdded(addedEntries));
+        }
+        log.info("Processing {} protectedStorageEntries took {} ms. Validation took {} ms, {} entries were valid " +
+                        "and {} got added. Signature verification cache: {}",
+                protectedStorageEntries.size(), System.currentTimeMillis() - ts, validationDuration,
+                validatedEntries.size(), addedEntries.size(), SignatureVerificationCache.getStatsAsString());
 
         ts = this.clock.millis();
         persistableNetworkPayloadSet.forEach(e -> {
@@ -631,9 +798,18 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
             // object when we get it sent from new peers, we don’t remove the sequence number from the map.
             // That way an ADD message for an already expired data will fail because the sequence number
             // is equal and not larger as expected.
-            ArrayList<Map.Entry<ByteArray, ProtectedStorageEntry>> toRemoveList = map.entrySet().stream()
-                    .filter(entry -> entry.getValue().isExpired(this.clock))
+            // We only look up the entries the expiryIndex reports as expired instead of scanning the whole map.
+            ArrayList<Map.Entry<ByteArray, ProtectedStorageEntry>> toRemoveList = expiryIndex.getExpired(this.clock.millis()).stream()
+                    .map(hash -> {
+                        ProtectedStorageEntry entry = map.get(hash);
+                        return entry != null ? Maps.immutableEntry(hash, entry) : null;
+                    })
+                    .filter(entry -> entry != null && entry.getValue().isExpired(this.clock))
                     .collect(Collectors.toCollection(ArrayList::new));
+            if (!toRemoveList.isEmpty()) {
+                log.info("Removing {} expired entries. Expired entries since start: {}, indexed expirable entries: {}",
+                        toRemoveList.size(), expiryIndex.getNumExpiredEntries().get(), expiryIndex.size());
+            }
 
             // Batch processing can cause performance issues, so do all of the removes first, then update the listeners
             // to let them know about the removes.
@@ -700,12 +876,15 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
         NodeAddress peersNodeAddress = connection.getPeersNodeAddressOptional().get();
 
-        // Backdate all the eligible payloads based on the node that disconnected
+        // Backdate all the eligible payloads based on the node that disconnected. The expiryIndex provides the
+        // entries of that owner so we do not need to scan the whole map.
         synchronized (map) {
-            map.values().stream()
-            .filter(protectedStorageEntry -> protectedStorageEntry.getProtectedStoragePayload() instanceof RequiresOwnerIsOnlinePayload)
-            .filter(protectedStorageEntry -> ((RequiresOwnerIsOnlinePayload) protectedStorageEntry.getProtectedStoragePayload()).getOwnerNodeAddress().equals(peersNodeAddress))
-            .forEach(protectedStorageEntry -> {
+            expiryIndex.getHashesByOwner(peersNodeAddress).forEach(hash -> {
+                ProtectedStorageEntry protectedStorageEntry = map.get(hash);
+                if (protectedStorageEntry == null) {
+                    return;
+                }
+
                 // We only set the data back by half of the TTL and remove the data only if is has
                 // expired after that back dating.
                 // We might get connection drops which are not caused by the node going offline, so
@@ -717,6 +896,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                 // Usually the are: SOCKET_TIMEOUT ,TERMINATED (EOFException)
                 log.debug("Backdating {} due to closeConnectionReason={}", protectedStorageEntry, closeConnectionReason);
                 protectedStorageEntry.backDate();
+                expiryIndex.put(hash, protectedStorageEntry);
             });
         }
     }
@@ -756,7 +936,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         }
 
         ByteArray hashAsByteArray = new ByteArray(payload.getHash());
-        boolean payloadHashAlreadyInStore = appendOnlyDataStoreService.getMap(payload).containsKey(hashAsByteArray);
+        boolean payloadHashAlreadyInStore = appendOnlyDataStoreService.containsKey(hashAsByteArray, payload);
 
         // Store already knows about this payload. Ignore it unless the caller specifically requests a republish.
         if (payloadHashAlreadyInStore && !reBroadcast) {
@@ -777,6 +957,8 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         if (!payloadHashAlreadyInStore) {
             wasAdded = appendOnlyDataStoreService.put(hashAsByteArray, payload);
             if (wasAdded) {
+                persistableNetworkPayloadIndex.onAdded(hashAsByteArray, payload);
+                keySetSketchCache.onAdded(hashAsByteArray);
                 appendOnlyDataStoreListeners.forEach(e -> e.onAdded(payload));
             }
         }
@@ -797,7 +979,10 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         byte[] hash = payload.getHash();
         if (payload.verifyHashSize()) {
             ByteArray hashAsByteArray = new ByteArray(hash);
-            appendOnlyDataStoreService.put(hashAsByteArray, payload);
+            if (appendOnlyDataStoreService.put(hashAsByteArray, payload)) {
+                persistableNetworkPayloadIndex.onAdded(hashAsByteArray, payload);
+                keySetSketchCache.onAdded(hashAsByteArray);
+            }
         } else {
             log.warn("We got a hash exceeding our permitted size");
         }
@@ -822,9 +1007,23 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                                              @Nullable NodeAddress sender,
                                              @Nullable BroadcastHandler.Listener listener,
                                              boolean allowBroadcast) {
+        ByteArray hashOfPayload = get32ByteHashAsByteArray(protectedStorageEntry.getProtectedStoragePayload());
+        return addProtectedStorageEntry(protectedStorageEntry, hashOfPayload, false, sender, listener, allowBroadcast, null);
+    }
+
+    /**
+     * @param validated if the expiry and isValidForAddOperation checks have been done already
+     * @param addedEntries if not null the added entry gets added to that list instead of notifying the listeners
+     */
+    private boolean addProtectedStorageEntry(ProtectedStorageEntry protectedStorageEntry,
+                                             ByteArray hashOfPayload,
+                                             boolean validated,
+                                             @Nullable NodeAddress sender,
+                                             @Nullable BroadcastHandler.Listener listener,
+                                             boolean allowBroadcast,
+                                             @Nullable List<ProtectedStorageEntry> addedEntries) {
         synchronized (map) {
             ProtectedStoragePayload protectedStoragePayload = protectedStorageEntry.getProtectedStoragePayload();
-            ByteArray hashOfPayload = get32ByteHashAsByteArray(protectedStoragePayload);
 
             //log.trace("## call addProtectedStorageEntry hash={}, map={}", hashOfPayload, printMap());
 
@@ -843,7 +1042,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
             }
 
             // To avoid that expired data get stored and broadcast we check for expire date.
-            if (protectedStorageEntry.isExpired(clock)) {
+            if (!validated && protectedStorageEntry.isExpired(clock)) {
                 String peer = sender != null ? sender.getFullAddress() : "sender is null";
                 log.trace("## We received an expired protectedStorageEntry from peer {}. ProtectedStoragePayload={}",
                         peer, protectedStorageEntry.getProtectedStoragePayload().getClass().getSimpleName());
@@ -860,7 +1059,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
             }
 
             // Verify the ProtectedStorageEntry is well formed and valid for the add operation
-            if (!protectedStorageEntry.isValidForAddOperation()) {
+            if (!validated && !protectedStorageEntry.isValidForAddOperation()) {
                 log.trace("## !isValidForAddOperation hash={}", hashOfPayload);
                 return false;
             }
@@ -879,8 +1078,15 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
             }
 
             // This is an updated entry. Record it and signal listeners.
-            map.put(hashOfPayload, protectedStorageEntry);
-            hashMapChangedListeners.forEach(e -> e.onAdded(Collections.singletonList(protectedStorageEntry)));
+            if (map.put(hashOfPayload, protectedStorageEntry) == null) {
+                keySetSketchCache.onAdded(hashOfPayload);
+            }
+            expiryIndex.put(hashOfPayload, protectedStorageEntry);
+            if (addedEntries != null) {
+                addedEntries.add(protectedStorageEntry);
+            } else {
+                hashMapChangedListeners.forEach(e -> e.onAdded(Collections.singletonList(protectedStorageEntry)));
+            }
 
             // Record the updated sequence number and persist it. Higher delay so we can batch more items.
             sequenceNumberMap.put(hashOfPayload, new MapValue(protectedStorageEntry.getSequenceNumber(), this.clock.millis()));
@@ -971,6 +1177,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
                 // Update the hash map with the updated entry
                 map.put(hashOfPayload, updatedEntry);
+                expiryIndex.put(hashOfPayload, updatedEntry);
 
                 // Record the latest sequence number and persist it
                 sequenceNumberMap.put(hashOfPayload, new MapValue(updatedEntry.getSequenceNumber(), this.clock.millis()));
@@ -1125,7 +1332,10 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                 ProtectedStorageEntry protectedStorageEntry = entry.getValue();
 
                 //log.trace("## removeFromMapAndDataStore: hashOfPayload={}, map before remove={}", hashOfPayload, printMap());
-                map.remove(hashOfPayload);
+                if (map.remove(hashOfPayload) != null) {
+                    keySetSketchCache.onRemoved(hashOfPayload);
+                }
+                expiryIndex.remove(hashOfPayload);
                 //log.trace("## removeFromMapAndDataStore: map after remove={}", printMap());
 
                 // We inform listeners even the entry was not found in our map
@@ -1143,6 +1353,19 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         }
     }
 
+    // Same sequence number checks as in addProtectedStorageEntry, which would ignore the entry if this returns true.
+    // An equal sequence number is accepted if we don't have the payload locally.
+    private boolean hasNoNewerSequenceNumber(ProtectedStorageEntry protectedStorageEntry, ByteArray hashOfPayload) {
+        MapValue sequenceNumberMapValue = sequenceNumberMap.get(hashOfPayload);
+        if (sequenceNumberMapValue == null) {
+            return false;
+        }
+        int sequenceNumber = protectedStorageEntry.getSequenceNumber();
+        return map.containsKey(hashOfPayload) ?
+                sequenceNumber <= sequenceNumberMapValue.sequenceNr :
+                sequenceNumber < sequenceNumberMapValue.sequenceNr;
+    }
+
     private boolean hasSequenceNrIncreased(int newSequenceNumber, ByteArray hashOfData) {
         if (sequenceNumberMap.containsKey(hashOfData)) {
             int storedSequenceNumber = sequenceNumberMap.get(hashOfData).sequenceNr;
@@ -1239,6 +1462,9 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
      * @return Hash of data
      */
     public static byte[] get32ByteHash(NetworkPayload data) {
+        if (data instanceof HashMemoizingPayload) {
+            return ((HashMemoizingPayload) data).getSha256Hash();
+        }
         return Hash.getSha256Hash(data.toProtoMessage().toByteArray());
     }
 
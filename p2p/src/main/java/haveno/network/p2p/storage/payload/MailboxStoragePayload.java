@@ -19,10 +19,13 @@ package haveno.network.p2p.storage.payload;
 
 import com.google.protobuf.ByteString;
 import haveno.common.crypto.Sig;
+import haveno.common.proto.MemoizedProto;
+import haveno.common.proto.network.HashMemoizingPayload;
 import haveno.common.util.CollectionUtils;
 import haveno.common.util.ExtraDataMapValidator;
 import haveno.network.p2p.PrefixedSealedAndSignedMessage;
 import haveno.network.p2p.storage.messages.AddOncePayload;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -47,7 +50,8 @@ import java.util.concurrent.TimeUnit;
 @Getter
 @EqualsAndHashCode
 @Slf4j
-public final class MailboxStoragePayload implements ProtectedStoragePayload, ExpirablePayload, AddOncePayload {
+public final class MailboxStoragePayload implements ProtectedStoragePayload, ExpirablePayload, AddOncePayload,
+        HashMemoizingPayload {
     public static final long TTL = TimeUnit.DAYS.toMillis(15);
 
     // Added in 1.5.5
@@ -65,6 +69,8 @@ public final class MailboxStoragePayload implements ProtectedStoragePayload, Exp
     // We add optional TTL entry in v 1.5.5 so we can support different TTL for trade messages and for AckMessages
     @Nullable
     private Map<String, String> extraDataMap;
+    @Getter(AccessLevel.NONE)
+    private transient final MemoizedProto<protobuf.StoragePayload> memoizedProto = new MemoizedProto<>(this::buildProtoMessage);
 
     public MailboxStoragePayload(PrefixedSealedAndSignedMessage prefixedSealedAndSignedMessage,
                                  @NotNull PublicKey senderPubKeyForAddOperation,
@@ -104,6 +110,15 @@ public final class MailboxStoragePayload implements ProtectedStoragePayload, Exp
 
     @Override
     public protobuf.StoragePayload toProtoMessage() {
+        return memoizedProto.get();
+    }
+
+    @Override
+    public byte[] getSha256Hash() {
+        return memoizedProto.getSha256Hash();
+    }
+
+    private protobuf.StoragePayload buildProtoMessage() {
         final protobuf.MailboxStoragePayload.Builder builder = protobuf.MailboxStoragePayload.newBuilder()
                 .setPrefixedSealedAndSignedMessage(prefixedSealedAndSignedMessage.toProtoNetworkEnvelope().getPrefixedSealedAndSignedMessage())
                 .setSenderPubKeyForAddOperationBytes(ByteString.copyFrom(senderPubKeyForAddOperationBytes))
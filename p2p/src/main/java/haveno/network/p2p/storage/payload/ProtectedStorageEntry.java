@@ -23,6 +23,7 @@ import com.google.protobuf.Message;
 import haveno.common.crypto.CryptoException;
 import haveno.common.crypto.Sig;
 import haveno.common.proto.network.GetDataResponsePriority;
+import haveno.common.proto.network.HashMemoizingPayload;
 import haveno.common.proto.network.NetworkPayload;
 import haveno.common.proto.network.NetworkProtoResolver;
 import haveno.common.proto.persistable.PersistablePayload;
@@ -33,6 +34,8 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 
+import javax.annotation.Nullable;
+
 import java.security.PublicKey;
 import java.time.Clock;
 
@@ -46,6 +49,8 @@ public class ProtectedStorageEntry implements NetworkPayload, PersistablePayload
     private final int sequenceNumber;
     private final byte[] signature;
     private long creationTimeStamp;
+    // Computed on first signature verification. Transient fields are not used by equals and hashCode.
+    transient private volatile SignatureVerificationCache.Key signatureVerificationKey;
 
     public ProtectedStorageEntry(@NotNull ProtectedStoragePayload protectedStoragePayload,
                                  @NotNull PublicKey ownerPubKey,
@@ -202,6 +207,10 @@ public class ProtectedStorageEntry implements NetworkPayload, PersistablePayload
      * Returns true if the signature for the Entry is valid for the payload, sequence number, and ownerPubKey
      */
     boolean isSignatureValid() {
+        SignatureVerificationCache.Key key = getSignatureVerificationKey();
+        if (key != null && SignatureVerificationCache.isCached(key))
+            return true;
+
         try {
             byte[] hashOfDataAndSeqNr = P2PDataStorage.get32ByteHash(
                     new P2PDataStorage.DataAndSeqNrPair(this.protectedStoragePayload, this.sequenceNumber));
@@ -210,6 +219,8 @@ public class ProtectedStorageEntry implements NetworkPayload, PersistablePayload
 
             if (!result)
                 log.warn("ProtectedStorageEntry::isSignatureValid() failed.\n{}}", this);
+            else if (key != null)
+                SignatureVerificationCache.putValid(key);
 
             return result;
         } catch (CryptoException e) {
@@ -218,6 +229,26 @@ public class ProtectedStorageEntry implements NetworkPayload, PersistablePayload
         }
     }
 
+    /*
+     * Returns null if the payload does not memoize its hash. Hashing the payload would cost about as much as the
+     * serialization we want to avoid by the cache, so we don't cache the signatures of those payloads.
+     */
+    @Nullable
+    SignatureVerificationCache.Key getSignatureVerificationKey() {
+        if (!(protectedStoragePayload instanceof HashMemoizingPayload))
+            return null;
+
+        // The key covers everything the signature is verified against
+        if (signatureVerificationKey == null) {
+            signatureVerificationKey = new SignatureVerificationCache.Key(
+                    new P2PDataStorage.ByteArray(((HashMemoizingPayload) protectedStoragePayload).getSha256Hash()),
+                    sequenceNumber,
+                    new P2PDataStorage.ByteArray(signature),
+                    new P2PDataStorage.ByteArray(ownerPubKeyBytes));
+        }
+        return signatureVerificationKey;
+    }
+
     /*
      * Returns true if the Entry metadata that is expected to stay constant between different versions of the same object
      * matches.
@@ -0,0 +1,90 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.storage.payload;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import haveno.network.p2p.storage.P2PDataStorage;
+import lombok.Value;
+
+/**
+ * Remembers the ProtectedStorageEntry signatures we have verified successfully. The same entry usually arrives from
+ * several peers within a short time, so we can skip the expensive signature verification for the repeated ones.
+ * We only cache valid signatures, so peers sending invalid data cannot evict the valid entries.
+ *
+ * Only entries with a HashMemoizingPayload are cached, as the key needs the hash of the payload.
+ */
+public final class SignatureVerificationCache {
+    private static final int MAX_SIZE = 20_000;
+
+    @Value
+    static class Key {
+        P2PDataStorage.ByteArray hashOfPayload;
+        int sequenceNumber;
+        P2PDataStorage.ByteArray signature;
+        P2PDataStorage.ByteArray ownerPubKeyBytes;
+    }
+
+    private static final Cache<Key, Boolean> CACHE = CacheBuilder.newBuilder()
+            .maximumSize(MAX_SIZE)
+            .recordStats()
+            .build();
+
+    private SignatureVerificationCache() {
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public static CacheStats getStats() {
+        return CACHE.stats();
+    }
+
+    public static String getStatsAsString() {
+        CacheStats stats = CACHE.stats();
+        return "size=" + CACHE.size() +
+                ", hits=" + stats.hitCount() +
+                ", misses=" + stats.missCount() +
+                ", hitRate=" + String.format("%.2f", stats.hitRate()) +
+                ", evictions=" + stats.evictionCount();
+    }
+
+    public static long size() {
+        return CACHE.size();
+    }
+
+    public static void clear() {
+        CACHE.invalidateAll();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Package private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    static boolean isCached(Key key) {
+        return CACHE.getIfPresent(key) != null;
+    }
+
+    static void putValid(Key key) {
+        CACHE.put(key, Boolean.TRUE);
+    }
+}
@@ -83,6 +83,13 @@ public class AppendOnlyDataStoreService {
                 .orElse(new HashMap<>());
     }
 
+    // Does not copy the historical data as getMap(payload) does
+    public boolean containsKey(P2PDataStorage.ByteArray hashAsByteArray, PersistableNetworkPayload payload) {
+        return findService(payload)
+                .map(service -> service.containsKey(hashAsByteArray))
+                .orElse(false);
+    }
+
     public boolean put(P2PDataStorage.ByteArray hashAsByteArray, PersistableNetworkPayload payload) {
         Optional<MapStoreService<? extends PersistableNetworkPayloadStore<? extends PersistableNetworkPayload>, PersistableNetworkPayload>> optionalService = findService(payload);
         optionalService.ifPresent(service -> service.putIfAbsent(hashAsByteArray, payload));
@@ -17,7 +17,9 @@
 
 package haveno.network.p2p.storage.persistence;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterators;
 import haveno.common.app.DevEnv;
 import haveno.common.app.Version;
 import haveno.common.persistence.PersistenceManager;
@@ -25,9 +27,19 @@ import haveno.network.p2p.storage.P2PDataStorage;
 import haveno.network.p2p.storage.payload.PersistableNetworkPayload;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 import java.io.File;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -35,12 +47,22 @@ import java.util.concurrent.atomic.AtomicInteger;
  * New data is added to the default map in the store (live data). Historical data is created from resource files.
  * For initial data requests we only use the live data as the users version is sent with the
  * request so the responding (seed)node can figure out if we miss any of the historical data.
+ *
+ * If a historical resource file is provided in the {@link MappedPayloadStore} format (file name with postfix
+ * {@link #MAPPED_FILE_POSTFIX}) we use that instead of the protobuf file. Its payloads are not kept on the heap but
+ * read from the memory mapped file when they are accessed.
  */
 @Slf4j
 public abstract class HistoricalDataStoreService<T extends PersistableNetworkPayloadStore<? extends PersistableNetworkPayload>> extends MapStoreService<T, PersistableNetworkPayload> {
-    private ImmutableMap<String, PersistableNetworkPayloadStore<? extends PersistableNetworkPayload>> storesByVersion;
-    // Cache to avoid that we have to recreate the historical data at each request
+    public static final String MAPPED_FILE_POSTFIX = "_mapped";
+
+    // Unmodifiable maps of the historical stores by version
+    private ImmutableMap<String, Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> historicalMapsByVersion;
+    // Cache to avoid that we have to recreate the historical data at each request. Does not contain the data of the
+    // mapped stores.
     private ImmutableMap<P2PDataStorage.ByteArray, PersistableNetworkPayload> allHistoricalPayloads;
+    private ImmutableList<MappedPayloadStore> mappedStores = ImmutableList.of();
+    private final AllDataView allDataView = new AllDataView();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -63,7 +85,7 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
         Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> result = new HashMap<>(store.getMap());
 
         // If we have a store with a newer version than the requesters version we will add those as well.
-        storesByVersion.entrySet().stream()
+        historicalMapsByVersion.entrySet().stream()
                 .filter(entry -> {
                     // Old nodes not sending the version will get delivered all data
                     if (requestersVersion == null) {
@@ -83,7 +105,7 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
                             requestersVersion, storeVersion, details);
                     return newVersion;
                 })
-                .map(e -> e.getValue().getMap())
+                .map(Map.Entry::getValue)
                 .forEach(result::putAll);
 
         log.info("We found {} entries since requesters version {}",
@@ -95,10 +117,16 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
         return store.getMap();
     }
 
+    // Returns the maps of our historical data stores by their version. The maps are immutable.
+    public Map<String, Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> getHistoricalMapsByVersion() {
+        return historicalMapsByVersion;
+    }
+
+    // Returns an unmodifiable view of the live data and all historical data. The view is not copied, so it reflects
+    // later changes of the live data. Payloads of mapped stores are only deserialized when their values are accessed,
+    // so callers only interested in the hashes should use keySet or containsKey.
     public Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> getMapOfAllData() {
-        Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> result = new HashMap<>(getMapOfLiveData());
-        result.putAll(allHistoricalPayloads);
-        return result;
+        return allDataView;
     }
 
 
@@ -119,20 +147,25 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
             return;
         }
 
-        getMapOfLiveData().put(hash, payload);
+        store.put(hash, payload);
         requestPersistence();
     }
 
+    @Override
+    boolean containsKey(P2PDataStorage.ByteArray hash) {
+        return anyMapContainsKey(hash);
+    }
+
     @Override
     protected PersistableNetworkPayload putIfAbsent(P2PDataStorage.ByteArray hash, PersistableNetworkPayload payload) {
         if (anyMapContainsKey(hash)) {
             return null;
         }
 
-        // We do not return the value from getMapOfLiveData().put as we checked before that it does not contain any value.
+        // We do not return the value from store.put as we checked before that it does not contain any value.
         // So it will be always null. We still keep the return type as we override the method from MapStoreService which
         // follow the Map.putIfAbsent signature.
-        getMapOfLiveData().put(hash, payload);
+        store.put(hash, payload);
         requestPersistence();
         return null;
     }
@@ -146,17 +179,20 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
 
             // Now we add our historical data stores.
             Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> allHistoricalPayloads = new HashMap<>();
-            Map<String, PersistableNetworkPayloadStore<? extends PersistableNetworkPayload>> storesByVersion = new HashMap<>();
+            Map<String, Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> historicalMapsByVersion = new HashMap<>();
+            List<MappedPayloadStore> mappedStores = new ArrayList<>();
             AtomicInteger numFiles = new AtomicInteger(Version.HISTORICAL_RESOURCE_FILE_VERSION_TAGS.size());
             Version.HISTORICAL_RESOURCE_FILE_VERSION_TAGS.forEach(version -> readHistoricalStoreFromResources(version,
                     postFix,
                     allHistoricalPayloads,
-                    storesByVersion,
+                    historicalMapsByVersion,
+                    mappedStores,
                     () -> {
                         if (numFiles.decrementAndGet() == 0) {
                             // At last iteration we set the immutable map
                             this.allHistoricalPayloads = ImmutableMap.copyOf(allHistoricalPayloads);
-                            this.storesByVersion = ImmutableMap.copyOf(storesByVersion);
+                            this.historicalMapsByVersion = ImmutableMap.copyOf(historicalMapsByVersion);
+                            this.mappedStores = ImmutableList.copyOf(mappedStores);
                             completeHandler.run();
                         }
                     }));
@@ -171,28 +207,56 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
     private void readHistoricalStoreFromResources(String version,
                                                   String postFix,
                                                   Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> allHistoricalPayloads,
-                                                  Map<String, PersistableNetworkPayloadStore<? extends PersistableNetworkPayload>> storesByVersion,
+                                                  Map<String, Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> historicalMapsByVersion,
+                                                  List<MappedPayloadStore> mappedStores,
                                                   Runnable completeHandler) {
 
         String fileName = getFileName() + "_" + version;
+
+        // We prefer the mapped store if it is provided
+        MappedPayloadStore mappedStore = readMappedStoreFromResources(fileName + MAPPED_FILE_POSTFIX, postFix);
+        if (mappedStore != null) {
+            historicalMapsByVersion.put(version, mappedStore.asMap());
+            mappedStores.add(mappedStore);
+            log.debug("We have mapped {} with {} historical items.", mappedStore.getName(), mappedStore.size());
+            pruneStore(mappedStore.asMap(), version);
+            completeHandler.run();
+            return;
+        }
+
         boolean wasCreatedFromResources = makeFileFromResourceFile(fileName, postFix);
 
         // If resource file does not exist we do not create a new store as it would never get filled.
         persistenceManager.readPersisted(fileName, persisted -> {
-                    storesByVersion.put(version, persisted);
+                    historicalMapsByVersion.put(version, Collections.unmodifiableMap(persisted.getMap()));
                     allHistoricalPayloads.putAll(persisted.getMap());
                     log.debug("We have read from {} {} historical items.", fileName, persisted.getMap().size());
-                    pruneStore(persisted, version);
+                    pruneStore(persisted.getMap(), version);
                     completeHandler.run();
                 },
                 completeHandler::run);
     }
 
-    private void pruneStore(PersistableNetworkPayloadStore<? extends PersistableNetworkPayload> historicalStore,
+    @Nullable
+    private MappedPayloadStore readMappedStoreFromResources(String fileName, String postFix) {
+        makeFileFromResourceFile(fileName, postFix);
+        File file = new File(absolutePathOfStorageDir, fileName);
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            return MappedPayloadStore.open(file, persistenceManager.getPersistenceProtoResolver());
+        } catch (IOException e) {
+            log.error("Could not read mapped store {}. We fall back to the protobuf store.", fileName, e);
+            return null;
+        }
+    }
+
+    private void pruneStore(Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> historicalMap,
                             String version) {
         Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> mapOfLiveData = getMapOfLiveData();
         int preLive = mapOfLiveData.size();
-        mapOfLiveData.keySet().removeAll(historicalStore.getMap().keySet());
+        store.removeIf(historicalMap::containsKey);
         int postLive = mapOfLiveData.size();
         if (preLive > postLive) {
             log.debug("We pruned data from our live data store which are already contained in the historical data store with version {}. " +
@@ -204,7 +268,68 @@ public abstract class HistoricalDataStoreService<T extends PersistableNetworkPay
         requestPersistence();
     }
 
+    // The maps in the order in which an entry is looked up
+    private List<Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> getMapsOfAllData() {
+        List<Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> maps = new ArrayList<>();
+        maps.add(getMapOfLiveData());
+        maps.add(allHistoricalPayloads);
+        mappedStores.forEach(mappedStore -> maps.add(mappedStore.asMap()));
+        return maps;
+    }
+
     private boolean anyMapContainsKey(P2PDataStorage.ByteArray hash) {
-        return getMapOfLiveData().containsKey(hash) || allHistoricalPayloads.containsKey(hash);
+        return getMapOfLiveData().containsKey(hash) ||
+                allHistoricalPayloads.containsKey(hash) ||
+                mappedStores.stream().anyMatch(mappedStore -> mappedStore.containsKey(hash));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // All data view
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private final class AllDataView extends AbstractMap<P2PDataStorage.ByteArray, PersistableNetworkPayload> {
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof P2PDataStorage.ByteArray && anyMapContainsKey((P2PDataStorage.ByteArray) key);
+        }
+
+        @Override
+        public PersistableNetworkPayload get(Object key) {
+            if (!(key instanceof P2PDataStorage.ByteArray)) {
+                return null;
+            }
+            for (Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map : getMapsOfAllData()) {
+                PersistableNetworkPayload payload = map.get(key);
+                if (payload != null) {
+                    return payload;
+                }
+            }
+            return null;
+        }
+
+        // An entry is skipped if a map before contains its hash. The entries of mapped stores deserialize their
+        // payload only when getValue is called, so iterating the keys is cheap.
+        @Override
+        public Set<Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload>> iterator() {
+                    List<Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> maps = getMapsOfAllData();
+                    List<Iterator<Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload>>> iterators = new ArrayList<>();
+                    for (int i = 0; i < maps.size(); i++) {
+                        List<Map<P2PDataStorage.ByteArray, PersistableNetworkPayload>> previousMaps = maps.subList(0, i);
+                        iterators.add(Iterators.filter(maps.get(i).entrySet().iterator(),
+                                entry -> previousMaps.stream().noneMatch(map -> map.containsKey(entry.getKey()))));
+                    }
+                    return Iterators.unmodifiableIterator(Iterators.concat(iterators.iterator()));
+                }
+
+                @Override
+                public int size() {
+                    return Iterators.size(iterator());
+                }
+            };
+        }
     }
 }
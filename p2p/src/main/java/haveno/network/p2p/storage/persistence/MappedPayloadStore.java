@@ -0,0 +1,360 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.storage.persistence;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import haveno.common.proto.ProtoResolver;
+import haveno.network.p2p.storage.P2PDataStorage;
+import haveno.network.p2p.storage.payload.PersistableNetworkPayload;
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * Read-only store of PersistableNetworkPayloads in a memory mapped file. Used for the historical data stores which
+ * never change after a release, so we don't need to parse them at startup and keep them on the heap.
+ *
+ * File format (big endian):
+ * <pre>
+ *   magic        8 bytes "HVNMAP01"
+ *   count        int
+ *   hashLength   int
+ *   index        count * (hash [hashLength bytes], dataLength int, dataOffset long), sorted by unsigned hash
+ *   data         serialized protobuf.PersistableNetworkPayload of each entry
+ * </pre>
+ *
+ * Lookups use a binary search in the index. Payloads are only deserialized when they are accessed.
+ */
+public final class MappedPayloadStore {
+    private static final byte[] MAGIC = "HVNMAP01".getBytes(StandardCharsets.US_ASCII);
+    private static final int HEADER_SIZE = MAGIC.length + 2 * Integer.BYTES;
+    private static final int MAX_HASH_LENGTH = 64;
+    // PersistableNetworkPayloads use 20 byte hashes
+    private static final int DEFAULT_HASH_LENGTH = 20;
+
+    @Getter
+    private final String name;
+    private final ByteBuffer buffer;
+    private final ProtoResolver protoResolver;
+    private final int size;
+    private final int hashLength;
+    private final int indexEntrySize;
+    private final MapView mapView = new MapView();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Reading
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public static MappedPayloadStore open(File file, ProtoResolver protoResolver) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("File " + file.getName() + " is too large to be mapped");
+            }
+            // The mapping stays valid after the channel is closed
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new MappedPayloadStore(file.getName(), buffer, protoResolver);
+        }
+    }
+
+    MappedPayloadStore(String name, ByteBuffer buffer, ProtoResolver protoResolver) throws IOException {
+        this.name = name;
+        this.buffer = buffer;
+        this.protoResolver = protoResolver;
+
+        if (buffer.capacity() < HEADER_SIZE) {
+            throw new IOException("File " + name + " is too small for a mapped payload store");
+        }
+        byte[] magic = new byte[MAGIC.length];
+        buffer.get(0, magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("File " + name + " is not a mapped payload store");
+        }
+        size = buffer.getInt(MAGIC.length);
+        hashLength = buffer.getInt(MAGIC.length + Integer.BYTES);
+        if (size < 0 || hashLength <= 0 || hashLength > MAX_HASH_LENGTH) {
+            throw new IOException("Invalid header of mapped payload store " + name);
+        }
+        indexEntrySize = hashLength + Integer.BYTES + Long.BYTES;
+        if (HEADER_SIZE + (long) size * indexEntrySize > buffer.capacity()) {
+            throw new IOException("Index of mapped payload store " + name + " exceeds the file size");
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean containsKey(P2PDataStorage.ByteArray hash) {
+        return indexOf(hash.bytes) >= 0;
+    }
+
+    @Nullable
+    public PersistableNetworkPayload get(P2PDataStorage.ByteArray hash) {
+        int index = indexOf(hash.bytes);
+        return index >= 0 ? getPayload(index) : null;
+    }
+
+    /**
+     * Returns an unmodifiable map view of the store. The iteration order is the order of the hashes. Iterating the
+     * keys does not deserialize any payload.
+     */
+    public Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> asMap() {
+        return mapView;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Writing
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Writes the given payloads in the mapped store format. Duplicates are written only once.
+     */
+    public static void write(Collection<? extends PersistableNetworkPayload> payloads, File file) throws IOException {
+        List<byte[]> hashes = new ArrayList<>();
+        List<byte[]> data = new ArrayList<>();
+        payloads.stream()
+                .map(payload -> new AbstractMap.SimpleImmutableEntry<>(payload.getHash(), payload))
+                .sorted((o1, o2) -> Arrays.compareUnsigned(o1.getKey(), o2.getKey()))
+                .forEach(entry -> {
+                    if (!hashes.isEmpty() && Arrays.equals(hashes.get(hashes.size() - 1), entry.getKey())) {
+                        return;
+                    }
+                    hashes.add(entry.getKey());
+                    data.add(entry.getValue().toProtoMessage().toByteArray());
+                });
+
+        int hashLength = hashes.isEmpty() ? DEFAULT_HASH_LENGTH : hashes.get(0).length;
+        if (hashes.stream().anyMatch(hash -> hash.length != hashLength)) {
+            throw new IOException("All payloads of a mapped payload store need to have the same hash length");
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.write(MAGIC);
+            out.writeInt(hashes.size());
+            out.writeInt(hashLength);
+            long offset = HEADER_SIZE + (long) hashes.size() * (hashLength + Integer.BYTES + Long.BYTES);
+            for (int i = 0; i < hashes.size(); i++) {
+                out.write(hashes.get(i));
+                out.writeInt(data.get(i).length);
+                out.writeLong(offset);
+                offset += data.get(i).length;
+            }
+            if (offset > Integer.MAX_VALUE) {
+                throw new IOException("Mapped payload store would be too large");
+            }
+            for (byte[] bytes : data) {
+                out.write(bytes);
+            }
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private int indexOf(byte[] hash) {
+        if (hash.length != hashLength) {
+            return -1;
+        }
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareHashAt(mid, hash);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int compareHashAt(int index, byte[] hash) {
+        int position = HEADER_SIZE + index * indexEntrySize;
+        for (int i = 0; i < hashLength; i++) {
+            int cmp = Integer.compare(buffer.get(position + i) & 0xFF, hash[i] & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+
+    private P2PDataStorage.ByteArray getHash(int index) {
+        byte[] hash = new byte[hashLength];
+        buffer.get(HEADER_SIZE + index * indexEntrySize, hash);
+        return new P2PDataStorage.ByteArray(hash);
+    }
+
+    private PersistableNetworkPayload getPayload(int index) {
+        int position = HEADER_SIZE + index * indexEntrySize + hashLength;
+        int length = buffer.getInt(position);
+        long offset = buffer.getLong(position + Integer.BYTES);
+        if (length < 0 || offset < 0 || offset + length > buffer.capacity()) {
+            throw new IllegalStateException("Invalid index entry " + index + " in mapped payload store " + name);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get((int) offset, bytes);
+        try {
+            return PersistableNetworkPayload.fromProto(protobuf.PersistableNetworkPayload.parseFrom(bytes), protoResolver);
+        } catch (InvalidProtocolBufferException e) {
+            throw new IllegalStateException("Corrupted entry " + index + " in mapped payload store " + name, e);
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Map view
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    final class MapView extends AbstractMap<P2PDataStorage.ByteArray, PersistableNetworkPayload> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof P2PDataStorage.ByteArray && MappedPayloadStore.this.containsKey((P2PDataStorage.ByteArray) key);
+        }
+
+        @Override
+        public PersistableNetworkPayload get(Object key) {
+            return key instanceof P2PDataStorage.ByteArray ? MappedPayloadStore.this.get((P2PDataStorage.ByteArray) key) : null;
+        }
+
+        @Override
+        public Set<P2PDataStorage.ByteArray> keySet() {
+            return new IndexSet<>(MappedPayloadStore.this::getHash) {
+                @Override
+                public boolean contains(Object o) {
+                    return containsKey(o);
+                }
+            };
+        }
+
+        // The payload of an entry is only deserialized when its value is accessed
+        @Override
+        public Set<Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload>> entrySet() {
+            return new IndexSet<>(IndexEntry::new);
+        }
+    }
+
+    private final class IndexEntry implements Map.Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload> {
+        private final int index;
+        private final P2PDataStorage.ByteArray hash;
+
+        private IndexEntry(int index) {
+            this.index = index;
+            this.hash = getHash(index);
+        }
+
+        @Override
+        public P2PDataStorage.ByteArray getKey() {
+            return hash;
+        }
+
+        @Override
+        public PersistableNetworkPayload getValue() {
+            return getPayload(index);
+        }
+
+        @Override
+        public PersistableNetworkPayload setValue(PersistableNetworkPayload value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> other = (Map.Entry<?, ?>) o;
+            return hash.equals(other.getKey()) && getValue().equals(other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash.hashCode() ^ getValue().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return hash + "=" + getValue();
+        }
+    }
+
+    private class IndexSet<E> extends AbstractSet<E> {
+        private final IntFunction<E> elementAtIndex;
+
+        private IndexSet(IntFunction<E> elementAtIndex) {
+            this.elementAtIndex = elementAtIndex;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<>() {
+                private int index;
+
+                @Override
+                public boolean hasNext() {
+                    return index < size;
+                }
+
+                @Override
+                public E next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return elementAtIndex.apply(index++);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
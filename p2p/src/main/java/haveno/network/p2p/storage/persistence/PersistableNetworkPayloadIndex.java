@@ -0,0 +1,237 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.storage.persistence;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import haveno.common.app.Version;
+import haveno.network.p2p.storage.P2PDataStorage;
+import haveno.network.p2p.storage.payload.PersistableNetworkPayload;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Index over the data of the AppendOnlyDataStoreService services used for building GetDataResponses without copying
+ * the stores for each request.
+ *
+ * Each service has a bucket for its live data and HistoricalDataStoreServices have an additional bucket per
+ * historical version. Buckets are sorted by hash and historical buckets are immutable. The protobuf form of the most
+ * recently served payloads is kept in a bounded cache, so repeated responses reuse the serialized data. Buckets of
+ * mapped historical stores use the map of the {@link MappedPayloadStore} directly, which is already sorted by hash,
+ * and their payloads are not cached.
+ */
+@Slf4j
+public class PersistableNetworkPayloadIndex {
+    private static final Comparator<P2PDataStorage.ByteArray> HASH_COMPARATOR =
+            (o1, o2) -> Arrays.compareUnsigned(o1.bytes, o2.bytes);
+    // About the number of payloads of a few GetDataResponses
+    private static final int MAX_CACHED_PROTO_MESSAGES = 10_000;
+
+    private final List<ServiceEntry> serviceEntries = new CopyOnWriteArrayList<>();
+    private final Cache<P2PDataStorage.ByteArray, protobuf.PersistableNetworkPayload> protoMessageByHash = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_PROTO_MESSAGES)
+            .build();
+    @Getter
+    private volatile boolean built;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Builds the index from the services of the given AppendOnlyDataStoreService. Needs to be called once all
+     * services have read their data from the resources.
+     */
+    public void build(AppendOnlyDataStoreService appendOnlyDataStoreService) {
+        long ts = System.currentTimeMillis();
+        List<ServiceEntry> entries = new ArrayList<>();
+        appendOnlyDataStoreService.getServices().forEach(service -> {
+            Bucket liveBucket;
+            Map<String, Bucket> historicalBuckets = new ConcurrentHashMap<>();
+            if (service instanceof HistoricalDataStoreService) {
+                var historicalDataStoreService = (HistoricalDataStoreService<? extends PersistableNetworkPayloadStore>) service;
+                liveBucket = new Bucket(service.getFileName(), null, historicalDataStoreService.getMapOfLiveData());
+                historicalDataStoreService.getHistoricalMapsByVersion().forEach((version, map) ->
+                        historicalBuckets.put(version, new Bucket(service.getFileName(), version, map)));
+            } else {
+                liveBucket = new Bucket(service.getFileName(), null, service.getMap());
+            }
+            entries.add(new ServiceEntry(service, liveBucket, historicalBuckets));
+        });
+        serviceEntries.clear();
+        serviceEntries.addAll(entries);
+        built = true;
+        log.info("Building PersistableNetworkPayloadIndex with {} entries took {} ms",
+                getSize(), System.currentTimeMillis() - ts);
+    }
+
+    public void onAdded(P2PDataStorage.ByteArray hash, PersistableNetworkPayload payload) {
+        if (!built) {
+            return;
+        }
+        serviceEntries.stream()
+                .filter(entry -> entry.service.canHandle(payload))
+                .findAny()
+                .ifPresent(entry -> {
+                    // Historical services do not add data which is already in a historical store
+                    if (entry.historicalBuckets.values().stream().noneMatch(bucket -> bucket.contains(hash))) {
+                        entry.liveBucket.add(hash, payload);
+                    }
+                });
+    }
+
+    /**
+     * Returns the buckets with our live data and all historical buckets newer than the requesters version.
+     * If requestersVersion is null we return all historical buckets.
+     */
+    public List<Bucket> getBucketsSinceVersion(@Nullable String requestersVersion) {
+        List<Bucket> result = new ArrayList<>();
+        serviceEntries.forEach(entry -> {
+            result.add(entry.liveBucket);
+            entry.historicalBuckets.forEach((version, bucket) -> {
+                if (requestersVersion == null || Version.isNewVersion(version, requestersVersion)) {
+                    result.add(bucket);
+                }
+            });
+        });
+        return result;
+    }
+
+    /**
+     * Returns the cached protobuf form of the payload if it is in the index, otherwise it gets serialized.
+     */
+    public protobuf.PersistableNetworkPayload toProtoMessage(PersistableNetworkPayload payload) {
+        P2PDataStorage.ByteArray hash = new P2PDataStorage.ByteArray(payload.getHash());
+        for (ServiceEntry entry : serviceEntries) {
+            if (!entry.service.canHandle(payload)) {
+                continue;
+            }
+            if (entry.liveBucket.contains(hash)) {
+                return getProtoMessage(hash, payload);
+            }
+            for (Bucket bucket : entry.historicalBuckets.values()) {
+                if (bucket.contains(hash)) {
+                    // We don't want to keep the data of the mapped stores on the heap
+                    return bucket.mapped ? payload.toProtoMessage() : getProtoMessage(hash, payload);
+                }
+            }
+        }
+        return payload.toProtoMessage();
+    }
+
+    private protobuf.PersistableNetworkPayload getProtoMessage(P2PDataStorage.ByteArray hash,
+                                                               PersistableNetworkPayload payload) {
+        try {
+            return protoMessageByHash.get(hash, payload::toProtoMessage);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public int getSize() {
+        return serviceEntries.stream()
+                .mapToInt(entry -> entry.liveBucket.size() +
+                        entry.historicalBuckets.values().stream().mapToInt(Bucket::size).sum())
+                .sum();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Static classes
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static final class ServiceEntry {
+        private final MapStoreService<? extends PersistableNetworkPayloadStore<? extends PersistableNetworkPayload>, PersistableNetworkPayload> service;
+        private final Bucket liveBucket;
+        private final Map<String, Bucket> historicalBuckets;
+
+        private ServiceEntry(MapStoreService<? extends PersistableNetworkPayloadStore<? extends PersistableNetworkPayload>, PersistableNetworkPayload> service,
+                             Bucket liveBucket,
+                             Map<String, Bucket> historicalBuckets) {
+            this.service = service;
+            this.liveBucket = liveBucket;
+            this.historicalBuckets = historicalBuckets;
+        }
+    }
+
+    public static final class Bucket {
+        @Getter
+        private final String storeName;
+        // Null for the live data bucket
+        @Getter
+        @Nullable
+        private final String version;
+        private final Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> payloadsByHash;
+        // True if the bucket is backed by a MappedPayloadStore
+        private final boolean mapped;
+
+        private Bucket(String storeName,
+                       @Nullable String version,
+                       Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map) {
+            this.storeName = storeName;
+            this.version = version;
+            mapped = map instanceof MappedPayloadStore.MapView;
+            if (mapped) {
+                // The mapped store is immutable and sorted by hash
+                payloadsByHash = map;
+            } else {
+                payloadsByHash = new ConcurrentSkipListMap<>(HASH_COMPARATOR);
+                map.forEach(this::add);
+            }
+        }
+
+        // Returns an unmodifiable map sorted by hash
+        public Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> getPayloadsByHash() {
+            return mapped ? payloadsByHash : Collections.unmodifiableMap(payloadsByHash);
+        }
+
+        public int size() {
+            return payloadsByHash.size();
+        }
+
+        private boolean contains(P2PDataStorage.ByteArray hash) {
+            return payloadsByHash.containsKey(hash);
+        }
+
+        private void add(P2PDataStorage.ByteArray hash, PersistableNetworkPayload payload) {
+            payloadsByHash.putIfAbsent(hash, payload);
+        }
+
+        @Override
+        public String toString() {
+            return "Bucket{" +
+                    "\n     storeName=" + storeName +
+                    ",\n     version=" + version +
+                    ",\n     size=" + size() +
+                    "\n}";
+        }
+    }
+}
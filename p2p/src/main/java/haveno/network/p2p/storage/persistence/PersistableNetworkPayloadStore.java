@@ -17,24 +17,30 @@
 
 package haveno.network.p2p.storage.persistence;
 
-import haveno.common.proto.persistable.PersistableEnvelope;
+import com.google.protobuf.Message;
+import haveno.common.proto.persistable.JournaledPersistableEnvelope;
 import haveno.network.p2p.storage.P2PDataStorage;
 import haveno.network.p2p.storage.payload.PersistableNetworkPayload;
-import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
 
 /**
  * Store for PersistableNetworkPayload map entries with it's data hash as key.
+ * The map must only be changed by the methods of the store, so the changes get reported to the journal.
  */
 @Slf4j
-public abstract class PersistableNetworkPayloadStore<T extends PersistableNetworkPayload> implements PersistableEnvelope {
-    @Getter
+public abstract class PersistableNetworkPayloadStore<T extends PersistableNetworkPayload> implements JournaledPersistableEnvelope {
     protected final Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map = new ConcurrentHashMap<>();
+    private final Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> unmodifiableMap = Collections.unmodifiableMap(map);
+    @Nullable
+    private volatile EntryListener entryListener;
 
     protected PersistableNetworkPayloadStore() {
     }
@@ -43,7 +49,82 @@ public abstract class PersistableNetworkPayloadStore<T extends PersistableNetwor
         collection.forEach(item -> map.put(new P2PDataStorage.ByteArray(item.getHash()), item));
     }
 
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> getMap() {
+        return unmodifiableMap;
+    }
+
     public boolean containsKey(P2PDataStorage.ByteArray hash) {
         return map.containsKey(hash);
     }
+
+    @Nullable
+    public PersistableNetworkPayload put(P2PDataStorage.ByteArray hash, PersistableNetworkPayload payload) {
+        PersistableNetworkPayload previous = map.put(hash, payload);
+        if (previous != payload) {
+            onRemoved(previous);
+            onAdded(payload);
+        }
+        return previous;
+    }
+
+    @Nullable
+    public PersistableNetworkPayload putIfAbsent(P2PDataStorage.ByteArray hash, PersistableNetworkPayload payload) {
+        PersistableNetworkPayload previous = map.putIfAbsent(hash, payload);
+        if (previous == null) {
+            onAdded(payload);
+        }
+        return previous;
+    }
+
+    @Nullable
+    public PersistableNetworkPayload remove(P2PDataStorage.ByteArray hash) {
+        PersistableNetworkPayload previous = map.remove(hash);
+        onRemoved(previous);
+        return previous;
+    }
+
+    public void removeIf(Predicate<P2PDataStorage.ByteArray> filter) {
+        map.keySet().stream()
+                .filter(filter)
+                .forEach(this::remove);
+    }
+
+    @Override
+    public void setEntryListener(@Nullable EntryListener entryListener) {
+        this.entryListener = entryListener;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Protected
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // The serialized item as it is contained in the repeated items field of the store message
+    protected abstract Message toProtoItem(PersistableNetworkPayload payload);
+
+    protected abstract int getItemsFieldNumber();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void onAdded(PersistableNetworkPayload payload) {
+        EntryListener listener = entryListener;
+        if (listener != null) {
+            listener.onEntryAdded(getItemsFieldNumber(), toProtoItem(payload));
+        }
+    }
+
+    private void onRemoved(@Nullable PersistableNetworkPayload payload) {
+        EntryListener listener = entryListener;
+        if (listener != null && payload != null) {
+            listener.onEntryRemoved(getItemsFieldNumber(), toProtoItem(payload));
+        }
+    }
 }
@@ -17,9 +17,10 @@
 
 package haveno.network.p2p.storage.persistence;
 
-import haveno.common.proto.persistable.PersistableEnvelope;
+import haveno.common.proto.persistable.JournaledPersistableEnvelope;
 import haveno.network.p2p.storage.P2PDataStorage;
 
+import javax.annotation.Nullable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -30,8 +31,10 @@ import java.util.stream.Collectors;
  * in protobuffer the map construct can't be anything, so the straightforward mapping was not possible.
  * Hence this Persistable class.
  */
-public class SequenceNumberMap implements PersistableEnvelope {
+public class SequenceNumberMap implements JournaledPersistableEnvelope {
     private Map<P2PDataStorage.ByteArray, P2PDataStorage.MapValue> map = new ConcurrentHashMap<>();
+    @Nullable
+    private volatile EntryListener entryListener;
 
     public SequenceNumberMap() {
     }
@@ -53,10 +56,7 @@ public class SequenceNumberMap implements PersistableEnvelope {
             return protobuf.PersistableEnvelope.newBuilder()
                     .setSequenceNumberMap(protobuf.SequenceNumberMap.newBuilder()
                             .addAllSequenceNumberEntries(map.entrySet().stream()
-                                    .map(entry -> protobuf.SequenceNumberEntry.newBuilder()
-                                            .setBytes(entry.getKey().toProtoMessage())
-                                            .setMapValue(entry.getValue().toProtoMessage())
-                                            .build())
+                                    .map(entry -> toProtoEntry(entry.getKey(), entry.getValue()))
                                     .collect(Collectors.toList())))
                     .build();
         }
@@ -84,6 +84,15 @@ public class SequenceNumberMap implements PersistableEnvelope {
         synchronized (this.map) {
             this.map = map;
         }
+        EntryListener listener = entryListener;
+        if (listener != null) {
+            listener.onEntriesReplaced();
+        }
+    }
+
+    @Override
+    public void setEntryListener(@Nullable EntryListener entryListener) {
+        this.entryListener = entryListener;
     }
 
     // Delegates
@@ -107,7 +116,29 @@ public class SequenceNumberMap implements PersistableEnvelope {
 
     public void put(P2PDataStorage.ByteArray key, P2PDataStorage.MapValue value) {
         synchronized (map) {
-            map.put(key, value);
+            P2PDataStorage.MapValue previous = map.put(key, value);
+            EntryListener listener = entryListener;
+            if (listener != null) {
+                if (previous != null) {
+                    listener.onEntryRemoved(protobuf.SequenceNumberMap.SEQUENCE_NUMBER_ENTRIES_FIELD_NUMBER,
+                            toProtoEntry(key, previous));
+                }
+                listener.onEntryAdded(protobuf.SequenceNumberMap.SEQUENCE_NUMBER_ENTRIES_FIELD_NUMBER,
+                        toProtoEntry(key, value));
+            }
         }
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static protobuf.SequenceNumberEntry toProtoEntry(P2PDataStorage.ByteArray key,
+                                                             P2PDataStorage.MapValue value) {
+        return protobuf.SequenceNumberEntry.newBuilder()
+                .setBytes(key.toProtoMessage())
+                .setMapValue(value.toProtoMessage())
+                .build();
+    }
 }
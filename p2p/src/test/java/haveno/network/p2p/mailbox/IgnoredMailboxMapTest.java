@@ -0,0 +1,56 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.mailbox;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class IgnoredMailboxMapTest {
+
+    @Test
+    public void put_whileSerializing_isThreadSafe() throws Exception {
+        IgnoredMailboxMap ignoredMailboxMap = new IgnoredMailboxMap();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 3; thread++) {
+                int offset = thread * 10_000;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) ignoredMailboxMap.put("uid" + (offset + i), i);
+                }));
+            }
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 100; i++) ignoredMailboxMap.toProtoMessage();
+            }));
+            for (Future<?> future : futures) future.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(30_000, ignoredMailboxMap.getDataMap().size());
+        assertEquals(30_000, IgnoredMailboxMap.fromProto(ignoredMailboxMap.toProtoMessage().getIgnoredMailboxMap()).getDataMap().size());
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.network;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import haveno.common.app.Version;
+import haveno.common.proto.network.NetworkEnvelope;
+import haveno.network.p2p.BundleOfEnvelopes;
+import haveno.network.p2p.peers.keepalive.messages.Ping;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EnvelopeCompressionTest {
+
+    @BeforeEach
+    public void setUp() {
+        Version.setBaseCryptoNetworkId(1);
+    }
+
+    private static BundleOfEnvelopes buildBundle(int numEnvelopes) {
+        List<NetworkEnvelope> envelopes = new ArrayList<>();
+        for (int i = 0; i < numEnvelopes; i++) {
+            envelopes.add(new Ping(i, 100));
+        }
+        return new BundleOfEnvelopes(envelopes);
+    }
+
+    @Test
+    public void getCompressedFrame_largeEnvelope_roundTrips() throws IOException {
+        BundleOfEnvelopes bundle = buildBundle(5000);
+        NetworkEnvelopeFrame frame = NetworkEnvelopeFrame.of(bundle);
+        NetworkEnvelopeFrame compressedFrame = frame.getCompressedFrame();
+
+        assertTrue(compressedFrame.isCompressed());
+        assertTrue(compressedFrame.getSerializedSize() < frame.getSerializedSize());
+        assertEquals(frame.getSerializedSize(), compressedFrame.getUncompressedSize());
+        assertSame(compressedFrame, frame.getCompressedFrame());
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        compressedFrame.writeTo(outputStream);
+        protobuf.NetworkEnvelope proto = protobuf.NetworkEnvelope.parseDelimitedFrom(
+                new ByteArrayInputStream(outputStream.toByteArray()));
+        assertEquals(protobuf.NetworkEnvelope.MessageCase.COMPRESSED_ENVELOPE, proto.getMessageCase());
+        assertEquals(bundle.getMessageVersion(), proto.getMessageVersion());
+        assertEquals(bundle.toProtoNetworkEnvelope(),
+                EnvelopeCompression.decompress(proto.getCompressedEnvelope(), Connection.getMaxPermittedMessageSize()));
+    }
+
+    @Test
+    public void getCompressedFrame_smallEnvelope_notCompressed() {
+        NetworkEnvelopeFrame frame = NetworkEnvelopeFrame.of(new Ping(1, 2));
+
+        assertSame(frame, frame.getCompressedFrame());
+        assertFalse(frame.isCompressed());
+    }
+
+    @Test
+    public void decompress_sizeAboveMax_throws() {
+        byte[] bytes = buildBundle(5000).toProtoNetworkEnvelope().toByteArray();
+        protobuf.CompressedEnvelope compressedEnvelope = EnvelopeCompression.compress(bytes, 0, bytes.length);
+
+        assertThrows(InvalidProtocolBufferException.class,
+                () -> EnvelopeCompression.decompress(compressedEnvelope, bytes.length - 1));
+    }
+
+    @Test
+    public void decompress_wrongAnnouncedSize_throws() {
+        byte[] bytes = buildBundle(5000).toProtoNetworkEnvelope().toByteArray();
+        protobuf.CompressedEnvelope compressedEnvelope = EnvelopeCompression.compress(bytes, 0, bytes.length).toBuilder()
+                .setUncompressedSize(bytes.length - 10)
+                .build();
+
+        assertThrows(InvalidProtocolBufferException.class,
+                () -> EnvelopeCompression.decompress(compressedEnvelope, Connection.getMaxPermittedMessageSize()));
+    }
+}
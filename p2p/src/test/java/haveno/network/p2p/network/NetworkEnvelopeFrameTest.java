@@ -0,0 +1,71 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.network;
+
+import haveno.common.app.Version;
+import haveno.network.p2p.BundleOfEnvelopes;
+import haveno.network.p2p.peers.keepalive.messages.Ping;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class NetworkEnvelopeFrameTest {
+
+    @BeforeEach
+    public void setUp() {
+        Version.setBaseCryptoNetworkId(1);
+    }
+
+    @Test
+    public void writeTo_writesDelimitedEnvelope() throws IOException {
+        Ping ping = new Ping(1, 2);
+        NetworkEnvelopeFrame frame = NetworkEnvelopeFrame.of(ping);
+        long numWrittenFrames = NetworkEnvelopeFrame.getNumWrittenFrames();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        frame.writeTo(outputStream);
+        frame.writeTo(outputStream);
+
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+        assertEquals(ping.toProtoNetworkEnvelope(), protobuf.NetworkEnvelope.parseDelimitedFrom(inputStream));
+        assertEquals(ping.toProtoNetworkEnvelope(), protobuf.NetworkEnvelope.parseDelimitedFrom(inputStream));
+        assertEquals(0, inputStream.available());
+        assertEquals(ping.toProtoNetworkEnvelope().getSerializedSize(), frame.getSerializedSize());
+        assertEquals(numWrittenFrames + 2, NetworkEnvelopeFrame.getNumWrittenFrames());
+    }
+
+    @Test
+    public void of_bundleWithReusedProtos_equalsBundleProto() {
+        Ping ping1 = new Ping(1, 2);
+        Ping ping2 = new Ping(3, 4);
+        protobuf.NetworkEnvelope cachedProto = ping1.toProtoNetworkEnvelope();
+        BundleOfEnvelopes bundle = new BundleOfEnvelopes(List.of(ping1, ping2));
+
+        protobuf.NetworkEnvelope proto = bundle.toProtoNetworkEnvelope(envelope ->
+                envelope == ping1 ? cachedProto : envelope.toProtoNetworkEnvelope());
+
+        assertEquals(bundle.toProtoNetworkEnvelope(), proto);
+        assertEquals(proto.getSerializedSize(), NetworkEnvelopeFrame.of(bundle, proto).getSerializedSize());
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.network;
+
+import haveno.common.app.Version;
+import haveno.common.proto.network.NetworkEnvelope;
+import haveno.network.p2p.peers.keepalive.messages.Ping;
+import haveno.network.p2p.peers.keepalive.messages.Pong;
+import haveno.network.p2p.storage.messages.RefreshOfferMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OutboundQueueTest {
+    private final List<NetworkEnvelope> writtenEnvelopes = new CopyOnWriteArrayList<>();
+    private final CountDownLatch firstWriteStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseWrites = new CountDownLatch(1);
+
+    @BeforeEach
+    public void setUp() {
+        Version.setBaseCryptoNetworkId(1);
+    }
+
+    // Blocks at the first write so we can fill the queue while the writer is busy
+    private OutboundQueue createBlockedQueue() {
+        return new OutboundQueue("test", frame -> {
+            firstWriteStarted.countDown();
+            releaseWrites.await();
+            writtenEnvelopes.add(frame.getEnvelope());
+        }, 100, 1);
+    }
+
+    private static RefreshOfferMessage buildRefreshOfferMessage(int sequenceNumber) {
+        return new RefreshOfferMessage(new byte[]{(byte) sequenceNumber}, new byte[]{0}, new byte[]{1}, sequenceNumber);
+    }
+
+    @Test
+    public void enqueue_writesHighPriorityFirst() throws Exception {
+        OutboundQueue queue = createBlockedQueue();
+        Ping ping = new Ping(1, 0);
+        RefreshOfferMessage refreshOfferMessage = buildRefreshOfferMessage(1);
+        Pong pong = new Pong(2);
+
+        queue.enqueue(NetworkEnvelopeFrame.of(ping));
+        assertTrue(firstWriteStarted.await(5, TimeUnit.SECONDS));
+        queue.enqueue(NetworkEnvelopeFrame.of(refreshOfferMessage));
+        CompletableFuture<Void> last = queue.enqueue(NetworkEnvelopeFrame.of(pong));
+        assertEquals(2, queue.getQueueDepth());
+        releaseWrites.countDown();
+        last.get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(ping, pong, refreshOfferMessage), writtenEnvelopes);
+    }
+
+    @Test
+    public void enqueue_refreshOfferMessages_coalesced() throws Exception {
+        OutboundQueue queue = createBlockedQueue();
+        Ping ping = new Ping(1, 0);
+        RefreshOfferMessage newer = buildRefreshOfferMessage(3);
+
+        queue.enqueue(NetworkEnvelopeFrame.of(ping));
+        assertTrue(firstWriteStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> first = queue.enqueue(NetworkEnvelopeFrame.of(buildRefreshOfferMessage(2)));
+        CompletableFuture<Void> second = queue.enqueue(NetworkEnvelopeFrame.of(newer));
+        CompletableFuture<Void> third = queue.enqueue(NetworkEnvelopeFrame.of(buildRefreshOfferMessage(1)));
+        releaseWrites.countDown();
+        CompletableFuture.allOf(first, second, third).get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(ping, newer), writtenEnvelopes);
+        assertEquals(2, queue.getNumCoalescedMessages().get());
+    }
+
+    @Test
+    public void close_failsQueuedMessages() throws Exception {
+        OutboundQueue queue = createBlockedQueue();
+        queue.enqueue(NetworkEnvelopeFrame.of(new Ping(1, 0)));
+        assertTrue(firstWriteStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> queued = queue.enqueue(NetworkEnvelopeFrame.of(new Pong(1)));
+
+        queue.close();
+        releaseWrites.countDown();
+
+        assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+        assertTrue(queue.enqueue(NetworkEnvelopeFrame.of(new Pong(2))).isCompletedExceptionally());
+        assertEquals(0, queue.getQueueDepth());
+    }
+
+    @Test
+    public void tokenBucket_waitsForRefill() {
+        TokenBucket tokenBucket = new TokenBucket(2, 100, 0);
+
+        assertEquals(0, tokenBucket.tryAcquire(0));
+        assertEquals(0, tokenBucket.tryAcquire(0));
+        assertEquals(100, tokenBucket.tryAcquire(0));
+        assertEquals(50, tokenBucket.tryAcquire(50));
+        assertEquals(0, tokenBucket.tryAcquire(100));
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.storage;
+
+import haveno.network.p2p.TestUtils;
+import haveno.network.p2p.storage.mocks.ClockFake;
+import haveno.network.p2p.storage.mocks.ExpirableProtectedStoragePayloadStub;
+import haveno.network.p2p.storage.mocks.ProtectedStoragePayloadStub;
+import haveno.network.p2p.storage.payload.ProtectedStorageEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ExpiryIndexTest {
+    private ClockFake clock;
+    private ExpiryIndex expiryIndex;
+    private KeyPair ownerKeys;
+
+    @BeforeEach
+    public void setUp() throws NoSuchAlgorithmException {
+        clock = new ClockFake();
+        expiryIndex = new ExpiryIndex();
+        ownerKeys = TestUtils.generateKeyPair();
+    }
+
+    private ProtectedStorageEntry buildEntry(long ttl) {
+        return new ProtectedStorageEntry(new ExpirableProtectedStoragePayloadStub(ownerKeys.getPublic(), ttl),
+                ownerKeys.getPublic(), 1, new byte[]{0}, clock);
+    }
+
+    @Test
+    public void getExpired_returnsOnlyExpiredEntries() {
+        P2PDataStorage.ByteArray shortTtl = new P2PDataStorage.ByteArray(new byte[]{1});
+        P2PDataStorage.ByteArray longTtl = new P2PDataStorage.ByteArray(new byte[]{2});
+        expiryIndex.put(shortTtl, buildEntry(1000));
+        expiryIndex.put(longTtl, buildEntry(5000));
+
+        assertTrue(expiryIndex.getExpired(clock.millis() + 1000).isEmpty());
+        assertEquals(List.of(shortTtl), expiryIndex.getExpired(clock.millis() + 1001));
+        assertEquals(1, expiryIndex.getNumExpiredEntriesAtLastCheck());
+        assertEquals(2, expiryIndex.getNumExpiryChecks().get());
+    }
+
+    @Test
+    public void put_nonExpirablePayload_notIndexed() {
+        ProtectedStorageEntry entry = new ProtectedStorageEntry(new ProtectedStoragePayloadStub(ownerKeys.getPublic()),
+                ownerKeys.getPublic(), 1, new byte[]{0}, clock);
+        expiryIndex.put(new P2PDataStorage.ByteArray(new byte[]{1}), entry);
+
+        assertEquals(0, expiryIndex.size());
+    }
+
+    @Test
+    public void put_afterBackDate_updatesExpiryTime() {
+        P2PDataStorage.ByteArray hash = new P2PDataStorage.ByteArray(new byte[]{1});
+        ProtectedStorageEntry entry = buildEntry(1000);
+        expiryIndex.put(hash, entry);
+        entry.backDate();
+        expiryIndex.put(hash, entry);
+
+        assertEquals(List.of(hash), expiryIndex.getExpired(clock.millis() + 501));
+        assertEquals(1, expiryIndex.size());
+    }
+
+    @Test
+    public void remove_removesFromAllIndexes() {
+        P2PDataStorage.ByteArray hash = new P2PDataStorage.ByteArray(new byte[]{1});
+        expiryIndex.put(hash, buildEntry(1000));
+        assertEquals(Set.of(hash), expiryIndex.getHashesByOwner(TestState.getTestNodeAddress()));
+
+        expiryIndex.remove(hash);
+
+        assertTrue(expiryIndex.getHashesByOwner(TestState.getTestNodeAddress()).isEmpty());
+        assertTrue(expiryIndex.getExpired(clock.millis() + 2000).isEmpty());
+    }
+}
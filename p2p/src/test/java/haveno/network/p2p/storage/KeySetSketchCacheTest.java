@@ -0,0 +1,102 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.storage;
+
+import haveno.common.crypto.Hash;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class KeySetSketchCacheTest {
+    private final KeySetSketchCache cache = new KeySetSketchCache();
+    private final Set<P2PDataStorage.ByteArray> ourKeys = new HashSet<>();
+    private final AtomicInteger numBuilds = new AtomicInteger();
+
+    private static P2PDataStorage.ByteArray getKey(int i) {
+        return new P2PDataStorage.ByteArray(Hash.getSha256Hash(i));
+    }
+
+    private Collection<Collection<P2PDataStorage.ByteArray>> getOurKeys(String version) {
+        numBuilds.incrementAndGet();
+        return List.of(new ArrayList<>(ourKeys));
+    }
+
+    private static KeySetSketch buildSketch(Collection<P2PDataStorage.ByteArray> keys) {
+        KeySetSketch sketch = KeySetSketch.forExpectedDifference(100);
+        sketch.addAll(keys);
+        return sketch;
+    }
+
+    @Test
+    public void reconcile_updatesCachedSketchIncrementally() {
+        for (int i = 0; i < 1000; i++) ourKeys.add(getKey(i));
+        KeySetSketch requesters = buildSketch(ourKeys);
+        assertTrue(cache.reconcile(requesters, "1.0.0", this::getOurKeys).get().getOnlyInThis().isEmpty());
+
+        // added and removed keys are applied to the cached sketch
+        cache.onAdded(getKey(-1));
+        ourKeys.add(getKey(-1));
+        cache.onRemoved(getKey(0));
+        ourKeys.remove(getKey(0));
+        Optional<KeySetSketch.Difference> difference = cache.reconcile(requesters, "1.0.0", this::getOurKeys);
+
+        assertEquals(Set.of(getKey(-1)), difference.get().getOnlyInThis());
+        assertEquals(Set.of(getKey(0)), difference.get().getOnlyInOther());
+        assertEquals(1, numBuilds.get());
+    }
+
+    @Test
+    public void reconcile_cachesSketchPerVersion() {
+        KeySetSketch requesters = buildSketch(List.of());
+        cache.reconcile(requesters, "1.0.0", this::getOurKeys);
+        cache.reconcile(requesters, "1.0.1", this::getOurKeys);
+        cache.reconcile(requesters, "1.0.1", this::getOurKeys);
+
+        assertEquals(2, numBuilds.get());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void reconcile_decodeFailure_rebuildsSketch() {
+        KeySetSketch requesters = buildSketch(List.of());
+        for (int i = 0; i < requesters.getCellCount() * 4; i++) ourKeys.add(getKey(i));
+
+        assertTrue(cache.reconcile(requesters, null, this::getOurKeys).isEmpty());
+        assertEquals(0, cache.size());
+        cache.reconcile(requesters, null, this::getOurKeys);
+        assertEquals(2, numBuilds.get());
+    }
+
+    @Test
+    public void forExpectedDifference_usesFewSketchSizes() {
+        Set<Integer> cellCounts = new HashSet<>();
+        for (int expectedDifference = 0; expectedDifference < 20_000; expectedDifference += 7) {
+            cellCounts.add(KeySetSketch.forExpectedDifference(expectedDifference).getCellCount());
+        }
+        assertTrue(cellCounts.size() <= 8, "cellCounts=" + cellCounts);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.storage;
+
+import haveno.common.crypto.Hash;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class KeySetSketchTest {
+
+    private static P2PDataStorage.ByteArray get32ByteKey(int i) {
+        return new P2PDataStorage.ByteArray(Hash.getSha256Hash(i));
+    }
+
+    private static P2PDataStorage.ByteArray get20ByteKey(int i) {
+        return new P2PDataStorage.ByteArray(Hash.getSha256Ripemd160hash(Hash.getSha256Hash(i)));
+    }
+
+    @Test
+    public void decode_smallDifference_returnsBothSides() {
+        Set<P2PDataStorage.ByteArray> shared = new HashSet<>();
+        for (int i = 0; i < 5000; i++) {
+            shared.add(i % 2 == 0 ? get32ByteKey(i) : get20ByteKey(i));
+        }
+        Set<P2PDataStorage.ByteArray> onlyLocal = Set.of(get32ByteKey(-1), get20ByteKey(-2), get32ByteKey(-3));
+        Set<P2PDataStorage.ByteArray> onlyRemote = Set.of(get20ByteKey(-4), get32ByteKey(-5));
+
+        KeySetSketch remote = KeySetSketch.forExpectedDifference(100);
+        remote.addAll(shared);
+        remote.addAll(onlyRemote);
+
+        KeySetSketch local = KeySetSketch.withSameSize(remote);
+        local.addAll(shared);
+        local.addAll(onlyLocal);
+
+        Optional<KeySetSketch.Difference> difference = local.subtract(remote).decode();
+        assertTrue(difference.isPresent());
+        assertEquals(onlyLocal, difference.get().getOnlyInThis());
+        assertEquals(onlyRemote, difference.get().getOnlyInOther());
+    }
+
+    @Test
+    public void decode_differenceTooLarge_returnsEmpty() {
+        KeySetSketch remote = KeySetSketch.forExpectedDifference(0);
+        KeySetSketch local = KeySetSketch.withSameSize(remote);
+        for (int i = 0; i < remote.getCellCount() * 4; i++) {
+            local.add(get32ByteKey(i).bytes);
+        }
+
+        assertTrue(local.subtract(remote).decode().isEmpty());
+    }
+
+    @Test
+    public void protoRoundTrip() {
+        KeySetSketch sketch = KeySetSketch.forExpectedDifference(10);
+        sketch.add(get32ByteKey(1).bytes);
+        sketch.add(get20ByteKey(2).bytes);
+
+        assertEquals(sketch, KeySetSketch.fromProto(sketch.toProtoMessage()));
+    }
+
+    @Test
+    public void fromProto_invalidCellCount_throws() {
+        protobuf.KeySetSketch proto = protobuf.KeySetSketch.newBuilder()
+                .addCounts(0)
+                .addCheckSums(0)
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () -> KeySetSketch.fromProto(proto));
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.storage;
+
+import com.google.protobuf.ByteString;
+import haveno.common.app.Capabilities;
+import haveno.common.proto.ProtoResolver;
+import haveno.network.p2p.storage.payload.PersistableNetworkPayload;
+import haveno.network.p2p.storage.persistence.MappedPayloadStore;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class P2PDataStorageFilterKnownHashesTest {
+
+    private static class PayloadStub implements PersistableNetworkPayload {
+        private final byte[] hash;
+
+        private PayloadStub(byte[] hash) {
+            this.hash = hash;
+        }
+
+        @Override
+        public protobuf.PersistableNetworkPayload toProtoMessage() {
+            return protobuf.PersistableNetworkPayload.newBuilder()
+                    .setAccountAgeWitness(protobuf.AccountAgeWitness.newBuilder().setHash(ByteString.copyFrom(hash)))
+                    .build();
+        }
+
+        @Override
+        public byte[] getHash() {
+            return hash;
+        }
+
+        @Override
+        public boolean verifyHashSize() {
+            return true;
+        }
+    }
+
+    private static P2PDataStorage.ByteArray hash(int value) {
+        return new P2PDataStorage.ByteArray(new byte[]{(byte) value, 0});
+    }
+
+    @Test
+    public void filterKnownHashes_mappedStore_deserializesOnlyUnknownItems() throws IOException {
+        File file = Files.createTempFile("P2PDataStorageFilterKnownHashesTest", null).toFile();
+        file.deleteOnExit();
+        List<PersistableNetworkPayload> payloads = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            payloads.add(new PayloadStub(hash(i).bytes));
+        }
+        MappedPayloadStore.write(payloads, file);
+        ProtoResolver protoResolver = mock(ProtoResolver.class);
+        when(protoResolver.fromProto(any(protobuf.PersistableNetworkPayload.class))).thenAnswer(invocation -> {
+            protobuf.PersistableNetworkPayload proto = invocation.getArgument(0);
+            return new PayloadStub(proto.getAccountAgeWitness().getHash().toByteArray());
+        });
+        MappedPayloadStore store = MappedPayloadStore.open(file, protoResolver);
+        Set<P2PDataStorage.ByteArray> unknownHashes = Set.of(hash(7), hash(42));
+
+        Set<PersistableNetworkPayload> result = P2PDataStorage.filterKnownHashes(
+                List.of(store.asMap()),
+                Function.identity(),
+                hash -> !unknownHashes.contains(hash),
+                new Capabilities(),
+                1000,
+                Long.MAX_VALUE,
+                new AtomicBoolean(),
+                true);
+
+        assertEquals(2, result.size());
+        verify(protoResolver, times(2)).fromProto(any(protobuf.PersistableNetworkPayload.class));
+    }
+}
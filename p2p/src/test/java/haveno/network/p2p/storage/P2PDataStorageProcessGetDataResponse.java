@@ -31,12 +31,16 @@ import org.junit.jupiter.api.Test;
 
 import java.security.KeyPair;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class P2PDataStorageProcessGetDataResponse {
@@ -237,6 +241,18 @@ public class P2PDataStorageProcessGetDataResponse {
                 beforeState, protectedStorageEntry, false, false, false, false);
     }
 
+    // TESTCASE: GetDataResponse w/ existing PSE with the same sequence number is not verified again
+    @Test
+    public void processGetDataResponse_duplicatePSENotVerified() throws NoSuchAlgorithmException {
+        ProtectedStorageEntry protectedStorageEntry = getProtectedStorageEntryForAdd();
+        this.testState.mockedStorage.addProtectedStorageEntry(protectedStorageEntry, this.peerNodeAddress, null);
+
+        GetDataResponse getDataResponse = buildGetDataResponse(protectedStorageEntry);
+        this.testState.mockedStorage.processGetDataResponse(getDataResponse, this.peerNodeAddress);
+
+        verify(protectedStorageEntry, times(1)).isValidForAddOperation();
+    }
+
     // TESTCASE: GetDataResponse w/ missing PSE is added with no broadcast or listener signal
     // XXXBUGXXX: We signal listeners for all ProtectedStorageEntrys
     @Test
@@ -256,4 +272,19 @@ public class P2PDataStorageProcessGetDataResponse {
         this.testState.assertProtectedStorageAdd(
                 beforeState, protectedStorageEntry, true, true, false, true);
     }
+
+    // TESTCASE: GetDataResponse w/ multiple missing PSEs signals the listeners once with all added entries
+    @Test
+    public void processGetDataResponse_multiplePSEsSignalListenersOnce() throws NoSuchAlgorithmException {
+        ProtectedStorageEntry protectedStorageEntry1 = getProtectedStorageEntryForAdd();
+        ProtectedStorageEntry protectedStorageEntry2 = getProtectedStorageEntryForAdd();
+        GetDataResponse getDataResponse = buildGetDataResponse(
+                Arrays.asList(protectedStorageEntry1, protectedStorageEntry2), Collections.emptyList());
+
+        this.testState.mockedStorage.processGetDataResponse(getDataResponse, this.peerNodeAddress);
+
+        verify(this.testState.hashMapChangedListener, times(1)).onAdded(argThat(entries -> entries.size() == 2 &&
+                entries.contains(protectedStorageEntry1) && entries.contains(protectedStorageEntry2)));
+        verify(this.testState.hashMapChangedListener, times(1)).onAdded(any());
+    }
 }
@@ -75,7 +75,7 @@ public class TestState {
     final Broadcaster mockBroadcaster;
 
     final AppendOnlyDataStoreListener appendOnlyDataStoreListener;
-    private final HashMapChangedListener hashMapChangedListener;
+    final HashMapChangedListener hashMapChangedListener;
     private final PersistenceManager<SequenceNumberMap> mockSeqNrPersistenceManager;
     private final ProtectedDataStoreService protectedDataStoreService;
     final ClockFake clockFake;
@@ -0,0 +1,105 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.storage.payload;
+
+import haveno.common.app.Version;
+import haveno.common.crypto.CryptoException;
+import haveno.common.crypto.Hash;
+import haveno.common.crypto.Sig;
+import haveno.common.proto.network.HashMemoizingPayload;
+import haveno.network.p2p.TestUtils;
+import haveno.network.p2p.storage.P2PDataStorage;
+import haveno.network.p2p.storage.mocks.ProtectedStoragePayloadStub;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.time.Clock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SignatureVerificationCacheTest {
+    private static class HashMemoizingPayloadStub extends ProtectedStoragePayloadStub implements HashMemoizingPayload {
+        private final byte[] sha256Hash;
+
+        HashMemoizingPayloadStub(PublicKey ownerPubKey) {
+            super(ownerPubKey);
+            sha256Hash = Hash.getSha256Hash(messageMock.toByteArray());
+        }
+
+        @Override
+        public byte[] getSha256Hash() {
+            return sha256Hash;
+        }
+    }
+
+    private KeyPair ownerKeys;
+
+    @BeforeEach
+    public void setUp() throws NoSuchAlgorithmException {
+        Version.setBaseCryptoNetworkId(1);
+        SignatureVerificationCache.clear();
+        ownerKeys = TestUtils.generateKeyPair();
+    }
+
+    private ProtectedStorageEntry buildEntry(ProtectedStoragePayload payload, int sequenceNumber) throws CryptoException {
+        byte[] hashOfDataAndSeqNr = P2PDataStorage.get32ByteHash(new P2PDataStorage.DataAndSeqNrPair(payload, sequenceNumber));
+        byte[] signature = Sig.sign(ownerKeys.getPrivate(), hashOfDataAndSeqNr);
+        return new ProtectedStorageEntry(payload, ownerKeys.getPublic(), sequenceNumber, signature, Clock.systemDefaultZone());
+    }
+
+    // Same data as if the entry was received from another peer
+    private static ProtectedStorageEntry copy(ProtectedStorageEntry entry, int sequenceNumber) {
+        return new ProtectedStorageEntry(entry.getProtectedStoragePayload(), entry.getOwnerPubKey(), sequenceNumber,
+                entry.getSignature(), Clock.systemDefaultZone());
+    }
+
+    @Test
+    public void isSignatureValid_sameEntryFromOtherPeer_cacheHit() throws CryptoException {
+        ProtectedStorageEntry entry = buildEntry(new HashMemoizingPayloadStub(ownerKeys.getPublic()), 1);
+
+        assertTrue(entry.isSignatureValid());
+        long hitCount = SignatureVerificationCache.getStats().hitCount();
+        assertTrue(copy(entry, 1).isSignatureValid());
+
+        assertEquals(hitCount + 1, SignatureVerificationCache.getStats().hitCount());
+    }
+
+    @Test
+    public void isSignatureValid_otherSequenceNumber_notCached() throws CryptoException {
+        ProtectedStorageEntry entry = buildEntry(new HashMemoizingPayloadStub(ownerKeys.getPublic()), 1);
+
+        assertTrue(entry.isSignatureValid());
+        assertFalse(copy(entry, 2).isSignatureValid());
+        assertEquals(1, SignatureVerificationCache.size());
+    }
+
+    @Test
+    public void isSignatureValid_payloadWithoutMemoizedHash_notCached() throws CryptoException {
+        ProtectedStorageEntry entry = buildEntry(new ProtectedStoragePayloadStub(ownerKeys.getPublic()), 1);
+
+        assertNull(entry.getSignatureVerificationKey());
+        assertTrue(entry.isSignatureValid());
+        assertEquals(0, SignatureVerificationCache.size());
+    }
+}
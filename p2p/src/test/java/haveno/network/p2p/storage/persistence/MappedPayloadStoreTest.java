@@ -0,0 +1,168 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.storage.persistence;
+
+import com.google.protobuf.ByteString;
+import haveno.common.proto.ProtoResolver;
+import haveno.network.p2p.storage.P2PDataStorage;
+import haveno.network.p2p.storage.payload.PersistableNetworkPayload;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MappedPayloadStoreTest {
+    private File file;
+    private ProtoResolver protoResolver;
+
+    private static class PayloadStub implements PersistableNetworkPayload {
+        private final byte[] hash;
+
+        private PayloadStub(byte[] hash) {
+            this.hash = hash;
+        }
+
+        @Override
+        public protobuf.PersistableNetworkPayload toProtoMessage() {
+            return protobuf.PersistableNetworkPayload.newBuilder()
+                    .setAccountAgeWitness(protobuf.AccountAgeWitness.newBuilder().setHash(ByteString.copyFrom(hash)))
+                    .build();
+        }
+
+        @Override
+        public byte[] getHash() {
+            return hash;
+        }
+
+        @Override
+        public boolean verifyHashSize() {
+            return true;
+        }
+    }
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        file = Files.createTempFile("MappedPayloadStoreTest", null).toFile();
+        file.deleteOnExit();
+        protoResolver = mock(ProtoResolver.class);
+        when(protoResolver.fromProto(any(protobuf.PersistableNetworkPayload.class))).thenAnswer(invocation -> {
+            protobuf.PersistableNetworkPayload proto = invocation.getArgument(0);
+            return new PayloadStub(proto.getAccountAgeWitness().getHash().toByteArray());
+        });
+    }
+
+    private static P2PDataStorage.ByteArray hash(int value) {
+        return new P2PDataStorage.ByteArray(new byte[]{(byte) value, 0});
+    }
+
+    private static PayloadStub payload(int value) {
+        return new PayloadStub(hash(value).bytes);
+    }
+
+    @Test
+    public void write_open_lookupByHash() throws IOException {
+        MappedPayloadStore.write(List.of(payload(3), payload(1), payload(2)), file);
+        MappedPayloadStore store = MappedPayloadStore.open(file, protoResolver);
+
+        assertEquals(3, store.size());
+        assertTrue(store.containsKey(hash(2)));
+        assertFalse(store.containsKey(hash(4)));
+        assertArrayEquals(hash(3).bytes, store.get(hash(3)).getHash());
+        assertNull(store.get(hash(4)));
+        // Hashes of another length are never contained
+        assertFalse(store.containsKey(new P2PDataStorage.ByteArray(new byte[]{1})));
+    }
+
+    @Test
+    public void write_duplicates_writtenOnce() throws IOException {
+        MappedPayloadStore.write(List.of(payload(1), payload(1)), file);
+
+        assertEquals(1, MappedPayloadStore.open(file, protoResolver).size());
+    }
+
+    @Test
+    public void asMap_keySet_sortedByUnsignedHash_withoutDeserialization() throws IOException {
+        MappedPayloadStore.write(List.of(payload(0xff), payload(2), payload(0x80)), file);
+        Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map = MappedPayloadStore.open(file, protoResolver).asMap();
+
+        List<P2PDataStorage.ByteArray> keys = new ArrayList<>(map.keySet());
+
+        assertEquals(List.of(hash(2), hash(0x80), hash(0xff)), keys);
+        assertTrue(map.keySet().contains(hash(0x80)));
+        verify(protoResolver, never()).fromProto(any(protobuf.PersistableNetworkPayload.class));
+    }
+
+    @Test
+    public void asMap_entrySet_deserializesOnlyAccessedValues() throws IOException {
+        MappedPayloadStore.write(List.of(payload(1), payload(2), payload(3)), file);
+        Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map = MappedPayloadStore.open(file, protoResolver).asMap();
+
+        List<P2PDataStorage.ByteArray> keys = new ArrayList<>();
+        for (Map.Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload> entry : map.entrySet()) {
+            keys.add(entry.getKey());
+            if (entry.getKey().equals(hash(2))) {
+                assertArrayEquals(hash(2).bytes, entry.getValue().getHash());
+            }
+        }
+
+        assertEquals(List.of(hash(1), hash(2), hash(3)), keys);
+        verify(protoResolver, times(1)).fromProto(any(protobuf.PersistableNetworkPayload.class));
+    }
+
+    @Test
+    public void asMap_isUnmodifiable() throws IOException {
+        MappedPayloadStore.write(List.of(payload(1)), file);
+        Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map = MappedPayloadStore.open(file, protoResolver).asMap();
+
+        assertThrows(UnsupportedOperationException.class, () -> map.put(hash(2), payload(2)));
+        assertEquals(1, map.entrySet().size());
+        assertArrayEquals(hash(1).bytes, map.values().iterator().next().getHash());
+    }
+
+    @Test
+    public void open_emptyStore() throws IOException {
+        MappedPayloadStore.write(List.of(), file);
+
+        assertEquals(0, MappedPayloadStore.open(file, protoResolver).size());
+    }
+
+    @Test
+    public void open_invalidFile_throws() throws IOException {
+        Files.write(file.toPath(), new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+
+        assertThrows(IOException.class, () -> MappedPayloadStore.open(file, protoResolver));
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.storage.persistence;
+
+import haveno.network.p2p.storage.P2PDataStorage;
+import haveno.network.p2p.storage.mocks.AppendOnlyDataStoreServiceFake;
+import haveno.network.p2p.storage.mocks.PersistableNetworkPayloadStub;
+import haveno.network.p2p.storage.payload.PersistableNetworkPayload;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class PersistableNetworkPayloadIndexTest {
+    private AppendOnlyDataStoreServiceFake appendOnlyDataStoreService;
+    private PersistableNetworkPayloadIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        appendOnlyDataStoreService = new AppendOnlyDataStoreServiceFake();
+        index = new PersistableNetworkPayloadIndex();
+    }
+
+    private PersistableNetworkPayload add(byte[] hash) {
+        PersistableNetworkPayload payload = new PersistableNetworkPayloadStub(hash);
+        P2PDataStorage.ByteArray hashAsByteArray = new P2PDataStorage.ByteArray(hash);
+        appendOnlyDataStoreService.put(hashAsByteArray, payload);
+        index.onAdded(hashAsByteArray, payload);
+        return payload;
+    }
+
+    @Test
+    public void onAdded_notBuilt_ignored() {
+        add(new byte[]{1});
+
+        assertFalse(index.isBuilt());
+        assertEquals(0, index.getSize());
+    }
+
+    @Test
+    public void build_containsStoreData_sortedByHash() {
+        add(new byte[]{3});
+        add(new byte[]{(byte) 0xff});
+        add(new byte[]{1});
+        index.build(appendOnlyDataStoreService);
+        add(new byte[]{2});
+
+        List<PersistableNetworkPayloadIndex.Bucket> buckets = index.getBucketsSinceVersion(null);
+        assertEquals(1, buckets.size());
+        List<Byte> hashes = new ArrayList<>();
+        buckets.get(0).getPayloadsByHash().keySet().forEach(hash -> hashes.add(hash.bytes[0]));
+        assertEquals(List.of((byte) 1, (byte) 2, (byte) 3, (byte) 0xff), hashes);
+    }
+
+    @Test
+    public void toProtoMessage_isCached() {
+        index.build(appendOnlyDataStoreService);
+        PersistableNetworkPayload payload = add(new byte[]{1});
+
+        assertSame(index.toProtoMessage(payload), index.toProtoMessage(payload));
+    }
+}